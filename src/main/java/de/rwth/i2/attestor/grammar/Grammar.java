@@ -55,6 +55,19 @@ public class Grammar {
         return Collections.unmodifiableSet(rules.keySet());
     }
 
+    /**
+     * Provides the rules that are considered when abstracting the given heap configuration.
+     * Since all rules of this grammar are known upfront, this grammar itself is returned.
+     *
+     * @param heapConfiguration The heap configuration that should be abstracted.
+     * @return A grammar containing at least all rules whose right-hand side might be embedded in
+     *         heapConfiguration.
+     */
+    public Grammar getRulesApplicableTo(HeapConfiguration heapConfiguration) {
+
+        return this;
+    }
+
     public Set<CollapsedHeapConfiguration> getCollapsedRightHandSidesFor(Nonterminal nonterminal) {
 
         if(!collapsedRules.containsKey(nonterminal)) {
@@ -29,11 +29,6 @@ public class GrammarBuilder {
         for(Map.Entry<Nonterminal, Set<HeapConfiguration>> entry : rules.entrySet()) {
 
             Nonterminal nonterminal = entry.getKey();
-            boolean[] reductionTentacles = new boolean[nonterminal.getRank()];
-            for(int i=0; i < nonterminal.getRank(); i++) {
-                reductionTentacles[i] = nonterminal.isReductionTentacle(i);
-            }
-
             Set<CollapsedHeapConfiguration> rhs;
             if(collapsedRules.containsKey(nonterminal)) {
                 rhs = collapsedRules.get(nonterminal);
@@ -43,16 +38,35 @@ public class GrammarBuilder {
             }
 
             for(HeapConfiguration hc : entry.getValue()) {
-                ExternalNodesPartitioner partitioner = new ExternalNodesPartitioner(hc, reductionTentacles);
-                for(TIntArrayList extIndexPartition : partitioner.getPartitions()) {
-                    HeapConfiguration collapsedHc = hc.clone().builder().mergeExternals(extIndexPartition).build();
-                    CollapsedHeapConfiguration collapsed = new CollapsedHeapConfiguration(hc, collapsedHc, extIndexPartition);
-                    rhs.add(collapsed);
-                }
+                rhs.addAll(collapse(nonterminal, hc));
             }
         }
     }
 
+    /**
+     * Computes all collapsed versions of a single rule, i.e. all versions in which external nodes that
+     * are attached to reduction tentacles of the left-hand side are merged.
+     *
+     * @param nonterminal The left-hand side of the rule.
+     * @param hc          The right-hand side of the rule.
+     * @return All collapsed right-hand sides.
+     */
+    static List<CollapsedHeapConfiguration> collapse(Nonterminal nonterminal, HeapConfiguration hc) {
+
+        boolean[] reductionTentacles = new boolean[nonterminal.getRank()];
+        for(int i=0; i < nonterminal.getRank(); i++) {
+            reductionTentacles[i] = nonterminal.isReductionTentacle(i);
+        }
+
+        List<CollapsedHeapConfiguration> result = new ArrayList<>();
+        ExternalNodesPartitioner partitioner = new ExternalNodesPartitioner(hc, reductionTentacles);
+        for(TIntArrayList extIndexPartition : partitioner.getPartitions()) {
+            HeapConfiguration collapsedHc = hc.clone().builder().mergeExternals(extIndexPartition).build();
+            result.add(new CollapsedHeapConfiguration(hc, collapsedHc, extIndexPartition));
+        }
+        return result;
+    }
+
     public GrammarBuilder addRule(Nonterminal lhs, HeapConfiguration rhs) {
 
         if (!rules.containsKey(lhs)) {
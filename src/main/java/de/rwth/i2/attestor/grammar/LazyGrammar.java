@@ -0,0 +1,139 @@
+package de.rwth.i2.attestor.grammar;
+
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import gnu.trove.iterator.TIntIterator;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A grammar whose rules are not known upfront but computed on demand by a {@link RuleSource}.
+ * <br>
+ * All right-hand sides of a left-hand side are computed when they are requested for the first time,
+ * e.g. during materialization, and are memoized afterwards. Consequently, {@link #getAllLeftHandSides()}
+ * only yields the left-hand sides whose rules have been requested so far.
+ * <br>
+ * Abstraction works against an incrementally grown set of rules instead: A rule can only be applied to a heap
+ * configuration if every nonterminal of its right-hand side also labels an edge of the heap configuration.
+ * It thus suffices to consider rules whose right-hand sides only contain nonterminals that have been encountered
+ * in some heap configuration so far.
+ */
+public class LazyGrammar extends Grammar {
+
+    /**
+     * Computes the rules of a {@link LazyGrammar}.
+     */
+    public interface RuleSource {
+
+        /**
+         * @return All rules whose right-hand sides contain no nonterminal edges.
+         */
+        Map<Nonterminal, ? extends Collection<HeapConfiguration>> computeTerminalRules();
+
+        /**
+         * @param lhs A left-hand side.
+         * @return All right-hand sides of rules with the given left-hand side.
+         */
+        Collection<HeapConfiguration> computeRightHandSidesFor(Nonterminal lhs);
+
+        /**
+         * @param nonterminal A newly encountered nonterminal.
+         * @param encountered All previously encountered nonterminals.
+         * @return All rules whose right-hand sides contain at least one nonterminal edge labeled with the given
+         *         nonterminal and whose remaining nonterminal edges are labeled with previously encountered
+         *         nonterminals.
+         */
+        Map<Nonterminal, ? extends Collection<HeapConfiguration>> computeRulesUsing(Nonterminal nonterminal,
+                                                                                  Set<Nonterminal> encountered);
+    }
+
+    private final RuleSource ruleSource;
+    private final boolean ruleCollapsingEnabled;
+
+    private final Set<Nonterminal> encounteredNonterminals = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The rules over all encountered nonterminals. Since heap configurations may be abstracted concurrently,
+     * this grammar is replaced whenever new rules are found instead of being modified.
+     */
+    private volatile Grammar applicableRules;
+
+    public LazyGrammar(RuleSource ruleSource, boolean ruleCollapsingEnabled) {
+
+        super(new LinkedHashMap<>(), Collections.emptyMap());
+        this.ruleSource = ruleSource;
+        this.ruleCollapsingEnabled = ruleCollapsingEnabled;
+        this.applicableRules = new Grammar(new LinkedHashMap<>(), new LinkedHashMap<>());
+        addApplicableRules(ruleSource.computeTerminalRules());
+    }
+
+    @Override
+    public synchronized Set<HeapConfiguration> getRightHandSidesFor(Nonterminal nonterminal) {
+
+        if (!rules.containsKey(nonterminal)) {
+            rules.put(nonterminal, new LinkedHashSet<>(ruleSource.computeRightHandSidesFor(nonterminal)));
+        }
+        return super.getRightHandSidesFor(nonterminal);
+    }
+
+    @Override
+    public synchronized Set<Nonterminal> getAllLeftHandSides() {
+
+        return new LinkedHashSet<>(rules.keySet());
+    }
+
+    @Override
+    public Grammar getRulesApplicableTo(HeapConfiguration heapConfiguration) {
+
+        TIntIterator iterator = heapConfiguration.nonterminalEdges().iterator();
+        while (iterator.hasNext()) {
+            Nonterminal nonterminal = heapConfiguration.labelOf(iterator.next());
+            if (!encounteredNonterminals.contains(nonterminal)) {
+                encounter(nonterminal);
+            }
+        }
+        return applicableRules;
+    }
+
+    private synchronized void encounter(Nonterminal nonterminal) {
+
+        if (encounteredNonterminals.contains(nonterminal)) {
+            return;
+        }
+        Map<Nonterminal, ? extends Collection<HeapConfiguration>> newRules
+                = ruleSource.computeRulesUsing(nonterminal, Collections.unmodifiableSet(encounteredNonterminals));
+        encounteredNonterminals.add(nonterminal);
+        addApplicableRules(newRules);
+    }
+
+    private void addApplicableRules(Map<Nonterminal, ? extends Collection<HeapConfiguration>> newRules) {
+
+        if (newRules.isEmpty()) {
+            return;
+        }
+
+        Grammar current = applicableRules;
+        Map<Nonterminal, Set<HeapConfiguration>> updatedRules = new LinkedHashMap<>();
+        for (Map.Entry<Nonterminal, Set<HeapConfiguration>> entry : current.rules.entrySet()) {
+            updatedRules.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        }
+        Map<Nonterminal, Set<CollapsedHeapConfiguration>> updatedCollapsedRules = new LinkedHashMap<>();
+        for (Map.Entry<Nonterminal, Set<CollapsedHeapConfiguration>> entry : current.collapsedRules.entrySet()) {
+            updatedCollapsedRules.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        }
+
+        for (Map.Entry<Nonterminal, ? extends Collection<HeapConfiguration>> entry : newRules.entrySet()) {
+            Nonterminal lhs = entry.getKey();
+            Set<HeapConfiguration> rhsOfLhs = updatedRules.computeIfAbsent(lhs, k -> new LinkedHashSet<>());
+            for (HeapConfiguration rhs : entry.getValue()) {
+                if (rhsOfLhs.add(rhs) && ruleCollapsingEnabled) {
+                    updatedCollapsedRules.computeIfAbsent(lhs, k -> new LinkedHashSet<>())
+                            .addAll(GrammarBuilder.collapse(lhs, rhs));
+                }
+            }
+        }
+
+        applicableRules = new Grammar(updatedRules, updatedCollapsedRules);
+    }
+}
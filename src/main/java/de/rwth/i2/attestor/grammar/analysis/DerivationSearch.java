@@ -0,0 +1,91 @@
+package de.rwth.i2.attestor.grammar.analysis;
+
+import de.rwth.i2.attestor.grammar.materialization.util.GraphMaterializer;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.*;
+
+/**
+ * A bounded breadth-first search for derivations of a heap configuration.
+ * Since no rule removes nodes or selectors, sentential forms with more nodes or selectors than the
+ * heap configuration that should be derived are not explored further.
+ */
+class DerivationSearch {
+
+    /**
+     * The maximal number of sentential forms explored by a single search.
+     * If this bound is exceeded, the heap configuration is considered not derivable.
+     */
+    private static final int MAX_SENTENTIAL_FORMS = 1000;
+
+    private final Map<Nonterminal, ? extends Collection<HeapConfiguration>> rules;
+    private final GraphMaterializer materializer = new GraphMaterializer();
+
+    /**
+     * @param rules The rules used for derivations. Changes to the provided map are visible to subsequent searches.
+     */
+    DerivationSearch(Map<Nonterminal, ? extends Collection<HeapConfiguration>> rules) {
+
+        this.rules = rules;
+    }
+
+    /**
+     * @param initialForms The sentential forms derivations start with.
+     * @param target       The heap configuration that should be derived.
+     * @return True if and only if target is isomorphic to one of the initial forms or a derivation
+     * from one of the initial forms to target has been found.
+     */
+    boolean derives(Collection<HeapConfiguration> initialForms, HeapConfiguration target) {
+
+        int maxNodes = target.countNodes();
+        int maxSelectors = countSelectors(target);
+
+        Set<HeapConfiguration> visited = new HashSet<>();
+        Deque<HeapConfiguration> worklist = new ArrayDeque<>();
+        for (HeapConfiguration form : initialForms) {
+            if (form.equals(target)) {
+                return true;
+            }
+            if (form.countNodes() <= maxNodes && countSelectors(form) <= maxSelectors && visited.add(form)) {
+                worklist.addLast(form);
+            }
+        }
+
+        while (!worklist.isEmpty()) {
+            HeapConfiguration form = worklist.removeFirst();
+            TIntArrayList ntEdges = form.nonterminalEdges();
+            for (int i = 0; i < ntEdges.size(); i++) {
+                int ntEdge = ntEdges.get(i);
+                Collection<HeapConfiguration> rightHandSides = rules.get(form.labelOf(ntEdge));
+                if (rightHandSides == null) {
+                    continue;
+                }
+                for (HeapConfiguration rhs : rightHandSides) {
+                    HeapConfiguration derived = materializer.getMaterializedCloneWith(form, ntEdge, rhs);
+                    if (derived.countNodes() > maxNodes || countSelectors(derived) > maxSelectors) {
+                        continue;
+                    }
+                    if (derived.equals(target)) {
+                        return true;
+                    }
+                    if (visited.size() < MAX_SENTENTIAL_FORMS && visited.add(derived)) {
+                        worklist.addLast(derived);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int countSelectors(HeapConfiguration hc) {
+
+        int result = 0;
+        TIntArrayList nodes = hc.nodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            result += hc.selectorLabelsOf(nodes.get(i)).size();
+        }
+        return result;
+    }
+}
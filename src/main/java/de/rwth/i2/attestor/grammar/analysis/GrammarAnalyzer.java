@@ -0,0 +1,321 @@
+package de.rwth.i2.attestor.grammar.analysis;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.materialization.util.GraphMaterializer;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.*;
+
+/**
+ * Statically checks properties of a graph grammar that are otherwise only discovered during state space generation.
+ * <br>
+ * The analysis determines
+ * <ul>
+ * <li>the productive nonterminals, i.e. all nonterminals from which a heap configuration without
+ * nonterminal edges can be derived,</li>
+ * <li>the type of every tentacle, i.e. the labels of all selectors that are derivable at the external node
+ * attached to the tentacle,</li>
+ * <li>violations of typedness, i.e. rules that derive a different set of selectors at a tentacle than
+ * the other rules of the same nonterminal or that derive the same selector more than once, and</li>
+ * <li>violations of local concretizability, i.e. selectors of a tentacle type that are derived by a rule
+ * without being directly attached to the tentacle's external node. Materialization only applies rules in
+ * which the requested selector is directly attached, see
+ * {@link de.rwth.i2.attestor.grammar.materialization.util.ViolationPointResolver}. Any other rule is thus
+ * only acceptable if the heap configurations derivable from it are also derivable from the applied rules.
+ * Since this cannot be decided in general, it is checked by a bounded search for derivations.
+ * Rules for which no derivation is found are reported.</li>
+ * </ul>
+ * Typedness and local concretizability are only checked for rules without unproductive nonterminals.
+ */
+public class GrammarAnalyzer {
+
+    private final Grammar grammar;
+
+    private final Set<Nonterminal> productiveNonterminals = new LinkedHashSet<>();
+    private final Map<Nonterminal, List<Set<String>>> tentacleTypes = new LinkedHashMap<>();
+    private final List<String> typednessViolations = new ArrayList<>();
+    private final List<String> localConcretizabilityViolations = new ArrayList<>();
+
+    public GrammarAnalyzer(Grammar grammar) {
+
+        this.grammar = grammar;
+        computeProductiveNonterminals();
+        computeTentacleTypes();
+        checkTypedness();
+        checkLocalConcretizability();
+    }
+
+    private void computeProductiveNonterminals() {
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+                if (productiveNonterminals.contains(nonterminal)) {
+                    continue;
+                }
+                for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                    if (isProductive(rhs)) {
+                        productiveNonterminals.add(nonterminal);
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void computeTentacleTypes() {
+
+        for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+            List<Set<String>> types = new ArrayList<>(nonterminal.getRank());
+            for (int i = 0; i < nonterminal.getRank(); i++) {
+                types.add(new TreeSet<>());
+            }
+            tentacleTypes.put(nonterminal, types);
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+                List<Set<String>> types = tentacleTypes.get(nonterminal);
+                for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                    if (!isProductive(rhs)) {
+                        continue;
+                    }
+                    for (int i = 0; i < types.size(); i++) {
+                        changed |= types.get(i).addAll(derivableSelectorsAt(rhs, rhs.externalNodeAt(i)));
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkTypedness() {
+
+        for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+            List<Set<String>> types = tentacleTypes.get(nonterminal);
+            for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                if (!isProductive(rhs)) {
+                    continue;
+                }
+                for (int i = 0; i < types.size(); i++) {
+                    int node = rhs.externalNodeAt(i);
+                    List<String> selectors = derivableSelectorsAt(rhs, node);
+                    Set<String> distinctSelectors = new TreeSet<>(selectors);
+                    if (distinctSelectors.size() < selectors.size()) {
+                        typednessViolations.add("A rule of " + nonterminal + " derives a selector more than once "
+                                + "at tentacle " + i + ": " + selectors);
+                    }
+                    if (!distinctSelectors.equals(types.get(i))) {
+                        typednessViolations.add("A rule of " + nonterminal + " derives selectors "
+                                + distinctSelectors + " at tentacle " + i + " instead of " + types.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkLocalConcretizability() {
+
+        Map<Nonterminal, Set<HeapConfiguration>> rules = new LinkedHashMap<>();
+        for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+            rules.put(nonterminal, grammar.getRightHandSidesFor(nonterminal));
+        }
+        DerivationSearch derivationSearch = new DerivationSearch(rules);
+
+        for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+            List<Set<String>> types = tentacleTypes.get(nonterminal);
+            for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                if (!isProductive(rhs)) {
+                    continue;
+                }
+                for (int i = 0; i < types.size(); i++) {
+                    Set<String> directSelectors = directSelectorsAt(rhs, rhs.externalNodeAt(i));
+                    for (String selector : types.get(i)) {
+                        if (!directSelectors.contains(selector)
+                                && !isCovered(derivationSearch, nonterminal, rhs, i, selector)) {
+                            localConcretizabilityViolations.add("A rule of " + nonterminal
+                                    + " does not directly attach selector " + selector + " to tentacle " + i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether all heap configurations derivable from a rule that does not directly attach a selector to
+     * a tentacle are also derivable from a rule that does. This is the case if materializing the selector within
+     * the nonterminal edges attached to the tentacle leads to sentential forms that can be derived from rules
+     * directly attaching the selector.
+     */
+    private boolean isCovered(DerivationSearch derivationSearch, Nonterminal nonterminal, HeapConfiguration rhs,
+                              int tentacle, String selector) {
+
+        Set<HeapConfiguration> rightHandSides = grammar.getRightHandSidesFor(nonterminal);
+        List<HeapConfiguration> resolvingRules = new ArrayList<>();
+        for (HeapConfiguration candidate : rightHandSides) {
+            if (resolvesViolationPoint(tentacle, selector, Collections.singleton(candidate))) {
+                resolvingRules.add(candidate);
+            }
+        }
+        if (resolvingRules.isEmpty()) {
+            return false;
+        }
+
+        GraphMaterializer materializer = new GraphMaterializer();
+        int node = rhs.externalNodeAt(tentacle);
+        TIntArrayList ntEdges = rhs.attachedNonterminalEdgesOf(node);
+        for (int i = 0; i < ntEdges.size(); i++) {
+            int ntEdge = ntEdges.get(i);
+            Nonterminal label = rhs.labelOf(ntEdge);
+            TIntArrayList attachedNodes = rhs.attachedNodesOf(ntEdge);
+            for (int j = 0; j < attachedNodes.size(); j++) {
+                if (attachedNodes.get(j) != node || !getTentacleType(label, j).contains(selector)) {
+                    continue;
+                }
+                for (HeapConfiguration replacement : grammar.getRightHandSidesFor(label)) {
+                    if (!resolvesViolationPoint(j, selector, Collections.singleton(replacement))) {
+                        continue;
+                    }
+                    HeapConfiguration materialized = materializer.getMaterializedCloneWith(rhs, ntEdge, replacement);
+                    if (!derivationSearch.derives(resolvingRules, materialized)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isProductive(HeapConfiguration rhs) {
+
+        TIntArrayList ntEdges = rhs.nonterminalEdges();
+        for (int i = 0; i < ntEdges.size(); i++) {
+            if (!productiveNonterminals.contains(rhs.labelOf(ntEdges.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<String> directSelectorsAt(HeapConfiguration rhs, int node) {
+
+        Set<String> result = new TreeSet<>();
+        for (SelectorLabel sel : rhs.selectorLabelsOf(node)) {
+            result.add(sel.getLabel());
+        }
+        return result;
+    }
+
+    /**
+     * @return The labels of all selectors attached to the given node or derivable from a nonterminal edge
+     * attached to it. A label occurs multiple times if it is derivable more than once.
+     */
+    private List<String> derivableSelectorsAt(HeapConfiguration rhs, int node) {
+
+        List<String> result = new ArrayList<>(directSelectorsAt(rhs, node));
+        TIntArrayList ntEdges = rhs.attachedNonterminalEdgesOf(node);
+        for (int i = 0; i < ntEdges.size(); i++) {
+            int ntEdge = ntEdges.get(i);
+            List<Set<String>> types = tentacleTypes.get(rhs.labelOf(ntEdge));
+            if (types == null || ntEdges.indexOf(ntEdge) < i) {
+                continue;
+            }
+            TIntArrayList attachedNodes = rhs.attachedNodesOf(ntEdge);
+            for (int tentacle = 0; tentacle < attachedNodes.size(); tentacle++) {
+                if (attachedNodes.get(tentacle) == node) {
+                    result.addAll(types.get(tentacle));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param nonterminal A nonterminal of the analyzed grammar.
+     * @return True if and only if a heap configuration without nonterminal edges can be derived from nonterminal.
+     */
+    public boolean isProductive(Nonterminal nonterminal) {
+
+        return productiveNonterminals.contains(nonterminal);
+    }
+
+    /**
+     * @return All nonterminals of the analyzed grammar from which no heap configuration without nonterminal edges
+     * can be derived.
+     */
+    public Set<Nonterminal> getUnproductiveNonterminals() {
+
+        Set<Nonterminal> result = new LinkedHashSet<>(grammar.getAllLeftHandSides());
+        result.removeAll(productiveNonterminals);
+        return result;
+    }
+
+    /**
+     * @param nonterminal A nonterminal of the analyzed grammar.
+     * @param tentacle    A tentacle of the nonterminal.
+     * @return The labels of all selectors that are derivable at the node attached to the given tentacle.
+     */
+    public Set<String> getTentacleType(Nonterminal nonterminal, int tentacle) {
+
+        List<Set<String>> types = tentacleTypes.get(nonterminal);
+        if (types == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(types.get(tentacle));
+    }
+
+    /**
+     * @param tentacle A tentacle of a nonterminal.
+     * @param selector The label of a selector in the type of the tentacle.
+     * @param rules    Right-hand sides of the nonterminal.
+     * @return True if and only if at least one of the provided rules directly attaches the selector to the
+     * external node of the tentacle, i.e. the violation point (tentacle, selector) can be resolved by materialization.
+     */
+    static boolean resolvesViolationPoint(int tentacle, String selector, Collection<HeapConfiguration> rules) {
+
+        for (HeapConfiguration rhs : rules) {
+            int node = rhs.externalNodeAt(tentacle);
+            for (SelectorLabel sel : rhs.selectorLabelsOf(node)) {
+                if (sel.hasLabel(selector)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if and only if every rule derives the same selectors at each tentacle of its left-hand side
+     * and no selector more than once.
+     */
+    public boolean isTyped() {
+
+        return typednessViolations.isEmpty();
+    }
+
+    public List<String> getTypednessViolations() {
+
+        return Collections.unmodifiableList(typednessViolations);
+    }
+
+    /**
+     * @return True if and only if every rule directly attaches all selectors in the type of a tentacle to the
+     * corresponding external node.
+     */
+    public boolean isLocallyConcretizable() {
+
+        return localConcretizabilityViolations.isEmpty();
+    }
+
+    public List<String> getLocalConcretizabilityViolations() {
+
+        return Collections.unmodifiableList(localConcretizabilityViolations);
+    }
+}
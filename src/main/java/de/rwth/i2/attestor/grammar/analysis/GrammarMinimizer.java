@@ -0,0 +1,208 @@
+package de.rwth.i2.attestor.grammar.analysis;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.programState.indexedState.IndexedNonterminal;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.*;
+
+/**
+ * Removes rules from a graph grammar without changing the language of any nonterminal.
+ * A rule is removed if
+ * <ul>
+ * <li>its right-hand side contains an unproductive nonterminal or</li>
+ * <li>its right-hand side can be derived from its left-hand side using the remaining rules.
+ * Derivations are searched up to a fixed number of sentential forms.</li>
+ * </ul>
+ * Rules with isomorphic right-hand sides need not be considered, because a {@link Grammar} stores the right-hand
+ * sides of each nonterminal in a set and equality of heap configurations is isomorphism.
+ * Derivable rules are only removed if every selector of a tentacle type is still directly attached to the
+ * tentacle's external node by some remaining rule, i.e. if materialization can still resolve all violation points.
+ * Furthermore, materialization only applies rules that directly attach the requested selector. A rule that directly
+ * attaches a selector to a tentacle is thus only removed if it can be derived from the remaining rules that attach
+ * the same selector to the same tentacle. Otherwise, materialization would lose the heap configurations it provides.
+ * Moreover, rules of indexed nonterminals are never considered derivable, because their derivations
+ * additionally depend on the index.
+ * <br>
+ * Every removed rule is one less candidate for abstraction and materialization.
+ */
+public class GrammarMinimizer {
+
+    private final GrammarAnalyzer analyzer;
+    private final Map<Nonterminal, List<HeapConfiguration>> rules = new LinkedHashMap<>();
+    private final List<RemovedRule> removedRules = new ArrayList<>();
+    private final DerivationSearch derivationSearch = new DerivationSearch(rules);
+
+    public GrammarMinimizer(Grammar grammar) {
+
+        analyzer = new GrammarAnalyzer(grammar);
+        for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+            rules.put(nonterminal, new ArrayList<>(grammar.getRightHandSidesFor(nonterminal)));
+        }
+
+        removeUnproductiveRules();
+        removeDerivableRules();
+    }
+
+    private void removeUnproductiveRules() {
+
+        for (Map.Entry<Nonterminal, List<HeapConfiguration>> entry : rules.entrySet()) {
+            Iterator<HeapConfiguration> iterator = entry.getValue().iterator();
+            while (iterator.hasNext()) {
+                HeapConfiguration rhs = iterator.next();
+                if (!isProductive(rhs)) {
+                    iterator.remove();
+                    removedRules.add(new RemovedRule(entry.getKey(), rhs, Reason.UNPRODUCTIVE));
+                }
+            }
+        }
+    }
+
+    private boolean isProductive(HeapConfiguration rhs) {
+
+        TIntArrayList ntEdges = rhs.nonterminalEdges();
+        for (int i = 0; i < ntEdges.size(); i++) {
+            if (!analyzer.isProductive(rhs.labelOf(ntEdges.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removeDerivableRules() {
+
+        for (Map.Entry<Nonterminal, List<HeapConfiguration>> entry : rules.entrySet()) {
+            Nonterminal nonterminal = entry.getKey();
+            if (nonterminal instanceof IndexedNonterminal) {
+                continue;
+            }
+            List<HeapConfiguration> rightHandSides = entry.getValue();
+            int i = 0;
+            while (i < rightHandSides.size()) {
+                HeapConfiguration rhs = rightHandSides.remove(i);
+                if (resolvesAllViolationPoints(nonterminal, rightHandSides)
+                        && derivationSearch.derives(rightHandSides, rhs)
+                        && preservesMaterializations(rhs, rightHandSides)) {
+                    removedRules.add(new RemovedRule(nonterminal, rhs, Reason.DERIVABLE));
+                } else {
+                    rightHandSides.add(i, rhs);
+                    ++i;
+                }
+            }
+        }
+    }
+
+    private boolean resolvesAllViolationPoints(Nonterminal nonterminal, List<HeapConfiguration> rightHandSides) {
+
+        for (int tentacle = 0; tentacle < nonterminal.getRank(); tentacle++) {
+            for (String selector : analyzer.getTentacleType(nonterminal, tentacle)) {
+                if (!GrammarAnalyzer.resolvesViolationPoint(tentacle, selector, rightHandSides)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param rhs            The rule that should be removed.
+     * @param rightHandSides The remaining rules of the same nonterminal.
+     * @return True if and only if for every selector that rhs directly attaches to a tentacle, rhs is derivable
+     * from the remaining rules directly attaching this selector to the same tentacle.
+     */
+    private boolean preservesMaterializations(HeapConfiguration rhs, List<HeapConfiguration> rightHandSides) {
+
+        for (int tentacle = 0; tentacle < rhs.countExternalNodes(); tentacle++) {
+            for (SelectorLabel sel : rhs.selectorLabelsOf(rhs.externalNodeAt(tentacle))) {
+                List<HeapConfiguration> resolvingRules = new ArrayList<>();
+                for (HeapConfiguration candidate : rightHandSides) {
+                    if (GrammarAnalyzer.resolvesViolationPoint(tentacle, sel.getLabel(),
+                            Collections.singleton(candidate))) {
+                        resolvingRules.add(candidate);
+                    }
+                }
+                if (!derivationSearch.derives(resolvingRules, rhs)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The analysis of the original grammar.
+     */
+    public GrammarAnalyzer getAnalyzer() {
+
+        return analyzer;
+    }
+
+    /**
+     * @return A grammar containing all rules that have not been removed.
+     * Collapsed rules are not computed.
+     */
+    public Grammar getMinimizedGrammar() {
+
+        Map<Nonterminal, List<HeapConfiguration>> remainingRules = new LinkedHashMap<>();
+        for (Map.Entry<Nonterminal, List<HeapConfiguration>> entry : rules.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                remainingRules.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return Grammar.builder().addRules(remainingRules).build();
+    }
+
+    /**
+     * @return All removed rules in the order in which they have been removed.
+     */
+    public List<RemovedRule> getRemovedRules() {
+
+        return Collections.unmodifiableList(removedRules);
+    }
+
+    public enum Reason {
+        UNPRODUCTIVE,
+        DERIVABLE
+    }
+
+    /**
+     * A rule that has been removed together with the reason for its removal.
+     */
+    public static final class RemovedRule {
+
+        private final Nonterminal nonterminal;
+        private final HeapConfiguration rightHandSide;
+        private final Reason reason;
+
+        RemovedRule(Nonterminal nonterminal, HeapConfiguration rightHandSide, Reason reason) {
+
+            this.nonterminal = nonterminal;
+            this.rightHandSide = rightHandSide;
+            this.reason = reason;
+        }
+
+        public Nonterminal getNonterminal() {
+
+            return nonterminal;
+        }
+
+        public HeapConfiguration getRightHandSide() {
+
+            return rightHandSide;
+        }
+
+        public Reason getReason() {
+
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+
+            return nonterminal + " -> " + rightHandSide + " (" + reason.toString().toLowerCase() + ")";
+        }
+    }
+}
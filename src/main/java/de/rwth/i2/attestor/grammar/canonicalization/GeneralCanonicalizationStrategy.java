@@ -4,13 +4,23 @@ import de.rwth.i2.attestor.grammar.CollapsedHeapConfiguration;
 import de.rwth.i2.attestor.grammar.Grammar;
 import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class GeneralCanonicalizationStrategy implements CanonicalizationStrategy {
 
     private final Grammar grammar;
     private final CanonicalizationHelper canonicalizationHelper;
 
+    /**
+     * Names of the counters recording attempts to apply rules. Names are only created if metrics are enabled.
+     */
+    private final RuleCounterNames ruleCounterNames = new RuleCounterNames("");
+    private final RuleCounterNames collapsedRuleCounterNames = new RuleCounterNames("collapsed");
+
     public GeneralCanonicalizationStrategy(Grammar grammar,
                                            CanonicalizationHelper canonicalizationHelper) {
 
@@ -21,30 +31,91 @@ public class GeneralCanonicalizationStrategy implements CanonicalizationStrategy
     @Override
     public HeapConfiguration canonicalize(HeapConfiguration heapConfiguration) {
 
-        return performCanonicalization(heapConfiguration);
+        MetricsRegistry metrics = MetricsRegistry.current();
+        long startTime = System.nanoTime();
+        HeapConfiguration result = performCanonicalization(heapConfiguration, metrics);
+        metrics.histogram("canonicalization").recordSince(startTime);
+        return result;
     }
 
-    private HeapConfiguration performCanonicalization(HeapConfiguration heapConfiguration) {
+    private HeapConfiguration performCanonicalization(HeapConfiguration heapConfiguration, MetricsRegistry metrics) {
 
         heapConfiguration = canonicalizationHelper.prepareHeapForCanonicalization(heapConfiguration);
-        for (Nonterminal lhs : grammar.getAllLeftHandSides()) {
-            for (HeapConfiguration rhs : grammar.getRightHandSidesFor(lhs)) {
+        Grammar applicableRules = grammar.getRulesApplicableTo(heapConfiguration);
+        for (Nonterminal lhs : applicableRules.getAllLeftHandSides()) {
+            int ruleIndex = 0;
+            for (HeapConfiguration rhs : applicableRules.getRightHandSidesFor(lhs)) {
                 HeapConfiguration abstractedHeap =
                         canonicalizationHelper.tryReplaceMatching(heapConfiguration, rhs, lhs);
+                recordAttempt(metrics, ruleCounterNames, lhs, ruleIndex, abstractedHeap != null);
                 if (abstractedHeap != null) {
-                    return performCanonicalization(abstractedHeap);
+                    return performCanonicalization(abstractedHeap, metrics);
                 }
+                ++ruleIndex;
             }
 
-            for(CollapsedHeapConfiguration rhs : grammar.getCollapsedRightHandSidesFor(lhs)) {
+            ruleIndex = 0;
+            for(CollapsedHeapConfiguration rhs : applicableRules.getCollapsedRightHandSidesFor(lhs)) {
                         HeapConfiguration abstractedHeap =
                         canonicalizationHelper.tryReplaceMatching(heapConfiguration, rhs, lhs);
+                recordAttempt(metrics, collapsedRuleCounterNames, lhs, ruleIndex, abstractedHeap != null);
                 if (abstractedHeap != null) {
-                    return performCanonicalization(abstractedHeap);
+                    return performCanonicalization(abstractedHeap, metrics);
                 }
+                ++ruleIndex;
             }
 
         }
         return heapConfiguration;
     }
+
+    private void recordAttempt(MetricsRegistry metrics, RuleCounterNames counterNames,
+                               Nonterminal lhs, int ruleIndex, boolean success) {
+
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        String[] names = counterNames.get(lhs, ruleIndex);
+        metrics.counter(names[0]).increment();
+        if (success) {
+            metrics.counter(names[1]).increment();
+        }
+    }
+
+    /**
+     * Caches the names of the counters for attempts and successes of each rule.
+     */
+    private static final class RuleCounterNames {
+
+        private final String ruleKind;
+        private final ConcurrentMap<Nonterminal, String[][]> names = new ConcurrentHashMap<>();
+
+        private RuleCounterNames(String ruleKind) {
+
+            this.ruleKind = ruleKind;
+        }
+
+        private String[] get(Nonterminal lhs, int ruleIndex) {
+
+            String[][] rules = names.get(lhs);
+            if (rules == null || rules.length <= ruleIndex) {
+                rules = names.compute(lhs, (nonterminal, current) -> extend(nonterminal, current, ruleIndex));
+            }
+            return rules[ruleIndex];
+        }
+
+        private String[][] extend(Nonterminal lhs, String[][] current, int ruleIndex) {
+
+            if (current != null && current.length > ruleIndex) {
+                return current;
+            }
+            int known = current == null ? 0 : current.length;
+            String[][] result = current == null ? new String[ruleIndex + 1][] : Arrays.copyOf(current, ruleIndex + 1);
+            for (int i = known; i <= ruleIndex; i++) {
+                String prefix = "canonicalization.rule." + lhs.getLabel() + "." + ruleKind + i;
+                result[i] = new String[]{prefix + ".attempts", prefix + ".successes"};
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,462 @@
+package de.rwth.i2.attestor.grammar.inference;
+
+import de.rwth.i2.attestor.grammar.AbstractionOptions;
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.GrammarBuilder;
+import de.rwth.i2.attestor.grammar.canonicalization.CanonicalizationStrategy;
+import de.rwth.i2.attestor.grammar.canonicalization.CanonicalizationStrategyBuilder;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.types.Type;
+import de.rwth.i2.attestor.types.Types;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.*;
+
+/**
+ * Learns a graph grammar from a collection of concrete example heaps.
+ * <br>
+ * First, the selectors of the examples are inspected to propose candidate structures, each of which is given by
+ * a nonterminal and a fixed set of rules:
+ * <ul>
+ * <li>a singly-linked list segment for every recursive selector of a type, i.e. a selector that only points to
+ * nodes of the same type or null,</li>
+ * <li>a doubly-linked list segment for every pair of recursive selectors of a type that are inverse to each other
+ * in all examples, and</li>
+ * <li>a binary tree for every pair of recursive selectors of a type that are present at all nodes of that type
+ * and point to null at the leaves.</li>
+ * </ul>
+ * Second, candidates are selected greedily: The candidate whose rules, together with the rules of all previously
+ * selected candidates, most reduce the total size of the abstracted examples is selected until no
+ * candidate reduces the size any further. The size of a heap configuration is its number of nodes, selectors and
+ * nonterminal edges.
+ */
+public class GrammarLearner extends SceneObject {
+
+    private final List<HeapConfiguration> examples;
+
+    private final Map<Type, Map<SelectorLabel, Set<Type>>> selectorTargetTypes = new LinkedHashMap<>();
+    private final List<Candidate> candidates = new ArrayList<>();
+    private final List<Candidate> selectedCandidates = new ArrayList<>();
+
+    private Grammar learnedGrammar = Grammar.builder().build();
+    private List<HeapConfiguration> abstractedExamples;
+
+    /**
+     * @param sceneObject The object providing the scene in which nonterminals and rules are created.
+     * @param examples    The concrete heap configurations the grammar is learned from.
+     */
+    public GrammarLearner(SceneObject sceneObject, Collection<HeapConfiguration> examples) {
+
+        super(sceneObject);
+        this.examples = new ArrayList<>(examples);
+        this.abstractedExamples = this.examples;
+        computeSelectorTargetTypes();
+        proposeCandidates();
+        selectCandidates();
+    }
+
+    private void computeSelectorTargetTypes() {
+
+        for (HeapConfiguration example : examples) {
+            TIntArrayList nodes = example.nodes();
+            for (int i = 0; i < nodes.size(); i++) {
+                int node = nodes.get(i);
+                Map<SelectorLabel, Set<Type>> targetTypes = selectorTargetTypes.computeIfAbsent(
+                        example.nodeTypeOf(node), type -> new LinkedHashMap<>()
+                );
+                for (SelectorLabel sel : example.selectorLabelsOf(node)) {
+                    int target = example.selectorTargetOf(node, sel);
+                    targetTypes.computeIfAbsent(sel, s -> new LinkedHashSet<>()).add(example.nodeTypeOf(target));
+                }
+            }
+        }
+    }
+
+    private void proposeCandidates() {
+
+        for (Map.Entry<Type, Map<SelectorLabel, Set<Type>>> entry : selectorTargetTypes.entrySet()) {
+            Type type = entry.getKey();
+            if (type.isPrimitiveType()) {
+                continue;
+            }
+            List<SelectorLabel> recursiveSelectors = new ArrayList<>();
+            for (Map.Entry<SelectorLabel, Set<Type>> targets : entry.getValue().entrySet()) {
+                Set<Type> targetTypes = targets.getValue();
+                if (targetTypes.contains(type)
+                        && targetTypes.size() == (targetTypes.contains(Types.NULL) ? 2 : 1)) {
+                    recursiveSelectors.add(targets.getKey());
+                }
+            }
+
+            for (SelectorLabel next : recursiveSelectors) {
+                candidates.add(singlyLinkedList(type, next));
+            }
+            for (SelectorLabel next : recursiveSelectors) {
+                for (SelectorLabel prev : recursiveSelectors) {
+                    if (next != prev && areInverse(type, next, prev)) {
+                        candidates.add(doublyLinkedList(type, next, prev));
+                    }
+                }
+            }
+            for (int i = 0; i < recursiveSelectors.size(); i++) {
+                for (int j = i + 1; j < recursiveSelectors.size(); j++) {
+                    SelectorLabel left = recursiveSelectors.get(i);
+                    SelectorLabel right = recursiveSelectors.get(j);
+                    if (formTree(type, left, right)) {
+                        candidates.add(binaryTree(type, left, right));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return True if and only if every selector next between two nodes of the given type is complemented by
+     * a selector prev in the opposite direction and vice versa.
+     */
+    private boolean areInverse(Type type, SelectorLabel next, SelectorLabel prev) {
+
+        boolean foundPair = false;
+        for (HeapConfiguration example : examples) {
+            TIntArrayList nodes = example.nodes();
+            for (int i = 0; i < nodes.size(); i++) {
+                int node = nodes.get(i);
+                if (example.nodeTypeOf(node) != type) {
+                    continue;
+                }
+                if (!isInverseAt(example, node, type, next, prev) || !isInverseAt(example, node, type, prev, next)) {
+                    return false;
+                }
+                int target = example.selectorTargetOf(node, next);
+                foundPair |= target != HeapConfiguration.INVALID_ELEMENT && example.nodeTypeOf(target) == type;
+            }
+        }
+        return foundPair;
+    }
+
+    private boolean isInverseAt(HeapConfiguration example, int node, Type type,
+                                SelectorLabel selector, SelectorLabel inverse) {
+
+        int target = example.selectorTargetOf(node, selector);
+        if (target == HeapConfiguration.INVALID_ELEMENT || example.nodeTypeOf(target) != type) {
+            return true;
+        }
+        return example.selectorTargetOf(target, inverse) == node;
+    }
+
+    /**
+     * @return True if and only if all nodes of the given type have both selectors and at least one of them
+     * points to null.
+     */
+    private boolean formTree(Type type, SelectorLabel left, SelectorLabel right) {
+
+        boolean foundLeaf = false;
+        for (HeapConfiguration example : examples) {
+            TIntArrayList nodes = example.nodes();
+            for (int i = 0; i < nodes.size(); i++) {
+                int node = nodes.get(i);
+                if (example.nodeTypeOf(node) != type) {
+                    continue;
+                }
+                int leftTarget = example.selectorTargetOf(node, left);
+                int rightTarget = example.selectorTargetOf(node, right);
+                if (leftTarget == HeapConfiguration.INVALID_ELEMENT
+                        || rightTarget == HeapConfiguration.INVALID_ELEMENT) {
+                    return false;
+                }
+                foundLeaf |= example.nodeTypeOf(leftTarget) == Types.NULL
+                        || example.nodeTypeOf(rightTarget) == Types.NULL;
+            }
+        }
+        return foundLeaf;
+    }
+
+    private void selectCandidates() {
+
+        int currentSize = totalSize(examples);
+        List<Candidate> remainingCandidates = new ArrayList<>(candidates);
+        while (true) {
+            Candidate bestCandidate = null;
+            Grammar bestGrammar = null;
+            List<HeapConfiguration> bestAbstraction = null;
+            int bestSize = currentSize;
+            for (Candidate candidate : remainingCandidates) {
+                Grammar grammar = buildGrammar(candidate);
+                List<HeapConfiguration> abstraction = abstractExamples(grammar);
+                int size = totalSize(abstraction);
+                if (size < bestSize) {
+                    bestCandidate = candidate;
+                    bestGrammar = grammar;
+                    bestAbstraction = abstraction;
+                    bestSize = size;
+                }
+            }
+            if (bestCandidate == null) {
+                return;
+            }
+            selectedCandidates.add(bestCandidate);
+            remainingCandidates.remove(bestCandidate);
+            learnedGrammar = bestGrammar;
+            abstractedExamples = bestAbstraction;
+            currentSize = bestSize;
+        }
+    }
+
+    /**
+     * @return The grammar consisting of the rules of all selected candidates and the given additional candidate.
+     */
+    private Grammar buildGrammar(Candidate additionalCandidate) {
+
+        GrammarBuilder builder = Grammar.builder();
+        for (Candidate candidate : selectedCandidates) {
+            builder.addRules(candidate.nonterminal, candidate.rules);
+        }
+        builder.addRules(additionalCandidate.nonterminal, additionalCandidate.rules);
+        return builder.updateCollapsedRules().build();
+    }
+
+    private List<HeapConfiguration> abstractExamples(Grammar grammar) {
+
+        CanonicalizationStrategy canonicalizationStrategy = new CanonicalizationStrategyBuilder()
+                .setOptions(new AbstractionOptions())
+                .setIndexedMode(false)
+                .setGrammar(grammar)
+                .build();
+
+        List<HeapConfiguration> result = new ArrayList<>(examples.size());
+        for (HeapConfiguration example : examples) {
+            result.add(canonicalizationStrategy.canonicalize(example));
+        }
+        return result;
+    }
+
+    private static int totalSize(List<HeapConfiguration> heapConfigurations) {
+
+        int result = 0;
+        for (HeapConfiguration hc : heapConfigurations) {
+            result += sizeOf(hc);
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of nodes, selectors and nonterminal edges of the given heap configuration.
+     */
+    static int sizeOf(HeapConfiguration hc) {
+
+        int result = hc.countNodes() + hc.countNonterminalEdges();
+        TIntArrayList nodes = hc.nodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            result += hc.selectorLabelsOf(nodes.get(i)).size();
+        }
+        return result;
+    }
+
+    /**
+     * Rules 1 -next-> 2 | 1 -next-> u, L(u,2) | L(1,u), L(u,2).
+     */
+    private Candidate singlyLinkedList(Type type, SelectorLabel next) {
+
+        Nonterminal nonterminal = scene().createNonterminal(
+                "SLL_" + type + "_" + next.getLabel(), 2, new boolean[]{false, true}
+        );
+        Candidate candidate = new Candidate("singly-linked list of " + type + " via " + next.getLabel(),
+                nonterminal);
+
+        RuleGraph base = new RuleGraph(type, 2);
+        base.builder.addSelector(base.node(0), next, base.node(1));
+        candidate.rules.add(base.build());
+
+        RuleGraph step = new RuleGraph(type, 3);
+        step.builder.addSelector(step.node(0), next, step.node(2));
+        step.addNonterminalEdge(nonterminal, 2, 1);
+        candidate.rules.add(step.build());
+
+        RuleGraph concatenation = new RuleGraph(type, 3);
+        concatenation.addNonterminalEdge(nonterminal, 0, 2);
+        concatenation.addNonterminalEdge(nonterminal, 2, 1);
+        candidate.rules.add(concatenation.build());
+
+        return candidate;
+    }
+
+    /**
+     * Rules 1 -next-> 2, 2 -prev-> 1 | 1 -next-> u, u -prev-> 1, D(u,2) | D(1,u), D(u,2).
+     */
+    private Candidate doublyLinkedList(Type type, SelectorLabel next, SelectorLabel prev) {
+
+        Nonterminal nonterminal = scene().createNonterminal(
+                "DLL_" + type + "_" + next.getLabel() + "_" + prev.getLabel(), 2, new boolean[]{false, false}
+        );
+        Candidate candidate = new Candidate("doubly-linked list of " + type + " via "
+                + next.getLabel() + " and " + prev.getLabel(), nonterminal);
+
+        RuleGraph base = new RuleGraph(type, 2);
+        base.builder
+                .addSelector(base.node(0), next, base.node(1))
+                .addSelector(base.node(1), prev, base.node(0));
+        candidate.rules.add(base.build());
+
+        RuleGraph step = new RuleGraph(type, 3);
+        step.builder
+                .addSelector(step.node(0), next, step.node(2))
+                .addSelector(step.node(2), prev, step.node(0));
+        step.addNonterminalEdge(nonterminal, 2, 1);
+        candidate.rules.add(step.build());
+
+        RuleGraph concatenation = new RuleGraph(type, 3);
+        concatenation.addNonterminalEdge(nonterminal, 0, 2);
+        concatenation.addNonterminalEdge(nonterminal, 2, 1);
+        candidate.rules.add(concatenation.build());
+
+        return candidate;
+    }
+
+    /**
+     * Rules for B(node, null) in which every node has a left and a right child that is either null or
+     * the root of a subtree derived from B.
+     */
+    private Candidate binaryTree(Type type, SelectorLabel left, SelectorLabel right) {
+
+        Nonterminal nonterminal = scene().createNonterminal(
+                "BT_" + type + "_" + left.getLabel() + "_" + right.getLabel(), 2, new boolean[]{false, true}
+        );
+        Candidate candidate = new Candidate("binary tree of " + type + " via "
+                + left.getLabel() + " and " + right.getLabel(), nonterminal);
+
+        for (int subtrees = 0; subtrees < 4; subtrees++) {
+            RuleGraph rule = new RuleGraph(type, 1);
+            int nullNode = rule.addNode(Types.NULL);
+            rule.builder.setExternal(nullNode);
+            int leftChild = (subtrees & 1) != 0 ? rule.addNode(type) : nullNode;
+            int rightChild = (subtrees & 2) != 0 ? rule.addNode(type) : nullNode;
+            rule.builder
+                    .addSelector(rule.node(0), left, leftChild)
+                    .addSelector(rule.node(0), right, rightChild);
+            if (leftChild != nullNode) {
+                rule.addNonterminalEdgeBetween(nonterminal, leftChild, nullNode);
+            }
+            if (rightChild != nullNode) {
+                rule.addNonterminalEdgeBetween(nonterminal, rightChild, nullNode);
+            }
+            candidate.rules.add(rule.build());
+        }
+
+        return candidate;
+    }
+
+    /**
+     * @return The grammar consisting of the rules of all selected candidates.
+     */
+    public Grammar getLearnedGrammar() {
+
+        return learnedGrammar;
+    }
+
+    /**
+     * @return The examples abstracted with respect to the learned grammar.
+     */
+    public List<HeapConfiguration> getAbstractedExamples() {
+
+        return Collections.unmodifiableList(abstractedExamples);
+    }
+
+    /**
+     * @return The maximal size of an abstracted example, i.e. its number of nodes, selectors and nonterminal edges.
+     */
+    public int getMaximalAbstractedSize() {
+
+        int result = 0;
+        for (HeapConfiguration hc : abstractedExamples) {
+            result = Math.max(result, sizeOf(hc));
+        }
+        return result;
+    }
+
+    /**
+     * @return Human-readable descriptions of all structures of the learned grammar.
+     */
+    public List<String> getLearnedStructures() {
+
+        List<String> result = new ArrayList<>(selectedCandidates.size());
+        for (Candidate candidate : selectedCandidates) {
+            result.add(candidate.description + " (" + candidate.nonterminal.getLabel() + ")");
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of candidate structures that have been considered.
+     */
+    public int getNumberOfCandidates() {
+
+        return candidates.size();
+    }
+
+    private static final class Candidate {
+
+        final String description;
+        final Nonterminal nonterminal;
+        final Set<HeapConfiguration> rules = new LinkedHashSet<>();
+
+        Candidate(String description, Nonterminal nonterminal) {
+
+            this.description = description;
+            this.nonterminal = nonterminal;
+        }
+    }
+
+    /**
+     * A right-hand side under construction.
+     */
+    private final class RuleGraph {
+
+        final HeapConfiguration hc = scene().createHeapConfiguration();
+        final HeapConfigurationBuilder builder = hc.builder();
+        final TIntArrayList nodes = new TIntArrayList();
+
+        /**
+         * @param type          The type of the initial nodes.
+         * @param numberOfNodes The number of initial nodes. At most the first two of them are external.
+         */
+        RuleGraph(Type type, int numberOfNodes) {
+
+            builder.addNodes(type, numberOfNodes, nodes);
+            int numberOfExternals = Math.min(numberOfNodes, 2);
+            for (int i = 0; i < numberOfExternals; i++) {
+                builder.setExternal(nodes.get(i));
+            }
+        }
+
+        int node(int index) {
+
+            return nodes.get(index);
+        }
+
+        int addNode(Type type) {
+
+            TIntArrayList buffer = new TIntArrayList(1);
+            builder.addNodes(type, 1, buffer);
+            return buffer.get(0);
+        }
+
+        void addNonterminalEdge(Nonterminal nonterminal, int from, int to) {
+
+            addNonterminalEdgeBetween(nonterminal, node(from), node(to));
+        }
+
+        void addNonterminalEdgeBetween(Nonterminal nonterminal, int fromNode, int toNode) {
+
+            builder.addNonterminalEdge(nonterminal, new TIntArrayList(new int[]{fromNode, toNode}));
+        }
+
+        HeapConfiguration build() {
+
+            return builder.build();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
 import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.util.MatchingUtil;
 import de.rwth.i2.attestor.util.Pair;
 import gnu.trove.iterator.TIntIterator;
@@ -57,11 +58,19 @@ public class GeneralMaterializationStrategy implements MaterializationStrategy {
         this.ruleApplier = ruleApplier;
     }
 
+    /**
+     * Resolves all potential violation points.
+     * Materialization results that are isomorphic to a previously found result are discarded;
+     * they are detected by their isomorphism-invariant hash code before checking for isomorphism.
+     *
+     * @return All pairwise non-isomorphic heap configurations in which no violation point remains.
+     */
     @Override
     public Collection<HeapConfiguration> materialize(HeapConfiguration heapConfiguration,
                                                 ViolationPoints potentialViolationPoints) {
 
-        List<HeapConfiguration> res = new ArrayList<>();
+        Set<HeapConfiguration> res = new LinkedHashSet<>();
+        int duplicates = 0;
 
         Stack<HeapConfiguration> worklist = new Stack<>();
         worklist.add(heapConfiguration);
@@ -76,8 +85,8 @@ public class GeneralMaterializationStrategy implements MaterializationStrategy {
 
             if (actualViolationPoint == null) { // all potential violation points have been removed
 
-                if (appliedMaterialization) {
-                    res.add(current);
+                if (appliedMaterialization && !res.add(current)) {
+                    ++duplicates;
                 }
 
             } else {
@@ -87,7 +96,10 @@ public class GeneralMaterializationStrategy implements MaterializationStrategy {
             }
         }
 
-        return res;
+        if (duplicates > 0) {
+            MetricsRegistry.current().counter("materialization.duplicates").add(duplicates);
+        }
+        return new ArrayList<>(res);
     }
 
     private Collection<? extends HeapConfiguration> resolveViolationPoint(HeapConfiguration current,
@@ -31,13 +31,13 @@ public class OneStepMaterializationStrategy {
 	/**
      * Attempts to apply all possible rules once to the heap, i.e. for n possible rule applications
      * (possibly the same rule at several nonterminals) n heapconfigurations are returend each corresponding
-     * to one of the possibilities.
+     * to one of the possibilities. Isomorphic results are only returned once.
      *
      * @param heapConfiguration The program state that should be materialized
      * @return A list of materialized program states each materilized by exactly one step
      */
     public Collection<HeapConfiguration> materialize( HeapConfiguration heapConfiguration ){
-    	  List<HeapConfiguration> res = new ArrayList<>();
+    	  Set<HeapConfiguration> res = new LinkedHashSet<>();
 
           Deque<Pair<Integer, GrammarResponse>> applicableRules = new ArrayDeque<>();
 		try {
@@ -57,7 +57,7 @@ public class OneStepMaterializationStrategy {
          
           }
 
-          return res;
+          return new ArrayList<>(res);
     }
 
 }
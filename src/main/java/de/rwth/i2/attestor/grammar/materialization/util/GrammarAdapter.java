@@ -21,6 +21,9 @@ public class GrammarAdapter {
 
         Map<Nonterminal, Collection<HeapConfiguration>> res = new LinkedHashMap<>();
 
+        // lazily computed grammars only know the left hand sides whose rules have been requested before
+        grammar.getRightHandSidesFor(nonterminal);
+
         for (Nonterminal grammarNt : grammar.getAllLeftHandSides()) {
 
             if (grammarNt.getLabel().equals(nonterminal.getLabel())) {
@@ -5,6 +5,7 @@ import de.rwth.i2.attestor.grammar.materialization.communication.GrammarRequest;
 import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 
 import java.util.*;
 
@@ -40,10 +41,14 @@ public class ViolationPointResolver {
             int tentacle,
             String selectorName) {
 
+        MetricsRegistry metrics = MetricsRegistry.current();
+        metrics.counter("materialization.violationPoints").increment();
+
         GrammarRequest request = new GrammarRequest(nonterminal, tentacle, selectorName);
         Map<Nonterminal, Collection<HeapConfiguration>> rules;
 
         if (ruleGraphsCreatingSelector.containsKey(request)) {
+            metrics.counter("materialization.violationPoints.cacheHits").increment();
             rules = ruleGraphsCreatingSelector.get(request);
         } else {
 
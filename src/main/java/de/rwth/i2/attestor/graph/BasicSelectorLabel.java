@@ -1,5 +1,6 @@
 package de.rwth.i2.attestor.graph;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -54,15 +55,15 @@ public class BasicSelectorLabel implements SelectorLabel {
 
         private final Map<String, SelectorLabel> knownSelectorLabels = new LinkedHashMap<>();
 
-        public SelectorLabel get(String name) {
+        public synchronized SelectorLabel get(String name) {
 
             SelectorLabel result = knownSelectorLabels.computeIfAbsent(name, BasicSelectorLabel::new);
             return result;
         }
 
-        public Collection<SelectorLabel> getAllAvailableSelectors() {
+        public synchronized Collection<SelectorLabel> getAllAvailableSelectors() {
 
-            return knownSelectorLabels.values();
+            return new ArrayList<>(knownSelectorLabels.values());
         }
     }
 
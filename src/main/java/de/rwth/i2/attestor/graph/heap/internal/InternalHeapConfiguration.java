@@ -128,6 +128,19 @@ public class InternalHeapConfiguration implements HeapConfiguration, Graph {
 
     TIntSet markedNodes;
 
+    /**
+     * All public IDs smaller than this bound are in use.
+     * Allows finding the next unused public ID without scanning all public IDs in use.
+     */
+    int freePublicIdLowerBound;
+
+    /**
+     * A precompiled representation of this InternalHeapConfiguration that is used whenever it replaces
+     * a nonterminal edge. Computed on demand and discarded whenever this InternalHeapConfiguration
+     * becomes mutable.
+     */
+    private volatile ReplacementTemplate replacementTemplate;
+
     /**
      * Sets up an empty InternalHeapConfiguration.
      */
@@ -152,6 +165,7 @@ public class InternalHeapConfiguration implements HeapConfiguration, Graph {
         countNodes = hc.countNodes;
         countNonterminalEdges = hc.countNonterminalEdges;
         countVariableEdges = hc.countVariableEdges;
+        freePublicIdLowerBound = hc.freePublicIdLowerBound;
         builder = null;
         graph = new LabeledDigraph(hc.graph);
 
@@ -174,12 +188,32 @@ public class InternalHeapConfiguration implements HeapConfiguration, Graph {
     public HeapConfigurationBuilder builder() {
 
         if (builder == null) {
+            replacementTemplate = null;
             builder = new InternalHeapConfigurationBuilder(this);
         }
 
         return builder;
     }
 
+    /**
+     * @return The precompiled representation of this InternalHeapConfiguration that is used to replace
+     * nonterminal edges by it.
+     */
+    ReplacementTemplate getReplacementTemplate() {
+
+        if (builder != null) {
+            // this object is currently mutable and thus the template may become outdated
+            return new ReplacementTemplate(this);
+        }
+
+        ReplacementTemplate result = replacementTemplate;
+        if (result == null) {
+            result = new ReplacementTemplate(this);
+            replacementTemplate = result;
+        }
+        return result;
+    }
+
     @Override
     public int countNodes() {
 
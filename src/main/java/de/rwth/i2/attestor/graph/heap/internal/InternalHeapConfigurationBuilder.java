@@ -123,11 +123,12 @@ public class InternalHeapConfigurationBuilder implements HeapConfigurationBuilde
      */
     private int getNextPublicId() {
 
-        int result = 0;
+        int result = heapConf.freePublicIdLowerBound;
         while (heapConf.publicToPrivateIDs.containsKey(result)) {
             ++result;
         }
 
+        heapConf.freePublicIdLowerBound = result;
         return result;
     }
 
@@ -219,6 +220,7 @@ public class InternalHeapConfigurationBuilder implements HeapConfigurationBuilde
     private boolean removeElement(int publicId, int privateId) {
 
         heapConf.publicToPrivateIDs.remove(publicId);
+        heapConf.freePublicIdLowerBound = Math.min(heapConf.freePublicIdLowerBound, publicId);
         return heapConf.graph.removeNodeAt(privateId);
     }
 
@@ -495,6 +497,8 @@ public class InternalHeapConfigurationBuilder implements HeapConfigurationBuilde
     /**
      * Adds the provided InternalHeapConfiguration to the one underlying this builder.
      * Its external nodes will be merged with the provided list of nodes.
+     * The replacement is added according to its precompiled {@link ReplacementTemplate} such that the
+     * effort is proportional to the size of the replacement.
      *
      * @param replacement The InternalHeapConfiguration that should be added to the underlying
      *                    InternalHeapConfiguration.
@@ -503,63 +507,58 @@ public class InternalHeapConfigurationBuilder implements HeapConfigurationBuilde
      */
     private void addReplacementGraph(InternalHeapConfiguration replacement, TIntArrayList tentacles) {
 
-        int replSize = replacement.graph.size();
-        TIntArrayList newElements = computeNewElements(replacement, tentacles);
+        ReplacementTemplate template = replacement.getReplacementTemplate();
+        int[] newElements = computeNewElements(template, tentacles);
 
         // In the second pass we add all selectors for nodes as well as nonterminal hyperedges
         // and their tentacles.
-        for (int i = 0; i < replSize; i++) {
-
-            if (replacement.isNode(i)) {
-
-                addNodeFromReplacement(replacement, newElements, i);
-
-            } else if (replacement.isNonterminalEdge(i)) {
-
-                addNtEdgeFromReplacement(replacement, newElements, i);
-
-            } else if (replacement.isVariable(i)) {
-
-                addVariableFromReplacement(replacement, newElements, i);
+        for (int i = 0; i < template.size(); i++) {
+
+            switch (template.kinds[i]) {
+                case ReplacementTemplate.NODE:
+                    addNodeFromReplacement(template, newElements, i);
+                    break;
+                case ReplacementTemplate.NONTERMINAL_EDGE:
+                    addNtEdgeFromReplacement(template, newElements, i);
+                    break;
+                case ReplacementTemplate.VARIABLE_EDGE:
+                    addVariableFromReplacement(template, newElements, i);
+                    break;
+                default:
+                    break;
             }
         }
     }
 
     /**
-     * Creates a map that containsSubsumingState the new private IDs assigned to elements of a provided InternalHeapConfiguration
+     * Creates a map that contains the new private IDs assigned to elements of a provided InternalHeapConfiguration
      * that is added to the underlying InternalHeapConfiguration.
-     * For all elements except external nodes new private IDs are created.
-     * For each external node, the map containsSubsumingState the private ID of a node in the underlying InternalHeapConfiguration
+     * For all nodes except external nodes new private IDs are created.
+     * For each external node, the map contains the private ID of a node in the underlying InternalHeapConfiguration
      * that is merged with it.
      *
-     * @param replacement The InternalHeapConfiguration that should be added to the underlying HeapConfiguration.
-     * @param tentacles   A list of nodes in the underlying HeapConfiguration that determines the nodes that are
-     *                    merged with the external nodes of replacement.
-     * @return A list that maps each element of replacement to its private ID in the underlying HeapConfiguration.
+     * @param template  The template of the InternalHeapConfiguration that should be added to the underlying
+     *                  HeapConfiguration.
+     * @param tentacles A list of nodes in the underlying HeapConfiguration that determines the nodes that are
+     *                  merged with the external nodes of replacement.
+     * @return An array that maps each node of replacement to its private ID in the underlying HeapConfiguration.
      */
-    private TIntArrayList computeNewElements(InternalHeapConfiguration replacement, TIntArrayList tentacles) {
+    private int[] computeNewElements(ReplacementTemplate template, TIntArrayList tentacles) {
 
-        int replSize = replacement.graph.size();
-        TIntArrayList newElements = new TIntArrayList(replSize);
+        int[] newElements = new int[template.size()];
 
-        for (int i = 0; i < replSize; i++) {
+        for (int i = 0; i < newElements.length; i++) {
 
-            if (replacement.isNode(i)) {
-
-                int extPos = replacement.graph.externalPosOf(i);
-                if (extPos != LabeledDigraph.INVALID) {
-                    newElements.add(tentacles.get(extPos));
-                } else {
-
-                    int privateId = getNextPrivateId();
-                    addPrivatePublicIdPair();
-                    heapConf.graph.addNode(replacement.graph.nodeLabelOf(i), 10, 10);
-                    ++heapConf.countNodes;
-                    newElements.add(privateId);
-                }
+            if (template.kinds[i] != ReplacementTemplate.NODE) {
+                newElements[i] = LabeledDigraph.INVALID;
+            } else if (template.externalPositions[i] != LabeledDigraph.INVALID) {
+                newElements[i] = tentacles.get(template.externalPositions[i]);
             } else {
-
-                newElements.add(LabeledDigraph.INVALID);
+                int privateId = getNextPrivateId();
+                addPrivatePublicIdPair();
+                heapConf.graph.addNode(template.labels[i], 10, 10);
+                ++heapConf.countNodes;
+                newElements[i] = privateId;
             }
         }
 
@@ -567,65 +566,64 @@ public class InternalHeapConfigurationBuilder implements HeapConfigurationBuilde
     }
 
     /**
-     * Adds a single node from a HeapConfiguration that should be added to the underlying HeapConfiguration with
-     * the provided private ID. Furthermore, all edges of the node are added to the underlying HeapConfiguration.
+     * Adds all outgoing selector edges of a single node of a replacement to the underlying HeapConfiguration.
      *
-     * @param replacement The HeapConfiguration that should be added to the underlying HeapConfiguration.
-     * @param newElements A list mapping all elements of replacement to their new private IDs in the underlying
+     * @param template    The template of the HeapConfiguration that should be added to the underlying
+     *                    HeapConfiguration.
+     * @param newElements An array mapping all nodes of replacement to their new private IDs in the underlying
      *                    InternalHeapConfiguration.
-     * @param nodeIdToAdd The private ID of the node that should be added.
+     * @param nodeIdToAdd The private ID of the node in replacement whose edges should be added.
      */
-    private void addNodeFromReplacement(InternalHeapConfiguration replacement,
-                                        TIntArrayList newElements, int nodeIdToAdd) {
+    private void addNodeFromReplacement(ReplacementTemplate template, int[] newElements, int nodeIdToAdd) {
 
-        int privateId = newElements.get(nodeIdToAdd);
-        TIntArrayList successors = replacement.graph.successorsOf(nodeIdToAdd);
-        for (int j = 0; j < successors.size(); j++) {
-            Object label = replacement.graph.edgeLabelAt(nodeIdToAdd, j);
-            int to = newElements.get(successors.get(j));
-            heapConf.graph.addEdge(privateId, label, to);
+        int privateId = newElements[nodeIdToAdd];
+        int[] successors = template.successors[nodeIdToAdd];
+        Object[] edgeLabels = template.edgeLabels[nodeIdToAdd];
+        for (int j = 0; j < successors.length; j++) {
+            heapConf.graph.addEdge(privateId, edgeLabels[j], newElements[successors[j]]);
         }
     }
 
     /**
-     * Adds a nonterminal edge from a HeapConfiguration that should be added to the underlying HeapConfiguration
-     * with the provided privateID. Furthermore, all tentacles to nodes are set.
+     * Adds a nonterminal edge of a replacement to the underlying HeapConfiguration
+     * with a fresh private ID. Furthermore, all tentacles to nodes are set.
      *
-     * @param replacement The HeapConfiguration that should be added to the underlying HeapConfiguration.
-     * @param newElements A list mapping all elements of replacement to their new private IDs in the underlying
+     * @param template    The template of the HeapConfiguration that should be added to the underlying
+     *                    HeapConfiguration.
+     * @param newElements An array mapping all nodes of replacement to their new private IDs in the underlying
      *                    InternalHeapConfiguration.
-     * @param ntIdToAdd   The private ID of the nonterminal edge that should be added.
+     * @param ntIdToAdd   The private ID of the nonterminal edge in replacement that should be added.
      */
-    private void addNtEdgeFromReplacement(InternalHeapConfiguration replacement, TIntArrayList newElements, int ntIdToAdd) {
+    private void addNtEdgeFromReplacement(ReplacementTemplate template, int[] newElements, int ntIdToAdd) {
 
         int freshPrivateId = getNextPrivateId();
         addPrivatePublicIdPair();
-        TIntArrayList successors = replacement.graph.successorsOf(ntIdToAdd);
-        heapConf.graph.addNode(replacement.graph.nodeLabelOf(ntIdToAdd), successors.size(), 0);
+        int[] successors = template.successors[ntIdToAdd];
+        heapConf.graph.addNode(template.labels[ntIdToAdd], successors.length, 0);
         ++heapConf.countNonterminalEdges;
-        for (int j = 0; j < successors.size(); j++) {
-            int to = newElements.get(successors.get(j));
-            heapConf.graph.addEdge(freshPrivateId, j, to);
+        for (int j = 0; j < successors.length; j++) {
+            heapConf.graph.addEdge(freshPrivateId, j, newElements[successors[j]]);
         }
     }
 
     /**
-     * Adds a variable edge from a HeapConfiguration that should be added to the underlying HeapConfiguration
-     * with the provided privateID. Furthermore it is attached to the node corresponding to its target.
+     * Adds a variable edge of a replacement to the underlying HeapConfiguration
+     * with a fresh private ID. Furthermore it is attached to the node corresponding to its target.
      *
-     * @param replacement The HeapConfiguration that should e added to the underlying HeapConfiguration
-     * @param newElements A list mapping all nodes of replacement to their new private IDs in the
+     * @param template    The template of the HeapConfiguration that should be added to the underlying
+     *                    HeapConfiguration.
+     * @param newElements An array mapping all nodes of replacement to their new private IDs in the
      *                    underlying Internal HeapConfiguration.
      * @param varIDtoAdd  The private ID of the variable edge in replacement that should be added.
      */
-    private void addVariableFromReplacement(InternalHeapConfiguration replacement, TIntArrayList newElements, int varIDtoAdd) {
+    private void addVariableFromReplacement(ReplacementTemplate template, int[] newElements, int varIDtoAdd) {
 
         int freshPrivateId = getNextPrivateId();
         addPrivatePublicIdPair();
-        int target = replacement.graph.successorsOf(varIDtoAdd).get(0);
-        heapConf.graph.addNode(replacement.graph.nodeLabelOf(varIDtoAdd), 1, 0);
+        int target = template.successors[varIDtoAdd][0];
+        heapConf.graph.addNode(template.labels[varIDtoAdd], 1, 0);
         ++heapConf.countVariableEdges;
-        heapConf.graph.addEdge(freshPrivateId, 1, newElements.get(target));
+        heapConf.graph.addEdge(freshPrivateId, 1, newElements[target]);
     }
 
     @Override
@@ -860,6 +858,7 @@ public class InternalHeapConfigurationBuilder implements HeapConfigurationBuilde
         heapConf.publicToPrivateIDs.retainEntries(
                 (key, value) -> heapConf.graph.containsNode(value)
         );
+        heapConf.freePublicIdLowerBound = 0;
     }
 
     /**
@@ -0,0 +1,96 @@
+package de.rwth.i2.attestor.graph.heap.internal;
+
+import de.rwth.i2.attestor.graph.digraph.LabeledDigraph;
+import de.rwth.i2.attestor.graph.digraph.NodeLabel;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * A precompiled representation of an InternalHeapConfiguration that replaces nonterminal edges,
+ * for example the right-hand side of a grammar rule during materialization.
+ * <br>
+ * The template stores for every element of the replacement its kind, its label, the position of external nodes
+ * and all outgoing edges in flat arrays. Replacing a nonterminal edge thus merely follows these arrays
+ * instead of inspecting the graph structure of the replacement again.
+ *
+ * @see InternalHeapConfigurationBuilder#replaceNonterminalEdge(int, de.rwth.i2.attestor.graph.heap.HeapConfiguration)
+ */
+final class ReplacementTemplate {
+
+    static final byte NODE = 0;
+    static final byte NONTERMINAL_EDGE = 1;
+    static final byte VARIABLE_EDGE = 2;
+    static final byte DELETED = 3;
+
+    /**
+     * The kind of each element of the replacement, indexed by its private ID.
+     */
+    final byte[] kinds;
+
+    /**
+     * The label of each element of the replacement, indexed by its private ID.
+     */
+    final NodeLabel[] labels;
+
+    /**
+     * For each external node, its position in the sequence of external nodes.
+     * {@link LabeledDigraph#INVALID} for all other elements.
+     */
+    final int[] externalPositions;
+
+    /**
+     * The private IDs of the successors of each element of the replacement.
+     */
+    final int[][] successors;
+
+    /**
+     * The labels of all outgoing edges of each node of the replacement.
+     * Null for all other elements, because the edges of hyperedges are labeled with their tentacle position.
+     */
+    final Object[][] edgeLabels;
+
+    ReplacementTemplate(InternalHeapConfiguration replacement) {
+
+        LabeledDigraph graph = replacement.graph;
+        int size = graph.size();
+
+        kinds = new byte[size];
+        labels = new NodeLabel[size];
+        externalPositions = new int[size];
+        successors = new int[size][];
+        edgeLabels = new Object[size][];
+
+        for (int i = 0; i < size; i++) {
+
+            externalPositions[i] = LabeledDigraph.INVALID;
+
+            if (replacement.isNode(i)) {
+                kinds[i] = NODE;
+                externalPositions[i] = graph.externalPosOf(i);
+            } else if (replacement.isNonterminalEdge(i)) {
+                kinds[i] = NONTERMINAL_EDGE;
+            } else if (replacement.isVariable(i)) {
+                kinds[i] = VARIABLE_EDGE;
+            } else {
+                kinds[i] = DELETED;
+                continue;
+            }
+
+            labels[i] = graph.nodeLabelOf(i);
+            TIntArrayList succ = graph.successorsOf(i);
+            successors[i] = succ.toArray();
+
+            if (kinds[i] == NODE) {
+                Object[] nodeEdgeLabels = new Object[succ.size()];
+                for (int j = 0; j < nodeEdgeLabels.length; j++) {
+                    nodeEdgeLabels[j] = graph.edgeLabelAt(i, j);
+                }
+                edgeLabels[i] = nodeEdgeLabels;
+            }
+        }
+    }
+
+    int size() {
+
+        return kinds.length;
+    }
+}
@@ -1,5 +1,6 @@
 package de.rwth.i2.attestor.graph.morphism;
 
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -78,18 +79,28 @@ public class VF2Algorithm {
      */
     public boolean match(Graph pattern, Graph target) {
 
+        MetricsRegistry metrics = MetricsRegistry.current();
+        long startTime = System.nanoTime();
         VF2State initialState = new VF2State(pattern, target);
-        return match(initialState);
+        boolean result = match(initialState, metrics);
+        metrics.counter("vf2.match.calls").increment();
+        if (result) {
+            metrics.counter("vf2.match.found").increment();
+        }
+        metrics.histogram("vf2.match").recordSince(startTime);
+        return result;
     }
 
     /**
      * Executes the next step of the algorithm for a given state.
      *
      * @param state The VF2State that determines the current position of the algorithm in its search tree.
+     * @param metrics The registry collecting the number of backtracking steps.
      * @return true if and only if at least one Morphism exists.
      */
-    private boolean match(VF2State state) {
+    private boolean match(VF2State state, MetricsRegistry metrics) {
 
+        long backtracks = 0;
         Stack<VF2State> stateStack = new Stack<>();
         stateStack.push(state);
 
@@ -100,6 +111,7 @@ public class VF2Algorithm {
 
             if (morphismFoundCheck.eval(state)) {
                 storeMorphism(state);
+                metrics.counter("vf2.match.backtracks").add(backtracks);
                 return true;
             }
 
@@ -134,7 +146,9 @@ public class VF2Algorithm {
                Hence, we backtrack and remove the last pair added to the current state before. */
             state.backtrack();
             stateStack.pop();
+            ++backtracks;
         }
+        metrics.counter("vf2.match.backtracks").add(backtracks);
         return false;
     }
 
@@ -0,0 +1,92 @@
+package de.rwth.i2.attestor.io.jsonExport.cytoscapeFormat;
+
+import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.InterproceduralAnalysis;
+import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.ProcedureCall;
+import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.ProcedureCallStatistics;
+import de.rwth.i2.attestor.stateSpaceGeneration.StateSpace;
+import org.json.JSONWriter;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exports the procedure calls of an interprocedural analysis and the calling relation between them.
+ * The format coincides with the one of {@link JsonStateSpaceExporter} such that the call graph can be explored
+ * in the same viewer: Every procedure call corresponds to a state whose heap is the call's precondition
+ * and every edge points from a calling procedure call to the called one.
+ */
+public class JsonCallGraphExporter {
+
+    private final Writer writer;
+
+    public JsonCallGraphExporter(Writer writer) {
+
+        this.writer = writer;
+    }
+
+    /**
+     * @param analysis    The analysis that generated the procedure calls.
+     * @param calls       The procedure calls to export. The position of a call determines its id.
+     * @param stateSpaces The exported state spaces. The position of a state space determines its id.
+     */
+    public void export(InterproceduralAnalysis analysis, List<ProcedureCall> calls, List<StateSpace> stateSpaces) {
+
+        JSONWriter jsonWriter = new JSONWriter(writer);
+        jsonWriter.object()
+                .key("elements")
+                .object()
+                .key("nodes")
+                .array();
+        addNodes(jsonWriter, analysis, calls, stateSpaces);
+        jsonWriter.endArray().key("edges").array();
+        addEdges(jsonWriter, analysis, calls);
+        jsonWriter.endArray().endObject().endObject();
+    }
+
+    private void addNodes(JSONWriter jsonWriter, InterproceduralAnalysis analysis,
+                          List<ProcedureCall> calls, List<StateSpace> stateSpaces) {
+
+        for (int id = 0; id < calls.size(); id++) {
+            ProcedureCall call = calls.get(id);
+            ProcedureCallStatistics statistics = analysis.getStatistics(call);
+            StateSpace stateSpace = analysis.getStateSpace(call);
+            int numberOfStates = stateSpace == null ? 0 : stateSpace.size();
+            String time = String.format(Locale.ROOT, "%.3f", statistics.getElapsedNanos() / 1e6);
+
+            jsonWriter.object().key("data").object();
+            jsonWriter.key("id").value(id);
+            jsonWriter.key("type").value(analysis.getCallers(call).isEmpty() ? "initialState" : "state");
+            jsonWriter.key("statement").value(call.getMethod().getSignature());
+            jsonWriter.key("propositions").array()
+                    .value("states: " + numberOfStates)
+                    .value("continuations: " + statistics.getNumberOfContinuations())
+                    .value("time: " + time + " ms");
+            if (stateSpace != null) {
+                jsonWriter.value("state space: statespace.html?procedure=" + stateSpaces.indexOf(stateSpace));
+            }
+            jsonWriter.endArray();
+            jsonWriter.key("method").value(call.getMethod().getName());
+            jsonWriter.key("states").value(numberOfStates);
+            jsonWriter.key("executions").value(statistics.getNumberOfExecutions());
+            jsonWriter.key("continuations").value(statistics.getNumberOfContinuations());
+            jsonWriter.key("elapsedNanos").value(statistics.getElapsedNanos());
+            jsonWriter.key("stateSpace").value(stateSpace == null ? -1 : stateSpaces.indexOf(stateSpace));
+            jsonWriter.endObject().endObject();
+        }
+    }
+
+    private void addEdges(JSONWriter jsonWriter, InterproceduralAnalysis analysis, List<ProcedureCall> calls) {
+
+        for (int target = 0; target < calls.size(); target++) {
+            for (ProcedureCall caller : analysis.getCallers(calls.get(target))) {
+                jsonWriter.object().key("data").object()
+                        .key("source").value(calls.indexOf(caller))
+                        .key("target").value(target)
+                        .key("type").value("execution")
+                        .key("label").value("")
+                        .endObject().endObject();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package de.rwth.i2.attestor.io.jsonExport.cytoscapeFormat;
+
+import de.rwth.i2.attestor.main.AbstractPhase;
+import de.rwth.i2.attestor.main.PhaseRegistry;
+import de.rwth.i2.attestor.metrics.Counter;
+import de.rwth.i2.attestor.metrics.LatencyHistogram;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
+import org.json.JSONWriter;
+
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Exports the runtimes of all phases together with all counters and latency histograms
+ * collected during an analysis as a machine-readable profile.
+ */
+public class JsonProfileExporter {
+
+    private Writer writer;
+
+    public JsonProfileExporter(Writer writer) {
+
+        this.writer = writer;
+    }
+
+    public void export(PhaseRegistry registry, MetricsRegistry metrics) {
+
+        JSONWriter jsonWriter = new JSONWriter(writer);
+        jsonWriter.object();
+        exportPhases(jsonWriter, registry);
+        exportCounters(jsonWriter, metrics);
+        exportHistograms(jsonWriter, metrics);
+        jsonWriter.endObject();
+    }
+
+    private void exportPhases(JSONWriter jsonWriter, PhaseRegistry registry) {
+
+        jsonWriter.key("phases").array();
+        for (AbstractPhase phase : registry.getPhases()) {
+            jsonWriter.object()
+                    .key("name")
+                    .value(phase.getName())
+                    .key("seconds")
+                    .value(Math.max(phase.getElapsedTime(), 0.0))
+                    .key("verification")
+                    .value(phase.isVerificationPhase())
+                    .endObject();
+        }
+        jsonWriter.endArray();
+    }
+
+    private void exportCounters(JSONWriter jsonWriter, MetricsRegistry metrics) {
+
+        jsonWriter.key("counters").object();
+        for (Map.Entry<String, Counter> entry : metrics.getCounters().entrySet()) {
+            jsonWriter.key(entry.getKey()).value(entry.getValue().get());
+        }
+        jsonWriter.endObject();
+    }
+
+    private void exportHistograms(JSONWriter jsonWriter, MetricsRegistry metrics) {
+
+        jsonWriter.key("histograms").object();
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getHistograms().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            jsonWriter.key(entry.getKey())
+                    .object()
+                    .key("count")
+                    .value(histogram.getCount())
+                    .key("totalNanos")
+                    .value(histogram.getTotalNanos())
+                    .key("meanNanos")
+                    .value(histogram.getMeanNanos())
+                    .key("maxNanos")
+                    .value(histogram.getMaxNanos())
+                    .key("p50Nanos")
+                    .value(histogram.getQuantileUpperBound(0.5))
+                    .key("p90Nanos")
+                    .value(histogram.getQuantileUpperBound(0.9))
+                    .key("p99Nanos")
+                    .value(histogram.getQuantileUpperBound(0.99));
+            exportBuckets(jsonWriter, histogram);
+            jsonWriter.endObject();
+        }
+        jsonWriter.endObject();
+    }
+
+    private void exportBuckets(JSONWriter jsonWriter, LatencyHistogram histogram) {
+
+        // buckets are exported as pairs of an upper bound in nanoseconds and the number of recorded values
+        jsonWriter.key("buckets").array();
+        long[] buckets = histogram.getBuckets();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                jsonWriter.array()
+                        .value(i == buckets.length - 1 ? Long.MAX_VALUE : 1L << i)
+                        .value(buckets[i])
+                        .endArray();
+            }
+        }
+        jsonWriter.endArray();
+    }
+}
@@ -32,6 +32,7 @@ public class JsonStateSpaceExporter implements StateSpaceExporter {
     private Set<ProgramState> states;
     private Set<ProgramState> initialStates;
     private Set<ProgramState> finalStates;
+    private Set<ProgramState> errorStates;
 
     private TIntIntMap incomingEdgesOfStates;
     private TIntSet isEssentialStateId;
@@ -55,6 +56,7 @@ public class JsonStateSpaceExporter implements StateSpaceExporter {
         states = stateSpace.getStates();
         initialStates = stateSpace.getInitialStates();
         finalStates = stateSpace.getFinalStates();
+        errorStates = stateSpace.getErrorStates();
 
         incomingEdgesOfStates = new TIntIntHashMap(states.size());
         isEssentialStateId = new TIntHashSet(states.size());
@@ -83,6 +85,7 @@ public class JsonStateSpaceExporter implements StateSpaceExporter {
         states = stateSpace.getStates();
         initialStates = stateSpace.getInitialStates();
         finalStates = stateSpace.getFinalStates();
+        errorStates = stateSpace.getErrorStates();
 
         incomingEdgesOfStates = new TIntIntHashMap(states.size());
         isEssentialStateId = new TIntHashSet(states.size());
@@ -137,6 +140,8 @@ public class JsonStateSpaceExporter implements StateSpaceExporter {
                 jsonWriter.value("initialState");
             } else if (finalStates.contains(s)) {
                 jsonWriter.value("finalState");
+            } else if (errorStates.contains(s)) {
+                jsonWriter.value("errorState");
             } else if (incomingEdgesOfStates.containsKey(id) && incomingEdgesOfStates.get(id) > 1) {
                 jsonWriter.value("mergeState");
             } else {
@@ -150,6 +155,7 @@ public class JsonStateSpaceExporter implements StateSpaceExporter {
             final int pc = s.getProgramCounter();
             final String statement = program.getStatement(pc).toString();
             jsonWriter.key("statement").value(statement);
+            jsonWriter.key("programCounter").value(pc);
             jsonWriter.endObject().endObject();
         }
     }
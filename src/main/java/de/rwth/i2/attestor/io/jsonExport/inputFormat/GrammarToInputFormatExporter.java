@@ -0,0 +1,60 @@
+package de.rwth.i2.attestor.io.jsonExport.inputFormat;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.programState.indexedState.IndexedNonterminal;
+import org.json.JSONWriter;
+
+import java.io.Writer;
+
+/**
+ * Exports a graph grammar in the format of user-defined grammars such that it can be supplied
+ * to further analyses via --grammar.
+ * Rules of indexed nonterminals are not supported.
+ */
+public class GrammarToInputFormatExporter {
+
+    protected Writer writer;
+
+    public GrammarToInputFormatExporter(Writer writer) {
+
+        this.writer = writer;
+    }
+
+    public void export(Grammar grammar) {
+
+        JSONWriter jsonWriter = new JSONWriter(writer);
+
+        jsonWriter.array();
+
+        for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+
+            if (nonterminal instanceof IndexedNonterminal) {
+                throw new IllegalArgumentException("Rules of indexed nonterminals cannot be exported: "
+                        + nonterminal);
+            }
+
+            jsonWriter.object()
+                    .key("nonterminal")
+                    .value(nonterminal.getLabel())
+                    .key("rank")
+                    .value(nonterminal.getRank())
+                    .key("reductionTentacles")
+                    .array();
+            for (int tentacle = 0; tentacle < nonterminal.getRank(); tentacle++) {
+                jsonWriter.value(nonterminal.isReductionTentacle(tentacle));
+            }
+            jsonWriter.endArray()
+                    .key("rules")
+                    .array();
+            for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                jsonWriter.value(HCtoInputFormatExporter.getInInputFormat(rhs));
+            }
+            jsonWriter.endArray()
+                    .endObject();
+        }
+
+        jsonWriter.endArray();
+    }
+}
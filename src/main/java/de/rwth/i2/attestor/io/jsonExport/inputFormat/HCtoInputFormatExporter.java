@@ -47,8 +47,8 @@ public class HCtoInputFormatExporter {
      * "type"=NodeType,<br>
      * "number"=1<br>
      * for each node of the heap and appends it to res.
-     * Furthermore appends the corresponding index to the list of external nodes
-     * if appropriate.
+     * Furthermore appends the indices of all external nodes to the list of external nodes
+     * in the order of their positions.
      *
      * @param hc
      * @param res
@@ -68,12 +68,13 @@ public class HCtoInputFormatExporter {
 
             res.append("nodes", nodeObject);
 
-            if (hc.isExternalNode(nodes.get(i))) {
-                res.append("externals", i);
-            }
-
             idMapping.put(nodes.get(i), i);
         }
+
+        // externals have to be listed in the order of their positions, which may differ from the order of nodes
+        for (int pos = 0; pos < hc.countExternalNodes(); pos++) {
+            res.append("externals", idMapping.get(hc.externalNodeAt(pos)));
+        }
         return idMapping;
     }
 
@@ -0,0 +1,118 @@
+package de.rwth.i2.attestor.io.jsonImport;
+
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.io.jsonExport.cytoscapeFormat.JsonHeapConfigurationExporter;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads heap configurations that have been written by {@link JsonHeapConfigurationExporter}, e.g. the heaps
+ * of exported state spaces.
+ * Since this format does not contain external nodes and reduction tentacles, the resulting heap
+ * configurations have no external nodes. Nonterminals that are not known yet are created without
+ * reduction tentacles.
+ */
+public class CytoscapeJsonToHeapConfiguration extends SceneObject {
+
+    public CytoscapeJsonToHeapConfiguration(SceneObject sceneObject) {
+
+        super(sceneObject);
+    }
+
+    public HeapConfiguration parse(JSONObject obj) {
+
+        JSONObject elements = obj.getJSONObject("elements");
+        JSONArray jsonNodes = elements.getJSONArray("nodes");
+        JSONArray jsonEdges = elements.getJSONArray("edges");
+
+        HeapConfiguration heapConfiguration = scene().createHeapConfiguration();
+        HeapConfigurationBuilder builder = heapConfiguration.builder();
+
+        TIntIntMap nodes = new TIntIntHashMap();
+        Map<Integer, String> nonterminalLabels = new LinkedHashMap<>();
+        Map<Integer, String> variableNames = new LinkedHashMap<>();
+
+        for (int i = 0; i < jsonNodes.length(); i++) {
+            JSONObject data = jsonNodes.getJSONObject(i).getJSONObject("data");
+            int id = data.getInt("id");
+            switch (data.getString("type")) {
+                case "node":
+                    TIntArrayList created = new TIntArrayList(1);
+                    builder.addNodes(scene().getType(data.getString("nodeType")), 1, created);
+                    nodes.put(id, created.get(0));
+                    break;
+                case "hyperedge":
+                    nonterminalLabels.put(id, data.getString("label"));
+                    break;
+                case "variable":
+                    variableNames.put(id, data.getString("label"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown heap element: " + data.getString("type"));
+            }
+        }
+
+        Map<Integer, TreeMap<Integer, Integer>> tentacles = new LinkedHashMap<>();
+        for (Integer edge : nonterminalLabels.keySet()) {
+            tentacles.put(edge, new TreeMap<>());
+        }
+
+        for (int i = 0; i < jsonEdges.length(); i++) {
+            JSONObject data = jsonEdges.getJSONObject(i).getJSONObject("data");
+            int source = data.getInt("source");
+            int target = nodeOf(nodes, data.getInt("target"));
+            switch (data.getString("type")) {
+                case "selector":
+                    String label = data.getString("label");
+                    scene().labels().addUsedSelectorLabel(label);
+                    builder.addSelector(nodeOf(nodes, source), scene().getSelectorLabel(label), target);
+                    break;
+                case "tentacle":
+                    tentacles.get(source).put(Integer.valueOf(data.getString("label")), target);
+                    break;
+                case "variable":
+                    builder.addVariableEdge(variableNames.get(source), target);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown heap edge: " + data.getString("type"));
+            }
+        }
+
+        for (Map.Entry<Integer, String> entry : nonterminalLabels.entrySet()) {
+            TIntArrayList attachedNodes = new TIntArrayList();
+            for (int node : tentacles.get(entry.getKey()).values()) {
+                attachedNodes.add(node);
+            }
+            builder.addNonterminalEdge(nonterminalOf(entry.getValue(), attachedNodes.size()), attachedNodes);
+        }
+
+        return builder.build();
+    }
+
+    private int nodeOf(TIntIntMap nodes, int id) {
+
+        if (!nodes.containsKey(id)) {
+            throw new IllegalArgumentException("Edge refers to unknown node " + id);
+        }
+        return nodes.get(id);
+    }
+
+    private Nonterminal nonterminalOf(String label, int rank) {
+
+        try {
+            return scene().getNonterminal(label);
+        } catch (IllegalArgumentException e) {
+            return scene().createNonterminal(label, rank, new boolean[rank]);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package de.rwth.i2.attestor.io.jsonImport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the scalar fields of a small JSON object from a stream of tokens.
+ * Nested objects and arrays are skipped.
+ */
+class JsonObjectReader {
+
+    private final Map<String, String> fields = new HashMap<>();
+
+    /**
+     * @param parser A parser whose current token is the start of the object to read.
+     *               Afterwards, the current token is the end of this object.
+     */
+    JsonObjectReader(JsonParser parser) throws IOException {
+
+        JsonToHeapConfiguration.expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue()) {
+                fields.put(field, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    String getString(String field) {
+
+        String value = fields.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field '" + field + "'.");
+        }
+        return value;
+    }
+
+    String getStringOrDefault(String field, String defaultValue) {
+
+        return fields.getOrDefault(field, defaultValue);
+    }
+
+    int getInt(String field) {
+
+        try {
+            return Integer.parseInt(getString(field));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field '" + field + "' is not an integer.");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.rwth.i2.attestor.io.jsonImport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.procedures.Contract;
+import de.rwth.i2.attestor.util.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the contracts of a single method from a stream of JSON tokens, i.e. the format written via
+ * --save-contracts. Every pre- and postcondition is converted into a heap configuration as soon as it
+ * has been read.
+ */
+public class JsonToContracts extends SceneObject {
+
+    private final JsonToHeapConfiguration importer;
+
+    public JsonToContracts(SceneObject sceneObject, HeapConfigurationRenaming renaming) {
+
+        super(sceneObject);
+        this.importer = new JsonToHeapConfiguration(sceneObject, renaming);
+    }
+
+    /**
+     * @param parser                   A parser whose current token is the start of the object storing the contracts.
+     * @param addSelectorLabelFunction Function to register every selector label that occurs in a contract.
+     * @return The signature of the method together with its contracts.
+     * @throws IOException If reading from the parser fails.
+     */
+    public Pair<String, List<Contract>> parse(JsonParser parser, Consumer<String> addSelectorLabelFunction)
+            throws IOException {
+
+        String signature = null;
+        List<Contract> contracts = new ArrayList<>();
+
+        JsonToHeapConfiguration.expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "method":
+                    signature = parser.getText();
+                    break;
+                case "contracts":
+                    JsonToHeapConfiguration.expect(parser, JsonToken.START_ARRAY);
+                    while (JsonToHeapConfiguration.nextElement(parser)) {
+                        contracts.add(parseContract(parser, addSelectorLabelFunction));
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        if (signature == null) {
+            throw new IllegalArgumentException("Contracts without method signature.");
+        }
+        return new Pair<>(signature, contracts);
+    }
+
+    private Contract parseContract(JsonParser parser, Consumer<String> addSelectorLabelFunction) throws IOException {
+
+        HeapConfiguration precondition = null;
+        List<HeapConfiguration> postconditions = new ArrayList<>();
+
+        JsonToHeapConfiguration.expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "precondition":
+                    precondition = importer.parse(parser, addSelectorLabelFunction);
+                    break;
+                case "postconditions":
+                    JsonToHeapConfiguration.expect(parser, JsonToken.START_ARRAY);
+                    while (JsonToHeapConfiguration.nextElement(parser)) {
+                        postconditions.add(importer.parse(parser, addSelectorLabelFunction));
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        if (precondition == null) {
+            throw new IllegalArgumentException("Contract without precondition.");
+        }
+        return scene().createContract(precondition, postconditions);
+    }
+}
@@ -1,6 +1,8 @@
 package de.rwth.i2.attestor.io.jsonImport;
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.main.scene.SceneObject;
@@ -15,6 +17,7 @@ import org.apache.logging.log4j.Logger;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -34,30 +37,131 @@ public class JsonToGrammar extends SceneObject {
 
     public Map<Nonterminal, Collection<HeapConfiguration>> parseForwardGrammar(JSONArray input) {
 
+        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, renaming);
+        List<GrammarFragment> fragments = new ArrayList<>(input.length());
+
+        for (int i = 0; i < input.length(); i++) {
+
+            JSONObject jsonFragment = input.getJSONObject(i);
+            GrammarFragment fragment = new GrammarFragment();
+            fragment.label = jsonFragment.getString("nonterminal");
+            fragment.rank = jsonFragment.getInt("rank");
+
+            if (jsonFragment.has("reductionTentacles")) {
+                JSONArray tentacles = jsonFragment.getJSONArray("reductionTentacles");
+                fragment.reductionTentacles = new boolean[tentacles.length()];
+                for (int t = 0; t < tentacles.length(); t++) {
+                    fragment.reductionTentacles[t] = tentacles.getBoolean(t);
+                }
+            }
+
+            if (jsonFragment.has("index")) {
+                fragment.index = importer.parseIndex(jsonFragment.getJSONArray("index"));
+            }
+
+            JSONArray graphs = jsonFragment.getJSONArray("rules");
+            for (int g = 0; g < graphs.length(); g++) {
+                fragment.rules.add(importer.describe(graphs.getJSONObject(g)));
+            }
+
+            fragments.add(fragment);
+        }
+
+        return createGrammar(importer, fragments);
+    }
+
+    /**
+     * Parses a graph grammar from a stream of JSON tokens.
+     * Since rules may refer to nonterminals that are declared later on, the rules are only converted into heap
+     * configurations after the whole grammar has been read.
+     *
+     * @param parser A parser whose current token is the start of the array containing the grammar.
+     * @return A mapping from nonterminals to the right-hand sides of their rules.
+     * @throws IOException If reading from the parser fails.
+     */
+    public Map<Nonterminal, Collection<HeapConfiguration>> parseForwardGrammar(JsonParser parser) throws IOException {
+
+        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, renaming);
+        List<GrammarFragment> fragments = new ArrayList<>();
+
+        JsonToHeapConfiguration.expect(parser, JsonToken.START_ARRAY);
+        while (JsonToHeapConfiguration.nextElement(parser)) {
+
+            JsonToHeapConfiguration.expect(parser, JsonToken.START_OBJECT);
+            GrammarFragment fragment = new GrammarFragment();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "nonterminal":
+                        fragment.label = parser.getText();
+                        break;
+                    case "rank":
+                        fragment.rank = parser.getIntValue();
+                        break;
+                    case "reductionTentacles":
+                        List<Boolean> tentacles = new ArrayList<>();
+                        JsonToHeapConfiguration.expect(parser, JsonToken.START_ARRAY);
+                        while (JsonToHeapConfiguration.nextElement(parser)) {
+                            tentacles.add(parser.getBooleanValue());
+                        }
+                        fragment.reductionTentacles = new boolean[tentacles.size()];
+                        for (int t = 0; t < tentacles.size(); t++) {
+                            fragment.reductionTentacles[t] = tentacles.get(t);
+                        }
+                        break;
+                    case "index":
+                        List<String> index = new ArrayList<>();
+                        JsonToHeapConfiguration.expect(parser, JsonToken.START_ARRAY);
+                        while (JsonToHeapConfiguration.nextElement(parser)) {
+                            index.add(parser.getText());
+                        }
+                        fragment.index = importer.parseIndex(index);
+                        break;
+                    case "rules":
+                        JsonToHeapConfiguration.expect(parser, JsonToken.START_ARRAY);
+                        while (JsonToHeapConfiguration.nextElement(parser)) {
+                            fragment.rules.add(importer.describe(parser));
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+
+            if (fragment.label == null) {
+                throw new IllegalArgumentException("Grammar fragment without nonterminal.");
+            }
+            fragments.add(fragment);
+        }
+
+        return createGrammar(importer, fragments);
+    }
+
+    private Map<Nonterminal, Collection<HeapConfiguration>> createGrammar(JsonToHeapConfiguration importer,
+                                                                          List<GrammarFragment> fragments) {
+
         final boolean isIndexedMode = scene().options().isIndexedMode();
 
         Map<Nonterminal, Collection<HeapConfiguration>> res = new LinkedHashMap<>();
         List<Nonterminal> ntsWithoutReductionTentacles = new ArrayList<>();
 
-        Nonterminal[] nonterminals = new Nonterminal[input.length()];
-        JSONObject[] grammarFragments = new JSONObject[input.length()];
-
-        for (int i = 0; i < input.length(); i++) {
+        Nonterminal[] nonterminals = new Nonterminal[fragments.size()];
 
-            JSONObject fragment = input.getJSONObject(i);
-            grammarFragments[i] = fragment;
+        for (int i = 0; i < fragments.size(); i++) {
 
-            int rank = getRank(fragment);
-            String label = getLabel(fragment);
+            GrammarFragment fragment = fragments.get(i);
+            int rank = fragment.rank;
+            String label = fragment.label;
 
             Nonterminal nt;
 
-            if (hasDefinedTentacles(fragment)) {
+            if (fragment.reductionTentacles != null) {
 
-                final boolean[] rts = getReductionTentacles(fragment);
-                if (isIndexedMode && fragment.has("index")) {
-                    List<IndexSymbol> index = getIndex(fragment);
-                    nt = createIndexedNonterminal(rank, label, index, rts);
+                final boolean[] rts = fragment.reductionTentacles;
+                if (isIndexedMode && fragment.index != null) {
+                    nt = createIndexedNonterminal(rank, label, fragment.index, rts);
                 } else {
                     nt = scene().createNonterminal(label, rank, rts);
                 }
@@ -67,9 +171,8 @@ public class JsonToGrammar extends SceneObject {
                 boolean[] rts = new boolean[rank];
                 Arrays.fill(rts, false);
 
-                if (isIndexedMode && fragment.has("index")) {
-                    List<IndexSymbol> index = getIndex(fragment);
-                    nt = createIndexedNonterminal(rank, label, index, rts);
+                if (isIndexedMode && fragment.index != null) {
+                    nt = createIndexedNonterminal(rank, label, fragment.index, rts);
                 } else {
                     nt = scene().createNonterminal(label, rank, rts);
                 }
@@ -80,9 +183,13 @@ public class JsonToGrammar extends SceneObject {
             nonterminals[i] = nt;
         }
 
-        for (int i = 0; i < input.length(); i++) {
-            Nonterminal nt = nonterminals[i];
-            res.put(nt, getGraphs(nt, grammarFragments[i]));
+        Consumer<String> addGrammarSelectorLabel = scene().labels()::addGrammarSelectorLabel;
+        for (int i = 0; i < fragments.size(); i++) {
+            Set<HeapConfiguration> graphs = new LinkedHashSet<>();
+            for (JsonToHeapConfiguration.ParsedHeap rule : fragments.get(i).rules) {
+                graphs.add(importer.build(rule, addGrammarSelectorLabel));
+            }
+            res.put(nonterminals[i], graphs);
         }
 
         updateReductionTentacles(ntsWithoutReductionTentacles, res);
@@ -97,54 +204,6 @@ public class JsonToGrammar extends SceneObject {
         return new IndexedNonterminalImpl(basicNt, index);
     }
 
-    private int getRank(JSONObject grammarFragment) {
-
-        return grammarFragment.getInt("rank");
-    }
-
-    private String getLabel(JSONObject grammarFragment) {
-
-        return grammarFragment.getString("nonterminal");
-    }
-
-    private List<IndexSymbol> getIndex(JSONObject grammarFragment) {
-
-        JSONArray index = grammarFragment.getJSONArray("index");
-        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, renaming);
-        return importer.parseIndex(index);
-    }
-
-    private boolean hasDefinedTentacles(JSONObject grammarFragment) {
-
-        return grammarFragment.has("reductionTentacles");
-    }
-
-    private boolean[] getReductionTentacles(JSONObject grammarFragment) {
-
-        JSONArray tentacles = grammarFragment.getJSONArray("reductionTentacles");
-        boolean[] res = new boolean[tentacles.length()];
-        for (int i = 0; i < tentacles.length(); i++) {
-
-            res[i] = tentacles.getBoolean(i);
-        }
-        return res;
-    }
-
-    private Set<HeapConfiguration> getGraphs(Nonterminal nt, JSONObject grammarFragment) {
-
-        Set<HeapConfiguration> res = new LinkedHashSet<>();
-        JSONArray graphs = grammarFragment.getJSONArray("rules");
-        Consumer<String> addGrammarSelectorLabel = scene().labels()::addGrammarSelectorLabel;
-
-        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, renaming);
-        for (int g = 0; g < graphs.length(); g++) {
-
-            res.add(importer.parse(graphs.getJSONObject(g), addGrammarSelectorLabel));
-        }
-
-        return res;
-    }
-
     private void updateReductionTentacles(List<Nonterminal> ntsWithoutReductionTentacles,
                                           Map<Nonterminal, Collection<HeapConfiguration>> res) {
 
@@ -341,4 +400,15 @@ public class JsonToGrammar extends SceneObject {
         }
     }
 
+    /**
+     * The declaration of a nonterminal together with its unprocessed rules.
+     */
+    private static final class GrammarFragment {
+
+        String label;
+        int rank;
+        boolean[] reductionTentacles = null;
+        List<IndexSymbol> index = null;
+        final List<JsonToHeapConfiguration.ParsedHeap> rules = new ArrayList<>();
+    }
 }
@@ -1,5 +1,7 @@
 package de.rwth.i2.attestor.io.jsonImport;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
@@ -17,6 +19,7 @@ import gnu.trove.list.array.TIntArrayList;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -27,6 +30,9 @@ import java.util.function.Consumer;
  * AbstractIndexSymbol: "_LABEL" (starts with underscore)
  * BottomSymbol: "Z" (starts with upper case letter)
  * normal Symbol: "s" (starts with lower case)
+ * <br>
+ * Heap configurations can either be parsed from an org.json object or directly from the tokens of a
+ * Jackson {@link JsonParser}. The latter avoids reading whole files into memory and is used for large inputs.
  *
  * @author Hannah
  */
@@ -42,38 +48,206 @@ public class JsonToHeapConfiguration extends SceneObject {
 
     public HeapConfiguration parse(JSONObject obj, Consumer<String> addSelectorLabelFunction) {
 
-        HeapConfiguration heapConfiguration = scene().createHeapConfiguration();
-        HeapConfigurationBuilder builder = heapConfiguration.builder();
+        return build(describe(obj), addSelectorLabelFunction);
+    }
+
+    /**
+     * Parses a heap configuration from a stream of JSON tokens.
+     *
+     * @param parser                   A parser whose current token is the start of the heap configuration object.
+     *                                 Afterwards, the current token is the end of this object.
+     * @param addSelectorLabelFunction Called for every selector label of the heap configuration.
+     * @return The parsed heap configuration.
+     * @throws IOException If reading from the parser fails.
+     */
+    public HeapConfiguration parse(JsonParser parser, Consumer<String> addSelectorLabelFunction) throws IOException {
+
+        return build(describe(parser), addSelectorLabelFunction);
+    }
+
+    /**
+     * Reads a heap configuration without creating it, e.g. because not all nonterminals it refers to are known yet.
+     *
+     * @param parser A parser whose current token is the start of the heap configuration object.
+     * @return The unprocessed content of the heap configuration.
+     */
+    ParsedHeap describe(JsonParser parser) throws IOException {
+
+        expect(parser, JsonToken.START_OBJECT);
+        ParsedHeap result = new ParsedHeap();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "nodes":
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (nextElement(parser)) {
+                        JsonObjectReader node = new JsonObjectReader(parser);
+                        result.nodeTypes.add(node.getString("type"));
+                        result.nodeNumbers.add(node.getInt("number"));
+                    }
+                    break;
+                case "externals":
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (nextElement(parser)) {
+                        result.externals.add(parser.getIntValue());
+                    }
+                    break;
+                case "variables":
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (nextElement(parser)) {
+                        JsonObjectReader variable = new JsonObjectReader(parser);
+                        result.variableNames.add(variable.getString("name"));
+                        result.variableTargets.add(variable.getInt("target"));
+                    }
+                    break;
+                case "selectors":
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (nextElement(parser)) {
+                        JsonObjectReader selector = new JsonObjectReader(parser);
+                        result.selectorLabels.add(selector.getString("label"));
+                        result.selectorOrigins.add(selector.getInt("origin"));
+                        result.selectorTargets.add(selector.getInt("target"));
+                        result.selectorAnnotations.add(selector.getStringOrDefault("annotation", ""));
+                    }
+                    break;
+                case "hyperedges":
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (nextElement(parser)) {
+                        describeHyperedge(parser, result);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return result;
+    }
+
+    private void describeHyperedge(JsonParser parser, ParsedHeap result) throws IOException {
+
+        expect(parser, JsonToken.START_OBJECT);
+        String label = null;
+        List<String> index = null;
+        TIntArrayList tentacles = new TIntArrayList();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "label":
+                    label = parser.getText();
+                    break;
+                case "index":
+                    index = new ArrayList<>();
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (nextElement(parser)) {
+                        index.add(parser.getText());
+                    }
+                    break;
+                case "tentacles":
+                    expect(parser, JsonToken.START_ARRAY);
+                    while (nextElement(parser)) {
+                        tentacles.add(parser.getIntValue());
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (label == null) {
+            throw new IllegalArgumentException("Hyperedge without label.");
+        }
+        result.hyperedgeLabels.add(label);
+        result.hyperedgeIndices.add(index);
+        result.hyperedgeTentacles.add(tentacles);
+    }
+
+    ParsedHeap describe(JSONObject obj) {
+
+        ParsedHeap result = new ParsedHeap();
 
         JSONArray jsonNodes = obj.getJSONArray("nodes");
-        TIntArrayList nodes = parseNodes(builder, jsonNodes);
+        for (int i = 0; i < jsonNodes.length(); i++) {
+            result.nodeTypes.add(jsonNodes.getJSONObject(i).getString("type"));
+            result.nodeNumbers.add(jsonNodes.getJSONObject(i).getInt("number"));
+        }
 
         JSONArray externals = obj.getJSONArray("externals");
-        parseExternals(builder, nodes, externals);
+        for (int i = 0; i < externals.length(); i++) {
+            result.externals.add(externals.getInt(i));
+        }
 
         JSONArray variables = obj.getJSONArray("variables");
-        parseVariables(builder, nodes, variables);
+        for (int i = 0; i < variables.length(); i++) {
+            result.variableNames.add(variables.getJSONObject(i).getString("name"));
+            result.variableTargets.add(variables.getJSONObject(i).getInt("target"));
+        }
 
         JSONArray selectors = obj.getJSONArray("selectors");
-
-        parseSelectors(heapConfiguration, builder, nodes, selectors, addSelectorLabelFunction);
+        for (int i = 0; i < selectors.length(); i++) {
+            final JSONObject selectorInJson = selectors.getJSONObject(i);
+            result.selectorLabels.add(selectorInJson.getString("label"));
+            result.selectorOrigins.add(selectorInJson.getInt("origin"));
+            result.selectorTargets.add(selectorInJson.getInt("target"));
+            String annotation = "";
+            if (selectorInJson.has("annotation")) {
+                annotation = selectorInJson.getString("annotation");
+            }
+            result.selectorAnnotations.add(annotation);
+        }
 
         JSONArray hyperedges = obj.getJSONArray("hyperedges");
-        parseHyperedges(builder, nodes, hyperedges);
+        for (int i = 0; i < hyperedges.length(); i++) {
+            JSONObject hyperedge = hyperedges.getJSONObject(i);
+            result.hyperedgeLabels.add(hyperedge.getString("label"));
+            List<String> index = null;
+            if (hyperedge.has("index")) {
+                index = toStrings(hyperedge.getJSONArray("index"));
+            }
+            result.hyperedgeIndices.add(index);
+            JSONArray jsonTentacles = hyperedge.getJSONArray("tentacles");
+            TIntArrayList tentacles = new TIntArrayList(jsonTentacles.length());
+            for (int tentacleNr = 0; tentacleNr < jsonTentacles.length(); tentacleNr++) {
+                tentacles.add(jsonTentacles.getInt(tentacleNr));
+            }
+            result.hyperedgeTentacles.add(tentacles);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates the heap configuration described by a previously read heap.
+     *
+     * @param parsedHeap               The content of the heap configuration.
+     * @param addSelectorLabelFunction Called for every selector label of the heap configuration.
+     * @return The heap configuration.
+     */
+    HeapConfiguration build(ParsedHeap parsedHeap, Consumer<String> addSelectorLabelFunction) {
+
+        HeapConfiguration heapConfiguration = scene().createHeapConfiguration();
+        HeapConfigurationBuilder builder = heapConfiguration.builder();
+
+        TIntArrayList nodes = buildNodes(builder, parsedHeap);
+        buildExternals(builder, nodes, parsedHeap);
+        buildVariables(builder, nodes, parsedHeap);
+        buildSelectors(heapConfiguration, builder, nodes, parsedHeap, addSelectorLabelFunction);
+        buildHyperedges(builder, nodes, parsedHeap);
 
         return builder.build();
     }
 
-    private void parseHyperedges(HeapConfigurationBuilder builder,
-                                 TIntArrayList nodes, JSONArray hyperedges) {
+    private void buildHyperedges(HeapConfigurationBuilder builder, TIntArrayList nodes, ParsedHeap parsedHeap) {
 
-        for (int i = 0; i < hyperedges.length(); i++) {
-            JSONObject hyperedge = hyperedges.getJSONObject(i);
-            String label = hyperedge.getString("label");
+        for (int i = 0; i < parsedHeap.hyperedgeLabels.size(); i++) {
+            String label = parsedHeap.hyperedgeLabels.get(i);
+            List<String> jsonIndex = parsedHeap.hyperedgeIndices.get(i);
 
             Nonterminal nt;
-            if (scene().options().isIndexedMode() && hyperedge.has("index")) {
-                List<IndexSymbol> index = parseIndex(hyperedge.getJSONArray("index"));
+            if (scene().options().isIndexedMode() && jsonIndex != null) {
+                List<IndexSymbol> index = parseIndex(jsonIndex);
 
                 Nonterminal bnt = scene().getNonterminal(label);
                 IndexedNonterminal indexedNt = new IndexedNonterminalImpl(bnt, index);
@@ -82,9 +256,10 @@ public class JsonToHeapConfiguration extends SceneObject {
                 nt = scene().getNonterminal(label);
             }
 
+            TIntArrayList jsonTentacles = parsedHeap.hyperedgeTentacles.get(i);
             TIntArrayList tentacles = new TIntArrayList(nt.getRank());
-            for (int tentacleNr = 0; tentacleNr < hyperedge.getJSONArray("tentacles").length(); tentacleNr++) {
-                tentacles.add(nodes.get(hyperedge.getJSONArray("tentacles").getInt(tentacleNr)));
+            for (int tentacleNr = 0; tentacleNr < jsonTentacles.size(); tentacleNr++) {
+                tentacles.add(nodes.get(jsonTentacles.get(tentacleNr)));
             }
 
             builder.addNonterminalEdge(nt, tentacles);
@@ -93,42 +268,46 @@ public class JsonToHeapConfiguration extends SceneObject {
 
     List<IndexSymbol> parseIndex(JSONArray index) {
 
+        return parseIndex(toStrings(index));
+    }
+
+    List<IndexSymbol> parseIndex(List<String> index) {
+
         List<IndexSymbol> res = new ArrayList<>();
-        for (int i = 0; i < index.length(); i++) {
-            String symbol = index.getString(i);
+        for (int i = 0; i < index.size(); i++) {
+            String symbol = index.get(i);
             if (symbol.equals("()")) {
                 res.add(IndexVariable.getIndexVariable());
 
-                assert (i == index.length() - 1) : "variables should be the last symbol of a index";
+                assert (i == index.size() - 1) : "variables should be the last symbol of a index";
             } else if (symbol.startsWith("_")) {
                 res.add(AbstractIndexSymbol.get(symbol.substring(1)));
-                assert (i == index.length() - 1) : "abstract index symbols may only occur at the end of index";
+                assert (i == index.size() - 1) : "abstract index symbols may only occur at the end of index";
             } else if (Character.isLowerCase(symbol.codePointAt(0))) {
                 res.add(ConcreteIndexSymbol.getIndexSymbol(symbol, false));
-                assert (i < index.length() - 1) : "indices cannot end with a concrete non-bottom symbol";
+                assert (i < index.size() - 1) : "indices cannot end with a concrete non-bottom symbol";
             } else if (Character.isUpperCase(symbol.codePointAt(0))) {
                 res.add(ConcreteIndexSymbol.getIndexSymbol(symbol, true));
 
-                assert (i == index.length() - 1) : "bottom symbols have to be the last element of a index";
+                assert (i == index.size() - 1) : "bottom symbols have to be the last element of a index";
             }
         }
         return res;
     }
 
-    private void parseSelectors(HeapConfiguration heapConfiguration,
+    private void buildSelectors(HeapConfiguration heapConfiguration,
                                 HeapConfigurationBuilder builder,
                                 TIntArrayList nodes,
-                                JSONArray selectors,
+                                ParsedHeap parsedHeap,
                                 Consumer<String> addSelectorLabelFunction) {
 
         final boolean isIndexedMode = scene().options().isIndexedMode();
 
-        for (int i = 0; i < selectors.length(); i++) {
-            final JSONObject selectorInJson = selectors.getJSONObject(i);
-            String name = selectorInJson.getString("label");
+        for (int i = 0; i < parsedHeap.selectorLabels.size(); i++) {
+            String name = parsedHeap.selectorLabels.get(i);
 
-            int originID = selectorInJson.getInt("origin");
-            int targetID = selectorInJson.getInt("target");
+            int originID = parsedHeap.selectorOrigins.get(i);
+            int targetID = parsedHeap.selectorTargets.get(i);
 
             int sourceNode = nodes.get(originID);
             String typeName = heapConfiguration.nodeTypeOf(sourceNode).toString();
@@ -138,12 +317,8 @@ public class JsonToHeapConfiguration extends SceneObject {
             SelectorLabel sel = scene().getSelectorLabel(name);
 
             if(isIndexedMode) {
-                String annotation = "";
-                if (selectorInJson.has("annotation")) {
-                    annotation = selectorInJson.getString("annotation");
-                }
                 builder.addSelector(nodes.get(originID),
-                        new AnnotatedSelectorLabel(sel, annotation),
+                        new AnnotatedSelectorLabel(sel, parsedHeap.selectorAnnotations.get(i)),
                         nodes.get(targetID));
             } else {
                 builder.addSelector(nodes.get(originID),
@@ -153,37 +328,79 @@ public class JsonToHeapConfiguration extends SceneObject {
         }
     }
 
-    private void parseVariables(HeapConfigurationBuilder builder,
-                                TIntArrayList nodes, JSONArray variables) {
+    private void buildVariables(HeapConfigurationBuilder builder, TIntArrayList nodes, ParsedHeap parsedHeap) {
 
-        for (int i = 0; i < variables.length(); i++) {
-            String name = variables.getJSONObject(i).getString("name");
-            int targetId = variables.getJSONObject(i).getInt("target");
-            builder.addVariableEdge(name, nodes.get(targetId));
+        for (int i = 0; i < parsedHeap.variableNames.size(); i++) {
+            builder.addVariableEdge(parsedHeap.variableNames.get(i), nodes.get(parsedHeap.variableTargets.get(i)));
         }
     }
 
-    private void parseExternals(HeapConfigurationBuilder builder,
-                                TIntArrayList nodes, JSONArray externals) {
+    private void buildExternals(HeapConfigurationBuilder builder, TIntArrayList nodes, ParsedHeap parsedHeap) {
 
-        for (int i = 0; i < externals.length(); i++) {
-            int nodeId = externals.getInt(i);
-            builder.setExternal(nodes.get(nodeId));
+        for (int i = 0; i < parsedHeap.externals.size(); i++) {
+            builder.setExternal(nodes.get(parsedHeap.externals.get(i)));
         }
     }
 
-    private TIntArrayList parseNodes(HeapConfigurationBuilder builder, JSONArray jsonNodes) {
+    private TIntArrayList buildNodes(HeapConfigurationBuilder builder, ParsedHeap parsedHeap) {
 
         TIntArrayList nodes = new TIntArrayList();
-        for (int i = 0; i < jsonNodes.length(); i++) {
-            String typeName = jsonNodes.getJSONObject(i).getString("type");
-            typeName = renaming.getTypeRenaming(typeName);
+        for (int i = 0; i < parsedHeap.nodeTypes.size(); i++) {
+            String typeName = renaming.getTypeRenaming(parsedHeap.nodeTypes.get(i));
             Type type = scene().getType(typeName);
-            int number = jsonNodes.getJSONObject(i).getInt("number");
-            builder.addNodes(type, number, nodes);
+            builder.addNodes(type, parsedHeap.nodeNumbers.get(i), nodes);
         }
         return nodes;
     }
 
+    private static List<String> toStrings(JSONArray array) {
+
+        List<String> result = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            result.add(array.getString(i));
+        }
+        return result;
+    }
+
+    /**
+     * Advances the parser to the next element of an array.
+     *
+     * @return False if the end of the array has been reached.
+     */
+    static boolean nextElement(JsonParser parser) throws IOException {
 
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IllegalArgumentException("Unexpected end of JSON input.");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    static void expect(JsonParser parser, JsonToken expected) {
+
+        if (parser.getCurrentToken() != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " but found " + parser.getCurrentToken()
+                    + " at " + parser.getCurrentLocation());
+        }
+    }
+
+    /**
+     * The content of a heap configuration in the input format before nodes, selectors and nonterminals
+     * are resolved. Its size is linear in the size of a single heap configuration.
+     */
+    static final class ParsedHeap {
+
+        final List<String> nodeTypes = new ArrayList<>();
+        final TIntArrayList nodeNumbers = new TIntArrayList();
+        final TIntArrayList externals = new TIntArrayList();
+        final List<String> variableNames = new ArrayList<>();
+        final TIntArrayList variableTargets = new TIntArrayList();
+        final List<String> selectorLabels = new ArrayList<>();
+        final TIntArrayList selectorOrigins = new TIntArrayList();
+        final TIntArrayList selectorTargets = new TIntArrayList();
+        final List<String> selectorAnnotations = new ArrayList<>();
+        final List<String> hyperedgeLabels = new ArrayList<>();
+        final List<List<String>> hyperedgeIndices = new ArrayList<>();
+        final List<TIntArrayList> hyperedgeTentacles = new ArrayList<>();
+    }
 }
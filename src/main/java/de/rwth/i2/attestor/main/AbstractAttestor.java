@@ -2,6 +2,7 @@ package de.rwth.i2.attestor.main;
 
 import de.rwth.i2.attestor.LTLFormula;
 import de.rwth.i2.attestor.main.scene.DefaultScene;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.phases.transformers.CounterexampleTransformer;
 import de.rwth.i2.attestor.phases.transformers.InputSettingsTransformer;
 import de.rwth.i2.attestor.phases.transformers.ModelCheckingResultsTransformer;
@@ -23,6 +24,8 @@ public abstract class AbstractAttestor {
     protected final Properties properties = new Properties();
     protected PhaseRegistry registry;
     protected DefaultScene scene = new DefaultScene();
+    protected MetricsRegistry metrics = MetricsRegistry.disabled();
+    private boolean metricsEnabled = false;
     private boolean hasFatalError = false;
 
     /**
@@ -36,6 +39,9 @@ public abstract class AbstractAttestor {
      */
     public void run(String[] args) {
 
+        hasFatalError = false;
+        // metrics may still be enabled by the command line option --profile
+        MetricsRegistry.install(metricsEnabled ? new MetricsRegistry() : MetricsRegistry.disabled());
         try {
             printVersion();
             registry = new PhaseRegistry();
@@ -44,11 +50,23 @@ public abstract class AbstractAttestor {
             registry.logExecutionTimes();
         } catch(Exception e) {
             hasFatalError = true;
+        } finally {
+            metrics = MetricsRegistry.current();
+            MetricsRegistry.uninstall();
         }
     }
 
     protected abstract void registerPhases(String[] args) throws Exception;
 
+    /**
+     * Collects metrics in all subsequent runs even if they are not exported.
+     * Otherwise, metrics are only collected if the command line option --profile is given.
+     */
+    public void enableMetrics() {
+
+        metricsEnabled = true;
+    }
+
     public boolean hasFatalError() {
 
         return hasFatalError;
@@ -95,6 +113,15 @@ public abstract class AbstractAttestor {
         return registry.getMostRecentPhase(ModelCheckingResultsTransformer.class).hasAllLTLSatisfied();
     }
 
+    /**
+     * @return All counters and latency histograms collected during the last run.
+     * The returned registry is disabled if no metrics have been collected.
+     */
+    public MetricsRegistry getMetrics() {
+
+        return metrics;
+    }
+
     public Map<String, Double> getExecutionTimes() {
 
 
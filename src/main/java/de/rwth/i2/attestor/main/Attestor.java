@@ -8,6 +8,7 @@ import de.rwth.i2.attestor.phases.parser.ParseGrammarPhase;
 import de.rwth.i2.attestor.phases.parser.ParseInputPhase;
 import de.rwth.i2.attestor.phases.parser.ParseProgramPhase;
 import de.rwth.i2.attestor.phases.preprocessing.AbstractionPreprocessingPhase;
+import de.rwth.i2.attestor.phases.preprocessing.GrammarAnalysisPhase;
 import de.rwth.i2.attestor.phases.preprocessing.GrammarRefinementPhase;
 import de.rwth.i2.attestor.phases.preprocessing.MarkingGenerationPhase;
 import de.rwth.i2.attestor.phases.report.ReportGenerationPhase;
@@ -29,7 +30,7 @@ import de.rwth.i2.attestor.phases.symbolicExecution.recursive.RecursiveStateSpac
  * <li>Parsing phase: Parses all supplied input files, such as the program to be analyzed,
  * the grammar, input state, etc.</li>
  * <li>Preprocessing phase: Applies all pre-computation steps that should be applied to programs, grammars, etc.
- * For example, grammar refinement is performed in this phase.</li>
+ * For example, grammar analysis and grammar refinement are performed in this phase.</li>
  * <li>State space generation phase: Applies the abstract semantics defined by the provided graph grammar and
  * the input program until a fixed point is reached.</li>
  * <li>Model-checking phase: If temporal logic formulas have been provided, this phase checks whether they
@@ -47,8 +48,9 @@ public class Attestor extends AbstractAttestor {
         registry
                 //.addPhase(new CLIPhase(scene, args))
                 .addPhase(new CommandLinePhase(scene, args))
-                .addPhase(new ParseProgramPhase(scene))
-                .addPhase(new ParseGrammarPhase(scene))
+                .addPhase(createParseProgramPhase())
+                .addPhase(createParseGrammarPhase())
+                .addPhase(new GrammarAnalysisPhase(scene))
                 .addPhase(new ParseInputPhase(scene))
                 .addPhase(new ParseContractsPhase(scene))
                 .addPhase(new MarkingGenerationPhase(scene))
@@ -60,4 +62,14 @@ public class Attestor extends AbstractAttestor {
                 .addPhase( new ReportGenerationPhase(registry, scene) )
                 .execute();
     }
+
+    protected ParseProgramPhase createParseProgramPhase() {
+
+        return new ParseProgramPhase(scene);
+    }
+
+    protected ParseGrammarPhase createParseGrammarPhase() {
+
+        return new ParseGrammarPhase(scene);
+    }
 }
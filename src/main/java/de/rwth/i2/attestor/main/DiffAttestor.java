@@ -0,0 +1,21 @@
+package de.rwth.i2.attestor.main;
+
+import de.rwth.i2.attestor.phases.commandLineInterface.CommandLinePhase;
+import de.rwth.i2.attestor.phases.diff.DiffPhase;
+
+/**
+ * Only compares two previously exported state spaces or contract sets without analyzing a program.
+ *
+ * @see DiffPhase
+ */
+public class DiffAttestor extends AbstractAttestor {
+
+    @Override
+    protected void registerPhases(String[] args) throws Exception {
+
+        registry
+                .addPhase(new CommandLinePhase(scene, args))
+                .addPhase(new DiffPhase(scene))
+                .execute();
+    }
+}
@@ -0,0 +1,26 @@
+package de.rwth.i2.attestor.main;
+
+import de.rwth.i2.attestor.phases.commandLineInterface.CommandLinePhase;
+import de.rwth.i2.attestor.phases.parser.ParseGrammarPhase;
+import de.rwth.i2.attestor.phases.preprocessing.GrammarAnalysisPhase;
+
+/**
+ * Only parses and analyzes the graph grammars supplied on the command line without analyzing a program.
+ * Since the purpose of this mode is to find redundant rules, grammar minimization is always enabled.
+ *
+ * @see GrammarAnalysisPhase
+ */
+public class GrammarAnalysisAttestor extends AbstractAttestor {
+
+    @Override
+    protected void registerPhases(String[] args) throws Exception {
+
+        scene.options().setGrammarMinimizationEnabled(true);
+
+        registry
+                .addPhase(new CommandLinePhase(scene, args))
+                .addPhase(new ParseGrammarPhase(scene))
+                .addPhase(new GrammarAnalysisPhase(scene))
+                .execute();
+    }
+}
@@ -0,0 +1,53 @@
+package de.rwth.i2.attestor.main;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.phases.commandLineInterface.CommandLinePhase;
+import de.rwth.i2.attestor.phases.grammarLearning.GrammarLearningPhase;
+import de.rwth.i2.attestor.phases.parser.ParseContractsPhase;
+import de.rwth.i2.attestor.phases.parser.ParseGrammarPhase;
+import de.rwth.i2.attestor.phases.parser.ParseInputPhase;
+import de.rwth.i2.attestor.phases.parser.ParseProgramPhase;
+import de.rwth.i2.attestor.phases.preprocessing.AbstractionPreprocessingPhase;
+import de.rwth.i2.attestor.phases.preprocessing.GrammarRefinementPhase;
+import de.rwth.i2.attestor.phases.preprocessing.MarkingGenerationPhase;
+import de.rwth.i2.attestor.phases.symbolicExecution.recursive.RecursiveStateSpaceGenerationPhase;
+
+/**
+ * Learns a graph grammar from example heaps instead of analyzing a program.
+ * If no class is supplied on the command line, the examples are the initial heaps.
+ * Otherwise, the examples are the final heaps obtained by symbolically executing the supplied method
+ * on the initial heaps. Since there is no grammar yet, this execution is performed without abstraction.
+ *
+ * @see GrammarLearningPhase
+ */
+public class GrammarLearningAttestor extends AbstractAttestor {
+
+    @Override
+    protected void registerPhases(String[] args) throws Exception {
+
+        CommandLinePhase commandLinePhase = new CommandLinePhase(scene, args);
+        registry.addPhase(commandLinePhase).execute();
+
+        boolean learnFromProgram = commandLinePhase.getInputSettings().getClassName() != null;
+        if (!learnFromProgram) {
+            registry
+                    .addPhase(new ParseInputPhase(scene))
+                    .addPhase(new GrammarLearningPhase(scene, false))
+                    .execute();
+            return;
+        }
+
+        registry
+                .addPhase(new ParseProgramPhase(scene))
+                // the empty grammar disables abstraction while computing the examples
+                .addPhase(new ParseGrammarPhase(scene, Grammar.builder().build()))
+                .addPhase(new ParseInputPhase(scene))
+                .addPhase(new ParseContractsPhase(scene))
+                .addPhase(new MarkingGenerationPhase(scene))
+                .addPhase(new GrammarRefinementPhase(scene))
+                .addPhase(new AbstractionPreprocessingPhase(scene))
+                .addPhase(new RecursiveStateSpaceGenerationPhase(scene))
+                .addPhase(new GrammarLearningPhase(scene, true))
+                .execute();
+    }
+}
@@ -1,8 +1,15 @@
 package de.rwth.i2.attestor.main;
 
 
+import de.rwth.i2.attestor.phases.commandLineInterface.CommandLineReader;
+
+import java.util.Arrays;
+
 /**
  * Executes a program analysis with Attestor.
+ * If option --analyze-grammar is provided, only the supplied graph grammars are analyzed.
+ * If option --learn-grammar is provided, a graph grammar is learned from example heaps.
+ * If option --diff is provided, two exported state spaces or contract sets are compared.
  *
  * @author Christoph
  */
@@ -10,7 +17,16 @@ class Main {
 
     public static void main(String[] args) {
 
-        AbstractAttestor main = new Attestor();
+        AbstractAttestor main;
+        if (Arrays.asList(args).contains("--" + CommandLineReader.ANALYZE_GRAMMAR)) {
+            main = new GrammarAnalysisAttestor();
+        } else if (Arrays.asList(args).contains("--" + CommandLineReader.LEARN_GRAMMAR)) {
+            main = new GrammarLearningAttestor();
+        } else if (Arrays.asList(args).contains("--" + CommandLineReader.DIFF)) {
+            main = new DiffAttestor();
+        } else {
+            main = new Attestor();
+        }
         main.run(args);
     }
 }
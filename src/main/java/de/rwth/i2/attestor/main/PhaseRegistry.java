@@ -12,6 +12,7 @@ public class PhaseRegistry {
     private static final Logger logger = LogManager.getLogger("PhaseRegistry");
 
     private final List<AbstractPhase> phases;
+    private int numberOfExecutedPhases = 0;
 
     public PhaseRegistry() {
 
@@ -42,10 +43,14 @@ public class PhaseRegistry {
         return getMostRecentPhase(phases.size(), phaseType);
     }
 
+    /**
+     * Executes all phases that have been added since the last execution in the order in which they have been added.
+     * This allows adding further phases depending on the results of previously executed phases.
+     */
     public void execute() throws Exception {
 
-        for (AbstractPhase p : phases) {
-            p.run();
+        while (numberOfExecutedPhases < phases.size()) {
+            phases.get(numberOfExecutedPhases++).run();
         }
     }
 
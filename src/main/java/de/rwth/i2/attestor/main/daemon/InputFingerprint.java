@@ -0,0 +1,213 @@
+package de.rwth.i2.attestor.main.daemon;
+
+import de.rwth.i2.attestor.phases.commandLineInterface.CommandLineReader;
+import de.rwth.i2.attestor.phases.communication.InputSettings;
+import org.apache.commons.cli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes a fingerprint of the command line arguments of an analysis that determines whether
+ * a previously parsed program and grammar can be reused.
+ * <br>
+ * The fingerprint consists of all arguments except for the analyzed method and options that only affect
+ * the output of an analysis. Moreover, every argument referring to an existing file or directory
+ * (either directly or relative to the root path) contributes the contents of all files it contains.
+ * Furthermore, the arguments are resolved like in an actual run, i.e. including the options of a settings file
+ * passed via -l. The classpath, grammar files, initial heaps and contracts of the resolved {@link InputSettings}
+ * contribute the contents of all files they refer to as well.
+ * Hence, the fingerprint changes whenever a class file, grammar file or any other input file is modified.
+ * Files are identified by their path relative to the argument referring to them. The root path is not part of
+ * the fingerprint such that relocating all input files does not change it.
+ */
+public final class InputFingerprint {
+
+    /**
+     * Options followed by a value that do not influence parsing.
+     */
+    private static final Set<String> IGNORED_OPTIONS_WITH_VALUE = new HashSet<>(Arrays.asList(
+            "-m", "--method",
+            "-d", "--description",
+            "-e", "--export",
+            "--export-grammar",
+            "--export-large-states",
+            "--export-procedures",
+            "--export-contracts",
+            "--save-contracts",
+            "--marking-cache"
+    ));
+
+    /**
+     * Options without a value that do not influence parsing.
+     */
+    private static final Set<String> IGNORED_FLAGS = new HashSet<>(Arrays.asList(
+            "-q", "--quiet",
+            "-v", "--verbose",
+            "--debug",
+            "--profile"
+    ));
+
+    private static final Set<String> ROOT_PATH_OPTIONS = new HashSet<>(Arrays.asList("-rp", "--root-path"));
+
+    private InputFingerprint() {
+    }
+
+    /**
+     * @param args The command line arguments of an analysis.
+     * @return A hex-encoded SHA-256 hash of all arguments and input files relevant for parsing.
+     * @throws IllegalArgumentException If the arguments or the settings file they refer to are malformed.
+     */
+    public static String of(String[] args) {
+
+        MessageDigest digest = newDigest();
+        updateWithArguments(digest, args);
+        updateWithInputSettings(digest, resolveInputSettings(args));
+
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    private static void updateWithArguments(MessageDigest digest, String[] args) {
+
+        String rootPath = determineRootPath(args);
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (IGNORED_OPTIONS_WITH_VALUE.contains(arg)) {
+                i++;
+                continue;
+            }
+            if (IGNORED_FLAGS.contains(arg)) {
+                continue;
+            }
+
+            update(digest, arg);
+            if (ROOT_PATH_OPTIONS.contains(arg) && i + 1 < args.length) {
+                // the root path itself is not hashed, only the files referred to relative to it
+                i++;
+                continue;
+            }
+            if (arg.startsWith("-")) {
+                continue;
+            }
+            for (String path : arg.split(File.pathSeparator)) {
+                updateWithFile(digest, new File(path));
+                if (!rootPath.isEmpty()) {
+                    updateWithFile(digest, new File(rootPath, path));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The input settings determined by the arguments and the settings file they refer to.
+     * Only the settings referring to input files are set.
+     */
+    static InputSettings resolveInputSettings(String[] args) {
+
+        CommandLine commandLine = new CommandLineReader().read(args);
+        InputSettings result = new InputSettings();
+        if (commandLine.hasOption("root-path")) {
+            result.setRootPath(commandLine.getOptionValue("root-path"));
+        }
+        if (commandLine.hasOption("classpath")) {
+            result.setClasspath(commandLine.getOptionValue("classpath"));
+        }
+        result.setClassName(commandLine.getOptionValue("class"));
+        for (String grammar : optionValues(commandLine, "grammar")) {
+            result.addUserDefinedGrammarFile(grammar);
+        }
+        for (String initial : optionValues(commandLine, "initial")) {
+            result.addInitialHeapFile(initial);
+        }
+        for (String contract : optionValues(commandLine, "contract")) {
+            result.addContractFile(contract);
+        }
+        return result;
+    }
+
+    private static String[] optionValues(CommandLine commandLine, String option) {
+
+        String[] values = commandLine.getOptionValues(option);
+        return values == null ? new String[0] : values;
+    }
+
+    private static void updateWithInputSettings(MessageDigest digest, InputSettings inputSettings) {
+
+        // class and classpath are only missing in modes that do not parse a program
+        if (inputSettings.getClassName() != null) {
+            update(digest, inputSettings.getClassName());
+            for (String path : inputSettings.getClasspath().split(File.pathSeparator)) {
+                updateWithFile(digest, new File(path));
+            }
+        }
+        for (String grammar : inputSettings.getUserDefinedGrammarFiles()) {
+            updateWithFile(digest, new File(grammar));
+        }
+        for (String initial : inputSettings.getInitialHeapFiles()) {
+            updateWithFile(digest, new File(initial));
+        }
+        for (String contract : inputSettings.getContractFileNames()) {
+            updateWithFile(digest, new File(contract));
+        }
+    }
+
+    private static String determineRootPath(String[] args) {
+
+        for (int i = 0; i < args.length - 1; i++) {
+            if (ROOT_PATH_OPTIONS.contains(args[i])) {
+                return args[i + 1];
+            }
+        }
+        return "";
+    }
+
+    private static void updateWithFile(MessageDigest digest, File file) {
+
+        if (!file.exists()) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(file.toPath())) {
+            List<Path> regularFiles = paths
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+            for (Path path : regularFiles) {
+                // the location of the file is already determined by the arguments or the input settings
+                update(digest, file.toPath().relativize(path).toString());
+                digest.update(Files.readAllBytes(path));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read input file " + file, e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+        }
+    }
+}
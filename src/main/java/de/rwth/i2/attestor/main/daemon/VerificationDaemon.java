@@ -0,0 +1,125 @@
+package de.rwth.i2.attestor.main.daemon;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A long-running process that executes verification jobs without paying for JVM warm-up, Soot initialization,
+ * program translation and grammar parsing for every job.
+ * <p>
+ * Jobs are read line by line either from stdin or, if started with {@code --port <port>}, from connections to
+ * a socket on the loopback interface. Each job is a JSON object of the form
+ * <pre>
+ *     {"id": "some identifier", "args": ["-l", "settings.attestor", "-m", "someMethod"]}
+ * </pre>
+ * where args are the same command line arguments that are passed to {@link de.rwth.i2.attestor.main.Attestor}.
+ * For each job, a single line containing a JSON object with the results is written back.
+ * A job of the form {@code {"command": "shutdown"}} terminates the daemon.
+ * <p>
+ * The program and grammar of consecutive jobs are reused as long as their {@link InputFingerprint} does not
+ * change, i.e. as long as the same class files, grammar files and options are supplied.
+ * Since logging is written to stdout, stdout is redirected to stderr if jobs are read from stdin.
+ */
+public class VerificationDaemon {
+
+    private final WarmAttestor attestor = new WarmAttestor();
+    private boolean shutdownRequested = false;
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length == 2 && args[0].equals("--port")) {
+            new VerificationDaemon().serve(Integer.parseInt(args[1]));
+        } else if (args.length == 0) {
+            PrintStream protocolOut = System.out;
+            System.setOut(System.err);
+            new VerificationDaemon().process(System.in, protocolOut);
+        } else {
+            System.err.println("usage: VerificationDaemon [--port <port>]");
+            System.exit(1);
+        }
+    }
+
+    private void serve(int port) throws IOException {
+
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            while (!shutdownRequested) {
+                try (Socket socket = serverSocket.accept()) {
+                    process(socket.getInputStream(), socket.getOutputStream());
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes all jobs read from the given input and writes their results to the given output.
+     *
+     * @param in  The stream providing one job per line.
+     * @param out The stream to which one result per job is written.
+     */
+    void process(InputStream in, OutputStream out) throws IOException {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), true);
+
+        String line;
+        while (!shutdownRequested && (line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            writer.println(handle(line).toString());
+        }
+    }
+
+    private JSONObject handle(String line) {
+
+        JSONObject result = new JSONObject();
+        try {
+            JSONObject job = new JSONObject(line);
+            if (job.has("id")) {
+                result.put("id", job.get("id"));
+            }
+            if ("shutdown".equals(job.optString("command"))) {
+                shutdownRequested = true;
+                result.put("shutdown", true);
+                return result;
+            }
+            JSONArray jsonArgs = job.getJSONArray("args");
+            String[] args = new String[jsonArgs.length()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = jsonArgs.getString(i);
+            }
+            runJob(args, result);
+        } catch (JSONException e) {
+            result.put("error", "Malformed job: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private void runJob(String[] args, JSONObject result) {
+
+        attestor.run(args);
+
+        result.put("fatalError", attestor.hasFatalError());
+        result.put("reusedWarmInput", attestor.hasReusedWarmInput());
+        result.put("totalStates", attestor.getTotalNumberOfStates());
+
+        if (!attestor.hasFatalError()) {
+            result.put("finalStates", attestor.getNumberOfFinalStates());
+            result.put("allLTLSatisfied", attestor.hasAllLTLSatisfied());
+        }
+
+        JSONObject times = new JSONObject();
+        for (Map.Entry<String, Double> entry : attestor.getExecutionTimes().entrySet()) {
+            times.put(entry.getKey(), entry.getValue());
+        }
+        result.put("executionTimes", times);
+    }
+}
@@ -0,0 +1,77 @@
+package de.rwth.i2.attestor.main.daemon;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.main.Attestor;
+import de.rwth.i2.attestor.main.scene.DefaultScene;
+import de.rwth.i2.attestor.phases.parser.ParseGrammarPhase;
+import de.rwth.i2.attestor.phases.parser.ParseProgramPhase;
+
+/**
+ * An {@link Attestor} that can be run repeatedly and keeps the parsed program and grammar of its most
+ * recent run warm.
+ * <br>
+ * If the {@link InputFingerprint} of a run coincides with the one of the run that parsed the warm program,
+ * neither Soot nor the translation to our semantics nor grammar parsing are invoked again. Instead, the new
+ * run uses a scene sharing all types, labels, nonterminals and methods with the warm scene.
+ * Only a single program is kept warm.
+ * <br>
+ * Runs must not be executed concurrently.
+ */
+public class WarmAttestor extends Attestor {
+
+    private String warmFingerprint = null;
+    private DefaultScene warmScene = null;
+    private Grammar warmGrammar = null;
+
+    private boolean reusesWarmInput = false;
+    private ParseProgramPhase parseProgramPhase;
+    private ParseGrammarPhase parseGrammarPhase;
+
+    @Override
+    protected void registerPhases(String[] args) throws Exception {
+
+        String fingerprint = InputFingerprint.of(args);
+        reusesWarmInput = fingerprint.equals(warmFingerprint);
+
+        if (reusesWarmInput) {
+            scene = new DefaultScene(warmScene);
+        } else {
+            warmFingerprint = null;
+            warmScene = null;
+            warmGrammar = null;
+            scene = new DefaultScene();
+        }
+
+        try {
+            super.registerPhases(args);
+        } finally {
+            if (!reusesWarmInput && parseProgramPhase.getProgram() != null) {
+                warmFingerprint = fingerprint;
+                warmScene = scene;
+                warmGrammar = parseGrammarPhase.getGrammar();
+            }
+        }
+    }
+
+    @Override
+    protected ParseProgramPhase createParseProgramPhase() {
+
+        parseProgramPhase = new ParseProgramPhase(scene, reusesWarmInput);
+        return parseProgramPhase;
+    }
+
+    @Override
+    protected ParseGrammarPhase createParseGrammarPhase() {
+
+        parseGrammarPhase = new ParseGrammarPhase(scene, reusesWarmInput ? warmGrammar : null);
+        return parseGrammarPhase;
+    }
+
+    /**
+     * @return True if and only if the most recent run reused the program and grammar of a previous run.
+     */
+    public boolean hasReusedWarmInput() {
+
+        return reusesWarmInput;
+    }
+}
@@ -17,23 +17,54 @@ import de.rwth.i2.attestor.types.GeneralType;
 import de.rwth.i2.attestor.types.Type;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The default implementation of a {@link Scene}.
+ * All types, labels, nonterminals and methods are owned by the scene. Independent scenes can thus be
+ * used by concurrent analyses within the same JVM.
+ */
 public class DefaultScene implements Scene {
 
 
-    private final GeneralType.Factory typeFactory = new GeneralType.Factory();
-    private final BasicSelectorLabel.Factory basicSelectorLabelFactory = new BasicSelectorLabel.Factory();
-    private final BasicNonterminal.Factory basicNonterminalFactory = new BasicNonterminal.Factory();
+    private final GeneralType.Factory typeFactory;
+    private final BasicSelectorLabel.Factory basicSelectorLabelFactory;
+    private final BasicNonterminal.Factory basicNonterminalFactory;
 
     private final Options options = new Options();
-    private final Labels labels = new Labels();
+    private final Labels labels;
     private final Strategies strategies = new Strategies();
 
-    private final Map<String, Method> methods = new HashMap<>();
+    private final Map<String, Method> methods;
     private long totalNumberOfStates = 0;
 
+    public DefaultScene() {
+
+        typeFactory = new GeneralType.Factory();
+        basicSelectorLabelFactory = new BasicSelectorLabel.Factory();
+        basicNonterminalFactory = new BasicNonterminal.Factory();
+        labels = new Labels();
+        methods = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a scene that shares all types, labels, nonterminals and methods with a previously used scene.
+     * Options, strategies and the number of generated states are not shared.
+     * Since method executors are replaced whenever a state space is generated, contracts computed
+     * for the previous scene are not reused either.
+     *
+     * @param warmScene The scene whose program translation and grammar should be reused.
+     */
+    public DefaultScene(DefaultScene warmScene) {
+
+        typeFactory = warmScene.typeFactory;
+        basicSelectorLabelFactory = warmScene.basicSelectorLabelFactory;
+        basicNonterminalFactory = warmScene.basicNonterminalFactory;
+        labels = warmScene.labels;
+        methods = warmScene.methods;
+    }
+
     @Override
     public Type getType(String name) {
 
@@ -117,13 +148,7 @@ public class DefaultScene implements Scene {
     @Override
     public Method getOrCreateMethod(String signature) {
 
-        if(methods.containsKey(signature)) {
-            return methods.get(signature);
-        } else {
-            Method result = new ConcreteMethod(signature);
-            methods.put(signature, result);
-            return result;
-        }
+        return methods.computeIfAbsent(signature, ConcreteMethod::new);
     }
     
     @Override
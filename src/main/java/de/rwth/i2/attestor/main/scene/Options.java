@@ -18,14 +18,33 @@ public class Options {
      * Enabled this option leads to using RefinedNonterminals in graph grammars.
      */
     private boolean grammarRefinementEnabled = false;
+    /**
+     * If enabled, refined grammar rules are computed on demand instead of refining the whole grammar upfront.
+     */
+    private boolean lazyGrammarRefinementEnabled = false;
     /**
      * If true, unreachable parts of heap are regularly eliminated.
      */
     private boolean garbageCollectionEnabled = true;
+    private boolean incrementalGarbageCollectionEnabled = true;
     /**
      * Determines if post-processing is applied to generated state spaces.
      */
     private boolean postProcessingEnabled = false;
+    /**
+     * If enabled, procedure calls reuse contracts whose precondition is an abstraction of the heap in scope
+     * instead of only contracts whose precondition is isomorphic to the heap in scope.
+     */
+    private boolean contractSubsumptionEnabled = false;
+    /**
+     * If enabled, sequences of straight-line statements are executed without storing intermediate states
+     * that are neither merge points nor distinguishable by atomic propositions.
+     */
+    private boolean largeBlockEncodingEnabled = false;
+    /**
+     * If enabled, unproductive and derivable rules are removed from the grammar before the analysis.
+     */
+    private boolean grammarMinimizationEnabled = false;
     /**
      * If enabled, external nodes of rules are collapsed before applying abstraction
      */
@@ -54,6 +73,17 @@ public class Options {
 
     private int maxHeap = 50;
 
+    /**
+     * Determines the order in which states of the top-level state space are explored.
+     */
+    private String explorationOrder = "dfs";
+
+    /**
+     * Determines the order in which states of procedure state spaces are explored.
+     * If no order is set explicitly, the order of the top-level state space is used.
+     */
+    private String procedureExplorationOrder = null;
+
     // -----------------------------------------------------------------------------------
 
     public void setPostProcessingEnabled(boolean enabled) {
@@ -71,11 +101,36 @@ public class Options {
         grammarRefinementEnabled = enabled;
     }
 
+    public void setLazyGrammarRefinementEnabled(boolean enabled) {
+
+        lazyGrammarRefinementEnabled = enabled;
+    }
+
     public void setGarbageCollectionEnabled(boolean enabled) {
 
         this.garbageCollectionEnabled = enabled;
     }
 
+    public void setIncrementalGarbageCollectionEnabled(boolean enabled) {
+
+        this.incrementalGarbageCollectionEnabled = enabled;
+    }
+
+    public void setContractSubsumptionEnabled(boolean enabled) {
+
+        this.contractSubsumptionEnabled = enabled;
+    }
+
+    public void setLargeBlockEncodingEnabled(boolean enabled) {
+
+        this.largeBlockEncodingEnabled = enabled;
+    }
+
+    public void setGrammarMinimizationEnabled(boolean enabled) {
+
+        this.grammarMinimizationEnabled = enabled;
+    }
+
     public void setAdmissibleAbstractionEnabled(boolean admissibleAbstractionEnabled) {
         this.admissibleAbstractionEnabled = admissibleAbstractionEnabled;
     }
@@ -121,6 +176,25 @@ public class Options {
     }
 
 
+    public void setExplorationOrder(String explorationOrder) {
+        this.explorationOrder = explorationOrder;
+    }
+
+    public void setProcedureExplorationOrder(String procedureExplorationOrder) {
+        this.procedureExplorationOrder = procedureExplorationOrder;
+    }
+
+    public String getExplorationOrder() {
+        return explorationOrder;
+    }
+
+    public String getProcedureExplorationOrder() {
+        if (procedureExplorationOrder == null) {
+            return explorationOrder;
+        }
+        return procedureExplorationOrder;
+    }
+
     public int getMaxStateSpace() {
         return maxStateSpace;
     }
@@ -149,6 +223,11 @@ public class Options {
         return grammarRefinementEnabled;
     }
 
+    public boolean isLazyGrammarRefinementEnabled() {
+
+        return lazyGrammarRefinementEnabled;
+    }
+
     public boolean isCanonicalEnabled() {
         return canonicalEnabled;
     }
@@ -162,6 +241,22 @@ public class Options {
         return garbageCollectionEnabled;
     }
 
+    public boolean isIncrementalGarbageCollectionEnabled() {
+        return incrementalGarbageCollectionEnabled;
+    }
+
+    public boolean isContractSubsumptionEnabled() {
+        return contractSubsumptionEnabled;
+    }
+
+    public boolean isLargeBlockEncodingEnabled() {
+        return largeBlockEncodingEnabled;
+    }
+
+    public boolean isGrammarMinimizationEnabled() {
+        return grammarMinimizationEnabled;
+    }
+
     public boolean isChainAbstractionEnabled() {
         return chainAbstractionEnabled && !canonicalEnabled;
     }
@@ -0,0 +1,423 @@
+package de.rwth.i2.attestor.markingGeneration;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.graph.morphism.MorphismOptions;
+import de.rwth.i2.attestor.io.jsonExport.inputFormat.HCtoInputFormatExporter;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Stores the heap configurations computed by marking generators on disk such that subsequent analyses can
+ * reuse them.
+ * <br>
+ * Marked heap configurations only depend on the grammar, the available selector labels, the abstraction options,
+ * the bounds on the state space used for marking generation, whether rules are collapsed, the kind of marking
+ * and the initial heap configuration. Each entry is stored in a file named after a hash of
+ * these components. Since heap configurations are hashed up to isomorphism, every file also contains the
+ * initial heap configuration, which is compared to the requested one when the entry is loaded.
+ * <br>
+ * Node types, selector labels and nonterminals are stored by name and resolved against the ones occurring in
+ * the initial heap configuration and the grammar. Entries that cannot be resolved unambiguously are
+ * neither stored nor loaded. Indexed grammars are not supported.
+ */
+public class MarkedHeapCache {
+
+    private static final Logger logger = LogManager.getLogger("MarkedHeapCache");
+
+    /**
+     * Has to be changed whenever the file format or the result of marking generation changes.
+     */
+    private static final String FORMAT_VERSION = "2";
+
+    private final File directory;
+    private final Grammar grammar;
+    private final String configurationHash;
+
+    /**
+     * @param directory                   The directory containing all cache entries. It is created if necessary.
+     * @param grammar                     The grammar used for marking generation.
+     * @param availableSelectorLabelNames The selector labels available to marking generation.
+     * @param abstractionOptions          The options used for abstraction during marking generation.
+     * @param stateSpaceBound             The maximal size of state spaces during marking generation.
+     * @param stateBound                  The maximal size of states during marking generation.
+     * @param ruleCollapsingEnabled       True if and only if collapsed rules are used for abstraction.
+     */
+    public MarkedHeapCache(String directory, Grammar grammar, Collection<String> availableSelectorLabelNames,
+                           MorphismOptions abstractionOptions, int stateSpaceBound, int stateBound,
+                           boolean ruleCollapsingEnabled) {
+
+        this.directory = new File(directory);
+        this.grammar = grammar;
+
+        MessageDigest digest = newDigest();
+        update(digest, FORMAT_VERSION);
+        update(digest, new TreeSet<>(availableSelectorLabelNames).toString());
+        update(digest, abstractionOptions.isAdmissibleAbstraction() + " "
+                + abstractionOptions.isAdmissibleConstants() + " "
+                + abstractionOptions.isAdmissibleMarkings());
+        update(digest, stateSpaceBound + " " + stateBound + " " + ruleCollapsingEnabled);
+
+        SortedMap<String, Nonterminal> nonterminals = new TreeMap<>();
+        for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+            nonterminals.put(nonterminal.getLabel(), nonterminal);
+        }
+        for (Nonterminal nonterminal : nonterminals.values()) {
+            StringBuilder signature = new StringBuilder(nonterminal.getLabel()).append('/');
+            for (int i = 0; i < nonterminal.getRank(); i++) {
+                signature.append(nonterminal.isReductionTentacle(i) ? 'r' : 'n');
+            }
+            update(digest, signature.toString());
+            List<String> ruleHashes = new ArrayList<>();
+            for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                ruleHashes.add(stableHash(rhs));
+            }
+            Collections.sort(ruleHashes);
+            update(digest, ruleHashes.toString());
+        }
+        configurationHash = toHex(digest.digest());
+    }
+
+    /**
+     * @param markingKind The kind of the generated marking.
+     * @param input       The initial heap configuration.
+     * @return The previously stored marked heap configurations of the given initial heap configuration or null
+     * if no such entry exists.
+     */
+    public Collection<HeapConfiguration> load(String markingKind, HeapConfiguration input) {
+
+        File file = fileFor(markingKind, input);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            JSONObject entry = new JSONObject(content);
+            if (!FORMAT_VERSION.equals(entry.getString("version"))
+                    || !markingKind.equals(entry.getString("marking"))) {
+                return null;
+            }
+
+            Vocabulary vocabulary = new Vocabulary(input);
+            if (!input.equals(decode(entry.getJSONObject("input"), input, vocabulary))) {
+                // a different initial heap configuration with the same hash
+                return null;
+            }
+
+            JSONArray marked = entry.getJSONArray("marked");
+            List<HeapConfiguration> result = new ArrayList<>(marked.length());
+            for (int i = 0; i < marked.length(); i++) {
+                result.add(decode(marked.getJSONObject(i), input, vocabulary));
+            }
+            return result;
+        } catch (IOException | JSONException | IllegalArgumentException e) {
+            logger.debug("Ignoring unreadable cache entry " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the marked heap configurations of the given initial heap configuration unless they contain types,
+     * selector labels or nonterminals that cannot be resolved when the entry is loaded again.
+     *
+     * @param markingKind  The kind of the generated marking.
+     * @param input        The initial heap configuration.
+     * @param markedInputs The marked heap configurations generated for input.
+     */
+    public void store(String markingKind, HeapConfiguration input, Collection<HeapConfiguration> markedInputs) {
+
+        Vocabulary vocabulary = new Vocabulary(input);
+        if (!vocabulary.canResolve(input)) {
+            logger.debug("Not caching marked heaps due to ambiguous names.");
+            return;
+        }
+
+        JSONObject entry = new JSONObject();
+        entry.put("version", FORMAT_VERSION);
+        entry.put("marking", markingKind);
+        entry.put("input", HCtoInputFormatExporter.getInInputFormat(input));
+        JSONArray marked = new JSONArray();
+        for (HeapConfiguration hc : markedInputs) {
+            if (!vocabulary.canResolve(hc)) {
+                logger.debug("Not caching marked heaps due to ambiguous names.");
+                return;
+            }
+            marked.put(HCtoInputFormatExporter.getInInputFormat(hc));
+        }
+        entry.put("marked", marked);
+
+        File file = fileFor(markingKind, input);
+        try {
+            Files.createDirectories(directory.toPath());
+            // entries are written completely before they become visible to concurrent readers
+            Path temporaryFile = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+            Files.write(temporaryFile, entry.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporaryFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write cache entry " + file + ": " + e.getMessage());
+        }
+    }
+
+    private File fileFor(String markingKind, HeapConfiguration input) {
+
+        MessageDigest digest = newDigest();
+        update(digest, configurationHash);
+        update(digest, markingKind);
+        update(digest, stableHash(input));
+        return new File(directory, toHex(digest.digest()) + ".json");
+    }
+
+    private HeapConfiguration decode(JSONObject object, HeapConfiguration input, Vocabulary vocabulary) {
+
+        HeapConfiguration result = input.getEmpty();
+        HeapConfigurationBuilder builder = result.builder();
+
+        TIntArrayList nodes = new TIntArrayList();
+        JSONArray jsonNodes = object.getJSONArray("nodes");
+        for (int i = 0; i < jsonNodes.length(); i++) {
+            JSONObject node = jsonNodes.getJSONObject(i);
+            builder.addNodes(vocabulary.typeOf(node.getString("type")), node.getInt("number"), nodes);
+        }
+
+        JSONArray externals = object.getJSONArray("externals");
+        for (int i = 0; i < externals.length(); i++) {
+            builder.setExternal(nodes.get(externals.getInt(i)));
+        }
+
+        JSONArray variables = object.getJSONArray("variables");
+        for (int i = 0; i < variables.length(); i++) {
+            JSONObject variable = variables.getJSONObject(i);
+            builder.addVariableEdge(variable.getString("name"), nodes.get(variable.getInt("target")));
+        }
+
+        JSONArray selectors = object.getJSONArray("selectors");
+        for (int i = 0; i < selectors.length(); i++) {
+            JSONObject selector = selectors.getJSONObject(i);
+            builder.addSelector(nodes.get(selector.getInt("origin")),
+                    vocabulary.selectorLabelOf(selector.getString("label")),
+                    nodes.get(selector.getInt("target")));
+        }
+
+        JSONArray hyperedges = object.getJSONArray("hyperedges");
+        for (int i = 0; i < hyperedges.length(); i++) {
+            JSONObject hyperedge = hyperedges.getJSONObject(i);
+            JSONArray tentacles = hyperedge.getJSONArray("tentacles");
+            TIntArrayList attachedNodes = new TIntArrayList(tentacles.length());
+            for (int t = 0; t < tentacles.length(); t++) {
+                attachedNodes.add(nodes.get(tentacles.getInt(t)));
+            }
+            builder.addNonterminalEdge(vocabulary.nonterminalOf(hyperedge.getString("label")), attachedNodes);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Computes a hash of a heap configuration that is invariant under isomorphism and, in contrast to
+     * {@link HeapConfiguration#hashCode()}, does not depend on object identities and is thus stable across runs.
+     * Every node is described by its type, its selectors, its variables and its attached nonterminal edges;
+     * the hash combines the sorted descriptions of all nodes with the descriptions of all external nodes in order.
+     */
+    static String stableHash(HeapConfiguration hc) {
+
+        Map<Integer, String> descriptions = new HashMap<>();
+        TIntArrayList nodes = hc.nodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            int node = nodes.get(i);
+            descriptions.put(node, describe(hc, node));
+        }
+
+        MessageDigest digest = newDigest();
+        List<String> sortedDescriptions = new ArrayList<>(descriptions.values());
+        Collections.sort(sortedDescriptions);
+        for (String description : sortedDescriptions) {
+            update(digest, description);
+        }
+        for (int i = 0; i < hc.countExternalNodes(); i++) {
+            update(digest, "external " + descriptions.get(hc.externalNodeAt(i)));
+        }
+        return toHex(digest.digest());
+    }
+
+    private static String describe(HeapConfiguration hc, int node) {
+
+        List<String> selectors = new ArrayList<>();
+        for (SelectorLabel sel : hc.selectorLabelsOf(node)) {
+            selectors.add(sel.getLabel() + "->" + hc.nodeTypeOf(hc.selectorTargetOf(node, sel)));
+        }
+        Collections.sort(selectors);
+
+        List<String> variables = new ArrayList<>();
+        TIntArrayList attachedVariables = hc.attachedVariablesOf(node);
+        for (int i = 0; i < attachedVariables.size(); i++) {
+            variables.add(hc.nameOf(attachedVariables.get(i)));
+        }
+        Collections.sort(variables);
+
+        List<String> tentacles = new ArrayList<>();
+        TIntArrayList ntEdges = hc.attachedNonterminalEdgesOf(node);
+        for (int i = 0; i < ntEdges.size(); i++) {
+            int ntEdge = ntEdges.get(i);
+            TIntArrayList attachedNodes = hc.attachedNodesOf(ntEdge);
+            for (int t = 0; t < attachedNodes.size(); t++) {
+                if (attachedNodes.get(t) == node) {
+                    tentacles.add(hc.labelOf(ntEdge).getLabel() + "@" + t);
+                }
+            }
+        }
+        Collections.sort(tentacles);
+
+        return hc.nodeTypeOf(node) + " " + selectors + " " + variables + " " + tentacles;
+    }
+
+    private static MessageDigest newDigest() {
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+
+        StringBuilder result = new StringBuilder();
+        for (byte b : bytes) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    /**
+     * The types, selector labels and nonterminals occurring in an initial heap configuration and the grammar
+     * indexed by the names used in the input format.
+     * Names that refer to more than one object are ambiguous and cannot be resolved.
+     */
+    private final class Vocabulary {
+
+        private final Map<String, Type> types = new HashMap<>();
+        private final Map<String, SelectorLabel> selectorLabels = new HashMap<>();
+        private final Map<String, Nonterminal> nonterminals = new HashMap<>();
+        private final Set<String> ambiguousNames = new HashSet<>();
+
+        Vocabulary(HeapConfiguration input) {
+
+            add(input);
+            for (Nonterminal nonterminal : grammar.getAllLeftHandSides()) {
+                register(nonterminals, nonterminal.getLabel(), nonterminal);
+                for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                    add(rhs);
+                }
+            }
+        }
+
+        private void add(HeapConfiguration hc) {
+
+            TIntArrayList nodes = hc.nodes();
+            for (int i = 0; i < nodes.size(); i++) {
+                int node = nodes.get(i);
+                Type type = hc.nodeTypeOf(node);
+                register(types, type.toString(), type);
+                for (SelectorLabel sel : hc.selectorLabelsOf(node)) {
+                    register(selectorLabels, sel.getLabel(), sel);
+                }
+            }
+            TIntArrayList ntEdges = hc.nonterminalEdges();
+            for (int i = 0; i < ntEdges.size(); i++) {
+                Nonterminal nonterminal = hc.labelOf(ntEdges.get(i));
+                register(nonterminals, nonterminal.getLabel(), nonterminal);
+            }
+        }
+
+        private <T> void register(Map<String, T> names, String name, T object) {
+
+            T previous = names.putIfAbsent(name, object);
+            if (previous != null && !previous.equals(object)) {
+                ambiguousNames.add(name);
+            }
+        }
+
+        private <T> T resolve(Map<String, T> names, String name) {
+
+            T result = names.get(name);
+            if (result == null || ambiguousNames.contains(name)) {
+                throw new IllegalArgumentException("Unknown or ambiguous name: " + name);
+            }
+            return result;
+        }
+
+        Type typeOf(String name) {
+
+            return resolve(types, name);
+        }
+
+        SelectorLabel selectorLabelOf(String name) {
+
+            return resolve(selectorLabels, name);
+        }
+
+        Nonterminal nonterminalOf(String name) {
+
+            return resolve(nonterminals, name);
+        }
+
+        /**
+         * @return True if and only if every type, selector label and nonterminal of hc is resolved to itself.
+         */
+        boolean canResolve(HeapConfiguration hc) {
+
+            TIntArrayList nodes = hc.nodes();
+            for (int i = 0; i < nodes.size(); i++) {
+                int node = nodes.get(i);
+                Type type = hc.nodeTypeOf(node);
+                if (!isResolvedTo(types, type.toString(), type)) {
+                    return false;
+                }
+                for (SelectorLabel sel : hc.selectorLabelsOf(node)) {
+                    if (!isResolvedTo(selectorLabels, sel.getLabel(), sel)) {
+                        return false;
+                    }
+                }
+            }
+            TIntArrayList ntEdges = hc.nonterminalEdges();
+            for (int i = 0; i < ntEdges.size(); i++) {
+                Nonterminal nonterminal = hc.labelOf(ntEdges.get(i));
+                if (!isResolvedTo(nonterminals, nonterminal.getLabel(), nonterminal)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private <T> boolean isResolvedTo(Map<String, T> names, String name, T object) {
+
+            return !ambiguousNames.contains(name) && object.equals(names.get(name));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package de.rwth.i2.attestor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing counter.
+ */
+public class Counter {
+
+    /**
+     * A counter that ignores all updates. It is handed out by disabled registries.
+     */
+    static final Counter DISABLED = new Counter() {
+
+        @Override
+        public void add(long amount) {
+
+        }
+    };
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+
+    }
+
+    public void increment() {
+
+        add(1);
+    }
+
+    public void add(long amount) {
+
+        value.add(amount);
+    }
+
+    public long get() {
+
+        return value.sum();
+    }
+}
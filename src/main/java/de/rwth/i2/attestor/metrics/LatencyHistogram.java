@@ -0,0 +1,124 @@
+package de.rwth.i2.attestor.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies measured in nanoseconds.
+ * Recorded values are assigned to buckets whose bounds are powers of two, i.e. bucket i
+ * contains all values v with 2^(i-1) &lt; v &lt;= 2^i.
+ */
+public class LatencyHistogram {
+
+    private static final int NUMBER_OF_BUCKETS = 64;
+
+    /**
+     * A histogram that ignores all recorded values. It is handed out by disabled registries.
+     */
+    static final LatencyHistogram DISABLED = new LatencyHistogram() {
+
+        @Override
+        public void record(long nanos) {
+
+        }
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong(0);
+
+    LatencyHistogram() {
+
+    }
+
+    /**
+     * @param nanos The latency in nanoseconds that should be recorded.
+     */
+    public void record(long nanos) {
+
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Records the time elapsed since the provided start time.
+     *
+     * @param startNanos A value obtained from System.nanoTime().
+     */
+    public void recordSince(long startNanos) {
+
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int bucketOf(long nanos) {
+
+        if (nanos <= 1) {
+            return 0;
+        }
+        return NUMBER_OF_BUCKETS - Long.numberOfLeadingZeros(nanos - 1);
+    }
+
+    public long getCount() {
+
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+
+        return total.sum();
+    }
+
+    public long getMaxNanos() {
+
+        return max.get();
+    }
+
+    public double getMeanNanos() {
+
+        long n = getCount();
+        if (n == 0) {
+            return 0.0;
+        }
+        return getTotalNanos() / (double) n;
+    }
+
+    /**
+     * @param quantile A value between 0 and 1.
+     * @return An upper bound of the requested quantile, i.e. the upper bound of the bucket containing it.
+     */
+    public long getQuantileUpperBound(double quantile) {
+
+        long n = getCount();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return i == NUMBER_OF_BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * @return The number of recorded values per bucket.
+     */
+    public long[] getBuckets() {
+
+        long[] result = new long[NUMBER_OF_BUCKETS];
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            result[i] = buckets.get(i);
+        }
+        return result;
+    }
+}
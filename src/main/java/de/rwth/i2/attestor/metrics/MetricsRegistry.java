@@ -0,0 +1,122 @@
+package de.rwth.i2.attestor.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects named counters and latency histograms.
+ * <p>
+ * Every thread is associated with a registry, which is obtained by {@link #current()}.
+ * By default, this is a disabled registry such that instrumented code causes almost no overhead
+ * unless an analysis explicitly installs a registry via {@link #install(MetricsRegistry)}.
+ * Threads created while a registry is installed inherit the registry.
+ *
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry DISABLED = new MetricsRegistry(false);
+
+    private static final InheritableThreadLocal<MetricsRegistry> currentRegistry =
+            new InheritableThreadLocal<MetricsRegistry>() {
+                @Override
+                protected MetricsRegistry initialValue() {
+                    return DISABLED;
+                }
+            };
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public MetricsRegistry() {
+
+        this(true);
+    }
+
+    private MetricsRegistry(boolean enabled) {
+
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return A registry that discards all metrics.
+     */
+    public static MetricsRegistry disabled() {
+
+        return DISABLED;
+    }
+
+    /**
+     * @return The registry associated with the current thread.
+     */
+    public static MetricsRegistry current() {
+
+        return currentRegistry.get();
+    }
+
+    /**
+     * Associates the current thread (and all threads created by it from now on) with the given registry.
+     *
+     * @param registry The registry that should collect all metrics of the current thread.
+     */
+    public static void install(MetricsRegistry registry) {
+
+        currentRegistry.set(registry);
+    }
+
+    /**
+     * Resets the registry associated with the current thread to a disabled registry.
+     */
+    public static void uninstall() {
+
+        currentRegistry.remove();
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * @param name The name of the requested counter.
+     * @return The counter with the given name. If no such counter exists, it is created.
+     */
+    public Counter counter(String name) {
+
+        if (!enabled) {
+            return Counter.DISABLED;
+        }
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @param name The name of the requested histogram.
+     * @return The histogram with the given name. If no such histogram exists, it is created.
+     */
+    public LatencyHistogram histogram(String name) {
+
+        if (!enabled) {
+            return LatencyHistogram.DISABLED;
+        }
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * @return All counters ordered by their names.
+     */
+    public Map<String, Counter> getCounters() {
+
+        return Collections.unmodifiableMap(new TreeMap<>(counters));
+    }
+
+    /**
+     * @return All histograms ordered by their names.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+
+        return Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * A lightweight registry of counters and latency histograms that collects performance metrics
+ * during a single run of Attestor.
+ * <p>
+ * The registry of the currently executed analysis is obtained by {@link de.rwth.i2.attestor.metrics.MetricsRegistry#current()}.
+ * If no registry has been installed for the current thread, a disabled registry is returned whose
+ * counters and histograms ignore all recorded values.
+ *
+ */
+package de.rwth.i2.attestor.metrics;
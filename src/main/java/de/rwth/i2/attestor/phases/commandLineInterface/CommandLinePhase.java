@@ -3,9 +3,11 @@ package de.rwth.i2.attestor.phases.commandLineInterface;
 import de.rwth.i2.attestor.LTLFormula;
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.phases.communication.InputSettings;
 import de.rwth.i2.attestor.phases.communication.ModelCheckingSettings;
 import de.rwth.i2.attestor.phases.communication.OutputSettings;
+import de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies.ExplorationOrder;
 import de.rwth.i2.attestor.phases.transformers.InputSettingsTransformer;
 import de.rwth.i2.attestor.phases.transformers.MCSettingsTransformer;
 import de.rwth.i2.attestor.phases.transformers.OutputSettingsTransformer;
@@ -148,21 +150,63 @@ public class CommandLinePhase extends AbstractPhase
             case "no-garbage-collector":
                 noGarbageCollector();
                 break;
+            case "no-incremental-garbage-collector":
+                noIncrementalGarbageCollector();
+                break;
+            case "lazy-refinement":
+                lazyRefinement();
+                break;
+            case "contract-subsumption":
+                contractSubsumption();
+                break;
+            case "minimize-grammar":
+                minimizeGrammar();
+                break;
+            case "large-block-encoding":
+                largeBlockEncoding();
+                break;
+            case "analyze-grammar":
+                // determines the executed phases and was thus already processed before
+                break;
+            case "marking-cache":
+                markingCache(option);
+                break;
+            case "learn-grammar":
+                learnGrammar(option);
+                break;
+            case "diff":
+                diff(option);
+                break;
+            case "diff-output":
+                diffOutput(option);
+                break;
             case "max-state-space":
                 maxStateSpace(option);
                 break;
             case "max-heap":
                 maxHeap(option);
                 break;
+            case "exploration-order":
+                explorationOrder(option);
+                break;
+            case "procedure-exploration-order":
+                procedureExplorationOrder(option);
+                break;
             case "export":
                 export(option);
                 break;
+            case "profile":
+                profile();
+                break;
             case "export-grammar":
                 exportGrammar(option);
                 break;
             case "export-large-states":
                 exportLargeStates(option);
                 break;
+            case "export-procedures":
+                exportProcedures(option);
+                break;
             case "save-contracts":
                 saveContracts(option);
                 break;
@@ -349,6 +393,36 @@ public class CommandLinePhase extends AbstractPhase
         scene().options().setGarbageCollectionEnabled(false);
     }
 
+    private void noIncrementalGarbageCollector() {
+
+        logger.info("disabled incremental garbage collection");
+        scene().options().setIncrementalGarbageCollectionEnabled(false);
+    }
+
+    private void lazyRefinement() {
+
+        logger.info("enabled on-demand grammar refinement");
+        scene().options().setLazyGrammarRefinementEnabled(true);
+    }
+
+    private void contractSubsumption() {
+
+        logger.info("enabled reuse of contracts with more abstract preconditions");
+        scene().options().setContractSubsumptionEnabled(true);
+    }
+
+    private void largeBlockEncoding() {
+
+        logger.info("enabled large-block encoding of straight-line statements");
+        scene().options().setLargeBlockEncodingEnabled(true);
+    }
+
+    private void minimizeGrammar() {
+
+        logger.info("enabled removal of redundant grammar rules");
+        scene().options().setGrammarMinimizationEnabled(true);
+    }
+
     private void maxStateSpace(Option option) {
 
         int size = Integer.valueOf(option.getValue());
@@ -363,6 +437,20 @@ public class CommandLinePhase extends AbstractPhase
         scene().options().setMaxHeap(size);
     }
 
+    private void explorationOrder(Option option) {
+
+        String order = ExplorationOrder.parse(option.getValue()).toString();
+        logger.info("exploration order: " + order);
+        scene().options().setExplorationOrder(order);
+    }
+
+    private void procedureExplorationOrder(Option option) {
+
+        String order = ExplorationOrder.parse(option.getValue()).toString();
+        logger.info("exploration order of procedures: " + order);
+        scene().options().setProcedureExplorationOrder(order);
+    }
+
     private void export(Option option) {
 
         String exportPath = option.getValue();
@@ -370,6 +458,14 @@ public class CommandLinePhase extends AbstractPhase
         outputSettings.setExportPath(exportPath);
     }
 
+    private void profile() {
+
+        logger.info("performance metrics will be collected");
+        if (!MetricsRegistry.current().isEnabled()) {
+            MetricsRegistry.install(new MetricsRegistry());
+        }
+    }
+
     private void exportGrammar(Option option) {
 
         String exportPath = option.getValue();
@@ -377,6 +473,35 @@ public class CommandLinePhase extends AbstractPhase
         outputSettings.setExportGrammarPath(exportPath);
     }
 
+    private void markingCache(Option option) {
+
+        String markingCachePath = option.getValue();
+        logger.info("marked heaps will be cached in " + markingCachePath);
+        inputSettings.setMarkingCachePath(markingCachePath);
+    }
+
+    private void learnGrammar(Option option) {
+
+        String learnedGrammarPath = option.getValue();
+        logger.info("learned grammar will be written to " + learnedGrammarPath);
+        outputSettings.setLearnedGrammarPath(learnedGrammarPath);
+    }
+
+    private void diff(Option option) {
+
+        for(String diffInput : option.getValues()) {
+            logger.info("comparing " + diffInput);
+            inputSettings.addDiffInput(diffInput);
+        }
+    }
+
+    private void diffOutput(Option option) {
+
+        String diffPath = option.getValue();
+        logger.info("diff will be written to " + diffPath);
+        outputSettings.setDiffPath(diffPath);
+    }
+
     private void exportLargeStates(Option option) {
 
         String exportPath = option.getValue();
@@ -384,6 +509,13 @@ public class CommandLinePhase extends AbstractPhase
         outputSettings.setExportLargeStatesPath(exportPath);
     }
 
+    private void exportProcedures(Option option) {
+
+        String exportPath = option.getValue();
+        logger.info("procedures will be exported to " + exportPath);
+        outputSettings.setExportProceduresPath(exportPath);
+    }
+
     private void saveContracts(Option option) {
         String path = option.getValue();
         logger.info("contracts will be saved in " + path);
@@ -416,7 +548,9 @@ public class CommandLinePhase extends AbstractPhase
 
     @Override
     public void logSummary() {
-        logSum("Analyzed method: " + inputSettings.getClassName() + "." + inputSettings.getMethodName());
+        if(inputSettings.getClassName() != null) {
+            logSum("Analyzed method: " + inputSettings.getClassName() + "." + inputSettings.getMethodName());
+        }
         String description = inputSettings.getDescription();
         if(description != null) {
             logSum("Scenario: " + description);
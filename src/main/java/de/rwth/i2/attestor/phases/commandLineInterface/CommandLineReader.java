@@ -14,6 +14,21 @@ import java.util.List;
 
 public class CommandLineReader {
 
+    /**
+     * The option switching to the standalone grammar analysis.
+     */
+    public static final String ANALYZE_GRAMMAR = "analyze-grammar";
+
+    /**
+     * The option switching to learning a graph grammar from example heaps.
+     */
+    public static final String LEARN_GRAMMAR = "learn-grammar";
+
+    /**
+     * The option switching to comparing two exported state spaces or contract sets.
+     */
+    public static final String DIFF = "diff";
+
     private static Logger logger = LogManager.getLogger("CommandLineReader");
     private Options commandLineOptions = new Options();
 
@@ -37,6 +52,12 @@ public class CommandLineReader {
             throw new IllegalStateException("Failed to read settings file (" + e.getMessage() + ").");
         }
 
+        if (allArguments.contains("--" + ANALYZE_GRAMMAR) || allArguments.contains("--" + LEARN_GRAMMAR)
+                || allArguments.contains("--" + DIFF)) {
+            commandLineOptions.getOption("class").setRequired(false);
+            commandLineOptions.getOption("classpath").setRequired(false);
+        }
+
         CommandLineParser parser = new DefaultParser();
         try {
             String[] allArgs = allArguments.toArray(new String[allArguments.size()]);
@@ -137,6 +158,59 @@ public class CommandLineReader {
                         .build()
         );
 
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt(ANALYZE_GRAMMAR)
+                        .desc("Only parses and analyzes the supplied graph grammars instead of analyzing a program. " +
+                                "Reports unproductive nonterminals, violations of typedness and local " +
+                                "concretizability as well as all rules removed by --minimize-grammar. " +
+                                "Options --class and --classpath are not required in this mode. " +
+                                "This option has to be provided on the command line and not in a settings file.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt(LEARN_GRAMMAR)
+                        .hasArg()
+                        .argName("file")
+                        .desc("Learns a graph grammar from example heaps instead of analyzing a program. " +
+                                "The examples are the heaps supplied by --initial or, if --class is provided, " +
+                                "the heaps of all final states obtained by symbolically executing the method " +
+                                "determined by --method on the initial heaps without abstraction. " +
+                                "Hence, this method has to terminate within the bound set by --max-state-space. " +
+                                "The learned grammar is written to ROOT_PATH/<file>, where ROOT_PATH is the path " +
+                                "determined by --root-path, and can be supplied to further analyses via --grammar. " +
+                                "Option --classpath is not required if --class is not provided. " +
+                                "This option has to be provided on the command line and not in a settings file.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt(DIFF)
+                        .numberOfArgs(2)
+                        .argName("old> <new")
+                        .desc("Compares two state spaces exported via --export or two sets of contracts saved via " +
+                                "--save-contracts instead of analyzing a program. States are matched by their " +
+                                "program counter and heap isomorphism, contracts by their preconditions. " +
+                                "Added and removed states, transitions, atomic propositions, contracts and " +
+                                "postconditions are written in JSON format to the file determined by --diff-output. " +
+                                "Options --class and --classpath are not required in this mode. " +
+                                "This option has to be provided on the command line and not in a settings file.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("diff-output")
+                        .hasArg()
+                        .argName("file")
+                        .desc("The file ROOT_PATH/<file> the result of --diff is written to, where ROOT_PATH is " +
+                                "the path determined by --root-path. Defaults to diff.json.")
+                        .build()
+        );
+
         commandLineOptions.addOption(
                 Option.builder("rp")
                         .longOpt("root-path")
@@ -222,6 +296,18 @@ public class CommandLineReader {
                         .build()
         );
 
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("marking-cache")
+                        .hasArg()
+                        .argName("directory")
+                        .desc("Stores the initial heaps with markings required by LTL formulas in " +
+                                "ROOT_PATH/<directory>, where ROOT_PATH is the path determined by --root-path, " +
+                                "and reuses them in subsequent analyses with the same grammar and initial heaps. " +
+                                "Marked heaps of indexed grammars are not cached.")
+                        .build()
+        );
+
         commandLineOptions.addOption(
                 Option.builder("m")
                         .longOpt("method")
@@ -389,6 +475,56 @@ public class CommandLineReader {
                         .build()
         );
 
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("no-incremental-garbage-collector")
+                        .desc("Always searches the whole heap for unreachable nodes instead of only " +
+                                "after a pointer to a node that might become unreachable has been dropped.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("lazy-refinement")
+                        .desc("Computes the rules of the refined grammar on demand whenever a refined nonterminal " +
+                                "is materialized or encountered during abstraction instead of refining the whole " +
+                                "grammar before state space generation.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("contract-subsumption")
+                        .desc("Reuses the contract of a procedure if its precondition is an abstraction of the " +
+                                "heap in scope of a procedure call. Otherwise, contracts are only reused for " +
+                                "isomorphic preconditions. Fewer procedure calls are analyzed at the cost of " +
+                                "possibly less precise postconditions.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("minimize-grammar")
+                        .desc("Removes rules from the supplied graph grammars that do not change the language " +
+                                "of any nonterminal before state space generation: rules containing " +
+                                "unproductive nonterminals and rules that can be derived using the remaining rules. " +
+                                "Removed rules are reported. " +
+                                "Fewer rules have to be tried during abstraction and materialization.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("large-block-encoding")
+                        .desc("Executes sequences of straight-line statements, such as gotos and assignments " +
+                                "between local variables, without storing intermediate program states. " +
+                                "States are only kept at merge points, before statements that require " +
+                                "materialization or canonicalization and whenever atomic propositions change. " +
+                                "Results in smaller state spaces that satisfy the same LTL formulae without " +
+                                "next-operator.")
+                        .build()
+        );
+
         commandLineOptions.addOption(
                 Option.builder("ms")
                         .longOpt("max-state-space")
@@ -413,6 +549,39 @@ public class CommandLineReader {
                         .build()
         );
 
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("exploration-order")
+                        .hasArg()
+                        .argName("order")
+                        .desc("Determines the order in which program states are explored during state space " +
+                                "generation. Supported orders are\n" +
+                                "* dfs: depth-first search (default),\n" +
+                                "* bfs: breadth-first search, e.g. to find shallow violations first,\n" +
+                                "* iddfs[:n]: depth-first search with a depth bound that is increased by n " +
+                                "(default 10) whenever all states within the bound have been explored,\n" +
+                                "* heap-size: states with fewer nodes first,\n" +
+                                "* nonterminals: states with fewer nonterminal edges first, and\n" +
+                                "* distance[:pc]: states closest to program location pc first. If no " +
+                                "program location is provided, states closest to the end of the method are " +
+                                "explored first.\n" +
+                                "Unless --procedure-exploration-order is set, the order is used for all " +
+                                "state spaces.")
+                        .build()
+        );
+
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("procedure-exploration-order")
+                        .hasArg()
+                        .argName("order")
+                        .desc("Determines the order in which program states are explored during state space " +
+                                "generation of procedure calls. Supported orders are the same as for " +
+                                "--exploration-order. By default, the order determined by " +
+                                "--exploration-order is used.")
+                        .build()
+        );
     }
 
     private void setupExportOptions() {
@@ -428,6 +597,16 @@ public class CommandLineReader {
                         .build()
         );
 
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("profile")
+                        .desc("Collects performance metrics, such as the number of isomorphism checks and " +
+                                "the time spent per procedure. They are included in the report exported " +
+                                "via --export. Without this option, the report only contains the runtimes of " +
+                                "all phases.")
+                        .build()
+        );
+
         commandLineOptions.addOption(
                 Option.builder()
                         .longOpt("export-grammar")
@@ -450,6 +629,19 @@ public class CommandLineReader {
                         .build()
         );
 
+        commandLineOptions.addOption(
+                Option.builder()
+                        .longOpt("export-procedures")
+                        .hasArg()
+                        .argName("path")
+                        .desc("Exports the state spaces of all analyzed procedure calls together with the " +
+                                "call graph between them, including the number of states, continuations and the " +
+                                "time spent per call, for graphical inspection. " +
+                                "The exported report is written to a directory ROOT_PATH/<path>, " +
+                                "where ROOT_PATH is the path determined by --root-path.")
+                        .build()
+        );
+
         commandLineOptions.addOption(
                 Option.builder()
                         .longOpt("export-contracts")
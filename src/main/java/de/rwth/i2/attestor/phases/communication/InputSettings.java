@@ -51,6 +51,16 @@ public class InputSettings implements HeapConfigurationRenaming {
     private List<String> userDefinedGrammarFiles = new ArrayList<>();
     private List<String> initialHeapFiles = new ArrayList<>();
 
+    /**
+     * The directory storing previously generated marked heaps or null if marked heaps are not cached.
+     */
+    private String markingCachePath = null;
+
+    /**
+     * The exported state spaces or contracts that are compared in diff mode.
+     */
+    private List<String> diffInputs = new ArrayList<>();
+
     public String getRootPath() {
 
         if(rootPath == "") {
@@ -218,4 +228,30 @@ public class InputSettings implements HeapConfigurationRenaming {
         return result;
     }
 
+    public void setMarkingCachePath(String markingCachePath) {
+
+        this.markingCachePath = markingCachePath;
+    }
+
+    public String getMarkingCachePath() {
+
+        if(markingCachePath == null) {
+            return null;
+        }
+        return getRootPath() + markingCachePath;
+    }
+
+    public void addDiffInput(String diffInput) {
+
+        this.diffInputs.add(diffInput);
+    }
+
+    public List<String> getDiffInputs() {
+
+        List<String> result = new ArrayList<>(diffInputs.size());
+        for(String s : diffInputs) {
+            result.add(getRootPath() + s);
+        }
+        return result;
+    }
 }
@@ -22,6 +22,12 @@ public class OutputSettings {
 
     private String exportContractsPath = null;
 
+    private String learnedGrammarPath = null;
+
+    private String exportProceduresPath = null;
+
+    private String diffPath = null;
+
     public void setRootPath(String rootPath) {
 
         this.rootPath = rootPath;
@@ -101,4 +107,43 @@ public class OutputSettings {
         }
         return getRootPath() + exportContractsPath;
     }
+
+    public void setLearnedGrammarPath(String learnedGrammarPath) {
+
+        this.learnedGrammarPath = learnedGrammarPath;
+    }
+
+    public String getLearnedGrammarPath() {
+
+        if(learnedGrammarPath == null) {
+            return null;
+        }
+        return getRootPath() + learnedGrammarPath;
+    }
+
+    public void setExportProceduresPath(String exportProceduresPath) {
+
+        this.exportProceduresPath = exportProceduresPath;
+    }
+
+    public String getExportProceduresPath() {
+
+        if(exportProceduresPath == null) {
+            return null;
+        }
+        return getRootPath() + exportProceduresPath;
+    }
+
+    public void setDiffPath(String diffPath) {
+
+        this.diffPath = diffPath;
+    }
+
+    public String getDiffPath() {
+
+        if(diffPath == null) {
+            return null;
+        }
+        return getRootPath() + diffPath;
+    }
 }
@@ -100,6 +100,9 @@ public class CounterexampleGenerationPhase extends AbstractPhase implements Coun
                 .setStateRefinementStrategy(stateRefinementStrategy)
                 .setProgram(program)
                 .setTrace(trace)
+                .setLargeBlockEncoding(scene().options().isLargeBlockEncodingEnabled())
+                .setAlwaysCanonicalize(scene().strategies().isAlwaysCanonicalize())
+                .setStateLabelingStrategy(scene().strategies().getStateLabelingStrategy())
                 .setScopeExtractorFactory(method -> new DefaultScopeExtractor(this, method.getName()))
                 .build();
 
@@ -28,6 +28,9 @@ public class CounterexampleGenerator {
     private StateRefinementStrategy stateRefinementStrategy;
     private Function<Method, ScopeExtractor> scopeExtractorFactory;
     private TraceBasedStateExplorationStrategy topLevelExplorationStrategy;
+    private boolean largeBlockEncoding = false;
+    private boolean alwaysCanonicalize = false;
+    private StateLabelingStrategy stateLabelingStrategy = null;
 
     private final Stack<Predicate<ProgramState>> requiredFinalStatesStack = new Stack<>();
     private final Map<Method, MethodExecutor> originalExecutors = new LinkedHashMap<>();
@@ -40,7 +43,9 @@ public class CounterexampleGenerator {
 
         this.stateSubsumptionStrategy = new StateSubsumptionStrategy(canonicalizationStrategy);
 
-        topLevelExplorationStrategy = new TraceBasedStateExplorationStrategy(trace, stateSubsumptionStrategy);
+        topLevelExplorationStrategy = new TraceBasedStateExplorationStrategy(
+                trace, stateSubsumptionStrategy, this::isPossiblyFused
+        );
 
         requiredFinalStatesStack.push(
                 state -> stateSubsumptionStrategy.subsumes(state, trace.getFinalState())
@@ -64,6 +69,38 @@ public class CounterexampleGenerator {
         return result;
     }
 
+    /**
+     * Mirrors StateSpaceGenerator#isFusable for the state space from which the trace has been obtained.
+     *
+     * @param state              A state that does not match the next state of the trace.
+     * @param previousTraceState The last state of the trace matched so far or null.
+     * @return True if the given state may be missing in the trace, because it has been fused with its
+     * predecessor during state space generation with large-block encoding.
+     */
+    private boolean isPossiblyFused(ProgramState state, ProgramState previousTraceState) {
+
+        if(!largeBlockEncoding || alwaysCanonicalize) {
+            return false;
+        }
+
+        int pc = state.getProgramCounter();
+        SemanticsCommand semanticsCommand = topLevelProgram.getStatement(pc);
+        if(!semanticsCommand.isStraightLine()
+                || semanticsCommand.needsCanonicalization()
+                || topLevelProgram.countPredecessors(pc) > 1) {
+            return false;
+        }
+
+        // as for fused states of procedure state spaces, atomic propositions cannot be compared
+        if(!state.isFromTopLevelStateSpace() || stateLabelingStrategy == null || previousTraceState == null) {
+            return true;
+        }
+
+        ProgramState labeledState = state.shallowCopy();
+        stateLabelingStrategy.computeAtomicPropositions(labeledState);
+        return labeledState.getAPs().equals(previousTraceState.getAPs());
+    }
+
     private void decorateMethodExecutioners() {
 
         for(Method method : availableMethods) {
@@ -293,6 +330,28 @@ public class CounterexampleGenerator {
             generator.rectificationStrategy = rectificationStrategy;
             return this;
         }
+
+        public Builder setLargeBlockEncoding(boolean largeBlockEncoding) {
+
+            generator.largeBlockEncoding = largeBlockEncoding;
+            return this;
+        }
+
+        public Builder setAlwaysCanonicalize(boolean alwaysCanonicalize) {
+
+            generator.alwaysCanonicalize = alwaysCanonicalize;
+            return this;
+        }
+
+        /**
+         * @param stateLabelingStrategy The strategy that labeled the state space the trace has been obtained from.
+         *                              It determines which states may have been fused with large-block encoding.
+         */
+        public Builder setStateLabelingStrategy(StateLabelingStrategy stateLabelingStrategy) {
+
+            generator.stateLabelingStrategy = stateLabelingStrategy;
+            return this;
+        }
     }
 
 }
@@ -182,6 +182,20 @@ public class CounterexampleStateSpace implements StateSpace {
     public void setAborted(ProgramState state) {
     }
 
+    @Override
+    public Set<ProgramState> getErrorStates() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public TIntSet getErrorStateIds() {
+        return new TIntHashSet(0);
+    }
+
+    @Override
+    public void setError(ProgramState state) {
+    }
+
     @Override
     public boolean containsAbortedStates() {
         return false;
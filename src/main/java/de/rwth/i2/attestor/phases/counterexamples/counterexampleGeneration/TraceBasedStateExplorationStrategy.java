@@ -4,6 +4,7 @@ import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
 import de.rwth.i2.attestor.stateSpaceGeneration.StateExplorationStrategy;
 
 import java.util.LinkedList;
+import java.util.function.BiPredicate;
 
 public class TraceBasedStateExplorationStrategy implements StateExplorationStrategy {
 
@@ -11,12 +12,29 @@ public class TraceBasedStateExplorationStrategy implements StateExplorationStrat
 
     private final CounterexampleTrace trace;
     private final StateSubsumptionStrategy stateSubsumptionStrategy;
+    private final BiPredicate<ProgramState, ProgramState> isOmittedFromTrace;
     private ProgramState current = null;
+    private ProgramState previous = null;
 
     public TraceBasedStateExplorationStrategy(CounterexampleTrace trace, StateSubsumptionStrategy stateSubsumptionStrategy) {
 
+        this(trace, stateSubsumptionStrategy, (state, previousTraceState) -> false);
+    }
+
+    /**
+     * @param trace                    The trace that should be followed.
+     * @param stateSubsumptionStrategy The strategy to match states against states of the trace.
+     * @param isOmittedFromTrace       Determines states that are explored even if they do not match the next
+     *                                 state of the trace, because the trace has been obtained from a state space
+     *                                 generated with large-block encoding. It is applied to the state and the
+     *                                 last state of the trace matched so far (or null if there is none).
+     */
+    public TraceBasedStateExplorationStrategy(CounterexampleTrace trace, StateSubsumptionStrategy stateSubsumptionStrategy,
+                                              BiPredicate<ProgramState, ProgramState> isOmittedFromTrace) {
+
         this.trace = trace;
         this.stateSubsumptionStrategy = stateSubsumptionStrategy;
+        this.isOmittedFromTrace = isOmittedFromTrace;
     }
 
     @Override
@@ -54,6 +72,7 @@ public class TraceBasedStateExplorationStrategy implements StateExplorationStrat
         }
 
         if(stateSubsumptionStrategy.subsumes(state, current)) {
+            previous = current;
             current = null; // force to move to next state next time
             return true;
         }
@@ -63,6 +82,6 @@ public class TraceBasedStateExplorationStrategy implements StateExplorationStrat
             return stateSubsumptionStrategy.subsumes(state, current);
         }
 
-        return false;
+        return isOmittedFromTrace.test(state, previous);
     }
 }
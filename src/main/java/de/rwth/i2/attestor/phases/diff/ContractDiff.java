@@ -0,0 +1,228 @@
+package de.rwth.i2.attestor.phases.diff;
+
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.procedures.Contract;
+import org.json.JSONWriter;
+
+import java.util.*;
+
+/**
+ * Compares two sets of contracts, e.g. the contracts saved by two releases via --save-contracts.
+ * Contracts of the same method are matched if their preconditions are isomorphic. For every pair of matching
+ * contracts, the diff determines the postconditions that have been added or removed.
+ * Contracts and postconditions are referred to by their position within the compared contract sets.
+ */
+public class ContractDiff {
+
+    private final Map<String, MethodDiff> methodDiffs = new TreeMap<>();
+
+    /**
+     * @param oldContracts The old contracts of every method.
+     * @param newContracts The new contracts of every method.
+     */
+    public ContractDiff(Map<String, List<Contract>> oldContracts, Map<String, List<Contract>> newContracts) {
+
+        Set<String> methods = new TreeSet<>(oldContracts.keySet());
+        methods.addAll(newContracts.keySet());
+        for (String method : methods) {
+            MethodDiff diff = new MethodDiff(
+                    oldContracts.getOrDefault(method, Collections.emptyList()),
+                    newContracts.getOrDefault(method, Collections.emptyList())
+            );
+            if (!diff.isEmpty()) {
+                methodDiffs.put(method, diff);
+            }
+        }
+    }
+
+    /**
+     * @return The names of all methods whose contracts differ.
+     */
+    public Set<String> getChangedMethods() {
+
+        return Collections.unmodifiableSet(methodDiffs.keySet());
+    }
+
+    public int getNumberOfAddedContracts() {
+
+        int result = 0;
+        for (MethodDiff diff : methodDiffs.values()) {
+            result += diff.addedContracts.size();
+        }
+        return result;
+    }
+
+    public int getNumberOfRemovedContracts() {
+
+        int result = 0;
+        for (MethodDiff diff : methodDiffs.values()) {
+            result += diff.removedContracts.size();
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of matching contracts whose postconditions differ.
+     */
+    public int getNumberOfChangedContracts() {
+
+        int result = 0;
+        for (MethodDiff diff : methodDiffs.values()) {
+            result += diff.changedContracts.size();
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+
+        return methodDiffs.isEmpty();
+    }
+
+    public void export(JSONWriter jsonWriter) {
+
+        jsonWriter.object()
+                .key("kind").value("contracts")
+                .key("methods").array();
+
+        for (Map.Entry<String, MethodDiff> entry : methodDiffs.entrySet()) {
+            MethodDiff diff = entry.getValue();
+            jsonWriter.object()
+                    .key("method").value(entry.getKey())
+                    .key("addedContracts");
+            exportIndices(jsonWriter, diff.addedContracts);
+            jsonWriter.key("removedContracts");
+            exportIndices(jsonWriter, diff.removedContracts);
+            jsonWriter.key("changedContracts").array();
+            for (ChangedContract changed : diff.changedContracts) {
+                jsonWriter.object()
+                        .key("old").value(changed.oldIndex)
+                        .key("new").value(changed.newIndex)
+                        .key("addedPostconditions");
+                exportIndices(jsonWriter, changed.addedPostconditions);
+                jsonWriter.key("removedPostconditions");
+                exportIndices(jsonWriter, changed.removedPostconditions);
+                jsonWriter.endObject();
+            }
+            jsonWriter.endArray().endObject();
+        }
+
+        jsonWriter.endArray().endObject();
+    }
+
+    private static void exportIndices(JSONWriter jsonWriter, List<Integer> indices) {
+
+        jsonWriter.array();
+        for (int index : indices) {
+            jsonWriter.value(index);
+        }
+        jsonWriter.endArray();
+    }
+
+    /**
+     * Matches isomorphic heap configurations.
+     *
+     * @return An array that maps every position in newHeaps to the matching position in oldHeaps
+     * or -1 if there is no matching heap configuration.
+     */
+    static int[] match(List<HeapConfiguration> oldHeaps, List<HeapConfiguration> newHeaps) {
+
+        Map<HeapConfiguration, Deque<Integer>> unmatched = new HashMap<>();
+        for (int i = 0; i < oldHeaps.size(); i++) {
+            unmatched.computeIfAbsent(oldHeaps.get(i), heap -> new ArrayDeque<>()).addLast(i);
+        }
+
+        int[] result = new int[newHeaps.size()];
+        for (int i = 0; i < newHeaps.size(); i++) {
+            Deque<Integer> candidates = unmatched.get(newHeaps.get(i));
+            result[i] = candidates == null || candidates.isEmpty() ? -1 : candidates.removeFirst();
+        }
+        return result;
+    }
+
+    /**
+     * @return All positions in 0..size-1 that do not occur in matched.
+     */
+    private static List<Integer> unmatchedIndices(int size, int[] matched) {
+
+        boolean[] isMatched = new boolean[size];
+        for (int index : matched) {
+            if (index >= 0) {
+                isMatched[index] = true;
+            }
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (!isMatched[i]) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    private static final class MethodDiff {
+
+        final List<Integer> addedContracts = new ArrayList<>();
+        final List<Integer> removedContracts;
+        final List<ChangedContract> changedContracts = new ArrayList<>();
+
+        MethodDiff(List<Contract> oldContracts, List<Contract> newContracts) {
+
+            int[] matched = match(preconditionsOf(oldContracts), preconditionsOf(newContracts));
+            for (int i = 0; i < matched.length; i++) {
+                if (matched[i] < 0) {
+                    addedContracts.add(i);
+                    continue;
+                }
+                ChangedContract changed = new ChangedContract(
+                        matched[i], i, oldContracts.get(matched[i]), newContracts.get(i)
+                );
+                if (!changed.isEmpty()) {
+                    changedContracts.add(changed);
+                }
+            }
+            removedContracts = unmatchedIndices(oldContracts.size(), matched);
+        }
+
+        private static List<HeapConfiguration> preconditionsOf(List<Contract> contracts) {
+
+            List<HeapConfiguration> result = new ArrayList<>(contracts.size());
+            for (Contract contract : contracts) {
+                result.add(contract.getPrecondition());
+            }
+            return result;
+        }
+
+        boolean isEmpty() {
+
+            return addedContracts.isEmpty() && removedContracts.isEmpty() && changedContracts.isEmpty();
+        }
+    }
+
+    private static final class ChangedContract {
+
+        final int oldIndex;
+        final int newIndex;
+        final List<Integer> addedPostconditions = new ArrayList<>();
+        final List<Integer> removedPostconditions;
+
+        ChangedContract(int oldIndex, int newIndex, Contract oldContract, Contract newContract) {
+
+            this.oldIndex = oldIndex;
+            this.newIndex = newIndex;
+
+            List<HeapConfiguration> oldPostconditions = new ArrayList<>(oldContract.getPostconditions());
+            int[] matched = match(oldPostconditions, new ArrayList<>(newContract.getPostconditions()));
+            for (int i = 0; i < matched.length; i++) {
+                if (matched[i] < 0) {
+                    addedPostconditions.add(i);
+                }
+            }
+            removedPostconditions = unmatchedIndices(oldPostconditions.size(), matched);
+        }
+
+        boolean isEmpty() {
+
+            return addedPostconditions.isEmpty() && removedPostconditions.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package de.rwth.i2.attestor.phases.diff;
+
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.io.FileReader;
+import de.rwth.i2.attestor.io.FileUtils;
+import de.rwth.i2.attestor.io.jsonImport.CytoscapeJsonToHeapConfiguration;
+import de.rwth.i2.attestor.io.jsonImport.JsonToHeapConfiguration;
+import de.rwth.i2.attestor.main.AbstractPhase;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.phases.communication.InputSettings;
+import de.rwth.i2.attestor.phases.communication.OutputSettings;
+import de.rwth.i2.attestor.phases.transformers.InputSettingsTransformer;
+import de.rwth.i2.attestor.phases.transformers.OutputSettingsTransformer;
+import de.rwth.i2.attestor.procedures.Contract;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONWriter;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Compares two exported state spaces or two sets of saved contracts and writes the differences as JSON.
+ * <br>
+ * A state space is given by a directory containing a statespace.json file and one hc_ID.json file per state,
+ * i.e. the data directory of a report exported via --export, or the report directory itself.
+ * A contract set is given by a single file or a directory of files written via --save-contracts.
+ *
+ * @see StateSpaceDiff
+ * @see ContractDiff
+ */
+public class DiffPhase extends AbstractPhase {
+
+    private static final String STATE_SPACE_FILE = "statespace.json";
+
+    private InputSettings inputSettings;
+
+    private String summary;
+    private boolean hasDifferences;
+
+    public DiffPhase(Scene scene) {
+
+        super(scene);
+    }
+
+    @Override
+    public String getName() {
+
+        return "Diff";
+    }
+
+    @Override
+    public void executePhase() throws IOException {
+
+        inputSettings = getPhase(InputSettingsTransformer.class).getInputSettings();
+        OutputSettings outputSettings = getPhase(OutputSettingsTransformer.class).getOutputSettings();
+
+        List<String> inputs = inputSettings.getDiffInputs();
+        if (inputs.size() != 2) {
+            throw new IllegalArgumentException("Exactly two exported state spaces or contract sets have to be compared.");
+        }
+        String oldLocation = inputs.get(0);
+        String newLocation = inputs.get(1);
+
+        File oldStateSpace = findStateSpaceDirectory(oldLocation);
+        File newStateSpace = findStateSpaceDirectory(newLocation);
+        Consumer<JSONWriter> exporter;
+        if (oldStateSpace != null && newStateSpace != null) {
+            StateSpaceDiff diff = new StateSpaceDiff(readStateSpace(oldStateSpace), readStateSpace(newStateSpace));
+            exporter = diff::export;
+            hasDifferences = !diff.isEmpty();
+            summary = String.format("%d added states, %d removed states, %d added transitions, " +
+                            "%d removed transitions, %d states with changed propositions",
+                    diff.getAddedStates().size(), diff.getRemovedStates().size(),
+                    diff.getAddedTransitions().size(), diff.getRemovedTransitions().size(),
+                    diff.getNumberOfChangedPropositions());
+        } else if (oldStateSpace == null && newStateSpace == null) {
+            ContractDiff diff = new ContractDiff(readContracts(oldLocation), readContracts(newLocation));
+            exporter = diff::export;
+            hasDifferences = !diff.isEmpty();
+            summary = String.format("%d added contracts, %d removed contracts, " +
+                            "%d contracts with changed postconditions",
+                    diff.getNumberOfAddedContracts(), diff.getNumberOfRemovedContracts(),
+                    diff.getNumberOfChangedContracts());
+        } else {
+            throw new IllegalArgumentException("Cannot compare a state space with a set of contracts: "
+                    + oldLocation + ", " + newLocation);
+        }
+
+        String location = outputSettings.getDiffPath();
+        if (location == null) {
+            location = "diff.json";
+        }
+        File parent = new File(location).getAbsoluteFile().getParentFile();
+        FileUtils.createDirectories(parent.getPath());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(location)));
+        exporter.accept(new JSONWriter(writer));
+        writer.close();
+
+        logger.info("Diff written to " + location);
+    }
+
+    /**
+     * @return The directory containing the exported state space at the given location or null if the
+     * location does not refer to an exported state space.
+     */
+    private File findStateSpaceDirectory(String location) {
+
+        File directory = new File(location);
+        if (new File(directory, STATE_SPACE_FILE).isFile()) {
+            return directory;
+        }
+        File dataDirectory = new File(directory, "data");
+        if (new File(dataDirectory, STATE_SPACE_FILE).isFile()) {
+            return dataDirectory;
+        }
+        return null;
+    }
+
+    private StateSpaceDiff.Snapshot readStateSpace(File directory) throws IOException {
+
+        CytoscapeJsonToHeapConfiguration importer = new CytoscapeJsonToHeapConfiguration(this);
+        JSONObject elements = readJson(new File(directory, STATE_SPACE_FILE)).getJSONObject("elements");
+        StateSpaceDiff.Snapshot result = new StateSpaceDiff.Snapshot();
+
+        JSONArray nodes = elements.getJSONArray("nodes");
+        for (int i = 0; i < nodes.length(); i++) {
+            JSONObject data = nodes.getJSONObject(i).getJSONObject("data");
+            int id = data.getInt("id");
+            String location = data.has("programCounter")
+                    ? String.valueOf(data.getInt("programCounter"))
+                    : data.getString("statement");
+            Set<String> propositions = new LinkedHashSet<>();
+            JSONArray jsonPropositions = data.getJSONArray("propositions");
+            for (int p = 0; p < jsonPropositions.length(); p++) {
+                propositions.add(jsonPropositions.getString(p));
+            }
+            HeapConfiguration heap = importer.parse(readJson(new File(directory, "hc_" + id + ".json")));
+            result.addState(new StateSpaceDiff.State(id, location, data.getString("type"), heap, propositions));
+        }
+
+        JSONArray edges = elements.getJSONArray("edges");
+        for (int i = 0; i < edges.length(); i++) {
+            JSONObject data = edges.getJSONObject(i).getJSONObject("data");
+            result.addTransition(new StateSpaceDiff.Transition(
+                    data.getInt("source"), data.getInt("target"), data.getString("type")
+            ));
+        }
+
+        logger.info("Read state space with " + nodes.length() + " states from " + directory);
+        return result;
+    }
+
+    private Map<String, List<Contract>> readContracts(String location) throws IOException {
+
+        File file = new File(location);
+        List<File> files = new ArrayList<>();
+        if (file.isDirectory()) {
+            File[] children = file.listFiles((dir, name) -> name.endsWith(".json"));
+            if (children != null) {
+                files.addAll(Arrays.asList(children));
+                Collections.sort(files);
+            }
+        } else if (file.isFile()) {
+            files.add(file);
+        } else {
+            throw new FileNotFoundException("Could not find state space or contracts at " + location);
+        }
+
+        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, inputSettings);
+        Map<String, List<Contract>> result = new LinkedHashMap<>();
+        for (File contractFile : files) {
+            JSONObject obj = readJson(contractFile);
+            List<Contract> contracts = result.computeIfAbsent(obj.getString("method"), m -> new ArrayList<>());
+            JSONArray array = obj.getJSONArray("contracts");
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject contract = array.getJSONObject(i);
+                HeapConfiguration precondition = parseHeap(importer, contract.getJSONObject("precondition"));
+                List<HeapConfiguration> postconditions = new ArrayList<>();
+                JSONArray jsonPostconditions = contract.getJSONArray("postconditions");
+                for (int p = 0; p < jsonPostconditions.length(); p++) {
+                    postconditions.add(parseHeap(importer, jsonPostconditions.getJSONObject(p)));
+                }
+                contracts.add(scene().createContract(precondition, postconditions));
+            }
+        }
+
+        logger.info("Read contracts of " + result.size() + " methods from " + location);
+        return result;
+    }
+
+    private HeapConfiguration parseHeap(JsonToHeapConfiguration importer, JSONObject heap) {
+
+        // contracts may refer to nonterminals of grammars that are not loaded in diff mode
+        JSONArray hyperedges = heap.getJSONArray("hyperedges");
+        for (int i = 0; i < hyperedges.length(); i++) {
+            JSONObject hyperedge = hyperedges.getJSONObject(i);
+            String label = hyperedge.getString("label");
+            int rank = hyperedge.getJSONArray("tentacles").length();
+            try {
+                scene().getNonterminal(label);
+            } catch (IllegalArgumentException e) {
+                scene().createNonterminal(label, rank, new boolean[rank]);
+            }
+        }
+        return importer.parse(heap, scene().labels()::addUsedSelectorLabel);
+    }
+
+    private JSONObject readJson(File file) throws FileNotFoundException {
+
+        return new JSONObject(FileReader.read(file.getPath()));
+    }
+
+    @Override
+    public void logSummary() {
+
+        if (summary == null) {
+            return;
+        }
+
+        if (hasDifferences) {
+            logHighlight("Differences found:");
+        } else {
+            logHighlight("No differences found:");
+        }
+        logSum(summary);
+    }
+
+    @Override
+    public boolean isVerificationPhase() {
+
+        return false;
+    }
+}
@@ -0,0 +1,333 @@
+package de.rwth.i2.attestor.phases.diff;
+
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import org.json.JSONWriter;
+
+import java.util.*;
+
+/**
+ * Compares two exported state spaces, e.g. the state spaces of the same method obtained by two releases.
+ * Two states are considered to be the same if they belong to the same program location and their heaps
+ * are isomorphic. Based on this matching, the diff determines the states, transitions and atomic
+ * propositions that have been added to or removed from the old state space.
+ */
+public class StateSpaceDiff {
+
+    private final Snapshot oldStateSpace;
+    private final Snapshot newStateSpace;
+
+    /**
+     * Maps ids of states in the old state space to the ids of the matching states in the new state space.
+     */
+    private final Map<Integer, Integer> matching = new LinkedHashMap<>();
+
+    private final List<State> addedStates = new ArrayList<>();
+    private final List<State> removedStates = new ArrayList<>();
+    private final List<Transition> addedTransitions = new ArrayList<>();
+    private final List<Transition> removedTransitions = new ArrayList<>();
+    private int numberOfChangedPropositions = 0;
+
+    public StateSpaceDiff(Snapshot oldStateSpace, Snapshot newStateSpace) {
+
+        this.oldStateSpace = oldStateSpace;
+        this.newStateSpace = newStateSpace;
+        matchStates();
+        compareTransitions();
+    }
+
+    private void matchStates() {
+
+        Map<String, Map<HeapConfiguration, Deque<State>>> unmatched = new LinkedHashMap<>();
+        for (State state : oldStateSpace.getStates()) {
+            unmatched.computeIfAbsent(state.location, location -> new LinkedHashMap<>())
+                    .computeIfAbsent(state.heap, heap -> new ArrayDeque<>())
+                    .addLast(state);
+        }
+
+        Set<Integer> matchedOldStates = new HashSet<>();
+        for (State state : newStateSpace.getStates()) {
+            Deque<State> candidates = unmatched
+                    .getOrDefault(state.location, Collections.emptyMap())
+                    .get(state.heap);
+            if (candidates == null || candidates.isEmpty()) {
+                addedStates.add(state);
+            } else {
+                State oldState = candidates.removeFirst();
+                matching.put(oldState.id, state.id);
+                matchedOldStates.add(oldState.id);
+                if (!oldState.propositions.equals(state.propositions)) {
+                    ++numberOfChangedPropositions;
+                }
+            }
+        }
+
+        for (State state : oldStateSpace.getStates()) {
+            if (!matchedOldStates.contains(state.id)) {
+                removedStates.add(state);
+            }
+        }
+    }
+
+    private void compareTransitions() {
+
+        Set<Transition> translatedOldTransitions = new HashSet<>();
+        for (Transition transition : oldStateSpace.getTransitions()) {
+            Integer source = matching.get(transition.source);
+            Integer target = matching.get(transition.target);
+            if (source == null || target == null) {
+                removedTransitions.add(transition);
+                continue;
+            }
+            Transition translated = new Transition(source, target, transition.type);
+            if (newStateSpace.getTransitions().contains(translated)) {
+                translatedOldTransitions.add(translated);
+            } else {
+                removedTransitions.add(transition);
+            }
+        }
+
+        for (Transition transition : newStateSpace.getTransitions()) {
+            if (!translatedOldTransitions.contains(transition)) {
+                addedTransitions.add(transition);
+            }
+        }
+    }
+
+    public List<State> getAddedStates() {
+
+        return Collections.unmodifiableList(addedStates);
+    }
+
+    public List<State> getRemovedStates() {
+
+        return Collections.unmodifiableList(removedStates);
+    }
+
+    /**
+     * @return The transitions of the new state space that have no counterpart in the old one.
+     */
+    public List<Transition> getAddedTransitions() {
+
+        return Collections.unmodifiableList(addedTransitions);
+    }
+
+    /**
+     * @return The transitions of the old state space that have no counterpart in the new one.
+     */
+    public List<Transition> getRemovedTransitions() {
+
+        return Collections.unmodifiableList(removedTransitions);
+    }
+
+    /**
+     * @return The number of matching states that are labeled with different atomic propositions.
+     */
+    public int getNumberOfChangedPropositions() {
+
+        return numberOfChangedPropositions;
+    }
+
+    public boolean isEmpty() {
+
+        return addedStates.isEmpty() && removedStates.isEmpty()
+                && addedTransitions.isEmpty() && removedTransitions.isEmpty()
+                && numberOfChangedPropositions == 0;
+    }
+
+    /**
+     * Writes the diff as a JSON object. States of the new state space are referred to by their ids in the new
+     * state space and states of the old state space by their ids in the old one.
+     *
+     * @param jsonWriter The writer the diff is written to.
+     */
+    public void export(JSONWriter jsonWriter) {
+
+        jsonWriter.object()
+                .key("kind").value("stateSpace");
+
+        jsonWriter.key("old");
+        exportSize(jsonWriter, oldStateSpace);
+        jsonWriter.key("new");
+        exportSize(jsonWriter, newStateSpace);
+
+        jsonWriter.key("addedStates");
+        exportStates(jsonWriter, addedStates);
+        jsonWriter.key("removedStates");
+        exportStates(jsonWriter, removedStates);
+        jsonWriter.key("addedTransitions");
+        exportTransitions(jsonWriter, addedTransitions);
+        jsonWriter.key("removedTransitions");
+        exportTransitions(jsonWriter, removedTransitions);
+
+        jsonWriter.key("changedPropositions").array();
+        for (Map.Entry<Integer, Integer> entry : matching.entrySet()) {
+            Set<String> oldPropositions = oldStateSpace.getState(entry.getKey()).propositions;
+            Set<String> newPropositions = newStateSpace.getState(entry.getValue()).propositions;
+            if (oldPropositions.equals(newPropositions)) {
+                continue;
+            }
+            jsonWriter.object()
+                    .key("oldId").value(entry.getKey())
+                    .key("newId").value(entry.getValue())
+                    .key("added");
+            exportDifference(jsonWriter, newPropositions, oldPropositions);
+            jsonWriter.key("removed");
+            exportDifference(jsonWriter, oldPropositions, newPropositions);
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+
+        jsonWriter.endObject();
+    }
+
+    private void exportSize(JSONWriter jsonWriter, Snapshot snapshot) {
+
+        jsonWriter.object()
+                .key("states").value(snapshot.getStates().size())
+                .key("transitions").value(snapshot.getTransitions().size())
+                .endObject();
+    }
+
+    private void exportStates(JSONWriter jsonWriter, List<State> states) {
+
+        jsonWriter.array();
+        for (State state : states) {
+            jsonWriter.object()
+                    .key("id").value(state.id)
+                    .key("location").value(state.location)
+                    .key("type").value(state.type)
+                    .endObject();
+        }
+        jsonWriter.endArray();
+    }
+
+    private void exportTransitions(JSONWriter jsonWriter, List<Transition> transitions) {
+
+        jsonWriter.array();
+        for (Transition transition : transitions) {
+            jsonWriter.object()
+                    .key("source").value(transition.source)
+                    .key("target").value(transition.target)
+                    .key("type").value(transition.type)
+                    .endObject();
+        }
+        jsonWriter.endArray();
+    }
+
+    private void exportDifference(JSONWriter jsonWriter, Set<String> left, Set<String> right) {
+
+        jsonWriter.array();
+        for (String element : left) {
+            if (!right.contains(element)) {
+                jsonWriter.value(element);
+            }
+        }
+        jsonWriter.endArray();
+    }
+
+    /**
+     * A state of an exported state space.
+     */
+    public static final class State {
+
+        final int id;
+        final String location;
+        final String type;
+        final HeapConfiguration heap;
+        final Set<String> propositions;
+
+        /**
+         * @param id           The id of the state within its state space.
+         * @param location     The program location of the state, i.e. its program counter or, if the
+         *                     program counter is unavailable, the statement to be executed.
+         * @param type         The kind of state, e.g. initialState or finalState.
+         * @param heap         The heap of the state.
+         * @param propositions The atomic propositions assigned to the state.
+         */
+        public State(int id, String location, String type, HeapConfiguration heap, Set<String> propositions) {
+
+            this.id = id;
+            this.location = location;
+            this.type = type;
+            this.heap = heap;
+            this.propositions = new LinkedHashSet<>(propositions);
+        }
+
+        public int getId() {
+
+            return id;
+        }
+    }
+
+    /**
+     * A transition between two states of an exported state space.
+     */
+    public static final class Transition {
+
+        final int source;
+        final int target;
+        final String type;
+
+        public Transition(int source, int target, String type) {
+
+            this.source = source;
+            this.target = target;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+
+            if (this == other) {
+                return true;
+            }
+            if (other == null || other.getClass() != Transition.class) {
+                return false;
+            }
+            Transition transition = (Transition) other;
+            return source == transition.source && target == transition.target && type.equals(transition.type);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(source, target, type);
+        }
+    }
+
+    /**
+     * The states and transitions of an exported state space.
+     */
+    public static final class Snapshot {
+
+        private final Map<Integer, State> states = new LinkedHashMap<>();
+        private final Set<Transition> transitions = new LinkedHashSet<>();
+
+        public void addState(State state) {
+
+            if (states.put(state.id, state) != null) {
+                throw new IllegalArgumentException("Duplicate state id " + state.id);
+            }
+        }
+
+        public void addTransition(Transition transition) {
+
+            transitions.add(transition);
+        }
+
+        Collection<State> getStates() {
+
+            return states.values();
+        }
+
+        State getState(int id) {
+
+            return states.get(id);
+        }
+
+        Set<Transition> getTransitions() {
+
+            return transitions;
+        }
+    }
+}
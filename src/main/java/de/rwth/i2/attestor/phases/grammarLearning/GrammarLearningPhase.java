@@ -0,0 +1,116 @@
+package de.rwth.i2.attestor.phases.grammarLearning;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.inference.GrammarLearner;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.io.FileUtils;
+import de.rwth.i2.attestor.io.jsonExport.inputFormat.GrammarToInputFormatExporter;
+import de.rwth.i2.attestor.main.AbstractPhase;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.phases.transformers.GrammarTransformer;
+import de.rwth.i2.attestor.phases.transformers.InputTransformer;
+import de.rwth.i2.attestor.phases.transformers.OutputSettingsTransformer;
+import de.rwth.i2.attestor.phases.transformers.StateSpaceTransformer;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Learns a graph grammar from example heaps and writes it to the file determined by --learn-grammar
+ * in the format expected by --grammar.
+ * The examples are either the parsed initial heaps or the heaps of all final states of a previously
+ * generated state space.
+ *
+ * @see GrammarLearner
+ */
+public class GrammarLearningPhase extends AbstractPhase implements GrammarTransformer {
+
+    private final boolean learnFromFinalStates;
+
+    private List<HeapConfiguration> examples;
+    private GrammarLearner learner;
+    private String location;
+
+    /**
+     * @param scene                The scene of the analysis.
+     * @param learnFromFinalStates True if the examples are the final states of the most recently generated
+     *                             state space; false if the examples are the parsed initial heaps.
+     */
+    public GrammarLearningPhase(Scene scene, boolean learnFromFinalStates) {
+
+        super(scene);
+        this.learnFromFinalStates = learnFromFinalStates;
+    }
+
+    @Override
+    public String getName() {
+
+        return "Grammar learning";
+    }
+
+    @Override
+    public void executePhase() throws IOException {
+
+        examples = new ArrayList<>();
+        if (learnFromFinalStates) {
+            for (ProgramState state : getPhase(StateSpaceTransformer.class).getStateSpace().getFinalStates()) {
+                examples.add(state.getHeap());
+            }
+        } else {
+            examples.addAll(getPhase(InputTransformer.class).getInputs());
+        }
+
+        learner = new GrammarLearner(this, examples);
+        for (String structure : learner.getLearnedStructures()) {
+            logger.info("Learned " + structure + ".");
+        }
+
+        int maxHeap = scene().options().getMaxHeap();
+        if (learner.getMaximalAbstractedSize() > maxHeap) {
+            logger.warn("The learned grammar abstracts some examples only to size "
+                    + learner.getMaximalAbstractedSize() + ", which exceeds " + maxHeap + ".");
+        }
+
+        location = getPhase(OutputSettingsTransformer.class).getOutputSettings().getLearnedGrammarPath();
+        if (location == null) {
+            return;
+        }
+
+        File parent = new File(location).getAbsoluteFile().getParentFile();
+        FileUtils.createDirectories(parent.getPath());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(location)));
+        new GrammarToInputFormatExporter(writer).export(learner.getLearnedGrammar());
+        writer.close();
+    }
+
+    @Override
+    public void logSummary() {
+
+        if (learner == null) {
+            return;
+        }
+
+        logSum("Grammar learning:");
+        logSum("  Examples: " + examples.size());
+        logSum("  Candidate structures: " + learner.getNumberOfCandidates());
+        logSum("  Learned structures: " + learner.getLearnedStructures().size());
+        logSum("  Maximal size of abstracted examples: " + learner.getMaximalAbstractedSize());
+        if (location != null) {
+            logSum("  Learned grammar written to " + location);
+        }
+    }
+
+    @Override
+    public boolean isVerificationPhase() {
+
+        return false;
+    }
+
+    @Override
+    public Grammar getGrammar() {
+
+        return learner.getLearnedGrammar();
+    }
+}
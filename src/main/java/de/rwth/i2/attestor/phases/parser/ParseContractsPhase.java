@@ -1,18 +1,19 @@
 package de.rwth.i2.attestor.phases.parser;
 
-import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
-import de.rwth.i2.attestor.io.FileReader;
-import de.rwth.i2.attestor.io.jsonImport.JsonToHeapConfiguration;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import de.rwth.i2.attestor.io.jsonImport.JsonToContracts;
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.scene.Scene;
 import de.rwth.i2.attestor.phases.communication.InputSettings;
 import de.rwth.i2.attestor.phases.transformers.InputSettingsTransformer;
+import de.rwth.i2.attestor.procedures.Contract;
 import de.rwth.i2.attestor.procedures.Method;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import de.rwth.i2.attestor.util.Pair;
 
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -42,37 +43,22 @@ public class ParseContractsPhase extends AbstractPhase {
 
     private void loadContract(String filename) {
 
-        try {
-            String str = FileReader.read(filename);
-
-            JSONObject obj = new JSONObject(str);
-            String signature = obj.getString("method");
-            Method abstractMethod = scene().getOrCreateMethod(signature);
+        try (JsonParser parser = new JsonFactory().createParser(new File(filename))) {
 
+            parser.nextToken();
+            JsonToContracts importer = new JsonToContracts(this, inputSettings);
             Consumer<String> addUsedSelectorLabel = scene().labels()::addUsedSelectorLabel;
-            JSONArray array = obj.getJSONArray("contracts");
-
-            JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, inputSettings);
-
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject contract = array.getJSONObject(i);
-                final JSONObject jsonPrecondition = contract.getJSONObject("precondition");
-                HeapConfiguration precondition = importer.parse(jsonPrecondition, addUsedSelectorLabel);
-
-                List<HeapConfiguration> postconditions = new ArrayList<>();
-                JSONArray jsonPostConditions = contract.getJSONArray("postconditions");
-                for (int p = 0; p < jsonPostConditions.length(); p++) {
-                    final JSONObject jsonPostcondition = jsonPostConditions.getJSONObject(p);
-                    postconditions.add(importer.parse(jsonPostcondition, addUsedSelectorLabel));
-                }
-                abstractMethod.addContract(
-                        scene().createContract(precondition, postconditions)
-                );
-            }
+            Pair<String, List<Contract>> contracts = importer.parse(parser, addUsedSelectorLabel);
 
+            Method abstractMethod = scene().getOrCreateMethod(contracts.first());
+            for (Contract contract : contracts.second()) {
+                abstractMethod.addContract(contract);
+            }
 
         } catch (FileNotFoundException e) {
             logger.error("Could not parse contract at location " + filename + ". Skipping it.");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed contract at location " + filename + ": " + e.getMessage());
         }
     }
 
@@ -1,10 +1,11 @@
 package de.rwth.i2.attestor.phases.parser;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import de.rwth.i2.attestor.grammar.Grammar;
 import de.rwth.i2.attestor.grammar.GrammarBuilder;
 import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
-import de.rwth.i2.attestor.io.FileReader;
 import de.rwth.i2.attestor.io.jsonImport.JsonToGrammar;
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.Attestor;
@@ -12,11 +13,10 @@ import de.rwth.i2.attestor.main.scene.Scene;
 import de.rwth.i2.attestor.phases.communication.InputSettings;
 import de.rwth.i2.attestor.phases.transformers.GrammarTransformer;
 import de.rwth.i2.attestor.phases.transformers.InputSettingsTransformer;
-import org.json.JSONArray;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
 import java.util.Collection;
 import java.util.Map;
@@ -27,9 +27,22 @@ public class ParseGrammarPhase extends AbstractPhase implements GrammarTransform
     private Grammar grammar;
     private InputSettings inputSettings;
 
+    private final Grammar previouslyParsedGrammar;
+
     public ParseGrammarPhase(Scene scene) {
 
+        this(scene, null);
+    }
+
+    /**
+     * @param scene                   The scene of the analysis.
+     * @param previouslyParsedGrammar A grammar that has already been parsed from the same files into the given
+     *                                scene or null if the grammar files have to be parsed.
+     */
+    public ParseGrammarPhase(Scene scene, Grammar previouslyParsedGrammar) {
+
         super(scene);
+        this.previouslyParsedGrammar = previouslyParsedGrammar;
     }
 
     @Override
@@ -42,7 +55,13 @@ public class ParseGrammarPhase extends AbstractPhase implements GrammarTransform
     public void executePhase() {
 
         inputSettings = getPhase(InputSettingsTransformer.class).getInputSettings();
-        
+
+        if (previouslyParsedGrammar != null) {
+            logger.info("Reusing previously parsed grammar.");
+            grammar = previouslyParsedGrammar;
+            return;
+        }
+
         for( String grammarLocation : inputSettings.getUserDefinedGrammarFiles() ) {
             loadGrammarFromFile(grammarLocation);
         }
@@ -75,12 +94,12 @@ public class ParseGrammarPhase extends AbstractPhase implements GrammarTransform
             this.grammarBuilder = Grammar.builder();
         }
 
-        try {
-            String str = FileReader.read(filename);
-            JSONArray array = new JSONArray(str);
-            this.grammarBuilder.addRules(parseRules(array));
+        try (JsonParser parser = new JsonFactory().createParser(new File(filename))) {
+            this.grammarBuilder.addRules(parseRules(parser));
         } catch (FileNotFoundException e) {
             logger.error("Could not parse grammar at location " + filename + ". Skipping it.");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed grammar at location " + filename + ": " + e.getMessage());
         }
 
         if(scene().options().isRuleCollapsingEnabled()) {
@@ -92,16 +111,17 @@ public class ParseGrammarPhase extends AbstractPhase implements GrammarTransform
     }
 
     /**
-     * Creates the rules of a graph grammar from a given JSONArray.
+     * Creates the rules of a graph grammar from a stream of JSON tokens.
      *
-     * @param array A JSONArray that stores the grammar rules.
+     * @param parser A parser positioned before the JSON array that stores the grammar rules.
      * @return A mapping explicitly containing the rules by mapping rule's left-hand sides (nonterminals)
      * to right-hand sides (heap configurations).
      */
-    private Map<Nonterminal, Collection<HeapConfiguration>> parseRules(JSONArray array) {
+    private Map<Nonterminal, Collection<HeapConfiguration>> parseRules(JsonParser parser) throws IOException {
 
+        parser.nextToken();
         JsonToGrammar importer = new JsonToGrammar(this, inputSettings);
-        return importer.parseForwardGrammar(array);
+        return importer.parseForwardGrammar(parser);
     }
 
     public void loadGrammarFromURL(URL resource) {
@@ -115,13 +135,9 @@ public class ParseGrammarPhase extends AbstractPhase implements GrammarTransform
             this.grammarBuilder = Grammar.builder();
         }
 
-        try {
-            InputStream is = resource.openStream();
-            String str = FileReader.read(is);
-
-            JSONArray array = new JSONArray(str);
+        try (JsonParser parser = new JsonFactory().createParser(resource)) {
 
-            this.grammarBuilder.addRules(parseRules(array));
+            this.grammarBuilder.addRules(parseRules(parser));
 
         } catch (IOException e) {
             logger.error("Could not parse grammar at location " + resource.getPath() + ". Skipping it.");
@@ -1,15 +1,16 @@
 package de.rwth.i2.attestor.phases.parser;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
-import de.rwth.i2.attestor.io.FileReader;
 import de.rwth.i2.attestor.io.jsonImport.JsonToHeapConfiguration;
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.scene.Scene;
 import de.rwth.i2.attestor.phases.communication.InputSettings;
 import de.rwth.i2.attestor.phases.transformers.InputSettingsTransformer;
 import de.rwth.i2.attestor.phases.transformers.InputTransformer;
-import org.json.JSONObject;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -50,18 +51,15 @@ public class ParseInputPhase extends AbstractPhase implements InputTransformer {
 
     private void addInitialHeap(String initialHeapFile) {
 
-        String initialHeap;
-        try {
-                initialHeap = FileReader.read(initialHeapFile);
+        Consumer<String> addUsedSelectorLabel = scene().labels()::addUsedSelectorLabel;
+        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, inputSettings);
+        try (JsonParser parser = new JsonFactory().createParser(new File(initialHeapFile))) {
+            parser.nextToken();
+            HeapConfiguration originalInput = importer.parse(parser, addUsedSelectorLabel);
+            inputs.add(originalInput);
         } catch (IOException e) {
             throw new IllegalStateException(e.getMessage());
         }
-
-        JSONObject jsonObj = new JSONObject(initialHeap);
-        Consumer<String> addUsedSelectorLabel = scene().labels()::addUsedSelectorLabel;
-        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(this, inputSettings);
-        HeapConfiguration originalInput = importer.parse(jsonObj, addUsedSelectorLabel);
-        inputs.add(originalInput);
     }
 
     @Override
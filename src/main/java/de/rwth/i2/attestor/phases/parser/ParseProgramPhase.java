@@ -11,11 +11,23 @@ import de.rwth.i2.attestor.stateSpaceGeneration.Program;
 
 public class ParseProgramPhase extends AbstractPhase implements ProgramTransformer {
 
+    private final boolean reuseTranslation;
     private Program program;
 
     public ParseProgramPhase(Scene scene) {
 
+        this(scene, false);
+    }
+
+    /**
+     * @param scene            The scene of the analysis.
+     * @param reuseTranslation True if the program has already been parsed and translated into the given scene
+     *                         such that the method to analyze merely has to be looked up.
+     */
+    public ParseProgramPhase(Scene scene, boolean reuseTranslation) {
+
         super(scene);
+        this.reuseTranslation = reuseTranslation;
     }
 
     @Override
@@ -29,6 +41,14 @@ public class ParseProgramPhase extends AbstractPhase implements ProgramTransform
 
         InputSettings inputSettings = getPhase(InputSettingsTransformer.class).getInputSettings();
         JimpleParser programParser = new JimpleParser(this, new StandardAbstractSemantics(this));
+        if (reuseTranslation) {
+            logger.info("Reusing previously translated program.");
+            program = programParser.getTranslatedMethod(
+                    inputSettings.getClassName(),
+                    inputSettings.getMethodName()
+            );
+            return;
+        }
         program = programParser.parse(
                 inputSettings.getClasspath(),
                 inputSettings.getClassName(),
@@ -171,7 +171,7 @@ public class AbstractionPreprocessingPhase extends AbstractPhase {
 
         if (stateRefinementStrategy == null) {
             if (isGarbageCollectionEnabled) {
-                stateRefinementStrategy = new GarbageCollector();
+                stateRefinementStrategy = new GarbageCollector(scene().options().isIncrementalGarbageCollectionEnabled());
             } else {
                 stateRefinementStrategy = new NoStateRefinementStrategy();
             }
@@ -179,7 +179,7 @@ public class AbstractionPreprocessingPhase extends AbstractPhase {
 
             List<StateRefinementStrategy> strategies = new ArrayList<>(2);
             strategies.add(stateRefinementStrategy);
-            strategies.add(new GarbageCollector());
+            strategies.add(new GarbageCollector(scene().options().isIncrementalGarbageCollectionEnabled()));
             stateRefinementStrategy = new BundledStateRefinementStrategy(strategies);
         }
         scene().strategies().setStateRefinementStrategy(stateRefinementStrategy);
@@ -0,0 +1,118 @@
+package de.rwth.i2.attestor.phases.preprocessing;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.analysis.GrammarAnalyzer;
+import de.rwth.i2.attestor.grammar.analysis.GrammarMinimizer;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.main.AbstractPhase;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
+import de.rwth.i2.attestor.phases.transformers.GrammarTransformer;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statically analyzes the parsed grammar and warns about unproductive nonterminals as well as violations of
+ * typedness and local concretizability. Indexed grammars are not analyzed.
+ * If grammar minimization is enabled, all rules that do not change the language of any nonterminal are removed
+ * from the grammar and reported.
+ */
+public class GrammarAnalysisPhase extends AbstractPhase implements GrammarTransformer {
+
+    private Grammar grammar;
+    private GrammarAnalyzer analyzer;
+    private List<GrammarMinimizer.RemovedRule> removedRules;
+
+    public GrammarAnalysisPhase(Scene scene) {
+
+        super(scene);
+    }
+
+    @Override
+    public String getName() {
+
+        return "Grammar analysis";
+    }
+
+    @Override
+    public void executePhase() {
+
+        grammar = getPhase(GrammarTransformer.class).getGrammar();
+        if (grammar == null) {
+            return;
+        }
+
+        if (scene().options().isIndexedMode()) {
+            // nonterminals on right-hand sides carry indices that differ from the ones of left-hand sides
+            logger.info("Skipping analysis of indexed grammar.");
+            return;
+        }
+
+        boolean minimize = scene().options().isGrammarMinimizationEnabled();
+
+        GrammarMinimizer minimizer = null;
+        if (minimize) {
+            minimizer = new GrammarMinimizer(grammar);
+            analyzer = minimizer.getAnalyzer();
+            removedRules = minimizer.getRemovedRules();
+        } else {
+            analyzer = new GrammarAnalyzer(grammar);
+        }
+
+        for (Nonterminal nonterminal : analyzer.getUnproductiveNonterminals()) {
+            logger.warn("Nonterminal " + nonterminal + " is unproductive.");
+        }
+        for (String violation : analyzer.getTypednessViolations()) {
+            logger.warn("Grammar is not typed: " + violation);
+        }
+        for (String violation : analyzer.getLocalConcretizabilityViolations()) {
+            logger.warn("Grammar is not locally concretizable: " + violation);
+        }
+
+        if (minimize && !removedRules.isEmpty()) {
+            for (GrammarMinimizer.RemovedRule rule : removedRules) {
+                logger.info("Removed rule " + rule);
+            }
+            MetricsRegistry.current().counter("grammar.removedRules").add(removedRules.size());
+            grammar = minimizer.getMinimizedGrammar();
+            if (scene().options().isRuleCollapsingEnabled()) {
+                grammar = Grammar.builder().addRules(grammar).updateCollapsedRules().build();
+            }
+        }
+    }
+
+    @Override
+    public void logSummary() {
+
+        if (analyzer == null) {
+            return;
+        }
+
+        logSum("Grammar analysis:");
+        logSum("  Unproductive nonterminals: " + analyzer.getUnproductiveNonterminals().size());
+        logSum("  Typed: " + analyzer.isTyped());
+        logSum("  Locally concretizable: " + analyzer.isLocallyConcretizable());
+
+        if (removedRules != null) {
+            Map<GrammarMinimizer.Reason, Integer> counts = new EnumMap<>(GrammarMinimizer.Reason.class);
+            for (GrammarMinimizer.RemovedRule rule : removedRules) {
+                counts.merge(rule.getReason(), 1, Integer::sum);
+            }
+            logSum("  Removed rules: " + removedRules.size() + " " + counts);
+        }
+    }
+
+    @Override
+    public boolean isVerificationPhase() {
+
+        return false;
+    }
+
+    @Override
+    public Grammar getGrammar() {
+
+        return grammar;
+    }
+}
@@ -1,6 +1,8 @@
 package de.rwth.i2.attestor.phases.preprocessing;
 
 import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.LazyGrammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.scene.Scene;
@@ -9,37 +11,25 @@ import de.rwth.i2.attestor.phases.transformers.GrammarTransformer;
 import de.rwth.i2.attestor.phases.transformers.InputTransformer;
 import de.rwth.i2.attestor.phases.transformers.MCSettingsTransformer;
 import de.rwth.i2.attestor.phases.transformers.StateLabelingStrategyBuilderTransformer;
+import de.rwth.i2.attestor.refinement.AtomicPropositionContext;
+import de.rwth.i2.attestor.refinement.AtomicPropositionProvider;
 import de.rwth.i2.attestor.refinement.AutomatonStateLabelingStrategy;
 import de.rwth.i2.attestor.refinement.AutomatonStateLabelingStrategyBuilder;
 import de.rwth.i2.attestor.refinement.HeapAutomaton;
-import de.rwth.i2.attestor.refinement.balanced.BalancednessAutomaton;
 import de.rwth.i2.attestor.refinement.balanced.BalancednessStateRefinementStrategy;
-import de.rwth.i2.attestor.refinement.balanced.ListLengthAutomaton;
 import de.rwth.i2.attestor.refinement.grammarRefinement.GrammarRefinement;
 import de.rwth.i2.attestor.refinement.grammarRefinement.InitialHeapConfigurationRefinement;
-import de.rwth.i2.attestor.refinement.languageInclusion.LanguageInclusionAutomaton;
-import de.rwth.i2.attestor.refinement.reachability.ReachabilityHeapAutomaton;
-import de.rwth.i2.attestor.refinement.variableRelation.VariableRelationsAutomaton;
-import de.rwth.i2.attestor.util.Pair;
+import de.rwth.i2.attestor.refinement.grammarRefinement.LazyGrammarRefinement;
 
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.ServiceLoader;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 public class GrammarRefinementPhase extends AbstractPhase
         implements InputTransformer, StateLabelingStrategyBuilderTransformer, GrammarTransformer {
 
-    private static final Pattern btree = Pattern.compile("^btree$");
-    private static final Pattern bimap = Pattern.compile("^bimap$");
-    private static final Pattern languageInclusion = Pattern.compile("^L\\(\\p{Space}*\\p{Alnum}+\\p{Space}*\\)$");
-    private static final Pattern reachablePattern = Pattern.compile("^isReachable\\(\\p{Space}*\\p{Alnum}+,\\p{Space}*\\p{Alnum}+\\)$");
-    private static final Pattern reachableBySelPattern
-            = Pattern.compile("^isReachable\\(\\p{Alnum}+,\\p{Space}*\\p{Alnum}+,\\p{Space}*\\[(\\p{Alnum}+,\\p{Space})*\\p{Alnum}+\\]+\\)$");
-    private static final Pattern equalityPattern = Pattern.compile("^@?\\p{Alnum}+(.\\p{Alnum}+)? == \\p{Alnum}+$");
-    private static final Pattern inequalityPattern = Pattern.compile("^@?\\p{Alnum}+(.\\p{Alnum}+)? != \\p{Alnum}+$");
-
     private List<HeapConfiguration> inputs;
     private AutomatonStateLabelingStrategyBuilder stateLabelingStrategyBuilder;
 
@@ -87,102 +77,42 @@ public class GrammarRefinementPhase extends AbstractPhase
 
         if (automaton != null && grammar != null && !scene().options().isIndexedMode()) {
             scene().options().setGrammarRefinementEnabled(true);
-            grammar = refineGrammar(automaton, grammar);
-            refineInputs(automaton, grammar);
+            if (scene().options().isLazyGrammarRefinementEnabled()) {
+                refineGrammarLazily(automaton);
+            } else {
+                grammar = refineGrammar(automaton, grammar);
+                refineInputs(automaton, grammar.getAllLeftHandSides());
+            }
         }
     }
 
+    /**
+     * Adds the heap automata required to label states with all atomic propositions occurring in the
+     * LTL formulae to be checked. Each atomic proposition is delegated to the first
+     * {@link AtomicPropositionProvider} claiming it. Atomic propositions without a provider are ignored.
+     */
     private void updateHeapAutomata() {
 
-        boolean isIndexedMode = scene().options().isIndexedMode();
-        boolean hasReachabilityAutomaton = false;
-        boolean hasLanguageInclusionAutomaton = false;
-        boolean hasBtreeAutomaton = false;
-        boolean hasBimapAutomaton = false;
-
-        Set<Set<String>> reachabilityAutomataBySelList = new LinkedHashSet<>();
+        List<AtomicPropositionProvider> providers = new ArrayList<>();
+        for (AtomicPropositionProvider provider : ServiceLoader.load(AtomicPropositionProvider.class)) {
+            providers.add(provider);
+        }
 
-        Set<Pair<String, String>> trackedVariableRelations = new LinkedHashSet<>();
+        AtomicPropositionContext context = new AtomicPropositionContext(this, grammar, stateLabelingStrategyBuilder);
 
         ModelCheckingSettings mcSettings = getPhase(MCSettingsTransformer.class).getMcSettings();
         Set<String> requiredAPs = mcSettings.getRequiredAtomicPropositions();
 
         for (String ap : requiredAPs) {
-
-            if (!hasBimapAutomaton && bimap.matcher(ap).matches()) {
-                stateLabelingStrategyBuilder.add(new ListLengthAutomaton(this, grammar));
-                hasBimapAutomaton = true;
-                logger.debug("Enable checking for lists of equal length.");
-            } else if (!hasBtreeAutomaton && btree.matcher(ap).matches()) {
-                stateLabelingStrategyBuilder.add(new BalancednessAutomaton(this, grammar));
-                hasBtreeAutomaton = true;
-                logger.debug("Enable checking for balanced trees.");
-            } else if (!hasLanguageInclusionAutomaton && languageInclusion.matcher(ap).matches()) {
-                stateLabelingStrategyBuilder.add(new LanguageInclusionAutomaton(this, grammar));
-                hasLanguageInclusionAutomaton = true;
-                logger.debug("Enable language inclusion checks to determine heap shapes.");
-            } else if (reachableBySelPattern.matcher(ap).matches()) {
-
-                if (isIndexedMode) {
-                    logger.info("Advanced grammar refinement for indexed grammars is not supported yet.");
-                    continue;
+            for (AtomicPropositionProvider provider : providers) {
+                if (provider.claims(ap)) {
+                    provider.contribute(ap, context);
+                    break;
                 }
-
-                String[] parameters = ap.split("[\\(\\)]")[1].split("\\[");
-                String[] variables = parameters[0].split(",");
-                scene().labels().addKeptVariable(variables[0].trim());
-                scene().labels().addKeptVariable(variables[1].trim());
-                String[] selectors = parameters[1].split("\\]")[0].split(",");
-                Set<String> allowedSelectors = new LinkedHashSet<>(selectors.length);
-                for (String sel : selectors) {
-                    allowedSelectors.add(sel.trim());
-                }
-
-                if (reachabilityAutomataBySelList.add(allowedSelectors)) {
-                    stateLabelingStrategyBuilder.add(new ReachabilityHeapAutomaton(this, allowedSelectors));
-                    logger.debug("Enable heap automaton to track reachable variables according to selectors "
-                            + allowedSelectors);
-                }
-
-            } else if (!hasReachabilityAutomaton && reachablePattern.matcher(ap).matches()) {
-
-
-                if (isIndexedMode) {
-                    logger.info("Advanced grammar refinement for indexed grammars is not supported yet.");
-                    continue;
-                }
-
-                stateLabelingStrategyBuilder.add(new ReachabilityHeapAutomaton(this));
-                String[] variables = ap.split("[\\(\\)]")[1].split(",");
-                scene().labels().addKeptVariable(variables[0].trim());
-                scene().labels().addKeptVariable(variables[1].trim());
-                hasReachabilityAutomaton = true;
-                logger.debug("Enable heap automaton to track reachable variables");
-            } else if (equalityPattern.matcher(ap).matches()) {
-                String[] split = ap.split("\\=\\=");
-                enableVariableRelationTracking(trackedVariableRelations, split);
-            } else if (inequalityPattern.matcher(ap).matches()) {
-                String[] split = ap.split("\\!\\=");
-                enableVariableRelationTracking(trackedVariableRelations, split);
             }
         }
     }
 
-    private void enableVariableRelationTracking(Set<Pair<String, String>> trackedVariableRelations, String[] split) {
-
-        String lhs = split[0].trim();
-        String rhs = split[1].trim();
-        Pair<String, String> trackedPair = new Pair<>(lhs, rhs);
-        if (trackedVariableRelations.add(trackedPair)) {
-            stateLabelingStrategyBuilder.add(new VariableRelationsAutomaton(lhs, rhs));
-            scene().labels().addKeptVariable(lhs);
-            scene().labels().addKeptVariable(rhs);
-            logger.info("Enable heap automaton to track relationships between '"
-                    + lhs + "' and '" + rhs + "'");
-        }
-    }
-
-
     private Grammar refineGrammar(HeapAutomaton automaton, Grammar grammar) {
 
         logger.info("Refining graph grammar...");
@@ -202,14 +132,25 @@ public class GrammarRefinementPhase extends AbstractPhase
 
     }
 
-    private void refineInputs(HeapAutomaton automaton, Grammar grammar) {
+    private void refineGrammarLazily(HeapAutomaton automaton) {
+
+        logger.info("Computing states of refined nonterminals...");
+        LazyGrammarRefinement lazyRefinement = new LazyGrammarRefinement(grammar, automaton);
+        Set<Nonterminal> refinedNonterminals = lazyRefinement.getRefinedNonterminals();
+        grammar = new LazyGrammar(lazyRefinement, scene().options().isRuleCollapsingEnabled());
+        logger.info("done. Number of refined nonterminals: " + refinedNonterminals.size()
+                + ". Refined rules are computed on demand.");
+        refineInputs(automaton, refinedNonterminals);
+    }
+
+    private void refineInputs(HeapAutomaton automaton, Collection<Nonterminal> refinedNonterminals) {
 
         logger.info("Refining input heap configurations...");
         List<HeapConfiguration> newInputs = new ArrayList<>();
         for (HeapConfiguration input : inputs) {
             InitialHeapConfigurationRefinement inputRefinement = new InitialHeapConfigurationRefinement(
                     input,
-                    grammar,
+                    refinedNonterminals,
                     automaton
             );
             newInputs.addAll(inputRefinement.getRefinements());
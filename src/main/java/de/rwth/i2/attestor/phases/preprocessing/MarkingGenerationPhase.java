@@ -10,14 +10,17 @@ import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.scene.Scene;
 import de.rwth.i2.attestor.markingGeneration.AbstractMarkingGenerator;
+import de.rwth.i2.attestor.markingGeneration.MarkedHeapCache;
 import de.rwth.i2.attestor.markingGeneration.neighbourhood.NeighbourhoodMarkingCommand;
 import de.rwth.i2.attestor.markingGeneration.neighbourhood.NeighbourhoodMarkingGenerator;
 import de.rwth.i2.attestor.markingGeneration.visited.VisitedMarkingCommand;
 import de.rwth.i2.attestor.markingGeneration.visited.VisitedMarkingGenerator;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.phases.communication.ModelCheckingSettings;
 import de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies.NoRectificationStrategy;
 import de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies.StateSpaceBoundedAbortStrategy;
 import de.rwth.i2.attestor.phases.transformers.GrammarTransformer;
+import de.rwth.i2.attestor.phases.transformers.InputSettingsTransformer;
 import de.rwth.i2.attestor.phases.transformers.InputTransformer;
 import de.rwth.i2.attestor.phases.transformers.MCSettingsTransformer;
 import de.rwth.i2.attestor.phases.transformers.StateLabelingStrategyBuilderTransformer;
@@ -31,8 +34,23 @@ import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
 import de.rwth.i2.attestor.stateSpaceGeneration.StateRectificationStrategy;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
+/**
+ * Adds the markings required by the atomic propositions of all LTL formulas to the initial heap configurations.
+ * <br>
+ * Marking generation performs a state space generation for every initial heap configuration. Since these
+ * are independent of each other, they are performed concurrently, each with its own strategies.
+ * If --marking-cache is set, the resulting heap configurations are moreover stored on disk and reused by
+ * subsequent analyses with the same grammar and initial heap configurations.
+ *
+ * @see MarkedHeapCache
+ */
 public class MarkingGenerationPhase extends AbstractPhase
         implements InputTransformer, StateLabelingStrategyBuilderTransformer {
 
@@ -47,6 +65,10 @@ public class MarkingGenerationPhase extends AbstractPhase
 
     private List<HeapConfiguration> inputs;
 
+    private MarkedHeapCache cache;
+    private int cachedInputs = 0;
+    private int generatedInputs = 0;
+
     private AutomatonStateLabelingStrategyBuilder stateLabelingStrategyBuilder;
 
     public MarkingGenerationPhase(Scene scene) {
@@ -71,12 +93,21 @@ public class MarkingGenerationPhase extends AbstractPhase
         }
 
         Collection<String> requiredMarkings = determineMarkingsFromAPs();
+        Set<String> generatedMarkings = new LinkedHashSet<>();
         for(String marking : requiredMarkings) {
-            addMarking(marking);
+            // visited and visitedBy require the same marking, which must not be placed twice
+            if(generatedMarkings.add(markingKindOf(marking))) {
+                addMarking(marking);
+            }
             addStateLabeling(marking);
         }
     }
 
+    private String markingKindOf(String marking) {
+
+        return VISITED_BY.equals(marking) ? VISITED : marking;
+    }
+
     private Collection<String> determineMarkingsFromAPs() {
 
         ModelCheckingSettings mcSettings = getPhase(MCSettingsTransformer.class).getMcSettings();
@@ -97,6 +128,11 @@ public class MarkingGenerationPhase extends AbstractPhase
 
     private void addMarking(String marking) {
 
+        if(!Arrays.asList(VISITED, VISITED_BY, IDENTIC_NEIGHBOURS).contains(marking)) {
+            logger.error("Unknown marking.");
+            return;
+        }
+
         Collection<String> availableSelectorNames = scene().labels().getUsedSelectorLabels();
 
         final Grammar grammar = getPhase(GrammarTransformer.class).getGrammar();
@@ -108,57 +144,113 @@ public class MarkingGenerationPhase extends AbstractPhase
                 .setAdmissibleAbstraction(scene().options().isAdmissibleAbstractionEnabled())
                 .setAdmissibleConstants(scene().options().isAdmissibleConstantsEnabled());
 
-        MaterializationStrategy materializationStrategy = new MaterializationStrategyBuilder()
-                .setIndexedMode(indexedMode)
-                .setGrammar(grammar)
-                .build();
-
-        CanonicalizationStrategy canonicalizationStrategy = new CanonicalizationStrategyBuilder()
-                .setGrammar(grammar)
-                .setOptions(abstractionOptions)
-                .build();
+        // strategies cache results internally and are thus not shared between concurrent generators
+        Supplier<AbstractMarkingGenerator> generatorSupplier = () -> {
+
+            MaterializationStrategy materializationStrategy = new MaterializationStrategyBuilder()
+                    .setIndexedMode(indexedMode)
+                    .setGrammar(grammar)
+                    .build();
+
+            CanonicalizationStrategy canonicalizationStrategy = new CanonicalizationStrategyBuilder()
+                    .setGrammar(grammar)
+                    .setOptions(abstractionOptions)
+                    .build();
+
+            CanonicalizationStrategy aggressiveCanonicalizationStrategy = new CanonicalizationStrategyBuilder()
+                    .setGrammar(grammar)
+                    .setOptions(new AbstractionOptions())
+                    .build();
+
+            StateRectificationStrategy stateRectificationStrategy = new NoRectificationStrategy();
+            AbortStrategy abortStrategy = new StateSpaceBoundedAbortStrategy(stateSpaceBound, stateBound);
+
+            switch (marking) {
+                case VISITED:
+                case VISITED_BY:
+                    return new VisitedMarkingGenerator(availableSelectorNames,
+                            abortStrategy, materializationStrategy,
+                            canonicalizationStrategy, aggressiveCanonicalizationStrategy, stateRectificationStrategy);
+                case IDENTIC_NEIGHBOURS:
+                    return new NeighbourhoodMarkingGenerator(availableSelectorNames, abortStrategy,
+                            materializationStrategy, canonicalizationStrategy, aggressiveCanonicalizationStrategy,
+                            stateRectificationStrategy);
+                default:
+                    throw new IllegalStateException("Unknown marking.");
+            }
+        };
 
+        String cachePath = getPhase(InputSettingsTransformer.class).getInputSettings().getMarkingCachePath();
+        if(cachePath != null && !indexedMode) {
+            cache = new MarkedHeapCache(cachePath, grammar, availableSelectorNames, abstractionOptions,
+                    stateSpaceBound, stateBound, scene().options().isRuleCollapsingEnabled());
+        }
 
-        CanonicalizationStrategy aggressiveCanonicalizationStrategy = new CanonicalizationStrategyBuilder()
-                .setGrammar(grammar)
-                .setOptions(new AbstractionOptions())
-                .build();
+        generateMarkedInputs(markingKindOf(marking), generatorSupplier);
+    }
 
-        StateRectificationStrategy stateRectificationStrategy = new NoRectificationStrategy();
-        AbortStrategy abortStrategy = new StateSpaceBoundedAbortStrategy(stateSpaceBound, stateBound);
+    private void generateMarkedInputs(String markingKind, Supplier<AbstractMarkingGenerator> generatorSupplier) {
 
-        AbstractMarkingGenerator generator = null;
+        List<ProgramState> initialStates = new ArrayList<>(inputs.size());
+        for(HeapConfiguration in : inputs) {
+            initialStates.add(scene().createProgramState(in));
+        }
 
-        switch (marking) {
-            case VISITED:
-            case VISITED_BY:
-                generator = new VisitedMarkingGenerator(availableSelectorNames,
-                        abortStrategy, materializationStrategy,
-                        canonicalizationStrategy, aggressiveCanonicalizationStrategy, stateRectificationStrategy);
-                break;
-            case IDENTIC_NEIGHBOURS:
-                generator = new NeighbourhoodMarkingGenerator(availableSelectorNames, abortStrategy,
-                        materializationStrategy, canonicalizationStrategy, aggressiveCanonicalizationStrategy, stateRectificationStrategy);
-                break;
-            default:
-                logger.error("Unknown marking.");
+        List<HeapConfiguration> markedInputs = new LinkedList<>();
+        if(initialStates.size() == 1) {
+            markedInputs.addAll(marked(markingKind, generatorSupplier, initialStates.get(0)));
+            inputs = markedInputs;
+            return;
         }
 
-        generateMarkedInputs(generator);
+        int threads = Math.min(initialStates.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+        try {
+            List<Future<Collection<HeapConfiguration>>> results = new ArrayList<>(initialStates.size());
+            for(ProgramState initialState : initialStates) {
+                results.add(executor.submit(() -> marked(markingKind, generatorSupplier, initialState)));
+            }
+            for(Future<Collection<HeapConfiguration>> result : results) {
+                markedInputs.addAll(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Marking generation has been interrupted.");
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        inputs = markedInputs;
     }
 
-    private void generateMarkedInputs(AbstractMarkingGenerator generator) {
-
-        if(generator == null) {
-            return;
+    private Collection<HeapConfiguration> marked(String markingKind,
+                                                 Supplier<AbstractMarkingGenerator> generatorSupplier,
+                                                 ProgramState initialState) {
+
+        HeapConfiguration input = initialState.getHeap();
+        if(cache != null) {
+            Collection<HeapConfiguration> cached = cache.load(markingKind, input);
+            if(cached != null) {
+                MetricsRegistry.current().counter("markingGeneration.cacheHits").increment();
+                synchronized (this) {
+                    cachedInputs++;
+                }
+                return cached;
+            }
         }
 
-        List<HeapConfiguration> markedInputs = new LinkedList<>();
-        for(HeapConfiguration in : inputs) {
-            ProgramState initialState = scene().createProgramState(in);
-            markedInputs.addAll(generator.marked(initialState));
+        Collection<HeapConfiguration> result = generatorSupplier.get().marked(initialState);
+        synchronized (this) {
+            generatedInputs++;
         }
-        inputs = markedInputs;
+        if(cache != null) {
+            cache.store(markingKind, input, result);
+        }
+        return result;
     }
 
     private void addStateLabeling(String markingIdentifier) {
@@ -182,7 +274,14 @@ public class MarkingGenerationPhase extends AbstractPhase
 
     @Override
     public void logSummary() {
-        // nothing to report
+
+        if(cache == null) {
+            return;
+        }
+
+        logSum("Marking generation:");
+        logSum("  Initial heaps marked: " + generatedInputs);
+        logSum("  Initial heaps loaded from cache: " + cachedInputs);
     }
 
     @Override
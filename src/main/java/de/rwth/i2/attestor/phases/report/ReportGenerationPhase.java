@@ -10,8 +10,11 @@ import de.rwth.i2.attestor.io.jsonExport.inputFormat.ContractToInputFormatExport
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.PhaseRegistry;
 import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.phases.communication.OutputSettings;
 import de.rwth.i2.attestor.phases.modelChecking.modelChecker.ModelCheckingResult;
+import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.InterproceduralAnalysis;
+import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.ProcedureCall;
 import de.rwth.i2.attestor.phases.symbolicExecution.stateSpaceGenerationImpl.InternalStateSpace;
 import de.rwth.i2.attestor.phases.transformers.*;
 import de.rwth.i2.attestor.procedures.Contract;
@@ -55,6 +58,7 @@ public class ReportGenerationPhase extends AbstractPhase {
             exportReport();
             exportGrammar();
             exportLargeStates();
+            exportProcedures();
             exportContracts();
             saveContracts();
         } catch (IOException e) {
@@ -81,6 +85,7 @@ public class ReportGenerationPhase extends AbstractPhase {
         ZipUtils.unzip(zis, targetDirectory);
 
         exportOverview(location);
+        exportProfile(location);
 
         String summary = "Report exported to " + location;
         logger.info(summary);
@@ -89,6 +94,12 @@ public class ReportGenerationPhase extends AbstractPhase {
 
     private void exportStateSpace(StateSpace stateSpace, String location, String directory) throws IOException {
 
+        exportStateSpace(stateSpace, program, location, directory);
+    }
+
+    private void exportStateSpace(StateSpace stateSpace, Program program, String location, String directory)
+            throws IOException {
+
         logger.info("Exporting state space...");
 
         exportStateSpace(
@@ -158,6 +169,19 @@ public class ReportGenerationPhase extends AbstractPhase {
         writer.close();
     }
 
+    private void exportProfile(String location) throws IOException {
+
+        logger.info("Exporting profile...");
+
+        FileUtils.createDirectories(location);
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(location + File.separator + "profile.json"))
+        );
+        JsonProfileExporter exporter = new JsonProfileExporter(writer);
+        exporter.export(registry, MetricsRegistry.current());
+        writer.close();
+    }
+
     private void exportGrammar() throws IOException {
 
         String location = outputSettings.getExportGrammarPath();
@@ -216,6 +240,53 @@ public class ReportGenerationPhase extends AbstractPhase {
         summaryMessages.add(summary);
     }
 
+    private void exportProcedures() throws IOException {
+
+        String location = outputSettings.getExportProceduresPath();
+
+        if(location == null) {
+            return;
+        }
+
+        logger.info("Exporting procedures...");
+
+        InterproceduralAnalysis analysis = getPhase(InterproceduralAnalysisTransformer.class)
+                .getInterproceduralAnalysis();
+        List<ProcedureCall> calls = new ArrayList<>(analysis.getProcedureCalls());
+        List<StateSpace> stateSpaces = new ArrayList<>();
+
+        for(ProcedureCall call : calls) {
+            StateSpace stateSpace = analysis.getStateSpace(call);
+            if(stateSpace != null && !stateSpaces.contains(stateSpace)) {
+                Program procedureProgram = call.getMethod().getBody();
+                exportStateSpace(stateSpace, procedureProgram, location, "procedure_" + stateSpaces.size());
+                stateSpaces.add(stateSpace);
+            }
+        }
+
+        String directory = location + File.separator + "data";
+        FileUtils.createDirectories(directory);
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(directory + File.separator + "statespace.json"))
+        );
+        new JsonCallGraphExporter(writer).export(analysis, calls, stateSpaces);
+        writer.close();
+
+        for(int i = 0; i < calls.size(); i++) {
+            exportHeapConfiguration(directory, "hc_" + i + ".json", calls.get(i).getInput().getHeap());
+        }
+
+        InputStream zis = getClass().getClassLoader().getResourceAsStream("viewer.zip");
+        File targetDirectory = new File(location + File.separator);
+        ZipUtils.unzip(zis, targetDirectory);
+
+        exportOverview(location);
+
+        String summary = "Procedures exported to " + location;
+        logger.info(summary);
+        summaryMessages.add(summary);
+    }
+
     private void exportContracts() throws IOException {
 
         String location = outputSettings.getExportContractsPath();
@@ -3,18 +3,46 @@ package de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl;
 import java.util.*;
 import java.util.Map.Entry;
 
+import de.rwth.i2.attestor.grammar.canonicalization.CanonicalizationStrategy;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.procedures.*;
 
+/**
+ * Stores the contracts of a single procedure.
+ * By default, a contract is only reused for preconditions that are isomorphic to the precondition of the contract.
+ * If a subsumption strategy is provided, a precondition without an isomorphic contract is abstracted by this
+ * strategy and the contract of the abstracted precondition is reused if it exists.
+ * Since every heap covered by the precondition of a contract is also covered by its postconditions, this is sound,
+ * but the postconditions obtained in this way might be less precise.
+ */
 public class InternalContractCollection implements ContractCollection {
 
     private final PreconditionMatchingStrategy preconditionMatchingStrategy;
 
+    /**
+     * Abstracts preconditions without isomorphic contract or null if contracts are only reused for
+     * isomorphic preconditions.
+     */
+    private final CanonicalizationStrategy subsumptionStrategy;
+
     private final Map<Integer, Collection<Contract>> contracts;
 
     public InternalContractCollection(PreconditionMatchingStrategy preconditionMatchingStrategy) {
 
+        this(preconditionMatchingStrategy, null);
+    }
+
+    /**
+     * @param preconditionMatchingStrategy The strategy to match preconditions against contracts.
+     * @param subsumptionStrategy The strategy used to abstract preconditions without isomorphic contract
+     *                            or null if contracts are only reused for isomorphic preconditions.
+     */
+    public InternalContractCollection(PreconditionMatchingStrategy preconditionMatchingStrategy,
+                                      CanonicalizationStrategy subsumptionStrategy) {
+
         this.preconditionMatchingStrategy = preconditionMatchingStrategy;
+        this.subsumptionStrategy = subsumptionStrategy;
         this.contracts = new HashMap<>();
     }
 
@@ -42,17 +70,37 @@ public class InternalContractCollection implements ContractCollection {
     @Override
     public ContractMatch matchContract(HeapConfiguration precondition) {
 
-        int preconditionHash = precondition.hashCode();
-        if(!contracts.containsKey(preconditionHash)) {
-            contracts.put(preconditionHash, new ArrayList<>());
+        MetricsRegistry metrics = MetricsRegistry.current();
+        long startTime = System.nanoTime();
+        metrics.counter("contracts.lookups").increment();
+
+        ContractMatch match = findIsomorphicContract(precondition, metrics);
+        if(!match.hasMatch() && subsumptionStrategy != null) {
+            HeapConfiguration abstractPrecondition = subsumptionStrategy.canonicalize(precondition);
+            if(abstractPrecondition.hashCode() != precondition.hashCode()
+                    || !abstractPrecondition.equals(precondition)) {
+                match = findIsomorphicContract(abstractPrecondition, metrics);
+                if(match.hasMatch()) {
+                    metrics.counter("contracts.subsumptionMatches").increment();
+                }
+            }
         }
-        for(Contract contract : contracts.get(preconditionHash)) {
+
+        metrics.histogram("contracts.matchContract").recordSince(startTime);
+        return match;
+    }
+
+    private ContractMatch findIsomorphicContract(HeapConfiguration precondition, MetricsRegistry metrics) {
+
+        Collection<Contract> candidates = contracts.getOrDefault(precondition.hashCode(), Collections.emptyList());
+        for(Contract contract : candidates) {
+            metrics.counter("contracts.comparisons").increment();
             ContractMatch match = preconditionMatchingStrategy.match(contract, precondition);
             if(match.hasMatch()) {
+                metrics.counter("contracts.matches").increment();
                 return match;
             }
         }
-
         return ContractMatch.NO_CONTRACT_MATCH;
     }
 
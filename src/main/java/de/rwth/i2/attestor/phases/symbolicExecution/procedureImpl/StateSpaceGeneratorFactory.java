@@ -21,6 +21,7 @@ public class StateSpaceGeneratorFactory extends SceneObject{
         return createBuilder()
                 .addInitialState(initialState)
                 .setProgram(program)
+                .setStateExplorationStrategy(createExplorationStrategy(program, initialState))
                 .build();
     }
 
@@ -28,6 +29,7 @@ public class StateSpaceGeneratorFactory extends SceneObject{
 
         return createBuilder()
                 .addInitialStates(initialStates)
+                .setStateExplorationStrategy(createExplorationStrategy(program, scene().options().getExplorationOrder()))
                 .setProgram(program)
                 .build();
     }
@@ -50,6 +52,9 @@ public class StateSpaceGeneratorFactory extends SceneObject{
                 .setAlwaysCanonicalize(
                         strategies.isAlwaysCanonicalize()
                 )
+                .setLargeBlockEncoding(
+                        scene().options().isLargeBlockEncodingEnabled()
+                )
                 .setCanonizationStrategy(
                         new StateCanonicalizationStrategy(strategies.getCanonicalizationStrategy())
                 )
@@ -62,13 +67,25 @@ public class StateSpaceGeneratorFactory extends SceneObject{
                 .setStateCounter(
                         scene()::addNumberOfGeneratedStates
                 )
-                .setStateExplorationStrategy(new DepthFirstStateExplorationStrategy())
                 .setStateSpaceSupplier(() -> new InternalStateSpace(scene().options().getMaxStateSpace()))
                 .setPostProcessingStrategy(getPostProcessingStrategy())
                 .setFinalStateStrategy(new TerminalStatementFinalStateStrategy())
                 ;
     }
 
+    private StateExplorationStrategy createExplorationStrategy(Program program, ProgramState initialState) {
+
+        if (initialState.isFromTopLevelStateSpace()) {
+            return createExplorationStrategy(program, scene().options().getExplorationOrder());
+        }
+        return createExplorationStrategy(program, scene().options().getProcedureExplorationOrder());
+    }
+
+    private StateExplorationStrategy createExplorationStrategy(Program program, String explorationOrder) {
+
+        return ExplorationOrder.parse(explorationOrder).createStrategy(program);
+    }
+
     private PostProcessingStrategy getPostProcessingStrategy() {
 
         CanonicalizationStrategy aggressiveStrategy = scene().strategies().getAggressiveCanonicalizationStrategy();
@@ -99,6 +116,7 @@ public class StateSpaceGeneratorFactory extends SceneObject{
         return createBuilder()
                 .addInitialState(initialState)
                 .setProgram(program)
+                .setStateExplorationStrategy(createExplorationStrategy(program, initialState))
                 .setInitialStateSpace(stateSpace)
                 .build();
     }
@@ -10,23 +10,37 @@ import de.rwth.i2.attestor.types.Type;
 import de.rwth.i2.attestor.util.Pair;
 import gnu.trove.list.array.TIntArrayList;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * This is an algorithm class storing some of its
  * intermediate results as fields to reduce parameters.
+ * <p>
+ * Since scope extraction is performed for every procedure call, all intermediate results are
+ * stored in primitive arrays and bit sets that are indexed by the (public) node ids of the input.
+ * Both searches use arrays as first-in-first-out worklists, because every node is enqueued at most once.
  *
  * @author hannah
  */
 class ReachableFragmentComputer extends SceneObject {
 
+    private static final int NOT_REACHABLE = -1;
+
     HeapConfiguration input;
     HeapConfigurationBuilder reachableFragmentBuilder;
     HeapConfigurationBuilder remainingFragmentBuilder;
-    // maps the nodeIds in the input on nodeIds in the reachable fragment
-    Map<Integer, Integer> idMapping;
+    // maps the nodeIds in the input on nodeIds in the reachable fragment or NOT_REACHABLE
+    int[] idMapping;
+    // the nodeIds in the input that belong to the reachable fragment in the order in which they have been added
+    private TIntArrayList nodesInReachableFragment;
     private String displayName;
 
+    // the worklist of the current search
+    private int[] worklist;
+    private int worklistHead;
+    private int worklistTail;
+
 
     public ReachableFragmentComputer(SceneObject sceneObject, String displayName, HeapConfiguration input) {
 
@@ -40,6 +54,10 @@ class ReachableFragmentComputer extends SceneObject {
      * the nodes within the fragment reachable from the variables (cutpoints).
      * Replaces this fragment in the remaining fragment by a nonterminalEdge
      * attached to all cutpoints.
+     * <p>
+     * The remaining fragment is obtained by removing the reachable fragment from a single copy of the input.
+     * This preserves the node ids of the calling heap as well as additional information attached to
+     * specialized heap configurations, e.g. during counterexample generation.
      *
      * @return <reachableFragment,<remainingFragment, nt position>>
      */
@@ -48,10 +66,14 @@ class ReachableFragmentComputer extends SceneObject {
         this.reachableFragmentBuilder = input.getEmpty().builder();
         this.remainingFragmentBuilder = input.clone().builder();
 
-        idMapping = new LinkedHashMap<>();
+        int nodeBound = computeNodeBound();
+        idMapping = new int[nodeBound];
+        Arrays.fill(idMapping, NOT_REACHABLE);
+        nodesInReachableFragment = new TIntArrayList();
+        worklist = new int[nodeBound];
 
-        Queue<Integer> queue = findAccessibleNodes();
-        computeReachableFragment(queue);
+        findAccessibleNodes();
+        computeReachableFragment();
         TIntArrayList tentacles = computeCutpoints();
         cutReachableFragment(tentacles);
         int idOfNonterminal = addIpaNonterminal(tentacles);
@@ -63,6 +85,19 @@ class ReachableFragmentComputer extends SceneObject {
         return new Pair<>(reachableFragment, remainingInformation);
     }
 
+    /**
+     * @return An upper bound on the node ids of the input.
+     */
+    private int computeNodeBound() {
+
+        int bound = 0;
+        TIntArrayList nodes = input.nodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            bound = Math.max(bound, nodes.get(i) + 1);
+        }
+        return bound;
+    }
+
 
     /**
      * finds the nodes in the heap accessible by the callee.
@@ -73,12 +108,10 @@ class ReachableFragmentComputer extends SceneObject {
      * Constants are not enqueued since they do not have outgoing transitions
      * (this is not solely a matter of performance, but could also result in unnecessary large
      * reachable fragments if nonterminal edges are attached to the constant).
-     *
-     * @return a queue containing the nodes accessed by parameters
      */
-    private Queue<Integer> findAccessibleNodes() {
+    private void findAccessibleNodes() {
 
-        Queue<Integer> queue = new ArrayDeque<>();
+        clearWorklist();
 
         TIntArrayList variables = input.variableEdges();
         for (int i = 0; i < variables.size(); i++) {
@@ -86,31 +119,28 @@ class ReachableFragmentComputer extends SceneObject {
             String variableName = input.nameOf(variableEdge);
 
             if (isParameter(variableName)) {
-                handleParameter(variableEdge, variableName, queue);
+                handleParameter(variableEdge, variableName);
 
             } else if (Constants.isConstant(variableName)) {
                 handleConstant(variableEdge, variableName);
             }
         }
-        return queue;
     }
 
     /**
-     * Computes the fragment reachable from the nodes in the queue
-     *
-     * @param queue containing all nodes already determined to be reachable,
-     *              but not yet handled.
+     * Computes the fragment reachable from the nodes in the worklist.
+     * The worklist contains all nodes already determined to be reachable, but not yet handled.
      */
-    private void computeReachableFragment(Queue<Integer> queue) {
+    private void computeReachableFragment() {
 
-        Set<Integer> visitedNonterminalEdges = new LinkedHashSet<>();
+        BitSet visitedNonterminalEdges = new BitSet();
 
-        while (!queue.isEmpty()) {
+        while (hasNextInWorklist()) {
 
-            int nodeId = queue.poll();
+            int nodeId = nextInWorklist();
 
-            addSelectorEdgesOf(nodeId, queue);
-            addNonterminalEdgesOf(nodeId, queue, visitedNonterminalEdges);
+            addSelectorEdgesOf(nodeId);
+            addNonterminalEdgesOf(nodeId, visitedNonterminalEdges);
         }
     }
 
@@ -127,20 +157,20 @@ class ReachableFragmentComputer extends SceneObject {
     private TIntArrayList computeCutpoints() {
 
         TIntArrayList tentacles = new TIntArrayList();
+        BitSet isCutpoint = new BitSet(idMapping.length);
+        BitSet visited = new BitSet(idMapping.length);
 
-        Deque<Integer> nodesReachableFromVariables = new ArrayDeque<>();
-        Set<Integer> visited = new LinkedHashSet<>();
-
-        addNodesReferencedByVariablesTo(nodesReachableFromVariables);
-        addExternalNodesTo(nodesReachableFromVariables);
+        clearWorklist();
+        addNodesReferencedByVariables(visited);
+        addExternalNodes(visited);
 
-        while (!nodesReachableFromVariables.isEmpty()) {
-            int nodeId = nodesReachableFromVariables.pop();
-            if (idMapping.containsKey(nodeId)) {
-                setCutpoint(nodeId, tentacles);
+        while (hasNextInWorklist()) {
+            int nodeId = nextInWorklist();
+            if (isInReachableFragment(nodeId)) {
+                setCutpoint(nodeId, tentacles, isCutpoint);
             } else {
-                addNodesReachableThroughSelectorFrom(nodeId, nodesReachableFromVariables, visited);
-                addNodesReachableThroughNonterminalEdge(nodeId, nodesReachableFromVariables, visited);
+                addNodesReachableThroughSelectorFrom(nodeId, visited);
+                addNodesReachableThroughNonterminalEdge(nodeId, visited);
             }
         }
 
@@ -155,9 +185,14 @@ class ReachableFragmentComputer extends SceneObject {
      */
     private void cutReachableFragment(TIntArrayList cutpoints) {
 
-        Set<Integer> nodesInReachableFragment = idMapping.keySet();
-        for (Integer n : nodesInReachableFragment) {
-            if (!cutpoints.contains(n)) {
+        BitSet isCutpoint = new BitSet(idMapping.length);
+        for (int i = 0; i < cutpoints.size(); i++) {
+            isCutpoint.set(cutpoints.get(i));
+        }
+
+        for (int i = 0; i < nodesInReachableFragment.size(); i++) {
+            int n = nodesInReachableFragment.get(i);
+            if (!isCutpoint.get(n)) {
                 remainingFragmentBuilder.removeIsolatedNode(n);
             }
         }
@@ -188,13 +223,12 @@ class ReachableFragmentComputer extends SceneObject {
      *
      * @param variableEdge the variable edge in the input
      * @param variableName the id of the variable edge in the input
-     * @param queue        the queue of the reachability search
      */
-    private void handleParameter(final int variableEdge, String variableName, Queue<Integer> queue) {
+    private void handleParameter(final int variableEdge, String variableName) {
 
         int targetedNode = input.targetOf(variableEdge);
-        if (!idMapping.containsKey(targetedNode)) {
-            queue.add(targetedNode);
+        if (!isInReachableFragment(targetedNode)) {
+            addToWorklist(targetedNode);
             addNodeToReachableFragment(targetedNode);
         }
         handleVariableEdge(variableEdge, variableName, targetedNode);
@@ -212,7 +246,7 @@ class ReachableFragmentComputer extends SceneObject {
     private void handleConstant(final int variableEdge, String variableName) {
 
         int targetedNode = input.targetOf(variableEdge);
-        if (!idMapping.containsKey(targetedNode)) {
+        if (!isInReachableFragment(targetedNode)) {
             addNodeToReachableFragment(targetedNode);
         }
         handleVariableEdge(variableEdge, variableName, targetedNode);
@@ -227,7 +261,7 @@ class ReachableFragmentComputer extends SceneObject {
      */
     private void handleVariableEdge(final int variableEdge, String variableName, int targetedNode) {
 
-        reachableFragmentBuilder.addVariableEdge(variableName, idMapping.get(targetedNode));
+        reachableFragmentBuilder.addVariableEdge(variableName, idMapping[targetedNode]);
         remainingFragmentBuilder.removeVariableEdge(variableEdge);
     }
 
@@ -240,9 +274,10 @@ class ReachableFragmentComputer extends SceneObject {
     private void addNodeToReachableFragment(int nodeToTranslate) {
 
         Type type = input.nodeTypeOf(nodeToTranslate);
-        TIntArrayList insertedNode = new TIntArrayList();
+        TIntArrayList insertedNode = new TIntArrayList(1);
         reachableFragmentBuilder.addNodes(type, 1, insertedNode);
-        idMapping.put(nodeToTranslate, insertedNode.get(0));
+        idMapping[nodeToTranslate] = insertedNode.get(0);
+        nodesInReachableFragment.add(nodeToTranslate);
     }
 
     /**
@@ -251,18 +286,17 @@ class ReachableFragmentComputer extends SceneObject {
      * it is added and enqueued for further reachability search
      *
      * @param nodeId the node in the input whose selectors should be considered
-     * @param queue  the queue of the reachability search
      */
-    private void addSelectorEdgesOf(int nodeId, Queue<Integer> queue) {
+    private void addSelectorEdgesOf(int nodeId) {
 
         for (SelectorLabel sel : input.selectorLabelsOf(nodeId)) {
             int successorNode = input.selectorTargetOf(nodeId, sel);
-            if (!idMapping.containsKey(successorNode)) {
-                queue.add(successorNode);
+            if (!isInReachableFragment(successorNode)) {
+                addToWorklist(successorNode);
 
                 addNodeToReachableFragment(successorNode);
             }
-            reachableFragmentBuilder.addSelector(idMapping.get(nodeId), sel, idMapping.get(successorNode));
+            reachableFragmentBuilder.addSelector(idMapping[nodeId], sel, idMapping[successorNode]);
             remainingFragmentBuilder.removeSelector(nodeId, sel);
         }
     }
@@ -272,23 +306,21 @@ class ReachableFragmentComputer extends SceneObject {
      * and removed from the remaining fragment
      *
      * @param nodeId                  the node in the input to consider
-     * @param queue                   the queue used for the reachability search
      * @param visitedNonterminalEdges the set of nonterminalEdges visited in the reachability
      *                                search (necessary, since a nonterminalEdge could be approached from multiple sides)
      */
-    private void addNonterminalEdgesOf(int nodeId,
-                                       Queue<Integer> queue, Set<Integer> visitedNonterminalEdges) {
+    private void addNonterminalEdgesOf(int nodeId, BitSet visitedNonterminalEdges) {
 
         TIntArrayList nonterminalEdges = input.attachedNonterminalEdgesOf(nodeId);
         for (int i = 0; i < nonterminalEdges.size(); i++) {
             int nonterminalEdge = nonterminalEdges.get(i);
-            if (visitedNonterminalEdges.contains(nonterminalEdge)) {
+            if (visitedNonterminalEdges.get(nonterminalEdge)) {
                 continue; //each nonterminalEdge should only be considered once.
             }
-            TIntArrayList translatedAttachedNodes = handleTentacles(queue, nonterminalEdge);
+            TIntArrayList translatedAttachedNodes = handleTentacles(nonterminalEdge);
             reachableFragmentBuilder.addNonterminalEdge(input.labelOf(nonterminalEdge), translatedAttachedNodes);
             remainingFragmentBuilder.removeNonterminalEdge(nonterminalEdge);
-            visitedNonterminalEdges.add(nonterminalEdge);
+            visitedNonterminalEdges.set(nonterminalEdge);
         }
     }
 
@@ -297,22 +329,21 @@ class ReachableFragmentComputer extends SceneObject {
      * if they are not yet in the reachable fragment they are added
      * and the translated list of tentacles is computed
      *
-     * @param queue           the queue used for the reachability search
      * @param nonterminalEdge the nonterminal edge to consider
      * @return the nodes corresponding to the tentacles in the reachable fragment
      */
-    private TIntArrayList handleTentacles(Queue<Integer> queue, int nonterminalEdge) {
+    private TIntArrayList handleTentacles(int nonterminalEdge) {
 
         TIntArrayList attachedNodes = input.attachedNodesOf(nonterminalEdge);
-        TIntArrayList translatedAttachedNodes = new TIntArrayList();
+        TIntArrayList translatedAttachedNodes = new TIntArrayList(attachedNodes.size());
         for (int n = 0; n < attachedNodes.size(); n++) {
             int attachedNode = attachedNodes.get(n);
-            if (!idMapping.containsKey(attachedNode)) {
-                queue.add(attachedNode);
+            if (!isInReachableFragment(attachedNode)) {
+                addToWorklist(attachedNode);
 
                 addNodeToReachableFragment(attachedNode);
             }
-            translatedAttachedNodes.add(idMapping.get(attachedNode));
+            translatedAttachedNodes.add(idMapping[attachedNode]);
         }
         return translatedAttachedNodes;
     }
@@ -321,62 +352,57 @@ class ReachableFragmentComputer extends SceneObject {
 
     /**
      * add all nodes referenced by variables (not parameters but constants)
-     * to the dequeue
+     * to the worklist
      *
-     * @param nodesReachableFromVariables the dequeue to which the nodes are added
+     * @param visited the nodes already visited
      */
-    private void addNodesReferencedByVariablesTo(Deque<Integer> nodesReachableFromVariables) {
+    private void addNodesReferencedByVariables(BitSet visited) {
 
         TIntArrayList variables = input.variableEdges();
         for (int i = 0; i < variables.size(); i++) {
             int variableEdge = variables.get(i);
             if (!isParameter(input.nameOf(variableEdge))) {
                 int referencedNode = input.targetOf(variableEdge);
-                nodesReachableFromVariables.add(referencedNode);
+                addReachableNode(referencedNode, visited);
             }
         }
     }
 
     /**
-     * adds all external nodes of the input to the dequeue
+     * adds all external nodes of the input to the worklist
      *
-     * @param nodesReachableFromVariables the dequeue to which the external nodes are added
+     * @param visited the nodes already visited
      */
-    private void addExternalNodesTo(Deque<Integer> nodesReachableFromVariables) {
+    private void addExternalNodes(BitSet visited) {
 
         TIntArrayList externals = input.externalNodes();
         for (int i = 0; i < externals.size(); i++) {
-            nodesReachableFromVariables.add(externals.get(i));
+            addReachableNode(externals.get(i), visited);
         }
     }
 
     /**
-     * adds all successor nodes of the specified node to the dequeue used
+     * adds all successor nodes of the specified node to the worklist
      *
      * @param nodeId  the node to consider
-     * @param dequeue the deque to which the successors are added
      * @param visited the nodes already visited
      */
-    private void addNodesReachableThroughSelectorFrom(int nodeId,
-                                                      Deque<Integer> dequeue,
-                                                      Set<Integer> visited) {
+    private void addNodesReachableThroughSelectorFrom(int nodeId, BitSet visited) {
 
         TIntArrayList successors = input.successorNodesOf(nodeId);
         for (int i = 0; i < successors.size(); i++) {
             int reachableNode = successors.get(i);
-            addReachableNode(reachableNode, dequeue, visited);
+            addReachableNode(reachableNode, visited);
         }
     }
 
     /**
-     * adds all nodes reachable by a hyperedge from the specified node to the dequeue
+     * adds all nodes reachable by a hyperedge from the specified node to the worklist
      *
      * @param nodeId  the node to consider
-     * @param dequeue the dequeue to which the nodes are added
      * @param visited the nodes already visited
      */
-    private void addNodesReachableThroughNonterminalEdge(int nodeId,
-                                                         Deque<Integer> dequeue, Set<Integer> visited) {
+    private void addNodesReachableThroughNonterminalEdge(int nodeId, BitSet visited) {
 
         TIntArrayList nonterminalEdges = input.attachedNonterminalEdgesOf(nodeId);
         for (int edgeIndex = 0; edgeIndex < nonterminalEdges.size(); edgeIndex++) {
@@ -385,26 +411,24 @@ class ReachableFragmentComputer extends SceneObject {
             for (int i = 0; i < tentaclesOfEdge.size(); i++) {
                 int reachableNode = tentaclesOfEdge.get(i);
                 if (reachableNode != nodeId) {
-                    addReachableNode(reachableNode, dequeue, visited);
+                    addReachableNode(reachableNode, visited);
                 }
             }
         }
     }
 
     /**
-     * adds the specified node both to the dequeue and the set of visited nodes
+     * adds the specified node both to the worklist and the set of visited nodes
+     * unless it has already been visited
      *
      * @param nodeId  the node to add
-     * @param dequeue the dequeue to add to
      * @param visited the set to add to
      */
-    private void addReachableNode(int nodeId,
-                                  Deque<Integer> dequeue,
-                                  Set<Integer> visited) {
+    private void addReachableNode(int nodeId, BitSet visited) {
 
-        if (!visited.contains(nodeId)) {
-            dequeue.add(nodeId);
-            visited.add(nodeId);
+        if (!visited.get(nodeId)) {
+            addToWorklist(nodeId);
+            visited.set(nodeId);
         }
     }
 
@@ -415,19 +439,47 @@ class ReachableFragmentComputer extends SceneObject {
      * it is marked external in the reachable fragment
      * and added to the tentacles
      *
-     * @param nodeId    the id of the cutpoint in the input graph
-     * @param tentacles the list of tentacles = the list of cutpoints
+     * @param nodeId     the id of the cutpoint in the input graph
+     * @param tentacles  the list of tentacles = the list of cutpoints
+     * @param isCutpoint the set of cutpoints found so far
      */
-    private void setCutpoint(int nodeId, TIntArrayList tentacles) {
+    private void setCutpoint(int nodeId, TIntArrayList tentacles, BitSet isCutpoint) {
 
-        if (!tentacles.contains(nodeId)) {
-            reachableFragmentBuilder.setExternal(idMapping.get(nodeId));
+        if (!isCutpoint.get(nodeId)) {
+            reachableFragmentBuilder.setExternal(idMapping[nodeId]);
             tentacles.add(nodeId);
+            isCutpoint.set(nodeId);
         }
     }
 
 // general utility functions
 
+    private boolean isInReachableFragment(int nodeId) {
+
+        return idMapping[nodeId] != NOT_REACHABLE;
+    }
+
+    private void clearWorklist() {
+
+        worklistHead = 0;
+        worklistTail = 0;
+    }
+
+    private void addToWorklist(int nodeId) {
+
+        worklist[worklistTail++] = nodeId;
+    }
+
+    private boolean hasNextInWorklist() {
+
+        return worklistHead < worklistTail;
+    }
+
+    private int nextInWorklist() {
+
+        return worklist[worklistHead++];
+    }
+
     /**
      * determines whether the given variable name is a parameter (including this)
      *
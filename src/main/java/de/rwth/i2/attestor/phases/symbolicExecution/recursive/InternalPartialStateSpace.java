@@ -1,6 +1,7 @@
 package de.rwth.i2.attestor.phases.symbolicExecution.recursive;
 
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl.InternalContract;
 import de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl.StateSpaceGeneratorFactory;
 import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.PartialStateSpace;
@@ -42,6 +43,9 @@ public class InternalPartialStateSpace implements PartialStateSpace {
             
             stateToContinue.flagAsContinueState();
 
+            MetricsRegistry metrics = MetricsRegistry.current();
+            long startTime = System.nanoTime();
+            int previousSize = partialStateSpace.size();
             StateSpace stateSpace = stateSpaceGeneratorFactory.create(
                     call.getMethod().getBody(),
                     stateToContinue,
@@ -50,6 +54,13 @@ public class InternalPartialStateSpace implements PartialStateSpace {
             
             stateToContinue.unflagContinueState();
 
+            if (metrics.isEnabled()) {
+                String prefix = "procedure." + method.getName();
+                metrics.histogram(prefix + ".continue").recordSince(startTime);
+                metrics.counter(prefix + ".continuations").increment();
+                metrics.counter(prefix + ".states").add(stateSpace.size() - previousSize);
+            }
+
             List<HeapConfiguration> finalHeaps = new ArrayList<>();
             stateSpace.getFinalStates().forEach( finalState -> finalHeaps.add(finalState.getHeap()) );
             Contract contract = new InternalContract(preconditionState.getHeap(), finalHeaps);
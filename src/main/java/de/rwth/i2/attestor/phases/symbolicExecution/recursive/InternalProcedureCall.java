@@ -6,6 +6,7 @@ import java.util.Objects;
 
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl.InternalContract;
 import de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl.StateSpaceGeneratorFactory;
 import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.ProcedureCall;
@@ -44,7 +45,16 @@ public class InternalProcedureCall extends SceneObject implements ProcedureCall
     	ProgramState initialState = preconditionState.clone();
 
         try {
+            MetricsRegistry metrics = MetricsRegistry.current();
+            long startTime = System.nanoTime();
             StateSpace stateSpace = factory.create( method.getBody(), initialState ).generate();
+            long elapsedNanos = System.nanoTime() - startTime;
+            if (metrics.isEnabled()) {
+                String prefix = "procedure." + method.getName();
+                metrics.histogram(prefix + ".execute").record(elapsedNanos);
+                metrics.counter(prefix + ".calls").increment();
+                metrics.counter(prefix + ".states").add(stateSpace.size());
+            }
 
             List<HeapConfiguration> finalHeaps = new ArrayList<>();
             stateSpace.getFinalStates().forEach( finalState -> finalHeaps.add(finalState.getHeap()) );
@@ -52,6 +62,7 @@ public class InternalProcedureCall extends SceneObject implements ProcedureCall
             method.addContract(contract);
             
             registry.registerStateSpace( this, stateSpace );
+            registry.registerExecutionTime( this, elapsedNanos );
             
             return stateSpace;
         } catch (StateSpaceGenerationAbortedException e) {
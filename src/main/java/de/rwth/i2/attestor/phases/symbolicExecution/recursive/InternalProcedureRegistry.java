@@ -48,4 +48,9 @@ public class InternalProcedureRegistry implements ProcedureRegistry {
 		
 	}
 
+	@Override
+	public void registerExecutionTime(ProcedureCall call, long elapsedNanos) {
+		analysis.registerExecutionTime(call, elapsedNanos);
+	}
+
 }
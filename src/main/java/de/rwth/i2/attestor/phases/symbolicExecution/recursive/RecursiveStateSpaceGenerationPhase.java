@@ -1,12 +1,13 @@
 package de.rwth.i2.attestor.phases.symbolicExecution.recursive;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
+import de.rwth.i2.attestor.grammar.canonicalization.CanonicalizationStrategy;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.main.AbstractPhase;
 import de.rwth.i2.attestor.main.scene.ElementNotPresentException;
 import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.phases.communication.InputSettings;
 import de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl.*;
 import de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl.scopes.DefaultScopeExtractor;
@@ -16,7 +17,8 @@ import de.rwth.i2.attestor.procedures.*;
 import de.rwth.i2.attestor.stateSpaceGeneration.*;
 
 
-public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements StateSpaceTransformer {
+public class RecursiveStateSpaceGenerationPhase extends AbstractPhase
+        implements StateSpaceTransformer, InterproceduralAnalysisTransformer {
 
     private final StateSpaceGeneratorFactory stateSpaceGeneratorFactory;
 
@@ -24,6 +26,8 @@ public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements
     private List<ProgramState> initialStates;
     private Method mainMethod;
     private StateSpace mainStateSpace = null;
+    private long mainStateSpaceGenerationNanos = 0;
+    private int numberOfErrorStates = 0;
 
     public RecursiveStateSpaceGenerationPhase(Scene scene) {
 
@@ -51,6 +55,45 @@ public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements
         if(mainStateSpace.getFinalStateIds().isEmpty()) {
             logger.error("Computed state space contains no final states.");
         }
+
+        Map<String, Integer> errorStates = countErrorStatesPerMethod();
+        if(!errorStates.isEmpty()) {
+            StringBuilder methods = new StringBuilder();
+            for(Map.Entry<String, Integer> entry : errorStates.entrySet()) {
+                if(methods.length() > 0) {
+                    methods.append(", ");
+                }
+                methods.append(entry.getKey()).append(" (").append(entry.getValue()).append(")");
+            }
+            logger.warn("Computed state spaces contain " + numberOfErrorStates
+                    + " states that dereference null: " + methods);
+        }
+    }
+
+    /**
+     * Counts the error states of the main state space and of all procedure state spaces.
+     * Error states of callees are not propagated to their callers, because only final states
+     * become postconditions of contracts.
+     *
+     * @return The number of error states of every method whose state spaces contain error states.
+     */
+    private Map<String, Integer> countErrorStatesPerMethod() {
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        Set<StateSpace> countedStateSpaces = Collections.newSetFromMap(new IdentityHashMap<>());
+        numberOfErrorStates = 0;
+        for(ProcedureCall call : interproceduralAnalysis.getProcedureCalls()) {
+            StateSpace stateSpace = interproceduralAnalysis.getStateSpace(call);
+            if(stateSpace == null || !countedStateSpaces.add(stateSpace)) {
+                continue;
+            }
+            int errorStates = stateSpace.getErrorStateIds().size();
+            if(errorStates > 0) {
+                result.merge(call.getMethod().getName(), errorStates, Integer::sum);
+                numberOfErrorStates += errorStates;
+            }
+        }
+        return result;
     }
 
     private void loadInitialStates() {
@@ -96,10 +139,17 @@ public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements
         );
 
         PreconditionMatchingStrategy preconditionMatchingStrategy = new InternalPreconditionMatchingStrategy();
+        CanonicalizationStrategy subsumptionStrategy = null;
+        if(scene().options().isContractSubsumptionEnabled()) {
+            subsumptionStrategy = scene().strategies().getCanonicalizationStrategy();
+        }
 
         for(Method method : scene ().getRegisteredMethods()) {
             MethodExecutor executor;
-            ContractCollection contractCollection = new InternalContractCollection(preconditionMatchingStrategy);
+            ContractCollection contractCollection = new InternalContractCollection(
+                    preconditionMatchingStrategy,
+                    subsumptionStrategy
+            );
             if(method.isRecursive()) {
                 executor = new RecursiveMethodExecutor(
                         method,
@@ -122,7 +172,12 @@ public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements
     private void startPartialStateSpaceGeneration() {
 
         try {
+            long startTime = System.nanoTime();
             mainStateSpace = stateSpaceGeneratorFactory.create(mainMethod.getBody(), initialStates).generate();
+            mainStateSpaceGenerationNanos = System.nanoTime() - startTime;
+            MetricsRegistry.current()
+                    .counter("procedure." + mainMethod.getName() + ".states")
+                    .add(mainStateSpace.size());
         } catch (StateSpaceGenerationAbortedException e) {
             e.printStackTrace();
         }
@@ -130,10 +185,16 @@ public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements
 
     private void registerMainProcedureCalls() {
 
+        boolean isFirstCall = true;
         for(ProgramState iState : initialStates) {
             StateSpace mainStateSpace = iState.getContainingStateSpace();
             ProcedureCall mainCall = new InternalProcedureCall(mainMethod, iState.getHeap(), stateSpaceGeneratorFactory, null);
             interproceduralAnalysis.registerStateSpace(mainCall, mainStateSpace);
+            if(isFirstCall) {
+                // all initial states share a single state space whose generation is only accounted for once
+                interproceduralAnalysis.registerExecutionTime(mainCall, mainStateSpaceGenerationNanos);
+                isFirstCall = false;
+            }
         }
     }
 
@@ -149,7 +210,12 @@ public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements
                 mainStateSpace.getStates().size()));
         logSum(String.format("| final states            | %16d |",
                 mainStateSpace.getFinalStateIds().size()));
+        logSum(String.format("| null dereference states | %16d |",
+                numberOfErrorStates));
         logSum("+-------------------------+------------------+");
+        logSum(String.format("Fixpoint iteration: %d continuations in %.3f s",
+                interproceduralAnalysis.getTotalNumberOfContinuations(),
+                interproceduralAnalysis.getElapsedNanos() / 1e9));
     }
 
     @Override
@@ -163,4 +229,10 @@ public class RecursiveStateSpaceGenerationPhase extends AbstractPhase implements
 
         return mainStateSpace;
     }
+
+    @Override
+    public InterproceduralAnalysis getInterproceduralAnalysis() {
+
+        return interproceduralAnalysis;
+    }
 }
@@ -1,6 +1,7 @@
 package de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis;
 
 
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.stateSpaceGeneration.StateSpace;
 
 import java.util.*;
@@ -11,6 +12,11 @@ import java.util.*;
  * It keeps track of any procedure calls to recursive methods that have not yet been analysed.
  * Furthermore it stores the dependencies between partialStateSpaces and procedureCalls so that
  * it can continue those stateSpaces whenever it has found new contracts for a procedureCall.
+ * <br>
+ * Pending continuations are scheduled along the strongly connected components of the
+ * procedure call graph, callees first: every component is iterated to a local fixpoint
+ * before the stateSpaces of its callers are continued. A partialStateSpace that is notified
+ * several times before it is continued is only continued once.
  * 
  * see {@link ProcedureRegistry} for the interaction between the semantics and this class.
  * @author Hannah
@@ -19,15 +25,34 @@ import java.util.*;
 public class InterproceduralAnalysis {
 
 	Deque<ProcedureCall> remainingProcedureCalls = new ArrayDeque<>();
-	Deque<PartialStateSpace> remainingPartialStateSpaces = new ArrayDeque<>();
+	Set<ProcedureCall> pendingProcedureCalls = new HashSet<>();
+	// pending partialStateSpaces mapped to the call they belong to (or null if it is unknown)
+	Map<PartialStateSpace, ProcedureCall> remainingPartialStateSpaces = new LinkedHashMap<>();
+	Map<ProcedureCall, Set<PartialStateSpace>> remainingPartialStateSpacesByCaller = new LinkedHashMap<>();
 
 	Map<ProcedureCall, Set<PartialStateSpace>> callingDependencies = new LinkedHashMap<>();
+	// the procedure call graph, maintained whenever a dependency or a stateSpace is registered
+	Map<ProcedureCall, Set<ProcedureCall>> callees = new LinkedHashMap<>();
+	Map<StateSpace, Set<ProcedureCall>> calleesOfUnregisteredStateSpaces = new HashMap<>();
 	Map<StateSpace, ProcedureCall> stateSpaceToAnalyzedCall = new LinkedHashMap<>();
+	Map<ProcedureCall, StateSpace> analyzedCallToStateSpace = new LinkedHashMap<>();
+	Map<ProcedureCall, ProcedureCallStatistics> statistics = new LinkedHashMap<>();
+	private long elapsedNanos = 0;
 
 
 	public void registerStateSpace( ProcedureCall call, StateSpace stateSpace) {
 
 		stateSpaceToAnalyzedCall.put(stateSpace, call);
+		analyzedCallToStateSpace.put(call, stateSpace);
+		Set<ProcedureCall> calleesOfStateSpace = calleesOfUnregisteredStateSpaces.remove(stateSpace);
+		if(calleesOfStateSpace != null) {
+			calleesOf(call).addAll(calleesOfStateSpace);
+		}
+	}
+
+	public void registerExecutionTime(ProcedureCall call, long elapsedNanos) {
+
+		statisticsOf(call).addExecution(elapsedNanos);
 	}
 
 
@@ -40,11 +65,21 @@ public class InterproceduralAnalysis {
 		} else {
 			callingDependencies.get(procedureCall).add(dependentPartialStateSpace);
 		}
+
+		StateSpace dependentStateSpace = dependentPartialStateSpace.unfinishedStateSpace();
+		ProcedureCall caller = stateSpaceToAnalyzedCall.get(dependentStateSpace);
+		if(caller != null) {
+			calleesOf(caller).add(procedureCall);
+		} else {
+			// the stateSpace of the caller is registered once its generation has finished
+			calleesOfUnregisteredStateSpaces.computeIfAbsent(dependentStateSpace, s -> new LinkedHashSet<>())
+					.add(procedureCall);
+		}
 	}
 
 	public void registerProcedureCall(ProcedureCall procedureCall) {
 
-		if(!remainingProcedureCalls.contains(procedureCall)) {
+		if(pendingProcedureCalls.add(procedureCall)) {
 			remainingProcedureCalls.push(procedureCall);
 		}
 	}
@@ -56,25 +91,83 @@ public class InterproceduralAnalysis {
 	 */
 	public void run() {
 
+		long startTime = System.nanoTime();
 		while(!remainingProcedureCalls.isEmpty() || !remainingPartialStateSpaces.isEmpty()) {
-			ProcedureCall call;
-			boolean contractChanged;
 			if(!remainingProcedureCalls.isEmpty()) {
-				call = remainingProcedureCalls.pop();
+				ProcedureCall call = remainingProcedureCalls.pop();
+				pendingProcedureCalls.remove(call);
 				StateSpace stateSpace = call.execute();
-				contractChanged = stateSpace.getFinalStateIds().size() > 0;
+				if( stateSpace.getFinalStateIds().size() > 0 ) {
+					notifyDependencies(call);
+				}
 			} else {
-				PartialStateSpace partialStateSpace = remainingPartialStateSpaces.pop();
-				int currentNumberOfFinalStates = partialStateSpace.unfinishedStateSpace().getFinalStateIds().size();
-				call = stateSpaceToAnalyzedCall.get( partialStateSpace.unfinishedStateSpace() );
-				partialStateSpace.continueExecution(call);
-				int newNumberOfFinalsStates = partialStateSpace.unfinishedStateSpace().getFinalStateIds().size();
-				contractChanged = newNumberOfFinalsStates > currentNumberOfFinalStates;
+				continueComponent(nextComponent());
 			}
-			if( contractChanged ) {
+		}
+		elapsedNanos += System.nanoTime() - startTime;
+	}
+
+	/**
+	 * Continues the partialStateSpaces of the calls in the given component until none of them
+	 * is pending anymore or new procedureCalls have to be executed first.
+	 * @param component the calls whose partialStateSpaces should be continued or null
+	 * to continue the next pending partialStateSpace regardless of its caller.
+	 */
+	private void continueComponent(Set<ProcedureCall> component) {
+
+		PartialStateSpace partialStateSpace = nextPartialStateSpace(component);
+		while(partialStateSpace != null) {
+			dequeue(partialStateSpace);
+			int currentNumberOfFinalStates = partialStateSpace.unfinishedStateSpace().getFinalStateIds().size();
+			ProcedureCall call = stateSpaceToAnalyzedCall.get( partialStateSpace.unfinishedStateSpace() );
+			long startTime = System.nanoTime();
+			partialStateSpace.continueExecution(call);
+			statisticsOf(call).addContinuation(System.nanoTime() - startTime);
+			MetricsRegistry.current().counter("interproceduralAnalysis.continuations").increment();
+			int newNumberOfFinalsStates = partialStateSpace.unfinishedStateSpace().getFinalStateIds().size();
+			if( newNumberOfFinalsStates > currentNumberOfFinalStates ) {
 				notifyDependencies(call);
 			}
+			if( component == null || !remainingProcedureCalls.isEmpty() ) {
+				return;
+			}
+			partialStateSpace = nextPartialStateSpace(component);
+		}
+	}
+
+	private PartialStateSpace nextPartialStateSpace(Set<ProcedureCall> component) {
+
+		if(component == null) {
+			return remainingPartialStateSpaces.isEmpty() ? null : remainingPartialStateSpaces.keySet().iterator().next();
+		}
+		for(ProcedureCall call : component) {
+			Set<PartialStateSpace> partialStateSpaces = remainingPartialStateSpacesByCaller.get(call);
+			if(partialStateSpaces != null) {
+				return partialStateSpaces.iterator().next();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the strongly connected components of the procedure call graph (Tarjan's algorithm).
+	 * Since a component is only completed after all components reachable from it, i.e. all callees,
+	 * have been completed, the first completed component containing the caller of a pending
+	 * partialStateSpace is the one whose callees do not wait for any continuations.
+	 * @return the component to continue next or null if no pending partialStateSpace
+	 * belongs to a registered call.
+	 */
+	private Set<ProcedureCall> nextComponent() {
+
+		Set<ProcedureCall> waiting = remainingPartialStateSpacesByCaller.keySet();
+		ComponentSearch search = new ComponentSearch(callees, waiting);
+		for(ProcedureCall call : waiting) {
+			Set<ProcedureCall> component = search.visit(call);
+			if(component != null) {
+				return component;
+			}
 		}
+		return null;
 	}
 
 	/**
@@ -84,9 +177,177 @@ public class InterproceduralAnalysis {
 	 */ 
 	void notifyDependencies(ProcedureCall call) {
 
-		Set<PartialStateSpace> dependencies = callingDependencies.getOrDefault(call, Collections.emptySet());
-		remainingPartialStateSpaces.addAll(dependencies);
+		for(PartialStateSpace dependency : callingDependencies.getOrDefault(call, Collections.emptySet())) {
+			enqueue(dependency);
+		}
+	}
+
+	/**
+	 * enqueues the given partial stateSpace for continued analysis unless it is already pending.
+	 * @param partialStateSpace the partialStateSpace to continue
+	 */
+	void enqueue(PartialStateSpace partialStateSpace) {
+
+		if(remainingPartialStateSpaces.containsKey(partialStateSpace)) {
+			return;
+		}
+		ProcedureCall caller = stateSpaceToAnalyzedCall.get(partialStateSpace.unfinishedStateSpace());
+		remainingPartialStateSpaces.put(partialStateSpace, caller);
+		if(caller != null) {
+			remainingPartialStateSpacesByCaller.computeIfAbsent(caller, c -> new LinkedHashSet<>())
+					.add(partialStateSpace);
+		}
+	}
+
+	private void dequeue(PartialStateSpace partialStateSpace) {
+
+		ProcedureCall caller = remainingPartialStateSpaces.remove(partialStateSpace);
+		Set<PartialStateSpace> partialStateSpaces = remainingPartialStateSpacesByCaller.get(caller);
+		if(partialStateSpaces != null) {
+			partialStateSpaces.remove(partialStateSpace);
+			if(partialStateSpaces.isEmpty()) {
+				remainingPartialStateSpacesByCaller.remove(caller);
+			}
+		}
+	}
+
+	private Set<ProcedureCall> calleesOf(ProcedureCall call) {
+
+		return callees.computeIfAbsent(call, c -> new LinkedHashSet<>());
+	}
+
+	/**
+	 * @return the number of times any stateSpace has been continued so far.
+	 */
+	public int getTotalNumberOfContinuations() {
+
+		int result = 0;
+		for(ProcedureCallStatistics callStatistics : statistics.values()) {
+			result += callStatistics.getNumberOfContinuations();
+		}
+		return result;
+	}
+
+	/**
+	 * @return the time in nanoseconds spent in {@link #run()} so far.
+	 */
+	public long getElapsedNanos() {
+
+		return elapsedNanos;
+	}
+
+	private ProcedureCallStatistics statisticsOf(ProcedureCall call) {
+
+		return statistics.computeIfAbsent(call, c -> new ProcedureCallStatistics());
+	}
+
+	/**
+	 * @return all procedureCalls encountered so far, i.e. calls whose stateSpace
+	 * has been registered and calls some stateSpace depends on, in the order they were registered.
+	 */
+	public Set<ProcedureCall> getProcedureCalls() {
+
+		Set<ProcedureCall> result = new LinkedHashSet<>(analyzedCallToStateSpace.keySet());
+		result.addAll(callingDependencies.keySet());
+		return result;
+	}
+
+	/**
+	 * @param call a procedureCall
+	 * @return the stateSpace generated for the given call or null if
+	 * no stateSpace has been registered for it (e.g. because a contract was supplied externally).
+	 */
+	public StateSpace getStateSpace(ProcedureCall call) {
+
+		return analyzedCallToStateSpace.get(call);
+	}
+
+	/**
+	 * @param call a procedureCall
+	 * @return the procedureCalls whose stateSpaces invoke the given call.
+	 */
+	public Set<ProcedureCall> getCallers(ProcedureCall call) {
+
+		Set<ProcedureCall> result = new LinkedHashSet<>();
+		for(PartialStateSpace dependency : callingDependencies.getOrDefault(call, Collections.emptySet())) {
+			ProcedureCall caller = stateSpaceToAnalyzedCall.get(dependency.unfinishedStateSpace());
+			if(caller != null) {
+				result.add(caller);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param call a procedureCall
+	 * @return the effort spent on the given call so far.
+	 */
+	public ProcedureCallStatistics getStatistics(ProcedureCall call) {
+
+		return statistics.getOrDefault(call, new ProcedureCallStatistics());
 	}
 
+	/**
+	 * Depth-first search of Tarjan's algorithm that stops as soon as a component
+	 * containing one of the waiting calls has been completed.
+	 */
+	private static class ComponentSearch {
+
+		private final Map<ProcedureCall, Set<ProcedureCall>> callees;
+		private final Set<ProcedureCall> waiting;
+		private final Map<ProcedureCall, Integer> index = new HashMap<>();
+		private final Map<ProcedureCall, Integer> lowLink = new HashMap<>();
+		private final Deque<ProcedureCall> stack = new ArrayDeque<>();
+		private final Set<ProcedureCall> onStack = new HashSet<>();
+
+		ComponentSearch(Map<ProcedureCall, Set<ProcedureCall>> callees, Set<ProcedureCall> waiting) {
+
+			this.callees = callees;
+			this.waiting = waiting;
+		}
+
+		/**
+		 * @return the first completed component reachable from call that contains a waiting call
+		 * or null if there is none or call has already been visited.
+		 */
+		Set<ProcedureCall> visit(ProcedureCall call) {
+
+			if(index.containsKey(call)) {
+				return null;
+			}
+			index.put(call, index.size());
+			lowLink.put(call, index.get(call));
+			stack.push(call);
+			onStack.add(call);
+
+			for(ProcedureCall callee : callees.getOrDefault(call, Collections.emptySet())) {
+				if(!index.containsKey(callee)) {
+					Set<ProcedureCall> component = visit(callee);
+					if(component != null) {
+						return component;
+					}
+					lowLink.put(call, Math.min(lowLink.get(call), lowLink.get(callee)));
+				} else if(onStack.contains(callee)) {
+					lowLink.put(call, Math.min(lowLink.get(call), index.get(callee)));
+				}
+			}
+
+			if(!lowLink.get(call).equals(index.get(call))) {
+				return null;
+			}
+			Set<ProcedureCall> component = new LinkedHashSet<>();
+			ProcedureCall member;
+			do {
+				member = stack.pop();
+				onStack.remove(member);
+				component.add(member);
+			} while(member != call);
+
+			if(!Collections.disjoint(component, waiting)) {
+				return component;
+			}
+			return null;
+		}
+	}
 
 }
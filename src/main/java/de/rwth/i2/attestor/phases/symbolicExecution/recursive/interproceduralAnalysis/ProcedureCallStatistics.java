@@ -0,0 +1,51 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis;
+
+/**
+ * Collects the effort spent on a single {@link ProcedureCall} during the
+ * interprocedural analysis, i.e. how often its stateSpace has been executed
+ * from scratch or continued and how much time this took.
+ * Times include the time spent on nested calls of non-recursive methods.
+ */
+public class ProcedureCallStatistics {
+
+    private int executions = 0;
+    private int continuations = 0;
+    private long elapsedNanos = 0;
+
+    void addExecution(long nanos) {
+
+        executions++;
+        elapsedNanos += nanos;
+    }
+
+    void addContinuation(long nanos) {
+
+        continuations++;
+        elapsedNanos += nanos;
+    }
+
+    /**
+     * @return The number of times the stateSpace of the call has been generated from scratch.
+     */
+    public int getNumberOfExecutions() {
+
+        return executions;
+    }
+
+    /**
+     * @return The number of times the stateSpace of the call has been continued
+     * because new contracts of a called procedure have been found.
+     */
+    public int getNumberOfContinuations() {
+
+        return continuations;
+    }
+
+    /**
+     * @return The total time in nanoseconds spent on executing and continuing the call.
+     */
+    public long getElapsedNanos() {
+
+        return elapsedNanos;
+    }
+}
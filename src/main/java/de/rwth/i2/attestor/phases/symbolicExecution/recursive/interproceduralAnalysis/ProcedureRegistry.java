@@ -48,4 +48,12 @@ public interface ProcedureRegistry {
 	 * @param generatedStateSpace the stateSpace corresponding to the call
 	 */
 	void registerStateSpace( ProcedureCall call, StateSpace generatedStateSpace );
+	/**
+	 * Stores the time spent on executing the given procedureCall, i.e. on generating
+	 * its stateSpace from scratch.
+	 * This method should be called whenever a procedureCall is evaluated.
+	 * @param call the executed procedureCall
+	 * @param elapsedNanos the time spent on the execution in nanoseconds
+	 */
+	void registerExecutionTime( ProcedureCall call, long elapsedNanos );
 }
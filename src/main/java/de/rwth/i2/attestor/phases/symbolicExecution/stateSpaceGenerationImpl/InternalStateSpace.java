@@ -1,5 +1,6 @@
 package de.rwth.i2.attestor.phases.symbolicExecution.stateSpaceGenerationImpl;
 
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.programState.AtomicPropositions;
 import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
 import de.rwth.i2.attestor.stateSpaceGeneration.StateSpace;
@@ -20,6 +21,7 @@ public class InternalStateSpace implements StateSpace {
     private final List<ProgramState> otherStates; // states that are never checked for isomorphism
     private final TIntSet initialStateIds;
     private final TIntSet finalStateIds;
+    private final TIntSet errorStateIds;
     private final TIntObjectMap<TIntArrayList> materializationSuccessors;
     private final TIntObjectMap<TIntArrayList> controlFlowSuccessors;
     // TODO: Self-loops are managed here! Use map to int instead of list?!?
@@ -29,6 +31,11 @@ public class InternalStateSpace implements StateSpace {
     private int nextStateId = 0;
     private int maximalStateSize = 0;
     private boolean containsAtLeastOneAbortedState = false;
+    /**
+     * Hash codes of all states in potentialMergeStates. Only maintained if metrics are collected
+     * in order to detect hash collisions between non-isomorphic states.
+     */
+    private TIntSet mergeStateHashCodes = null;
 
     public InternalStateSpace(int capacity) {
 
@@ -37,6 +44,7 @@ public class InternalStateSpace implements StateSpace {
         otherStates = new ArrayList<>(capacity);
         initialStateIds = new TIntHashSet(100);
         finalStateIds = new TIntHashSet(100);
+        errorStateIds = new TIntHashSet(100);
         materializationSuccessors = new TIntObjectHashMap<>(capacity, 0.8f);
         controlFlowSuccessors = new TIntObjectHashMap<>(capacity, 0.8f);
         artificialInfPathsSuccessors = new TIntObjectHashMap<>(100);
@@ -98,6 +106,18 @@ public class InternalStateSpace implements StateSpace {
         return finalStateIds;
     }
 
+    @Override
+    public Set<ProgramState> getErrorStates() {
+
+        return getStatesOf(errorStateIds);
+    }
+
+    @Override
+    public TIntSet getErrorStateIds() {
+
+        return errorStateIds;
+    }
+
     @Override
     public int size() {
 
@@ -174,16 +194,37 @@ public class InternalStateSpace implements StateSpace {
     @Override
     public boolean addStateIfAbsent(ProgramState state) {
 
+        MetricsRegistry metrics = MetricsRegistry.current();
         ProgramState old = potentialMergeStates.putIfAbsent(state, state);
         if (old == null) {
             updateAddedState(state);
+            recordHashCollision(metrics, state);
             return true;
         } else {
             state.setStateSpaceId(old.getStateSpaceId());
+            metrics.counter("stateSpace.merges").increment();
         }
         return false;
     }
 
+    private void recordHashCollision(MetricsRegistry metrics, ProgramState state) {
+
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        if (mergeStateHashCodes == null) {
+            mergeStateHashCodes = new TIntHashSet();
+            for (ProgramState s : potentialMergeStates.keySet()) {
+                if (s != state) {
+                    mergeStateHashCodes.add(s.hashCode());
+                }
+            }
+        }
+        if (!mergeStateHashCodes.add(state.hashCode())) {
+            metrics.counter("stateSpace.hashCollisions").increment();
+        }
+    }
+
     private void updateAddedState(ProgramState state) {
 
         state.setStateSpaceId(nextStateId);
@@ -217,6 +258,15 @@ public class InternalStateSpace implements StateSpace {
         this.containsAtLeastOneAbortedState = true;
     }
 
+    @Override
+    public void setError(ProgramState state) {
+
+        if (errorStateIds.add(state.getStateSpaceId())) {
+            MetricsRegistry.current().counter("stateSpace.errorStates").increment();
+        }
+        state.addAP(AtomicPropositions.NULL_DEREFERENCE);
+    }
+
     @Override
     public boolean containsAbortedStates() {
 
@@ -1,5 +1,6 @@
 package de.rwth.i2.attestor.phases.symbolicExecution.stateSpaceGenerationImpl;
 
+import de.rwth.i2.attestor.semantics.ErrorStatement;
 import de.rwth.i2.attestor.semantics.TerminalStatement;
 import de.rwth.i2.attestor.stateSpaceGeneration.Program;
 import de.rwth.i2.attestor.stateSpaceGeneration.SemanticsCommand;
@@ -50,6 +51,9 @@ public class ProgramImpl implements Program {
     @Override
     public SemanticsCommand getStatement(int programCounter) {
 
+        if (programCounter == ErrorStatement.ERROR_LOCATION) {
+            return new ErrorStatement();
+        }
         if (isExit(programCounter)) {
             return new TerminalStatement();
         }
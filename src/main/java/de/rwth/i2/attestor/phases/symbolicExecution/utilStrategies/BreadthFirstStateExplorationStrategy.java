@@ -0,0 +1,34 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies;
+
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.stateSpaceGeneration.StateExplorationStrategy;
+
+import java.util.LinkedList;
+
+/**
+ * Explores states in the order in which they have been discovered.
+ * Hence, states that are reachable by short paths, e.g. shallow violations of a specification,
+ * are encountered first.
+ */
+public class BreadthFirstStateExplorationStrategy implements StateExplorationStrategy {
+
+    private LinkedList<ProgramState> unexploredStates = new LinkedList<>();
+
+    @Override
+    public boolean hasUnexploredStates() {
+
+        return !unexploredStates.isEmpty();
+    }
+
+    @Override
+    public ProgramState getNextUnexploredState() {
+
+        return unexploredStates.removeFirst();
+    }
+
+    @Override
+    public void addUnexploredState(ProgramState state, boolean isMaterializedState) {
+
+        unexploredStates.addLast(state);
+    }
+}
@@ -0,0 +1,109 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies;
+
+import de.rwth.i2.attestor.stateSpaceGeneration.Program;
+import de.rwth.i2.attestor.stateSpaceGeneration.StateExplorationStrategy;
+
+/**
+ * Parsed representation of the order in which states are explored during state space generation.
+ * An exploration order is given by a name and an optional integer parameter, separated by a colon.
+ * Supported exploration orders are
+ * <ul>
+ *     <li>dfs: depth-first (default)</li>
+ *     <li>bfs: breadth-first</li>
+ *     <li>iddfs[:increment]: iterative deepening with the given depth increment</li>
+ *     <li>heap-size: states with fewer nodes first</li>
+ *     <li>nonterminals: states with fewer nonterminal edges first</li>
+ *     <li>distance[:pc]: states closest to the given program location (or the exit of the method) first</li>
+ * </ul>
+ */
+public final class ExplorationOrder {
+
+    private static final int DEFAULT_DEPTH_INCREMENT = 10;
+
+    private final String name;
+    private final int parameter;
+
+    private ExplorationOrder(String name, int parameter) {
+
+        this.name = name;
+        this.parameter = parameter;
+    }
+
+    /**
+     * @param specification The textual representation of an exploration order.
+     * @return The parsed exploration order.
+     * @throws IllegalArgumentException if the specification does not correspond to a supported exploration order.
+     */
+    public static ExplorationOrder parse(String specification) {
+
+        String[] parts = specification.trim().split(":");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Malformed exploration order: " + specification);
+        }
+
+        String name = parts[0];
+        boolean hasParameter = parts.length == 2;
+        switch (name) {
+            case "dfs":
+            case "bfs":
+            case "heap-size":
+            case "nonterminals":
+                if (hasParameter) {
+                    throw new IllegalArgumentException("Exploration order '" + name + "' has no parameter.");
+                }
+                return new ExplorationOrder(name, 0);
+            case "iddfs":
+                return new ExplorationOrder(name,
+                        hasParameter ? parseParameter(specification, parts[1]) : DEFAULT_DEPTH_INCREMENT);
+            case "distance":
+                return new ExplorationOrder(name,
+                        hasParameter ? parseParameter(specification, parts[1]) : ProgramLocationDistance.EXIT_LOCATION);
+            default:
+                throw new IllegalArgumentException("Unknown exploration order: " + specification);
+        }
+    }
+
+    private static int parseParameter(String specification, String parameter) {
+
+        try {
+            return Integer.parseInt(parameter);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed exploration order: " + specification);
+        }
+    }
+
+    /**
+     * @param program The program whose state space is explored.
+     * @return A fresh exploration strategy implementing this exploration order.
+     */
+    public StateExplorationStrategy createStrategy(Program program) {
+
+        switch (name) {
+            case "bfs":
+                return new BreadthFirstStateExplorationStrategy();
+            case "iddfs":
+                return new IterativeDeepeningStateExplorationStrategy(parameter);
+            case "heap-size":
+                return PriorityStateExplorationStrategy.byHeapSize();
+            case "nonterminals":
+                return PriorityStateExplorationStrategy.byNonterminalCount();
+            case "distance":
+                return new PriorityStateExplorationStrategy(new ProgramLocationDistance(program, parameter));
+            default:
+                return new DepthFirstStateExplorationStrategy();
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        switch (name) {
+            case "iddfs":
+                return name + ":" + parameter;
+            case "distance":
+                return parameter == ProgramLocationDistance.EXIT_LOCATION ? name : name + ":" + parameter;
+            default:
+                return name;
+        }
+    }
+}
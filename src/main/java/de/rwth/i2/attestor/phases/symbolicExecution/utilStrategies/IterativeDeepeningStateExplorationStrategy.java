@@ -0,0 +1,97 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies;
+
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.stateSpaceGeneration.StateExplorationStrategy;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Explores states depth-first up to a depth bound. States beyond the current bound are deferred until
+ * all states within the bound have been explored. The bound is then increased by a fixed increment.
+ * In contrast to classical iterative deepening, states are never explored twice, because explored states
+ * are already stored in the state space.
+ * Materialized states are considered to be at the same depth as the state they have been materialized from.
+ */
+public class IterativeDeepeningStateExplorationStrategy implements StateExplorationStrategy {
+
+    private final int depthIncrement;
+    private int depthBound;
+
+    private LinkedList<ProgramState> unexploredStates = new LinkedList<>();
+    private LinkedList<ProgramState> deferredStates = new LinkedList<>();
+
+    /**
+     * Depths of all states that have not been explored yet.
+     * Program states are compared by identity, because isomorphic states may be reached at different depths.
+     */
+    private final Map<ProgramState, Integer> depths = new IdentityHashMap<>();
+
+    /**
+     * The depth of the state that has been returned by the last call of getNextUnexploredState().
+     * Initial states are added before any state is explored and thus get depth 0.
+     */
+    private int currentDepth = -1;
+
+    /**
+     * @param depthIncrement The initial depth bound and the value by which the bound is increased whenever
+     *                       all states within the current bound have been explored.
+     */
+    public IterativeDeepeningStateExplorationStrategy(int depthIncrement) {
+
+        if (depthIncrement < 1) {
+            throw new IllegalArgumentException("The depth increment of iterative deepening has to be positive.");
+        }
+        this.depthIncrement = depthIncrement;
+        this.depthBound = depthIncrement;
+    }
+
+    @Override
+    public boolean hasUnexploredStates() {
+
+        return !unexploredStates.isEmpty() || !deferredStates.isEmpty();
+    }
+
+    @Override
+    public ProgramState getNextUnexploredState() {
+
+        if (unexploredStates.isEmpty()) {
+            deepen();
+        }
+        ProgramState state = unexploredStates.removeLast();
+        currentDepth = depths.remove(state);
+        return state;
+    }
+
+    @Override
+    public void addUnexploredState(ProgramState state, boolean isMaterializedState) {
+
+        int depth = isMaterializedState ? Math.max(currentDepth, 0) : currentDepth + 1;
+        depths.put(state, depth);
+        if (depth > depthBound) {
+            deferredStates.addLast(state);
+        } else {
+            unexploredStates.addLast(state);
+        }
+    }
+
+    private void deepen() {
+
+        depthBound += depthIncrement;
+        LinkedList<ProgramState> remaining = new LinkedList<>();
+        for (ProgramState state : deferredStates) {
+            if (depths.get(state) > depthBound) {
+                remaining.addLast(state);
+            } else {
+                unexploredStates.addLast(state);
+            }
+        }
+        deferredStates = remaining;
+    }
+
+    public int getDepthBound() {
+
+        return depthBound;
+    }
+}
@@ -0,0 +1,85 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies;
+
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.stateSpaceGeneration.StateExplorationStrategy;
+
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Explores states with the smallest priority value first. States with the same priority are explored
+ * depth-first, i.e. the most recently added state is explored first.
+ */
+public class PriorityStateExplorationStrategy implements StateExplorationStrategy {
+
+    private final ToIntFunction<ProgramState> priorityFunction;
+    private final PriorityQueue<PrioritizedState> unexploredStates = new PriorityQueue<>();
+    private long insertionCounter = 0;
+
+    /**
+     * @param priorityFunction A function mapping every program state to its priority.
+     *                         Smaller values correspond to a higher priority.
+     */
+    public PriorityStateExplorationStrategy(ToIntFunction<ProgramState> priorityFunction) {
+
+        this.priorityFunction = priorityFunction;
+    }
+
+    /**
+     * @return A strategy that prefers states with a small number of nodes.
+     */
+    public static PriorityStateExplorationStrategy byHeapSize() {
+
+        return new PriorityStateExplorationStrategy(state -> state.getHeap().countNodes());
+    }
+
+    /**
+     * @return A strategy that prefers states with a small number of nonterminal edges.
+     */
+    public static PriorityStateExplorationStrategy byNonterminalCount() {
+
+        return new PriorityStateExplorationStrategy(state -> state.getHeap().countNonterminalEdges());
+    }
+
+    @Override
+    public boolean hasUnexploredStates() {
+
+        return !unexploredStates.isEmpty();
+    }
+
+    @Override
+    public ProgramState getNextUnexploredState() {
+
+        return unexploredStates.remove().state;
+    }
+
+    @Override
+    public void addUnexploredState(ProgramState state, boolean isMaterializedState) {
+
+        unexploredStates.add(new PrioritizedState(state, priorityFunction.applyAsInt(state), insertionCounter++));
+    }
+
+    private static final class PrioritizedState implements Comparable<PrioritizedState> {
+
+        final ProgramState state;
+        final int priority;
+        final long insertion;
+
+        PrioritizedState(ProgramState state, int priority, long insertion) {
+
+            this.state = state;
+            this.priority = priority;
+            this.insertion = insertion;
+        }
+
+        @Override
+        public int compareTo(PrioritizedState other) {
+
+            int result = Integer.compare(priority, other.priority);
+            if (result != 0) {
+                return result;
+            }
+            return Long.compare(other.insertion, insertion);
+        }
+    }
+}
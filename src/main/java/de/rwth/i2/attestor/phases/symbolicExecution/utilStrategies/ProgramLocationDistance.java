@@ -0,0 +1,84 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies;
+
+import de.rwth.i2.attestor.stateSpaceGeneration.Program;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Computes the length of a shortest path in the control flow graph from the program counter of a state
+ * to a target program location. Distances are computed lazily and cached per program counter.
+ * States that cannot reach the target location get the largest possible distance.
+ */
+public class ProgramLocationDistance implements ToIntFunction<ProgramState> {
+
+    /**
+     * Program counter value denoting that the distance to the closest statement without successors,
+     * e.g. a return statement, is measured.
+     */
+    public static final int EXIT_LOCATION = -1;
+
+    private final Program program;
+    private final int targetLocation;
+    private final TIntIntMap distances = new TIntIntHashMap();
+
+    /**
+     * @param program        The program whose control flow graph is considered.
+     * @param targetLocation The target program counter or EXIT_LOCATION.
+     */
+    public ProgramLocationDistance(Program program, int targetLocation) {
+
+        this.program = program;
+        this.targetLocation = targetLocation;
+    }
+
+    @Override
+    public int applyAsInt(ProgramState state) {
+
+        int pc = state.getProgramCounter();
+        if (!distances.containsKey(pc)) {
+            distances.put(pc, computeDistance(pc));
+        }
+        return distances.get(pc);
+    }
+
+    private int computeDistance(int source) {
+
+        TIntSet visited = new TIntHashSet();
+        Queue<Integer> current = new ArrayDeque<>();
+        current.add(source);
+        visited.add(source);
+
+        int distance = 0;
+        while (!current.isEmpty()) {
+            Queue<Integer> next = new ArrayDeque<>();
+            for (int pc : current) {
+                if (isTarget(pc)) {
+                    return distance;
+                }
+                for (int succ : program.getStatement(pc).getSuccessorPCs()) {
+                    if (visited.add(succ)) {
+                        next.add(succ);
+                    }
+                }
+            }
+            current = next;
+            ++distance;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private boolean isTarget(int pc) {
+
+        if (targetLocation == EXIT_LOCATION) {
+            return program.getStatement(pc).getSuccessorPCs().isEmpty();
+        }
+        return pc == targetLocation;
+    }
+}
@@ -0,0 +1,8 @@
+package de.rwth.i2.attestor.phases.transformers;
+
+import de.rwth.i2.attestor.phases.symbolicExecution.recursive.interproceduralAnalysis.InterproceduralAnalysis;
+
+public interface InterproceduralAnalysisTransformer {
+
+    InterproceduralAnalysis getInterproceduralAnalysis();
+}
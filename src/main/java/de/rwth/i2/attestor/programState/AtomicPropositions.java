@@ -3,4 +3,10 @@ package de.rwth.i2.attestor.programState;
 public class AtomicPropositions {
 
     public static final String ABORTED = "{ aborted }";
+
+    /**
+     * Labels the error states reached if an assignment, identity, if, return or throw statement dereferences null.
+     * Null dereferences while evaluating the base or the arguments of a method invocation are only logged.
+     */
+    public static final String NULL_DEREFERENCE = "{ nullDeref }";
 }
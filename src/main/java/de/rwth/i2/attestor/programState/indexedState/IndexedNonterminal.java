@@ -26,4 +26,6 @@ public interface IndexedNonterminal extends Nonterminal {
     IndexedNonterminal getWithProlongedIndex(List<IndexSymbol> postfix);
 
     IndexedNonterminal getWithIndex(List<IndexSymbol> index);
+
+    IndexedNonterminal getWithIndex(Index index);
 }
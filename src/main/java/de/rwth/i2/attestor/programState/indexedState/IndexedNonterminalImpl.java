@@ -56,17 +56,17 @@ public class IndexedNonterminalImpl implements IndexedNonterminal {
         return new IndexedNonterminalImpl(basicNonterminal, index);
     }
 
+    @Override
+    public IndexedNonterminal getWithIndex(Index index) {
+
+        return new IndexedNonterminalImpl(basicNonterminal, index);
+    }
+
     @Override
     public int hashCode() {
-        //final int prime = 31;
-        int result = 1;
-        result = result ^ ((basicNonterminal == null) ? 0 : basicNonterminal.hashCode());
-
-        for (int i = 0; i < index.size(); i++) {
-            IndexSymbol symb = index.get(i);
-            result = (result << 1) ^ symb.hashCode();
-        }
-        return result;
+
+        int result = (basicNonterminal == null) ? 0 : basicNonterminal.hashCode();
+        return 31 * result + index.hashCode();
     }
 
 
@@ -1,11 +1,11 @@
 package de.rwth.i2.attestor.programState.indexedState.index;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class AbstractIndexSymbol implements IndexSymbol {
 
-    private static final Map<String, AbstractIndexSymbol> existingSymbols = new LinkedHashMap<>();
+    private static final ConcurrentMap<String, AbstractIndexSymbol> existingSymbols = new ConcurrentHashMap<>();
     private final String label;
 
     private AbstractIndexSymbol(String label) {
@@ -14,12 +14,9 @@ public class AbstractIndexSymbol implements IndexSymbol {
         this.label = label;
     }
 
-    public static synchronized AbstractIndexSymbol get(String label) {
+    public static AbstractIndexSymbol get(String label) {
 
-        if (!existingSymbols.containsKey(label)) {
-            existingSymbols.put(label, new AbstractIndexSymbol(label));
-        }
-        return existingSymbols.get(label);
+        return existingSymbols.computeIfAbsent(label, AbstractIndexSymbol::new);
     }
 
     @Override
@@ -1,11 +1,12 @@
 package de.rwth.i2.attestor.programState.indexedState.index;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ConcreteIndexSymbol implements IndexSymbol {
 
-    private static final Map<String, ConcreteIndexSymbol> existingIndexSymbols = new LinkedHashMap<>();
+    private static final ConcurrentMap<String, ConcreteIndexSymbol> existingIndexSymbols = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConcreteIndexSymbol> existingBottomSymbols = new ConcurrentHashMap<>();
     private final String label;
     private final boolean isBottom;
 
@@ -15,13 +16,18 @@ public class ConcreteIndexSymbol implements IndexSymbol {
         this.isBottom = isBottom;
     }
 
+    /**
+     * Symbols are shared by all analyses running in the same JVM. Bottom and non-bottom symbols are kept apart
+     * such that an analysis cannot change whether a symbol used by another analysis is a bottom symbol.
+     *
+     * @param label    The label of the requested symbol.
+     * @param isBottom True if the requested symbol terminates an index.
+     * @return The unique symbol with the given label and kind.
+     */
     public static ConcreteIndexSymbol getIndexSymbol(String label, boolean isBottom) {
 
-        if (!existingIndexSymbols.containsKey(label)) {
-            existingIndexSymbols.put(label, new ConcreteIndexSymbol(label, isBottom));
-        }
-
-        return existingIndexSymbols.get(label);
+        ConcurrentMap<String, ConcreteIndexSymbol> symbols = isBottom ? existingBottomSymbols : existingIndexSymbols;
+        return symbols.computeIfAbsent(label, l -> new ConcreteIndexSymbol(l, isBottom));
     }
 
     public boolean isBottom() {
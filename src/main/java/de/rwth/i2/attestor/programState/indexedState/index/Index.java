@@ -1,30 +1,170 @@
 package de.rwth.i2.attestor.programState.indexedState.index;
 
-import java.util.ArrayList;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index, i.e. a sequence of index symbols, that is represented by a persistent list.
+ * Each index consists of its last symbol and a reference to the index without its last symbol.
+ * All indices obtained by shortening or prolonging an index are hash-consed, i.e. there exists exactly one
+ * such object for every sequence of index symbols. Hence, pushing or popping a symbol takes constant time and
+ * equal indices share their prefixes such that they can be compared in constant time.
+ * The table of hash-consed indices only holds weak references. An index is dropped from it once no index
+ * sharing it as a prefix is in use anymore.
+ * The table is keyed by the identity of the prefix and the last symbol and can be accessed concurrently
+ * without locking.
+ */
+public class Index implements Iterable<IndexSymbol> {
+
+    private static final ConcurrentMap<Key, IndexReference> existingIndices = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Index> collectedIndices = new ReferenceQueue<>();
+
+    private static final Index EMPTY = new Index();
+
+    /**
+     * The hash-consed index without the last symbol or null if this index is empty.
+     */
+    private final Index prefix;
+    private final IndexSymbol lastSymbol;
+    private final int size;
+    private final int hashCode;
+
+    /**
+     * The symbols of this index. Computed lazily if positions are accessed directly.
+     */
+    private volatile IndexSymbol[] symbols;
+
+    private Index() {
+
+        this.prefix = null;
+        this.lastSymbol = null;
+        this.size = 0;
+        this.hashCode = 1;
+    }
 
-public class Index {
+    private Index(Index prefix, IndexSymbol lastSymbol) {
 
-    private final List<IndexSymbol> indexSymbols;
+        this.prefix = prefix;
+        this.lastSymbol = lastSymbol;
+        this.size = prefix.size + 1;
+        // coincides with the hash code of the corresponding list of index symbols
+        this.hashCode = 31 * prefix.hashCode + lastSymbol.hashCode();
+    }
 
     public Index(List<IndexSymbol> indexSymbols) {
 
-        this.indexSymbols = indexSymbols;
+        this(canonicalPrefix(indexSymbols), indexSymbols);
+    }
+
+    private Index(Index prefix, List<IndexSymbol> indexSymbols) {
+
+        if (indexSymbols.isEmpty()) {
+            this.prefix = null;
+            this.lastSymbol = null;
+            this.size = 0;
+            this.hashCode = 1;
+        } else {
+            this.prefix = prefix;
+            this.lastSymbol = indexSymbols.get(indexSymbols.size() - 1);
+            this.size = prefix.size + 1;
+            this.hashCode = 31 * prefix.hashCode + lastSymbol.hashCode();
+        }
     }
 
     public Index(Index index) {
 
-        this.indexSymbols = index.indexSymbols;
+        this.prefix = index.prefix;
+        this.lastSymbol = index.lastSymbol;
+        this.size = index.size;
+        this.hashCode = index.hashCode;
+        this.symbols = index.symbols;
+    }
+
+    private static Index canonicalPrefix(List<IndexSymbol> indexSymbols) {
+
+        Index result = EMPTY;
+        for (int i = 0; i < indexSymbols.size() - 1; i++) {
+            result = prolong(result, indexSymbols.get(i));
+        }
+        return result;
+    }
+
+    private static Index prolong(Index canonicalIndex, IndexSymbol symbol) {
+
+        expungeCollectedIndices();
+
+        Key key = new Key(canonicalIndex, symbol);
+        IndexReference reference = existingIndices.get(key);
+        Index existing = reference == null ? null : reference.get();
+        if (existing != null) {
+            return existing;
+        }
+
+        Index candidate = new Index(canonicalIndex, symbol);
+        IndexReference candidateReference = new IndexReference(key, candidate);
+        while (true) {
+            reference = existingIndices.putIfAbsent(key, candidateReference);
+            if (reference == null) {
+                return candidate;
+            }
+            existing = reference.get();
+            if (existing != null) {
+                return existing;
+            }
+            // the previously hash-consed index has been collected, but its entry has not been removed yet
+            if (existingIndices.replace(key, reference, candidateReference)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static void expungeCollectedIndices() {
+
+        Reference<? extends Index> collected;
+        while ((collected = collectedIndices.poll()) != null) {
+            IndexReference reference = (IndexReference) collected;
+            existingIndices.remove(reference.key, reference);
+        }
+    }
+
+    /**
+     * @return The unique object representing the same sequence of index symbols as this index.
+     */
+    private Index canonical() {
+
+        if (size == 0) {
+            return EMPTY;
+        }
+        return prolong(prefix, lastSymbol);
     }
 
     public boolean startsWith(Iterable<IndexSymbol> prefix) {
 
-        Iterator<IndexSymbol> indexIterator = indexSymbols.iterator();
-        Iterator<IndexSymbol> prefixIterator = prefix.iterator();
+        if (prefix instanceof Index) {
+            Index other = (Index) prefix;
+            if (other.size > size) {
+                return false;
+            }
+            Index current = this;
+            while (current.size > other.size) {
+                current = current.prefix;
+            }
+            return current.equals(other);
+        }
 
-        while (indexIterator.hasNext() && prefixIterator.hasNext()) {
-            if (!indexIterator.next().equals(prefixIterator.next())) {
+        IndexSymbol[] indexSymbols = getSymbols();
+        Iterator<IndexSymbol> prefixIterator = prefix.iterator();
+        for (IndexSymbol symbol : indexSymbols) {
+            if (!prefixIterator.hasNext()) {
+                return true;
+            }
+            if (!symbol.equals(prefixIterator.next())) {
                 return false;
             }
         }
@@ -35,106 +175,166 @@ public class Index {
 
     public boolean endsWith(IndexSymbol symbol) {
 
-        return (!indexSymbols.isEmpty()) && indexSymbols.get(indexSymbols.size() - 1).equals(symbol);
+        return size > 0 && lastSymbol.equals(symbol);
     }
 
 
     public IndexSymbol getLastIndexSymbol() {
 
-        assert (indexSymbols.size() > 0);
-        return indexSymbols.get(indexSymbols.size() - 1);
+        assert (size > 0);
+        return lastSymbol;
     }
 
     public Index getWithShortenedIndex() {
 
-        assert (indexSymbols.size() > 0);
-        List<IndexSymbol> indexCopy = new ArrayList<>(indexSymbols);
-        indexCopy.remove(indexCopy.size() - 1);
-        return new Index(indexCopy);
+        assert (size > 0);
+        return prefix;
     }
 
     public Index getWithProlongedIndex(IndexSymbol s) {
 
-        List<IndexSymbol> indexCopy = new ArrayList<>(indexSymbols);
-        indexCopy.add(s);
-        return new Index(indexCopy);
+        return prolong(canonical(), s);
     }
 
-//    public Index getWithInstantiation(){
-//        List<IndexSymbol> indexCopy = new ArrayList<>(indexSymbols);
-//        if( indexSymbols.size() > 0 && this.getLastIndexSymbol() instanceof IndexVariable){
-//            IndexVariable lastSymbol = (IndexVariable)indexCopy.get(indexCopy.size() - 1);
-//            indexCopy.remove( indexCopy.size() - 1 );
-//            lastSymbol.getInstantiation().forEach(indexCopy::add);
-//        }
-//        return new Index(indexCopy);
-//    }
-
     public Index getWithProlongedIndex(List<IndexSymbol> postfix) {
 
         assert (this.size() > 0);
         IndexSymbol lastSymbol = this.getLastIndexSymbol();
         assert (!(lastSymbol instanceof ConcreteIndexSymbol));
 
-        List<IndexSymbol> indexCopy = new ArrayList<>(indexSymbols);
-        indexCopy.remove(indexCopy.size() - 1);
-        indexCopy.addAll(postfix);
-
-        return new Index(indexCopy);
+        Index result = prefix;
+        for (IndexSymbol symbol : postfix) {
+            result = prolong(result, symbol);
+        }
+        return result;
     }
 
     public boolean hasConcreteIndex() {
 
-        return (!indexSymbols.isEmpty()) && this.indexSymbols.get(indexSymbols.size() - 1).isBottom();
+        return size > 0 && lastSymbol.isBottom();
     }
 
     public int size() {
 
-        return indexSymbols.size();
+        return size;
     }
 
     public boolean isEmpty() {
 
-        return indexSymbols.isEmpty();
+        return size == 0;
     }
 
     public boolean matchIndex(Index other) {
 
-        List<IndexSymbol> otherIndex = other.indexSymbols;
-        for (int i = 0; i < this.size() && i < otherIndex.size(); i++) {
-            IndexSymbol s1 = this.get(i);
-            IndexSymbol s2 = otherIndex.get(i);
+        return equals(other);
+    }
 
-            if (!s1.equals(s2)) {
-                return false;
-            }
+    public IndexSymbol get(int pos) {
+
+        if (pos < 0 || pos >= size) {
+            throw new IndexOutOfBoundsException("Position " + pos + " of index of size " + size);
         }
+        if (pos == size - 1) {
+            return lastSymbol;
+        }
+        return getSymbols()[pos];
+    }
 
-        return otherIndex.size() == this.size();
+    @Override
+    public Iterator<IndexSymbol> iterator() {
+
+        return Arrays.asList(getSymbols()).iterator();
     }
 
-    public IndexSymbol get(int pos) {
+    private IndexSymbol[] getSymbols() {
 
-        return indexSymbols.get(pos);
+        IndexSymbol[] result = symbols;
+        if (result == null) {
+            result = new IndexSymbol[size];
+            Index current = this;
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = current.lastSymbol;
+                current = current.prefix;
+            }
+            symbols = result;
+        }
+        return result;
     }
 
+    /**
+     * Two indices are equal if they consist of the same sequence of index symbols.
+     * Since prefixes are hash-consed, it suffices to compare the prefixes by reference.
+     */
     public boolean equals(Object other) {
 
+        if (other == this) {
+            return true;
+        }
+
         if (other instanceof Index) {
             Index index = (Index) other;
-            return indexSymbols.equals(index.indexSymbols);
+            return size == index.size
+                    && hashCode == index.hashCode
+                    && (size == 0 || (prefix == index.prefix && lastSymbol.equals(index.lastSymbol)));
         }
         return false;
     }
 
     public int hashCode() {
 
-        return indexSymbols.hashCode();
+        return hashCode;
     }
 
     public String toString() {
 
-        return indexSymbols.toString();
+        return Arrays.toString(getSymbols());
+    }
+
+    /**
+     * Identifies a hash-consed index by its hash-consed prefix and its last symbol.
+     */
+    private static final class Key {
+
+        private final Index prefix;
+        private final IndexSymbol lastSymbol;
+        private final int hashCode;
+
+        Key(Index prefix, IndexSymbol lastSymbol) {
+
+            this.prefix = prefix;
+            this.lastSymbol = lastSymbol;
+            this.hashCode = 31 * System.identityHashCode(prefix) + lastSymbol.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return prefix == key.prefix && lastSymbol.equals(key.lastSymbol);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
     }
 
+    /**
+     * A weak reference to a hash-consed index that remembers its key such that the entry can be removed
+     * once the index has been collected.
+     */
+    private static final class IndexReference extends WeakReference<Index> {
+
+        private final Key key;
+
+        IndexReference(Key key, Index index) {
+
+            super(index, collectedIndices);
+            this.key = key;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package de.rwth.i2.attestor.programState.indexedState.index;
 
 
+import de.rwth.i2.attestor.graph.Nonterminal;
 import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.programState.indexedState.IndexedNonterminal;
@@ -8,7 +9,10 @@ import de.rwth.i2.attestor.semantics.util.Constants;
 import gnu.trove.iterator.TIntIterator;
 import gnu.trove.list.array.TIntArrayList;
 
+import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A IndexCanonizationStrategy that uses a fixed right-regular string grammar given by the following rules:
@@ -25,17 +29,61 @@ import java.util.Set;
  */
 public class IndexCanonizationStrategyImpl implements IndexCanonizationStrategy {
 
-    private Set<String> nullPointerGuards;
+    /**
+     * Integer codes of the index symbols that are treated by the abstraction rules.
+     * All other symbols are represented by OTHER.
+     */
+    private static final int OTHER = 0;
+    private static final int Z = 1;
+    private static final int X = 2;
+    private static final int C = 3;
+    private static final int Y = 4;
+
+    /**
+     * The compiled abstraction rules: For every symbol code, the family of rules that rewrites it, i.e.
+     * 0 for X &#8594; sX | Z and 1 for Y &#8594; sY | C, or -1 if no rule applies.
+     */
+    private static final int[] FAMILY_OF = {-1, 0, 0, 1, 1};
+
+    /**
+     * For every symbol code, true if and only if the code belongs to the nonterminal of its family.
+     */
+    private static final boolean[] IS_ABSTRACT = {false, false, true, false, true};
+
+    /**
+     * For every family, the abstract index symbol that is the result of abstraction.
+     */
+    private static final String[] ABSTRACT_SYMBOL_OF_FAMILY = {"X", "Y"};
+
+    private static final int NUMBER_OF_FAMILIES = ABSTRACT_SYMBOL_OF_FAMILY.length;
+
+    private final Set<String> nullPointerGuards;
+
+    private final AbstractIndexSymbol[] abstractSymbols;
+
+    private final ConcurrentMap<IndexSymbol, Integer> symbolCodes = new ConcurrentHashMap<>();
 
     public IndexCanonizationStrategyImpl(Set<String> nullPointerGuards) {
 
         this.nullPointerGuards = nullPointerGuards;
+
+        abstractSymbols = new AbstractIndexSymbol[NUMBER_OF_FAMILIES];
+        for (int i = 0; i < NUMBER_OF_FAMILIES; i++) {
+            abstractSymbols[i] = AbstractIndexSymbol.get(ABSTRACT_SYMBOL_OF_FAMILY[i]);
+        }
     }
 
     /**
      * Abstracts the indices of all nonterminals in heapConfiguration simultaneously and as far as possible.
      * Actually alters the nonterminals in heapConfiguration (no clone is performed).
      * This method assumes that index abstraction is sound (e.g. it doesn't check whether anything is linked to null)
+     * <p>
+     * Abstraction is applied to all rules of a family, say X &#8594; sX | Z, simultaneously:
+     * It is blocked entirely if indices ending with Z and indices ending with X exist.
+     * Otherwise, every trailing Z is replaced by X and the symbols preceding X are removed from all indices
+     * ending with X until one of them consists of X only. Since the families do not interfere with each other,
+     * the result is computed in a single pass over the nonterminal edges instead of repeatedly applying single
+     * abstraction steps until a fixpoint is reached.
      */
     @Override
     public void canonizeIndex(HeapConfiguration heapConfiguration) {
@@ -44,146 +92,80 @@ public class IndexCanonizationStrategyImpl implements IndexCanonizationStrategy
             return;
         }
 
-        boolean appliedAbstraction;
-        do {
-            appliedAbstraction = attemptAbstraction(heapConfiguration, "Z");
-            appliedAbstraction |= attemptAbstraction(heapConfiguration, "X");
-            appliedAbstraction |= attemptAbstraction(heapConfiguration, "C");
-            appliedAbstraction |= attemptAbstraction(heapConfiguration, "Y");
-        } while (appliedAbstraction);
-    }
-
-    /**
-     * Attempt to abstract the given HeapConfiguration by abstracting the given index rightmost symbol.
-     *
-     * @param heapConfiguration The HeapConfiguration that should be abstracted.
-     * @param indexLabel        The rightmost index symbol that should be part of the abstraction.
-     * @return true if and only if abstraction actually has been applied.
-     */
-    private boolean attemptAbstraction(HeapConfiguration heapConfiguration, String indexLabel) {
-
         TIntArrayList ntEdges = heapConfiguration.nonterminalEdges();
-        TIntArrayList applicableEdges = new TIntArrayList(ntEdges.size());
-
-        TIntIterator iter = ntEdges.iterator();
-        while (iter.hasNext()) {
-            int edge = iter.next();
-            if (!(heapConfiguration.labelOf(edge) instanceof IndexedNonterminal)) {
+        int numberOfEdges = ntEdges.size();
+        int[] edgeCodes = new int[numberOfEdges];
+        int[] edgeSizes = new int[numberOfEdges];
+
+        boolean[] hasConcrete = new boolean[NUMBER_OF_FAMILIES];
+        boolean[] hasAbstract = new boolean[NUMBER_OF_FAMILIES];
+        int[] minSize = new int[NUMBER_OF_FAMILIES];
+        Arrays.fill(minSize, Integer.MAX_VALUE);
+
+        for (int i = 0; i < numberOfEdges; i++) {
+            Nonterminal label = heapConfiguration.labelOf(ntEdges.get(i));
+            if (!(label instanceof IndexedNonterminal)) {
+                edgeCodes[i] = OTHER;
                 continue;
             }
-            IndexedNonterminal edgeLabel = (IndexedNonterminal) heapConfiguration.labelOf(edge);
-
-            if (isAbstractionPossible(edgeLabel, indexLabel)) {
-                if (isAbstractionApplicable(edgeLabel, indexLabel)) {
-                    applicableEdges.add(edge);
+            Index index = ((IndexedNonterminal) label).getIndex();
+            int code = codeOf(index.getLastIndexSymbol());
+            edgeCodes[i] = code;
+            edgeSizes[i] = index.size();
+
+            int family = FAMILY_OF[code];
+            if (family >= 0) {
+                if (IS_ABSTRACT[code]) {
+                    hasAbstract[family] = true;
+                } else {
+                    hasConcrete[family] = true;
                 }
-            } else {
-                return false;
+                minSize[family] = Math.min(minSize[family], index.size());
             }
-
         }
 
-        return applyAbstraction(heapConfiguration, applicableEdges);
-    }
-
-    /**
-     * Checks whether at least one abstraction step that abstracts the given indexLabel is possible at all.
-     *
-     * @param edgeLabel  An edge label that should be checked for possible abstractions.
-     * @param indexLabel The rightmost symbol that should be abstracted.
-     * @return true if and only if abstraction is possible at all.
-     */
-    private boolean isAbstractionPossible(IndexedNonterminal edgeLabel, String indexLabel) {
-
-        String endEdge = edgeLabel.getIndex().getLastIndexSymbol().toString();
-
-        return (
-                (indexLabel.equals("Z") && !endEdge.equals("X"))
-                        || (indexLabel.equals("C") && !endEdge.equals("Y"))
-                        || (indexLabel.equals("X") && !endEdge.equals("Z") && (!endEdge.equals("X") || edgeLabel.getIndex().size() > 1))
-                        || (indexLabel.equals("Y") && !endEdge.equals("C") && (!endEdge.equals("Y") || edgeLabel.getIndex().size() > 1))
-        );
-    }
-
-    /**
-     * Checks whether abstraction with the given rightmost symbol is applicable to the given Nonterminal.
-     *
-     * @param edgeLabel  The Nonterminal that should be abstracted.
-     * @param indexLabel The label of the rightmost IndexSymbol that should be abstracted.
-     * @return true if and only if a hyperedge labeled with edgeLabel should be abstracted.
-     */
-    private boolean isAbstractionApplicable(IndexedNonterminal edgeLabel, String indexLabel) {
-
-        return edgeLabel.getIndex().getLastIndexSymbol().toString().equals(indexLabel)
-                && (indexLabel.equals("Z") || indexLabel.equals("C") || edgeLabel.getIndex().size() > 1);
-    }
+        for (int i = 0; i < numberOfEdges; i++) {
+            int code = edgeCodes[i];
+            int family = FAMILY_OF[code];
+            if (family < 0 || (hasConcrete[family] && hasAbstract[family])) {
+                continue;
+            }
 
-    /**
-     * Applies abstraction to the indices of the given edges.
-     *
-     * @param heapConfiguration The HeapConfiguration whose edges should be abstracted.
-     * @param applicableEdges   A subset of edges of heapConfiguration that are actually abstracted.
-     * @return true if and only if the abstraction has been successfully executed.
-     */
-    private boolean applyAbstraction(HeapConfiguration heapConfiguration, TIntArrayList applicableEdges) {
+            // number of symbols removed in front of the abstract symbol
+            int removedSymbols = minSize[family] - 1;
+            if (IS_ABSTRACT[code] && removedSymbols == 0) {
+                continue;
+            }
 
-        if (applicableEdges.isEmpty()) {
-            return false;
+            int edge = ntEdges.get(i);
+            IndexedNonterminal label = (IndexedNonterminal) heapConfiguration.labelOf(edge);
+            Index index = label.getIndex().getWithShortenedIndex();
+            for (int j = 0; j < removedSymbols && j < edgeSizes[i] - 1; j++) {
+                index = index.getWithShortenedIndex();
+            }
+            index = index.getWithProlongedIndex(abstractSymbols[family]);
+            heapConfiguration.builder().replaceNonterminal(edge, label.getWithIndex(index));
         }
-
-        applicableEdges.forEach(
-                edge -> heapConfiguration
-                        .builder()
-                        .replaceNonterminal(
-                                edge,
-                                updateNonterminal((IndexedNonterminal) heapConfiguration.labelOf(edge))
-                        ) != null // need a boolean return value
-        );
-
-        return true;
     }
 
-    /**
-     * Creates an IndexedNonterminal with an updated index according to the abstraction rules
-     * inferred from the underlying context-free string grammar.
-     *
-     * @param originalNonterminal The nonterminal symbol whose index should be abstracted.
-     * @return A new IndexedNonterminal with an abstracted index.
-     */
-    private IndexedNonterminal updateNonterminal(IndexedNonterminal originalNonterminal) {
-
-        String last = originalNonterminal.getIndex().getLastIndexSymbol().toString();
-
-        if (last.equals("Z")) {
-            return originalNonterminal
-                    .getWithShortenedIndex() // Z
-                    .getWithProlongedIndex(AbstractIndexSymbol.get("X")); // -> X
-        }
-
-        if (last.equals("X")) {
-            return originalNonterminal
-                    .getWithShortenedIndex() // X
-                    .getWithShortenedIndex() // s
-                    .getWithProlongedIndex(AbstractIndexSymbol.get("X")); // -> X
-        }
-
-        if (last.equals("C")) {
-            return originalNonterminal
-                    .getWithShortenedIndex() // C
-                    .getWithProlongedIndex(AbstractIndexSymbol.get("Y")); // -> Y
-        }
-
-        if (last.equals("Y")) {
-            return originalNonterminal
-                    .getWithShortenedIndex() // Y
-                    .getWithShortenedIndex() // s
-                    .getWithProlongedIndex(AbstractIndexSymbol.get("Y")); // -> Y
-        }
-
-        throw new IllegalStateException("Unknown index symbol.");
+    private int codeOf(IndexSymbol symbol) {
+
+        return symbolCodes.computeIfAbsent(symbol, s -> {
+            switch (s.toString()) {
+                case "Z":
+                    return Z;
+                case "X":
+                    return X;
+                case "C":
+                    return C;
+                case "Y":
+                    return Y;
+                default:
+                    return OTHER;
+            }
+        });
     }
 
-
     /**
      * Specialized check that prevents abstractions if
      * selector edges to null exist.
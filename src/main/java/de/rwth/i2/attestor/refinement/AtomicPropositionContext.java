@@ -0,0 +1,73 @@
+package de.rwth.i2.attestor.refinement;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+
+/**
+ * Collects the heap automata contributed by {@link AtomicPropositionProvider AtomicPropositionProviders}.
+ */
+public class AtomicPropositionContext {
+
+    private final SceneObject sceneObject;
+    private final Grammar grammar;
+    private final AutomatonStateLabelingStrategyBuilder stateLabelingStrategyBuilder;
+
+    public AtomicPropositionContext(SceneObject sceneObject, Grammar grammar,
+                                    AutomatonStateLabelingStrategyBuilder stateLabelingStrategyBuilder) {
+
+        this.sceneObject = sceneObject;
+        this.grammar = grammar;
+        this.stateLabelingStrategyBuilder = stateLabelingStrategyBuilder;
+    }
+
+    /**
+     * @return The scene object that should be passed to newly created heap automata.
+     */
+    public SceneObject getSceneObject() {
+
+        return sceneObject;
+    }
+
+    /**
+     * @return The (unrefined) grammar of the analysis or null if no grammar is available.
+     */
+    public Grammar getGrammar() {
+
+        return grammar;
+    }
+
+    public boolean isIndexedMode() {
+
+        return sceneObject.scene().options().isIndexedMode();
+    }
+
+    /**
+     * Marks a variable such that it is never removed by dead variable elimination.
+     *
+     * @param variableName The name of the variable that occurs in some atomic proposition.
+     */
+    public void keepVariable(String variableName) {
+
+        sceneObject.scene().labels().addKeptVariable(variableName);
+    }
+
+    /**
+     * Adds a heap automaton whose states are tracked by refining the grammar.
+     *
+     * @param automaton The automaton to add.
+     */
+    public void addRefinementAutomaton(HeapAutomaton automaton) {
+
+        stateLabelingStrategyBuilder.add(automaton);
+    }
+
+    /**
+     * Adds a heap automaton that is evaluated on every state and thus requires no grammar refinement.
+     *
+     * @param automaton The automaton to add.
+     */
+    public void addStatelessAutomaton(StatelessHeapAutomaton automaton) {
+
+        stateLabelingStrategyBuilder.add(automaton);
+    }
+}
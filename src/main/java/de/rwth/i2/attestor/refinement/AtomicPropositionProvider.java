@@ -0,0 +1,32 @@
+package de.rwth.i2.attestor.refinement;
+
+/**
+ * A service provider that determines how states are labeled with a family of atomic propositions.
+ * Providers are discovered via {@link java.util.ServiceLoader} and are thus registered in
+ * META-INF/services/de.rwth.i2.attestor.refinement.AtomicPropositionProvider.
+ * For every atomic proposition required by the LTL formulae to be checked, the first provider claiming this
+ * atomic proposition contributes the heap automata that are necessary to label states with it.
+ * Hence, only automata for atomic propositions that actually occur in some formula are created.
+ * <br>
+ * A fresh instance of each provider is created for every analysis. Providers may thus keep track of the
+ * automata they contributed so far in order to avoid adding the same automaton twice.
+ */
+public interface AtomicPropositionProvider {
+
+    /**
+     * @param atomicProposition An atomic proposition occurring in some LTL formula.
+     * @return True if and only if this provider is responsible for the given atomic proposition.
+     */
+    boolean claims(String atomicProposition);
+
+    /**
+     * Contributes all heap automata that are required to label states with a claimed atomic proposition.
+     * Automata whose states have to be tracked by grammar refinement are added via
+     * {@link AtomicPropositionContext#addRefinementAutomaton(HeapAutomaton)}, all others via
+     * {@link AtomicPropositionContext#addStatelessAutomaton(StatelessHeapAutomaton)}.
+     *
+     * @param atomicProposition An atomic proposition that has been claimed by this provider.
+     * @param context           The context providing access to the scene, the grammar and the labeling strategy.
+     */
+    void contribute(String atomicProposition, AtomicPropositionContext context);
+}
@@ -10,9 +10,12 @@ public class AutomatonStateLabelingStrategyBuilder {
     final List<HeapAutomaton> automata = new ArrayList<>();
     final List<StatelessHeapAutomaton> statelessHeapAutomata = new ArrayList<>();
 
+    private CachingHeapAutomaton productAutomaton;
+
     public AutomatonStateLabelingStrategyBuilder add(HeapAutomaton automaton) {
 
         automata.add(automaton);
+        productAutomaton = null;
         return this;
     }
 
@@ -31,17 +34,31 @@ public class AutomatonStateLabelingStrategyBuilder {
         return new AutomatonStateLabelingStrategy(getProductAutomaton(), statelessHeapAutomata);
     }
 
-    public HeapAutomaton getProductAutomaton() {
+    /**
+     * @return The product of all added heap automata or null if no heap automaton has been added.
+     * Transitions of the product automaton are cached. The same automaton, and thus the same cache,
+     * is returned until further heap automata are added such that grammar refinement and state labeling
+     * share previously computed transitions.
+     */
+    public CachingHeapAutomaton getProductAutomaton() {
+
+        if (productAutomaton != null) {
+            return productAutomaton;
+        }
 
+        HeapAutomaton automaton;
         switch (automata.size()) {
             case 0:
                 return null;
             case 1:
-                return automata.get(0);
+                automaton = automata.get(0);
+                break;
             default:
                 HeapAutomaton[] automataArray = new HeapAutomaton[automata.size()];
-                return new ProductHeapAutomaton(automata.toArray(automataArray));
+                automaton = new ProductHeapAutomaton(automata.toArray(automataArray));
         }
+        productAutomaton = new CachingHeapAutomaton(automaton);
+        return productAutomaton;
     }
 }
 
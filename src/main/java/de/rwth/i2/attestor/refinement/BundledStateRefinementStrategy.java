@@ -18,7 +18,19 @@ public class BundledStateRefinementStrategy implements StateRefinementStrategy {
     @Override
     public ProgramState refine(SemanticsCommand semanticsCommand, ProgramState state) {
 
-        strategies.forEach(f -> f.refine(semanticsCommand, state));
+        for (StateRefinementStrategy strategy : strategies) {
+            state = strategy.refine(semanticsCommand, state);
+        }
+        return state;
+    }
+
+    @Override
+    public ProgramState refine(SemanticsCommand semanticsCommand, ProgramState state,
+                               SemanticsCommand executedCommand, ProgramState previousState) {
+
+        for (StateRefinementStrategy strategy : strategies) {
+            state = strategy.refine(semanticsCommand, state, executedCommand, previousState);
+        }
         return state;
     }
 }
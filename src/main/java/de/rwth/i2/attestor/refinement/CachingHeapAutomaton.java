@@ -0,0 +1,247 @@
+package de.rwth.i2.attestor.refinement;
+
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
+import gnu.trove.iterator.TIntIterator;
+
+import java.util.*;
+
+/**
+ * A heap automaton that memoizes the transitions of another heap automaton.
+ * <p>
+ * Transitions are cached in a bounded map whose least recently used entries are evicted first.
+ * Two kinds of keys are used:
+ * <ul>
+ * <li>If every nonterminal edge of a heap configuration is labeled with a {@link RefinedNonterminal} whose
+ * state coincides with the assigned state, the assignment is determined by the heap configuration itself.
+ * Such transitions are keyed by the heap configuration up to isomorphism. This is the case for all
+ * heap configurations that are labeled during state space generation.</li>
+ * <li>Otherwise, the assignment may depend on the order of nonterminal edges and isomorphic
+ * heap configurations cannot be identified safely. Such transitions are keyed by the identity of the
+ * heap configuration together with the assigned states. This is the case for right-hand sides of
+ * grammar rules that are repeatedly refined until a fixpoint is reached. These heap configurations
+ * must not be modified after they have been passed to this automaton.</li>
+ * </ul>
+ *
+ * Cache hits, misses and evictions are reported to the current {@link MetricsRegistry}.
+ */
+public class CachingHeapAutomaton implements HeapAutomaton {
+
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private final HeapAutomaton heapAutomaton;
+    private final int capacity;
+    private final Map<Object, HeapAutomatonState> cache;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public CachingHeapAutomaton(HeapAutomaton heapAutomaton) {
+
+        this(heapAutomaton, DEFAULT_CAPACITY);
+    }
+
+    public CachingHeapAutomaton(HeapAutomaton heapAutomaton, int capacity) {
+
+        if (heapAutomaton == null) {
+            throw new IllegalArgumentException("The cached heap automaton must not be null.");
+        }
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of a transition cache must be positive.");
+        }
+
+        this.heapAutomaton = heapAutomaton;
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<Object, HeapAutomatonState>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, HeapAutomatonState> eldest) {
+
+                if (size() > CachingHeapAutomaton.this.capacity) {
+                    MetricsRegistry.current().counter("heapAutomaton.cache.evictions").increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized HeapAutomatonState transition(HeapConfiguration heapConfiguration,
+                                                      List<HeapAutomatonState> statesOfNonterminals) {
+
+        MetricsRegistry metrics = MetricsRegistry.current();
+        boolean isCanonical = isDeterminedByLabels(heapConfiguration, statesOfNonterminals);
+        Object key = isCanonical
+                ? new CanonicalKey(heapConfiguration)
+                : new IdentityKey(heapConfiguration, statesOfNonterminals);
+
+        HeapAutomatonState result = cache.get(key);
+        if (result != null) {
+            ++hits;
+            metrics.counter("heapAutomaton.cache.hits").increment();
+            return result;
+        }
+
+        ++misses;
+        metrics.counter("heapAutomaton.cache.misses").increment();
+        result = heapAutomaton.transition(heapConfiguration, statesOfNonterminals);
+        if (isCanonical) {
+            // heap configurations of program states may still change, so we keep a private copy
+            key = new CanonicalKey(heapConfiguration.clone());
+        }
+        cache.put(key, result);
+        return result;
+    }
+
+    @Override
+    public boolean isInitialState(HeapAutomatonState heapAutomatonState) {
+
+        return heapAutomaton.isInitialState(heapAutomatonState);
+    }
+
+    @Override
+    public List<HeapConfiguration> getPossibleHeapRewritings(HeapConfiguration heapConfiguration) {
+
+        return heapAutomaton.getPossibleHeapRewritings(heapConfiguration);
+    }
+
+    /**
+     * @return The heap automaton whose transitions are cached.
+     */
+    public HeapAutomaton getHeapAutomaton() {
+
+        return heapAutomaton;
+    }
+
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+    public synchronized int size() {
+
+        return cache.size();
+    }
+
+    public synchronized long getHits() {
+
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+
+        return misses;
+    }
+
+    /**
+     * @return The fraction of transitions that have been answered by the cache or 0 if no transition
+     * has been computed yet.
+     */
+    public synchronized double getHitRate() {
+
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public synchronized void clear() {
+
+        cache.clear();
+    }
+
+    private static boolean isDeterminedByLabels(HeapConfiguration heapConfiguration,
+                                                List<HeapAutomatonState> statesOfNonterminals) {
+
+        if (heapConfiguration.countNonterminalEdges() != statesOfNonterminals.size()) {
+            return false;
+        }
+
+        TIntIterator iter = heapConfiguration.nonterminalEdges().iterator();
+        int pos = 0;
+        while (iter.hasNext()) {
+            Nonterminal label = heapConfiguration.labelOf(iter.next());
+            if (!(label instanceof RefinedNonterminal)
+                    || !Objects.equals(((RefinedNonterminal) label).getState(), statesOfNonterminals.get(pos))) {
+                return false;
+            }
+            ++pos;
+        }
+        return true;
+    }
+
+    /**
+     * Identifies heap configurations up to isomorphism.
+     */
+    private static final class CanonicalKey {
+
+        private final HeapConfiguration heapConfiguration;
+        private final int hashCode;
+
+        private CanonicalKey(HeapConfiguration heapConfiguration) {
+
+            this.heapConfiguration = heapConfiguration;
+            this.hashCode = heapConfiguration.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object otherObject) {
+
+            if (otherObject == this) {
+                return true;
+            }
+
+            if (otherObject == null || otherObject.getClass() != CanonicalKey.class) {
+                return false;
+            }
+
+            CanonicalKey other = (CanonicalKey) otherObject;
+            return hashCode == other.hashCode && heapConfiguration.equals(other.heapConfiguration);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+
+    /**
+     * Identifies a heap configuration object together with an assignment of states to its nonterminal edges.
+     */
+    private static final class IdentityKey {
+
+        private final HeapConfiguration heapConfiguration;
+        private final List<HeapAutomatonState> statesOfNonterminals;
+        private final int hashCode;
+
+        private IdentityKey(HeapConfiguration heapConfiguration, List<HeapAutomatonState> statesOfNonterminals) {
+
+            this.heapConfiguration = heapConfiguration;
+            this.statesOfNonterminals = new ArrayList<>(statesOfNonterminals);
+            this.hashCode = 31 * System.identityHashCode(heapConfiguration) + this.statesOfNonterminals.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object otherObject) {
+
+            if (otherObject == this) {
+                return true;
+            }
+
+            if (otherObject == null || otherObject.getClass() != IdentityKey.class) {
+                return false;
+            }
+
+            IdentityKey other = (IdentityKey) otherObject;
+            return heapConfiguration == other.heapConfiguration
+                    && statesOfNonterminals.equals(other.statesOfNonterminals);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+}
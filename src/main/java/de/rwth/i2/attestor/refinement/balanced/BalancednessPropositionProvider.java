@@ -0,0 +1,32 @@
+package de.rwth.i2.attestor.refinement.balanced;
+
+import de.rwth.i2.attestor.refinement.AtomicPropositionContext;
+import de.rwth.i2.attestor.refinement.AtomicPropositionProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Provides the atomic proposition "btree" to check for balanced trees.
+ */
+public class BalancednessPropositionProvider implements AtomicPropositionProvider {
+
+    private static final Logger logger = LogManager.getLogger("BalancednessPropositionProvider");
+
+    private boolean hasAutomaton = false;
+
+    @Override
+    public boolean claims(String atomicProposition) {
+
+        return "btree".equals(atomicProposition);
+    }
+
+    @Override
+    public void contribute(String atomicProposition, AtomicPropositionContext context) {
+
+        if (!hasAutomaton) {
+            context.addStatelessAutomaton(new BalancednessAutomaton(context.getSceneObject(), context.getGrammar()));
+            hasAutomaton = true;
+            logger.debug("Enable checking for balanced trees.");
+        }
+    }
+}
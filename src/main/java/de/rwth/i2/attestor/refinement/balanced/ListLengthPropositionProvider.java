@@ -0,0 +1,32 @@
+package de.rwth.i2.attestor.refinement.balanced;
+
+import de.rwth.i2.attestor.refinement.AtomicPropositionContext;
+import de.rwth.i2.attestor.refinement.AtomicPropositionProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Provides the atomic proposition "bimap" to check for lists of equal length.
+ */
+public class ListLengthPropositionProvider implements AtomicPropositionProvider {
+
+    private static final Logger logger = LogManager.getLogger("ListLengthPropositionProvider");
+
+    private boolean hasAutomaton = false;
+
+    @Override
+    public boolean claims(String atomicProposition) {
+
+        return "bimap".equals(atomicProposition);
+    }
+
+    @Override
+    public void contribute(String atomicProposition, AtomicPropositionContext context) {
+
+        if (!hasAutomaton) {
+            context.addStatelessAutomaton(new ListLengthAutomaton(context.getSceneObject(), context.getGrammar()));
+            hasAutomaton = true;
+            logger.debug("Enable checking for lists of equal length.");
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package de.rwth.i2.attestor.refinement.garbageCollection;
 
+import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
 import de.rwth.i2.attestor.graph.util.ReachabilityChecker;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
 import de.rwth.i2.attestor.semantics.TerminalStatement;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.*;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Field;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.SettableValue;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Value;
 import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
 import de.rwth.i2.attestor.stateSpaceGeneration.SemanticsCommand;
 import de.rwth.i2.attestor.stateSpaceGeneration.StateRefinementStrategy;
@@ -30,6 +36,27 @@ public class GarbageCollector implements StateRefinementStrategy {
         semanticsTriggeringGarbageCollector.add(TerminalStatement.class);
         semanticsTriggeringGarbageCollector.add(ReturnVoidStmt.class);
         semanticsTriggeringGarbageCollector.add(ReturnValueStmt.class);
+        semanticsTriggeringGarbageCollector.add(ThrowStmt.class);
+    }
+
+    /**
+     * True if unreachable nodes are only searched for if a pointer to a node that might have become
+     * unreachable has been dropped by the executed statement.
+     */
+    private final boolean incremental;
+
+    public GarbageCollector() {
+
+        this(false);
+    }
+
+    /**
+     * @param incremental True if the executed statement and the previous state should be used to decide whether
+     *                    the whole heap has to be searched for unreachable nodes.
+     */
+    public GarbageCollector(boolean incremental) {
+
+        this.incremental = incremental;
     }
 
     @Override
@@ -41,12 +68,32 @@ public class GarbageCollector implements StateRefinementStrategy {
             return state;
         }
 
-        // ensure that this state is not a shallow copy of a state already in the state space
-        state = state.clone();
+        return collect(state);
+    }
+
+    @Override
+    public ProgramState refine(SemanticsCommand semanticsCommand, ProgramState state,
+                               SemanticsCommand executedCommand, ProgramState previousState) {
+
+        if (!semanticsTriggeringGarbageCollector.contains(semanticsCommand.getClass())) {
+            return state;
+        }
+
+        if (incremental && !mayHaveCreatedGarbage(state, executedCommand, previousState)) {
+            MetricsRegistry.current().counter("garbageCollection.skipped").increment();
+            return state;
+        }
+
+        return collect(state);
+    }
+
+    private ProgramState collect(ProgramState state) {
+
+        MetricsRegistry.current().counter("garbageCollection.traversals").increment();
 
         HeapConfiguration heap = state.getHeap();
         ReachabilityChecker checker = new ReachabilityChecker(
-                state.getHeap(),
+                heap,
                 getVariableTargetNodes(heap)
         );
 
@@ -56,6 +103,11 @@ public class GarbageCollector implements StateRefinementStrategy {
             return state;
         }
 
+        // ensure that this state is not a shallow copy of a state already in the state space
+        // public node identifiers are preserved by cloning
+        state = state.clone();
+        heap = state.getHeap();
+
         TIntIterator unreachableIterator = unreachableNodes.iterator();
         HeapConfigurationBuilder builder = heap.builder();
         while (unreachableIterator.hasNext()) {
@@ -72,6 +124,75 @@ public class GarbageCollector implements StateRefinementStrategy {
 
     }
 
+    /**
+     * Decides locally whether executing a statement on a previous state may have caused nodes to become
+     * unreachable. This is only the case if a pointer to a node has been dropped and this node is neither
+     * external nor still attached to a variable.
+     * We assume that the previous state contains no unreachable nodes. This holds for all states reached by
+     * an assignment (because the garbage collector has been invoked for them prior to the assignment)
+     * except for initial states. The latter are located at program counter 0 and are thus always treated
+     * by searching the whole heap.
+     *
+     * @param state           The state obtained from executing executedCommand.
+     * @param executedCommand The executed statement.
+     * @param previousState   The state on which executedCommand has been executed.
+     * @return False if no node can have become unreachable.
+     */
+    private boolean mayHaveCreatedGarbage(ProgramState state, SemanticsCommand executedCommand,
+                                          ProgramState previousState) {
+
+        if (previousState == null
+                || previousState.getProgramCounter() == 0
+                || executedCommand == null
+                || executedCommand.getClass() != AssignStmt.class) {
+            return true;
+        }
+
+        HeapConfiguration before = previousState.getHeap();
+        HeapConfiguration after = state.getHeap();
+
+        TIntSet droppedTargets = new TIntHashSet();
+
+        // dead variables might have been removed in addition to the assigned one
+        TIntIterator variableIterator = before.variableEdges().iterator();
+        while (variableIterator.hasNext()) {
+            int varEdge = variableIterator.next();
+            int target = before.targetOf(varEdge);
+            if (after.variableTargetOf(before.nameOf(varEdge)) != target) {
+                droppedTargets.add(target);
+            }
+        }
+
+        SettableValue lhs = ((AssignStmt) executedCommand).getLhs();
+        if (lhs.getClass() == Field.class) {
+            Value origin = ((Field) lhs).getOriginValue();
+            if (origin.getClass() != Local.class) {
+                return true;
+            }
+            int originNode = before.variableTargetOf(((Local) origin).getName());
+            if (originNode == HeapConfiguration.INVALID_ELEMENT) {
+                return true;
+            }
+            for (SelectorLabel sel : before.selectorLabelsOf(originNode)) {
+                int target = before.selectorTargetOf(originNode, sel);
+                if (after.selectorTargetOf(originNode, sel) != target) {
+                    droppedTargets.add(target);
+                }
+            }
+        } else if (lhs.getClass() != Local.class) {
+            return true;
+        }
+
+        TIntIterator droppedIterator = droppedTargets.iterator();
+        while (droppedIterator.hasNext()) {
+            int node = droppedIterator.next();
+            if (!after.isExternalNode(node) && after.attachedVariablesOf(node).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private TIntSet getVariableTargetNodes(HeapConfiguration heap) {
 
         TIntSet variableTargets = new TIntHashSet(heap.countVariableEdges());
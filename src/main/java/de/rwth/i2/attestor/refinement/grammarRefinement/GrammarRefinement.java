@@ -120,7 +120,12 @@ public class GrammarRefinement {
         allRefinedRhsOfLhs.add(refinedRhs);
     }
 
-    private HeapConfiguration refineRightSide(HeapConfiguration rhs, List<HeapAutomatonState> assignment) {
+    /**
+     * @param rhs        An unrefined right-hand side.
+     * @param assignment The states assigned to the nonterminal edges of rhs.
+     * @return A copy of rhs in which every nonterminal edge is refined by its assigned state.
+     */
+    static HeapConfiguration refineRightSide(HeapConfiguration rhs, List<HeapAutomatonState> assignment) {
 
         rhs = rhs.clone();
         HeapConfigurationBuilder builder = rhs.builder();
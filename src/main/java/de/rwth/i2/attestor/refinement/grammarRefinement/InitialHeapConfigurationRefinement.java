@@ -9,14 +9,14 @@ import de.rwth.i2.attestor.refinement.RefinedNonterminal;
 import gnu.trove.list.array.TIntArrayList;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 public class InitialHeapConfigurationRefinement {
 
     private final List<HeapConfiguration> refinedInitialHeapConfigurations;
     private HeapConfiguration initialHeapConf;
-    private Grammar grammar;
+    private Collection<Nonterminal> possibleNonterminals;
     private HeapAutomaton heapAutomaton;
     private List<List<Nonterminal>> nonterminalsOfEdges;
 
@@ -24,6 +24,18 @@ public class InitialHeapConfigurationRefinement {
     public InitialHeapConfigurationRefinement(HeapConfiguration initialHeapConf,
                                               Grammar grammar, HeapAutomaton heapAutomaton) {
 
+        this(initialHeapConf, grammar.getAllLeftHandSides(), heapAutomaton);
+    }
+
+    /**
+     * @param initialHeapConf       The heap configuration to refine.
+     * @param possibleNonterminals  All refined nonterminals that may label a nonterminal edge.
+     * @param heapAutomaton         The heap automaton used for refinement.
+     */
+    public InitialHeapConfigurationRefinement(HeapConfiguration initialHeapConf,
+                                              Collection<Nonterminal> possibleNonterminals,
+                                              HeapAutomaton heapAutomaton) {
+
         refinedInitialHeapConfigurations = new ArrayList<>();
 
         if (initialHeapConf.countNonterminalEdges() == 0) {
@@ -32,7 +44,7 @@ public class InitialHeapConfigurationRefinement {
         }
 
         this.initialHeapConf = initialHeapConf;
-        this.grammar = grammar;
+        this.possibleNonterminals = possibleNonterminals;
         this.heapAutomaton = heapAutomaton;
 
         computePossibleNonterminalsOfEdges();
@@ -41,7 +53,6 @@ public class InitialHeapConfigurationRefinement {
 
     private void computePossibleNonterminalsOfEdges() {
 
-        Set<Nonterminal> possibleNonterminals = grammar.getAllLeftHandSides();
         nonterminalsOfEdges = new ArrayList<>();
 
         TIntArrayList ntEdges = initialHeapConf.nonterminalEdges();
@@ -0,0 +1,205 @@
+package de.rwth.i2.attestor.refinement.grammarRefinement;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.LazyGrammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.programState.defaultState.RefinedDefaultNonterminal;
+import de.rwth.i2.attestor.refinement.HeapAutomaton;
+import de.rwth.i2.attestor.refinement.HeapAutomatonState;
+import de.rwth.i2.attestor.refinement.RefinedNonterminal;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.*;
+
+/**
+ * Refines a grammar with respect to a heap automaton on demand.
+ * In contrast to {@link GrammarRefinement}, only the states that can be reached for each nonterminal are
+ * computed upfront. Refined rules are computed by a {@link LazyGrammar} once they are needed, i.e. all rules of
+ * a refined nonterminal whenever it is materialized and all rules over the refined nonterminals encountered
+ * during abstraction.
+ */
+public class LazyGrammarRefinement implements LazyGrammar.RuleSource {
+
+    private final Map<String, Nonterminal> oldLeftHandSides = new LinkedHashMap<>();
+    private final Map<Nonterminal, List<HeapConfiguration>> oldRightHandSides = new LinkedHashMap<>();
+
+    private final HeapAutomaton heapAutomaton;
+
+    private final Map<Nonterminal, List<HeapAutomatonState>> foundStates = new LinkedHashMap<>();
+
+    public LazyGrammarRefinement(Grammar grammar, HeapAutomaton heapAutomaton) {
+
+        this.heapAutomaton = heapAutomaton;
+        for (Nonterminal lhs : grammar.getAllLeftHandSides()) {
+            oldLeftHandSides.put(lhs.getLabel(), lhs);
+            List<HeapConfiguration> rewrittenRhs = new ArrayList<>();
+            for (HeapConfiguration rhs : grammar.getRightHandSidesFor(lhs)) {
+                rewrittenRhs.addAll(heapAutomaton.getPossibleHeapRewritings(rhs));
+            }
+            oldRightHandSides.put(lhs, rewrittenRhs);
+        }
+        computeFoundStates();
+    }
+
+    /**
+     * Computes the states that can be assigned to each nonterminal by a least fixpoint iteration
+     * over all rules of the original grammar.
+     */
+    private void computeFoundStates() {
+
+        boolean newStatesFound;
+        do {
+            newStatesFound = false;
+            for (Map.Entry<Nonterminal, List<HeapConfiguration>> entry : oldRightHandSides.entrySet()) {
+                for (HeapConfiguration rhs : entry.getValue()) {
+                    for (List<HeapAutomatonState> assignment : assignments(rhs)) {
+                        HeapAutomatonState state = heapAutomaton.transition(rhs, assignment);
+                        if (!state.isError()) {
+                            List<HeapAutomatonState> states = foundStates.computeIfAbsent(entry.getKey(),
+                                    k -> new ArrayList<>());
+                            if (!states.contains(state)) {
+                                states.add(state);
+                                newStatesFound = true;
+                            }
+                        }
+                    }
+                }
+            }
+        } while (newStatesFound);
+    }
+
+    /**
+     * @return All refined nonterminals that are the left-hand side of some refined rule.
+     */
+    public Set<Nonterminal> getRefinedNonterminals() {
+
+        Set<Nonterminal> result = new LinkedHashSet<>();
+        for (Map.Entry<Nonterminal, List<HeapAutomatonState>> entry : foundStates.entrySet()) {
+            for (HeapAutomatonState state : entry.getValue()) {
+                result.add(new RefinedDefaultNonterminal(entry.getKey(), state));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Nonterminal, Collection<HeapConfiguration>> computeTerminalRules() {
+
+        Map<Nonterminal, Collection<HeapConfiguration>> result = new LinkedHashMap<>();
+        for (Map.Entry<Nonterminal, List<HeapConfiguration>> entry : oldRightHandSides.entrySet()) {
+            for (HeapConfiguration rhs : entry.getValue()) {
+                if (rhs.countNonterminalEdges() == 0) {
+                    addRefinedRule(result, entry.getKey(), rhs, Collections.emptyList());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<HeapConfiguration> computeRightHandSidesFor(Nonterminal lhs) {
+
+        List<HeapConfiguration> result = new ArrayList<>();
+        if (!(lhs instanceof RefinedNonterminal) || !oldLeftHandSides.containsKey(lhs.getLabel())) {
+            return result;
+        }
+
+        HeapAutomatonState requiredState = ((RefinedNonterminal) lhs).getState();
+        for (HeapConfiguration rhs : oldRightHandSides.get(oldLeftHandSides.get(lhs.getLabel()))) {
+            for (List<HeapAutomatonState> assignment : assignments(rhs)) {
+                if (requiredState.equals(heapAutomaton.transition(rhs, assignment))) {
+                    result.add(GrammarRefinement.refineRightSide(rhs, assignment));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Nonterminal, Collection<HeapConfiguration>> computeRulesUsing(Nonterminal nonterminal,
+                                                                         Set<Nonterminal> encountered) {
+
+        Map<Nonterminal, Collection<HeapConfiguration>> result = new LinkedHashMap<>();
+        if (!(nonterminal instanceof RefinedNonterminal)) {
+            return result;
+        }
+
+        String label = nonterminal.getLabel();
+        HeapAutomatonState newState = ((RefinedNonterminal) nonterminal).getState();
+        Map<String, List<HeapAutomatonState>> encounteredStates = new LinkedHashMap<>();
+        for (Nonterminal nt : encountered) {
+            if (nt instanceof RefinedNonterminal) {
+                encounteredStates.computeIfAbsent(nt.getLabel(), k -> new ArrayList<>())
+                        .add(((RefinedNonterminal) nt).getState());
+            }
+        }
+        List<HeapAutomatonState> statesIncludingNew
+                = new ArrayList<>(encounteredStates.getOrDefault(label, Collections.emptyList()));
+        statesIncludingNew.add(newState);
+
+        for (Map.Entry<Nonterminal, List<HeapConfiguration>> entry : oldRightHandSides.entrySet()) {
+            for (HeapConfiguration rhs : entry.getValue()) {
+                TIntArrayList ntEdges = rhs.nonterminalEdges();
+                // every assignment is enumerated exactly once: for the first edge assigned the new state
+                for (int i = 0; i < ntEdges.size(); i++) {
+                    if (!label.equals(rhs.labelOf(ntEdges.get(i)).getLabel())) {
+                        continue;
+                    }
+                    List<List<HeapAutomatonState>> choices = new ArrayList<>(ntEdges.size());
+                    for (int j = 0; j < ntEdges.size(); j++) {
+                        String edgeLabel = rhs.labelOf(ntEdges.get(j)).getLabel();
+                        if (j == i) {
+                            choices.add(Collections.singletonList(newState));
+                        } else if (j > i && label.equals(edgeLabel)) {
+                            choices.add(statesIncludingNew);
+                        } else {
+                            choices.add(encounteredStates.getOrDefault(edgeLabel, Collections.emptyList()));
+                        }
+                    }
+                    AssignmentIterator<HeapAutomatonState> iterator = new AssignmentIterator<>(choices);
+                    while (iterator.hasNext()) {
+                        addRefinedRule(result, entry.getKey(), rhs, iterator.next());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void addRefinedRule(Map<Nonterminal, Collection<HeapConfiguration>> rules, Nonterminal lhs,
+                                HeapConfiguration rhs, List<HeapAutomatonState> assignment) {
+
+        HeapAutomatonState assignedState = heapAutomaton.transition(rhs, assignment);
+        if (assignedState.isError()) {
+            return;
+        }
+        rules.computeIfAbsent(new RefinedDefaultNonterminal(lhs, assignedState), k -> new ArrayList<>())
+                .add(GrammarRefinement.refineRightSide(rhs, assignment));
+    }
+
+    /**
+     * @return All assignments of states found so far to the nonterminal edges of rhs.
+     * If rhs contains no nonterminal edges, the only assignment is the empty one.
+     */
+    private List<List<HeapAutomatonState>> assignments(HeapConfiguration rhs) {
+
+        if (rhs.countNonterminalEdges() == 0) {
+            return Collections.singletonList(Collections.emptyList());
+        }
+
+        List<List<HeapAutomatonState>> possibleStates = new ArrayList<>();
+        TIntArrayList ntEdges = rhs.nonterminalEdges();
+        for (int i = 0; i < ntEdges.size(); i++) {
+            Nonterminal nt = rhs.labelOf(ntEdges.get(i));
+            possibleStates.add(foundStates.getOrDefault(nt, Collections.emptyList()));
+        }
+
+        List<List<HeapAutomatonState>> result = new ArrayList<>();
+        AssignmentIterator<HeapAutomatonState> iterator = new AssignmentIterator<>(possibleStates);
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package de.rwth.i2.attestor.refinement.languageInclusion;
+
+import de.rwth.i2.attestor.refinement.AtomicPropositionContext;
+import de.rwth.i2.attestor.refinement.AtomicPropositionProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.regex.Pattern;
+
+/**
+ * Provides atomic propositions of the form L(N) to check whether a heap belongs to the language of
+ * nonterminal N.
+ */
+public class LanguageInclusionPropositionProvider implements AtomicPropositionProvider {
+
+    private static final Logger logger = LogManager.getLogger("LanguageInclusionPropositionProvider");
+
+    private static final Pattern languageInclusion = Pattern.compile("^L\\(\\p{Space}*\\p{Alnum}+\\p{Space}*\\)$");
+
+    private boolean hasAutomaton = false;
+
+    @Override
+    public boolean claims(String atomicProposition) {
+
+        return languageInclusion.matcher(atomicProposition).matches();
+    }
+
+    @Override
+    public void contribute(String atomicProposition, AtomicPropositionContext context) {
+
+        if (!hasAutomaton) {
+            context.addStatelessAutomaton(
+                    new LanguageInclusionAutomaton(context.getSceneObject(), context.getGrammar())
+            );
+            hasAutomaton = true;
+            logger.debug("Enable language inclusion checks to determine heap shapes.");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.rwth.i2.attestor.refinement.reachability;
+
+import de.rwth.i2.attestor.refinement.AtomicPropositionContext;
+import de.rwth.i2.attestor.refinement.AtomicPropositionProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Provides atomic propositions of the form isReachable(x,y) and isReachable(x,y,[sel1, ..., selN]).
+ * Since reachability is tracked by refining the grammar, these atomic propositions are not supported
+ * for indexed grammars.
+ */
+public class ReachabilityPropositionProvider implements AtomicPropositionProvider {
+
+    private static final Logger logger = LogManager.getLogger("ReachabilityPropositionProvider");
+
+    private static final Pattern reachablePattern
+            = Pattern.compile("^isReachable\\(\\p{Space}*\\p{Alnum}+,\\p{Space}*\\p{Alnum}+\\)$");
+    private static final Pattern reachableBySelPattern
+            = Pattern.compile("^isReachable\\(\\p{Alnum}+,\\p{Space}*\\p{Alnum}+,\\p{Space}*\\[(\\p{Alnum}+,\\p{Space})*\\p{Alnum}+\\]+\\)$");
+
+    private boolean hasReachabilityAutomaton = false;
+    private final Set<Set<String>> reachabilityAutomataBySelList = new LinkedHashSet<>();
+
+    @Override
+    public boolean claims(String atomicProposition) {
+
+        return reachableBySelPattern.matcher(atomicProposition).matches()
+                || reachablePattern.matcher(atomicProposition).matches();
+    }
+
+    @Override
+    public void contribute(String atomicProposition, AtomicPropositionContext context) {
+
+        if (context.isIndexedMode()) {
+            logger.info("Advanced grammar refinement for indexed grammars is not supported yet.");
+            return;
+        }
+
+        if (reachableBySelPattern.matcher(atomicProposition).matches()) {
+            contributeBySelectors(atomicProposition, context);
+        } else {
+            contributeByAllSelectors(atomicProposition, context);
+        }
+    }
+
+    private void contributeBySelectors(String atomicProposition, AtomicPropositionContext context) {
+
+        String[] parameters = atomicProposition.split("[\\(\\)]")[1].split("\\[");
+        String[] variables = parameters[0].split(",");
+        context.keepVariable(variables[0].trim());
+        context.keepVariable(variables[1].trim());
+        String[] selectors = parameters[1].split("\\]")[0].split(",");
+        Set<String> allowedSelectors = new LinkedHashSet<>(selectors.length);
+        for (String sel : selectors) {
+            allowedSelectors.add(sel.trim());
+        }
+
+        if (reachabilityAutomataBySelList.add(allowedSelectors)) {
+            context.addRefinementAutomaton(new ReachabilityHeapAutomaton(context.getSceneObject(), allowedSelectors));
+            logger.debug("Enable heap automaton to track reachable variables according to selectors "
+                    + allowedSelectors);
+        }
+    }
+
+    private void contributeByAllSelectors(String atomicProposition, AtomicPropositionContext context) {
+
+        String[] variables = atomicProposition.split("[\\(\\)]")[1].split(",");
+        context.keepVariable(variables[0].trim());
+        context.keepVariable(variables[1].trim());
+
+        if (!hasReachabilityAutomaton) {
+            context.addRefinementAutomaton(new ReachabilityHeapAutomaton(context.getSceneObject()));
+            hasReachabilityAutomaton = true;
+            logger.debug("Enable heap automaton to track reachable variables");
+        }
+    }
+}
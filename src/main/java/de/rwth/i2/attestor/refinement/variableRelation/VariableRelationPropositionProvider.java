@@ -0,0 +1,52 @@
+package de.rwth.i2.attestor.refinement.variableRelation;
+
+import de.rwth.i2.attestor.refinement.AtomicPropositionContext;
+import de.rwth.i2.attestor.refinement.AtomicPropositionProvider;
+import de.rwth.i2.attestor.util.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Provides atomic propositions of the form "x == y" and "x != y", where x may also refer to a field, e.g. x.next.
+ */
+public class VariableRelationPropositionProvider implements AtomicPropositionProvider {
+
+    private static final Logger logger = LogManager.getLogger("VariableRelationPropositionProvider");
+
+    private static final Pattern equalityPattern = Pattern.compile("^@?\\p{Alnum}+(.\\p{Alnum}+)? == \\p{Alnum}+$");
+    private static final Pattern inequalityPattern = Pattern.compile("^@?\\p{Alnum}+(.\\p{Alnum}+)? != \\p{Alnum}+$");
+
+    private final Set<Pair<String, String>> trackedVariableRelations = new LinkedHashSet<>();
+
+    @Override
+    public boolean claims(String atomicProposition) {
+
+        return equalityPattern.matcher(atomicProposition).matches()
+                || inequalityPattern.matcher(atomicProposition).matches();
+    }
+
+    @Override
+    public void contribute(String atomicProposition, AtomicPropositionContext context) {
+
+        String[] split;
+        if (equalityPattern.matcher(atomicProposition).matches()) {
+            split = atomicProposition.split("\\=\\=");
+        } else {
+            split = atomicProposition.split("\\!\\=");
+        }
+
+        String lhs = split[0].trim();
+        String rhs = split[1].trim();
+        if (trackedVariableRelations.add(new Pair<>(lhs, rhs))) {
+            context.addStatelessAutomaton(new VariableRelationsAutomaton(lhs, rhs));
+            context.keepVariable(lhs);
+            context.keepVariable(rhs);
+            logger.info("Enable heap automaton to track relationships between '"
+                    + lhs + "' and '" + rhs + "'");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package de.rwth.i2.attestor.semantics;
+
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.stateSpaceGeneration.SemanticsCommand;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Error Statements are used to model the location reached after a null pointer dereference.
+ * Similar to {@link TerminalStatement}, they return an empty result set. States at this location
+ * are recorded as error states of the state space instead of as final states.
+ */
+public class ErrorStatement implements SemanticsCommand {
+
+    /**
+     * The program counter of states that encountered a null pointer dereference.
+     * It is distinct from the exit location -1 of every method.
+     */
+    public static final int ERROR_LOCATION = -2;
+
+    @Override
+    public Collection<ProgramState> computeSuccessors(ProgramState executable) {
+
+        return new LinkedHashSet<>();
+    }
+
+    @Override
+    public ViolationPoints getPotentialViolationPoints() {
+
+        return ViolationPoints.getEmptyViolationPoints();
+    }
+
+    @Override
+    public Set<Integer> getSuccessorPCs() {
+
+        return new LinkedHashSet<>();
+    }
+
+    @Override
+    public boolean needsCanonicalization() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+
+        return "null pointer dereference";
+    }
+
+}
@@ -2,6 +2,7 @@ package de.rwth.i2.attestor.semantics.jimpleSemantics;
 
 
 import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.procedures.Method;
 import de.rwth.i2.attestor.semantics.ProgramParser;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.translation.JimpleToAbstractSemantics;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.translation.TopLevelTranslation;
@@ -45,43 +46,90 @@ public class JimpleParser extends SceneObject implements ProgramParser {
     @Override
     public Program parse(String classpath, String classname, String entryPoint) {
 
-        try {
-            logger.debug("Initializing Soot with classpath: " + classpath);
-            new SootInitializer().initialize(classpath);
+        synchronized (SootInitializer.LOCK) {
+            try {
+                logger.debug("Initializing Soot with classpath: " + classpath);
+                new SootInitializer().initialize(classpath);
 
 
-            Options.v().parse(new String[]{"-p", "jb", "use-original-names:true"});
+                Options.v().parse(new String[]{"-p", "jb", "use-original-names:true"});
 
-            /*
-             This enables jimple annotations to find dead variables.
-             Since dead variables may prevent abstraction, we need this information
-             in order to delete them manually.
-             */
-            Options.v().parse(new String[]{"-p", "jap.lvtagger", "enabled:true"});
+                /*
+                 This enables jimple annotations to find dead variables.
+                 Since dead variables may prevent abstraction, we need this information
+                 in order to delete them manually.
+                 */
+                Options.v().parse(new String[]{"-p", "jap.lvtagger", "enabled:true"});
 
-            Options.v().parse(new String[]{"-pp", "-keep-line-number", "-f", "jimple", classname});
-            Scene.v().loadNecessaryClasses();
+                Options.v().parse(new String[]{"-pp", "-keep-line-number", "-f", "jimple", classname});
+                Scene.v().loadNecessaryClasses();
 
-            logger.info("Invoking Soot...");
-            PackManager.v().runPacks();
+                logger.info("Invoking Soot...");
+                PackManager.v().runPacks();
 
 
-        } catch (Exception e) {
+            } catch (Exception e) {
 
-            logger.fatal("Soot threw an exception.");
-            throw e;
-        }
+                logger.fatal("Soot threw an exception.");
+                throw e;
+            }
+
+            logger.trace("start translating");
+
+            SootClass sootClass = Scene.v().getSootClass(classname);
+            Scene.v().setMainClass(sootClass);
+
+            TopLevelTranslation translator = new TopLevelTranslation(this, translationDef);
+            translator.translate();
 
-        logger.trace("start translating");
+            String mainMethodName = sootClass.getMethodByName(entryPoint).getSignature();
 
-        SootClass sootClass = Scene.v().getSootClass(classname);
-        Scene.v().setMainClass(sootClass);
+            return translator.getMethod(mainMethodName).getBody();
+        }
+    }
+
+    /**
+     * Looks up a method of a class that has already been parsed and translated by a previous call to
+     * {@link #parse(String, String, String)}. Neither Soot nor the translation are invoked again.
+     * The method is determined from the methods registered in the scene, because Soot's global scene
+     * may meanwhile have been reset by another analysis.
+     *
+     * @param classname  The class containing the method.
+     * @param entryPoint The name of the method.
+     * @return The previously translated program of the method.
+     */
+    public Program getTranslatedMethod(String classname, String entryPoint) {
+
+        String prefix = "<" + classname + ": ";
+        Method result = null;
+        for (Method method : scene().getRegisteredMethods()) {
+            String signature = method.getSignature();
+            if (signature.startsWith(prefix) && entryPoint.equals(methodNameOf(signature))) {
+                if (result != null) {
+                    throw new IllegalArgumentException("Method name " + entryPoint + " is ambiguous in class "
+                            + classname + ".");
+                }
+                result = method;
+            }
+        }
 
-        TopLevelTranslation translator = new TopLevelTranslation(this, translationDef);
-        translator.translate();
+        if (result == null || result.getBody() == null) {
+            throw new IllegalArgumentException("Method " + entryPoint + " of class " + classname
+                    + " has not been translated.");
+        }
+        return result.getBody();
+    }
 
-        String mainMethodName = sootClass.getMethodByName(entryPoint).getSignature();
+    /**
+     * @param signature A method signature in Soot's format, e.g. {@code <Foo: void bar(int)>}.
+     * @return The name of the method, e.g. bar.
+     */
+    private static String methodNameOf(String signature) {
 
-        return translator.getMethod(mainMethodName).getBody();
+        int end = signature.indexOf('(');
+        if (end < 0) {
+            return "";
+        }
+        return signature.substring(signature.lastIndexOf(' ', end) + 1, end);
     }
 }
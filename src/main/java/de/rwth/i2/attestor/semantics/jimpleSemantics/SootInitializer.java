@@ -17,6 +17,13 @@ import java.net.URLDecoder;
 public class SootInitializer {
 
     private static final Logger logger = LogManager.getLogger("Soot");
+
+    /**
+     * Soot keeps its scene and options in JVM-global singletons. Hence, every use of Soot, from its
+     * initialization until the program has been translated into our semantics, has to synchronize on this lock.
+     * Afterwards, the translated program does not refer to Soot anymore.
+     */
+    static final Object LOCK = new Object();
     private final String javaClassPath;
 
 
@@ -3,7 +3,9 @@ package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
 
 import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
 import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.ArrayElement;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.ConcreteValue;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NullPointerDereferenceException;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.SettableValue;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Value;
@@ -13,7 +15,10 @@ import de.rwth.i2.attestor.util.SingleElementUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -37,7 +42,10 @@ public class AssignStmt extends Statement {
      */
     private final int nextPC;
 
-    private final ViolationPoints potentialViolationPoints;
+    /**
+     * computed on first use, because array accesses depend on all array elements tracked by the program
+     */
+    private ViolationPoints potentialViolationPoints;
 
     private final Set<String> liveVariableNames;
 
@@ -48,12 +56,6 @@ public class AssignStmt extends Statement {
         this.lhs = lhs;
         this.nextPC = nextPC;
         this.liveVariableNames = liveVariableNames;
-
-        potentialViolationPoints = new ViolationPoints();
-        potentialViolationPoints.addAll(lhs.getPotentialViolationPoints());
-        potentialViolationPoints.addAll(rhs.getPotentialViolationPoints());
-
-
     }
 
     /**
@@ -62,6 +64,9 @@ public class AssignStmt extends Statement {
      * will not point to its old value). <br>
      * If the types of the lhs and the rhs do not match, there will be a
      * warning, but the assignment will still be realized.<br>
+     * If either side dereferences null, the only successor is an error state.<br>
+     * If either side is an array element with an unknown index, there is one successor for each value that
+     * may be read or each way the element may be written.
      * <p>
      * If the variable in rhs is not live in this statement, it will be removed from the heap
      * to enable abstraction at this point.
@@ -69,37 +74,66 @@ public class AssignStmt extends Statement {
     @Override
     public Collection<ProgramState> computeSuccessors(ProgramState programState) {
 
+        ProgramState inputState = programState;
         programState = programState.clone();
-        ConcreteValue concreteRHS;
+        List<ProgramState> assignedStates;
 
         try {
-            concreteRHS = rhs.evaluateOn(programState);
+            assignedStates = assign(programState);
         } catch (NullPointerDereferenceException e) {
             logger.error(e.getErrorMessage(this));
-            concreteRHS = programState.getUndefined();
+            return SingleElementUtil.createSet(nullPointerDereferenceState(inputState));
         }
 
-        try {
-            lhs.evaluateOn(programState); // enforce materialization if necessary
-            lhs.setValue(programState, concreteRHS);
-        } catch (NullPointerDereferenceException e) {
-            logger.error(e.getErrorMessage(this));
+        Set<ProgramState> result = new LinkedHashSet<>(assignedStates.size());
+        for (ProgramState assigned : assignedStates) {
+            if (scene().options().isRemoveDeadVariables()) {
+                DeadVariableEliminator.removeDeadVariables(this, rhs.toString(),
+                        assigned, liveVariableNames);
+
+                DeadVariableEliminator.removeDeadVariables(this, lhs.toString(),
+                        assigned, liveVariableNames);
+            }
+
+            ProgramState successor = assigned.clone();
+            successor.setProgramCounter(nextPC);
+            result.add(successor);
         }
 
-        if (scene().options().isRemoveDeadVariables()) {
-            DeadVariableEliminator.removeDeadVariables(this, rhs.toString(),
-                    programState, liveVariableNames);
+        return result;
+    }
+
+    private List<ProgramState> assign(ProgramState programState) throws NullPointerDereferenceException {
 
-            DeadVariableEliminator.removeDeadVariables(this, lhs.toString(),
-                    programState, liveVariableNames);
+        if (rhs instanceof ArrayElement) {
+            List<ConcreteValue> values = ((ArrayElement) rhs).evaluateAlternativesOn(programState);
+            lhs.evaluateOn(programState); // enforce materialization if necessary
+            List<ProgramState> result = new ArrayList<>(values.size());
+            for (ConcreteValue value : values) {
+                ProgramState state = programState.clone();
+                lhs.setValue(state, value);
+                result.add(state);
+            }
+            return result;
         }
 
-        ProgramState result = programState.clone();
-        result.setProgramCounter(nextPC);
+        ConcreteValue concreteRHS = rhs.evaluateOn(programState);
+        if (lhs instanceof ArrayElement) {
+            return ((ArrayElement) lhs).setValueAlternatives(programState, concreteRHS);
+        }
 
-        return SingleElementUtil.createSet(result);
+        lhs.evaluateOn(programState); // enforce materialization if necessary
+        lhs.setValue(programState, concreteRHS);
+        return SingleElementUtil.createList(programState);
     }
 
+    /**
+     * @return The element to which something is assigned.
+     */
+    public SettableValue getLhs() {
+
+        return lhs;
+    }
 
     public String toString() {
 
@@ -109,6 +143,11 @@ public class AssignStmt extends Statement {
     @Override
     public ViolationPoints getPotentialViolationPoints() {
 
+        if (potentialViolationPoints == null) {
+            potentialViolationPoints = new ViolationPoints();
+            potentialViolationPoints.addAll(lhs.getPotentialViolationPoints());
+            potentialViolationPoints.addAll(rhs.getPotentialViolationPoints());
+        }
         return potentialViolationPoints;
     }
 
@@ -123,4 +162,12 @@ public class AssignStmt extends Statement {
         return false;
     }
 
+    /**
+     * @return true if and only if the value of a local variable is assigned to another local variable.
+     */
+    @Override
+    public boolean isStraightLine() {
+        return lhs instanceof Local && rhs instanceof Local;
+    }
+
 }
@@ -3,32 +3,34 @@ package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
 import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
 import de.rwth.i2.attestor.main.scene.SceneObject;
 import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
-import de.rwth.i2.attestor.util.SingleElementUtil;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
- * Branching Skip has no effect on the heap and two successors. It models
- * statements with two successors which we do not actually translate
+ * Branching Skip has no effect on the heap and multiple successors. It models
+ * statements with multiple successors which we do not actually translate
  *
  * @author Hannah Arndt
  */
 public class BranchingSkip extends Statement {
 
     /**
-     * program counter for the first successor
+     * program counters of all successors
      */
-    private final int leftSuccessor;
-    /**
-     * program counter for the second successor
-     */
-    private final int rightSuccessor;
+    private final Set<Integer> successors;
 
     public BranchingSkip(SceneObject sceneObject, int leftSuccessor, int rightSuccessor) {
 
+        this(sceneObject, Arrays.asList(leftSuccessor, rightSuccessor));
+    }
+
+    public BranchingSkip(SceneObject sceneObject, Collection<Integer> successors) {
+
         super(sceneObject);
-        this.leftSuccessor = leftSuccessor;
-        this.rightSuccessor = rightSuccessor;
+        this.successors = new LinkedHashSet<>(successors);
     }
 
 
@@ -38,19 +40,17 @@ public class BranchingSkip extends Statement {
     }
 
     /**
-     * copies the input heap to both successor states
+     * copies the input heap to all successor states
      */
     @Override
     public Set<ProgramState> computeSuccessors(ProgramState programState) {
 
-        ProgramState leftResult = programState.shallowCopy();
-        leftResult.setProgramCounter(leftSuccessor);
-
-        ProgramState rightResult = programState.shallowCopy();
-        rightResult.setProgramCounter(rightSuccessor);
-
-        Set<ProgramState> res = SingleElementUtil.createSet(leftResult);
-        res.add(rightResult);
+        Set<ProgramState> res = new LinkedHashSet<>(successors.size());
+        for (int successor : successors) {
+            ProgramState result = programState.shallowCopy();
+            result.setProgramCounter(successor);
+            res.add(result);
+        }
         return res;
     }
 
@@ -63,9 +63,7 @@ public class BranchingSkip extends Statement {
     @Override
     public Set<Integer> getSuccessorPCs() {
 
-        Set<Integer> res = SingleElementUtil.createSet(leftSuccessor);
-        res.add(rightSuccessor);
-        return res;
+        return new LinkedHashSet<>(successors);
     }
 
     @Override
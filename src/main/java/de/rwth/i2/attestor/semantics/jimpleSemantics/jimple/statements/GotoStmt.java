@@ -56,4 +56,9 @@ public class GotoStmt extends Statement {
         return false;
     }
 
+    @Override
+    public boolean isStraightLine() {
+        return true;
+    }
+
 }
@@ -3,6 +3,7 @@ package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
 import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
 import de.rwth.i2.attestor.main.scene.SceneObject;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.ConcreteValue;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NullPointerDereferenceException;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.SettableValue;
 import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
@@ -52,6 +53,7 @@ public class IdentityStmt extends Statement {
     @Override
     public Set<ProgramState> computeSuccessors(ProgramState programState) {
 
+        ProgramState inputState = programState;
         programState = programState.clone();
         ConcreteValue concreteRHS = programState.removeIntermediate(rhs);
 
@@ -59,6 +61,7 @@ public class IdentityStmt extends Statement {
             lhs.setValue(programState, concreteRHS);
         } catch (NullPointerDereferenceException e) {
             logger.error(e.getErrorMessage(this));
+            return Collections.singleton(nullPointerDereferenceState(inputState));
         }
 
         return Collections.singleton(programState.shallowCopyUpdatePC(nextPC));
@@ -91,4 +94,9 @@ public class IdentityStmt extends Statement {
         return false;
     }
 
+    @Override
+    public boolean isStraightLine() {
+        return lhs instanceof Local;
+    }
+
 }
@@ -58,6 +58,7 @@ public class IfStmt extends Statement {
      * program counter. <br>
      * In case the condition evaluates to undefined, the result will contain
      * both program counters.<br>
+     * If evaluating the condition dereferences null, the only successor is an error state.<br>
      * <p>
      * If any of the variables in the condition are not live after this statement,
      * it will be removed from the heap to enable abstraction.
@@ -78,7 +79,7 @@ public class IfStmt extends Statement {
             concreteCondition = conditionValue.evaluateOn(programState);
         } catch (NullPointerDereferenceException e) {
             logger.error(e.getErrorMessage(this));
-            concreteCondition = programState.getUndefined();
+            return Collections.singleton(nullPointerDereferenceState(programState));
         }
 
         if (concreteCondition.isUndefined()) {
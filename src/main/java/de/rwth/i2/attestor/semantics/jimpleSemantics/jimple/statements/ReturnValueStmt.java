@@ -56,7 +56,7 @@ public class ReturnValueStmt extends Statement {
             concreteReturn = returnValue.evaluateOn(programState);
         } catch (NullPointerDereferenceException e) {
             logger.error(e.getErrorMessage(this));
-            concreteReturn = programState.getUndefined();
+            return Collections.singleton(nullPointerDereferenceState(programState));
         }
         if (!(concreteReturn.type().equals(expectedType))) {
             logger.debug("type mismatch. Expected: " + expectedType + " got: " + concreteReturn.type());
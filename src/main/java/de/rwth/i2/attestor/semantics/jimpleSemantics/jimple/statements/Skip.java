@@ -57,4 +57,9 @@ public class Skip extends Statement {
         return false;
     }
 
+    @Override
+    public boolean isStraightLine() {
+        return true;
+    }
+
 }
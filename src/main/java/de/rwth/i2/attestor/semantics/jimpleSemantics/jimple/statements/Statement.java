@@ -2,6 +2,8 @@ package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
 
 
 import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.semantics.ErrorStatement;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
 import de.rwth.i2.attestor.stateSpaceGeneration.SemanticsCommand;
 
 /**
@@ -18,4 +20,13 @@ public abstract class Statement extends SceneObject implements SemanticsCommand
         super(otherObject);
     }
 
+    /**
+     * @param programState The state in which executing this statement dereferences null.
+     * @return A copy of programState located at {@link ErrorStatement#ERROR_LOCATION}.
+     */
+    protected ProgramState nullPointerDereferenceState(ProgramState programState) {
+
+        return programState.shallowCopyUpdatePC(ErrorStatement.ERROR_LOCATION);
+    }
+
 }
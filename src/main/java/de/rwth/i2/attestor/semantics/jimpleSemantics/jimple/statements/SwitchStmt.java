@@ -0,0 +1,73 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
+
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * SwitchStmt models lookup and table switches, i.e. statements like switch(x){ case 1: goto a; ... default: goto d; }.
+ * Since integer values are not tracked, every case (including the default case) is a possible successor.
+ */
+public class SwitchStmt extends Statement {
+
+    /**
+     * a textual representation of the value switched on
+     */
+    private final String key;
+
+    /**
+     * the program counters of all cases followed by the program counter of the default case
+     */
+    private final Set<Integer> successorPCs;
+
+    public SwitchStmt(SceneObject sceneObject, String key, Collection<Integer> successorPCs) {
+
+        super(sceneObject);
+
+        if (successorPCs.isEmpty()) {
+            throw new IllegalArgumentException("A switch statement requires at least one successor.");
+        }
+
+        this.key = key;
+        this.successorPCs = new LinkedHashSet<>(successorPCs);
+    }
+
+    public String toString() {
+
+        return "switch(" + key + ") goto " + successorPCs + ";";
+    }
+
+    /**
+     * copies the input heap to every successor location
+     */
+    @Override
+    public Collection<ProgramState> computeSuccessors(ProgramState programState) {
+
+        Set<ProgramState> result = new LinkedHashSet<>(successorPCs.size());
+        for (int successorPC : successorPCs) {
+            result.add(programState.shallowCopyUpdatePC(successorPC));
+        }
+        return result;
+    }
+
+    @Override
+    public ViolationPoints getPotentialViolationPoints() {
+
+        return ViolationPoints.getEmptyViolationPoints();
+    }
+
+    @Override
+    public Set<Integer> getSuccessorPCs() {
+
+        return new LinkedHashSet<>(successorPCs);
+    }
+
+    @Override
+    public boolean needsCanonicalization() {
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
+
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.ConcreteValue;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NullPointerDereferenceException;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Value;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * ThrowStmt models statements like throw x;
+ * Its successors are the entry points of all exception handlers of the current method that might catch
+ * the thrown exception. Upon entering a handler, the thrown exception is available as
+ * intermediate "@caughtexception".
+ * If the exception might not be caught within the current method, the method is left as by
+ * {@link ReturnVoidStmt}. Exceptions are not propagated to exception handlers of the calling methods.
+ */
+public class ThrowStmt extends Statement {
+
+    private static final Logger logger = LogManager.getLogger("ThrowStmt");
+
+    /**
+     * the name of the intermediate that is read by the first statement of each exception handler
+     */
+    public static final String CAUGHT_EXCEPTION = "@caughtexception";
+
+    /**
+     * the thrown exception
+     */
+    private final Value thrownValue;
+
+    /**
+     * the program counters of all exception handlers that might catch the exception
+     */
+    private final Set<Integer> handlerPCs;
+
+    /**
+     * models leaving the method if the exception might not be caught, null otherwise
+     */
+    private final ReturnVoidStmt exceptionalExit;
+
+    public ThrowStmt(SceneObject sceneObject, Value thrownValue, Collection<Integer> handlerPCs,
+                     boolean mayEscape) {
+
+        super(sceneObject);
+        this.thrownValue = thrownValue;
+        this.handlerPCs = new LinkedHashSet<>(handlerPCs);
+        this.exceptionalExit = mayEscape ? new ReturnVoidStmt(sceneObject) : null;
+    }
+
+    @Override
+    public Collection<ProgramState> computeSuccessors(ProgramState programState) {
+
+        Set<ProgramState> result = new LinkedHashSet<>();
+
+        ConcreteValue exception;
+        try {
+            exception = thrownValue.evaluateOn(programState);
+        } catch (NullPointerDereferenceException e) {
+            logger.error(e.getErrorMessage(this));
+            result.add(nullPointerDereferenceState(programState));
+            return result;
+        }
+
+        if (!handlerPCs.isEmpty()) {
+            for (int handlerPC : handlerPCs) {
+                ProgramState handlerState = programState.clone();
+                if (!exception.isUndefined()) {
+                    handlerState.setIntermediate(CAUGHT_EXCEPTION, exception);
+                }
+                handlerState.setProgramCounter(handlerPC);
+                result.add(handlerState);
+            }
+        }
+
+        if (exceptionalExit != null) {
+            result.addAll(exceptionalExit.computeSuccessors(programState));
+        }
+
+        return result;
+    }
+
+    public boolean needsMaterialization(ProgramState programState) {
+
+        return thrownValue.needsMaterialization(programState);
+    }
+
+    public String toString() {
+
+        return "throw " + thrownValue + ";";
+    }
+
+    @Override
+    public ViolationPoints getPotentialViolationPoints() {
+
+        return thrownValue.getPotentialViolationPoints();
+    }
+
+    @Override
+    public Set<Integer> getSuccessorPCs() {
+
+        return new LinkedHashSet<>(handlerPCs);
+    }
+
+    @Override
+    public boolean needsCanonicalization() {
+        return exceptionalExit != null;
+    }
+}
@@ -0,0 +1,255 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values;
+
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.semantics.util.Constants;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.types.Type;
+import de.rwth.i2.attestor.types.TypeNames;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Models accesses to array elements whose index is not a constant, e.g. a[i].
+ * <br>
+ * Arrays are nodes whose elements are selector edges labeled with their index, e.g. [0] or [1].
+ * Only elements that are accessed with a constant index somewhere in the program are tracked; these accesses
+ * are modeled by {@link Field Fields}. All other elements are covered by an {@link ArraySummary}.
+ * <br>
+ * Since the index of this expression is unknown, reading it may yield the value of any tracked element,
+ * any value of the summary or the default value of elements that have never been written.
+ * Writing it either overwrites exactly one tracked element or adds the written value to the summary.
+ */
+public class ArrayElement implements SettableValue {
+
+    private static final Logger logger = LogManager.getLogger("ArrayElement");
+
+    /**
+     * the array containing the element
+     */
+    private final Value originValue;
+    /**
+     * the unknown index
+     */
+    private final Value index;
+    /**
+     * the expected type of this expression
+     */
+    private final Type type;
+    /**
+     * the summary of untracked elements
+     */
+    private final ArraySummary summary;
+
+    public ArrayElement(Type type, Value originValue, Value index, ArraySummary summary) {
+
+        this.type = type;
+        this.originValue = originValue;
+        this.index = index;
+        this.summary = summary;
+    }
+
+    /**
+     * @param index A constant index.
+     * @return The name of the selector label modeling the array element at the given index.
+     */
+    public static String getElementLabel(int index) {
+
+        return "[" + index + "]";
+    }
+
+    /**
+     * @param selectorLabel A selector label.
+     * @return True if and only if the selector label models a tracked element of an array.
+     */
+    public static boolean isElementLabel(SelectorLabel selectorLabel) {
+
+        return selectorLabel.getLabel().matches("\\[-?\\d+]");
+    }
+
+    @Override
+    public Type getType() {
+
+        return type;
+    }
+
+    public Value getOriginValue() {
+
+        return originValue;
+    }
+
+    /**
+     * @return The only value the accessed element may have or undefined if there are several such values.
+     * @throws NullPointerDereferenceException if the array is null.
+     */
+    @Override
+    public ConcreteValue evaluateOn(ProgramState programState) throws NullPointerDereferenceException {
+
+        List<ConcreteValue> values = evaluateAlternativesOn(programState);
+        if (values.size() == 1) {
+            return values.get(0);
+        }
+        return programState.getUndefined();
+    }
+
+    /**
+     * @param programState The state on which the element is read.
+     * @return All values the accessed element may have. Undefined is among them if some elements are unknown.
+     * @throws NullPointerDereferenceException if the array is null.
+     */
+    public List<ConcreteValue> evaluateAlternativesOn(ProgramState programState)
+            throws NullPointerDereferenceException {
+
+        ConcreteValue concreteOrigin = evaluateArray(programState);
+        List<ConcreteValue> values = new ArrayList<>();
+        if (concreteOrigin.isUndefined() || !(concreteOrigin instanceof GeneralConcreteValue)) {
+            values.add(programState.getUndefined());
+            return values;
+        }
+
+        for (SelectorLabel sel : getTrackedElementLabels()) {
+            ArraySummary.addValue(values, programState.getSelectorTarget(concreteOrigin, sel));
+        }
+        summary.collectValues(programState, concreteOrigin, values);
+        ArraySummary.addValue(values, programState.getConstant(TypeNames.getDefaultValue(type.toString())));
+        return values;
+    }
+
+    /**
+     * Writes the value to an unknown element within a single state: All tracked elements and the written value
+     * are moved to the summary of the array and the tracked elements become unknown.
+     *
+     * @throws NullPointerDereferenceException if the array is null.
+     * @see #setValueAlternatives(ProgramState, ConcreteValue)
+     */
+    @Override
+    public void setValue(ProgramState programState, ConcreteValue concreteRHS)
+            throws NullPointerDereferenceException {
+
+        ConcreteValue concreteOrigin = evaluateArray(programState);
+        if (concreteOrigin.isUndefined() || !(concreteOrigin instanceof GeneralConcreteValue)) {
+            logger.debug("Array evaluated to undefined. No element is written.");
+            return;
+        }
+
+        int node = ((GeneralConcreteValue) concreteOrigin).getNode();
+        HeapConfiguration heap = programState.getHeap();
+        List<ConcreteValue> forgotten = new ArrayList<>();
+        HeapConfigurationBuilder builder = heap.builder();
+        for (SelectorLabel sel : new ArrayList<>(heap.selectorLabelsOf(node))) {
+            if (isElementLabel(sel)) {
+                int target = heap.selectorTargetOf(node, sel);
+                forgotten.add(new GeneralConcreteValue(heap.nodeTypeOf(target), target));
+                builder.removeSelector(node, sel);
+            }
+        }
+        builder.build();
+
+        for (ConcreteValue value : forgotten) {
+            summary.add(programState, concreteOrigin, value);
+        }
+        summary.add(programState, concreteOrigin, concreteRHS);
+    }
+
+    /**
+     * Writes the value to an unknown element. The given state is modified.
+     *
+     * @param programState The state on which the element is written.
+     * @param concreteRHS  The written value.
+     * @return One state for each tracked element in which exactly this element is overwritten and one
+     * state in which the value has been added to the summary of untracked elements.
+     * @throws NullPointerDereferenceException if the array is null.
+     */
+    public List<ProgramState> setValueAlternatives(ProgramState programState, ConcreteValue concreteRHS)
+            throws NullPointerDereferenceException {
+
+        ConcreteValue concreteOrigin = evaluateArray(programState);
+        if (concreteOrigin.isUndefined() || !(concreteOrigin instanceof GeneralConcreteValue)) {
+            logger.debug("Array evaluated to undefined. No element is written.");
+            return Collections.singletonList(programState);
+        }
+
+        List<ProgramState> result = new ArrayList<>();
+        for (SelectorLabel sel : getTrackedElementLabels()) {
+            ProgramState state = programState.clone();
+            if (concreteRHS.isUndefined()) {
+                removeElement(state, ((GeneralConcreteValue) concreteOrigin).getNode(), sel);
+            } else {
+                state.setSelector(concreteOrigin, sel, concreteRHS);
+            }
+            result.add(state);
+        }
+
+        summary.add(programState, concreteOrigin, concreteRHS);
+        result.add(programState);
+        return result;
+    }
+
+    private void removeElement(ProgramState programState, int node, SelectorLabel element) {
+
+        HeapConfiguration heap = programState.getHeap();
+        for (SelectorLabel sel : heap.selectorLabelsOf(node)) {
+            if (sel.hasLabel(element.getLabel())) {
+                heap.builder().removeSelector(node, sel).build();
+                return;
+            }
+        }
+    }
+
+    private List<SelectorLabel> getTrackedElementLabels() {
+
+        List<SelectorLabel> result = new ArrayList<>();
+        for (SelectorLabel sel : originValue.getType().getSelectorLabels().keySet()) {
+            if (isElementLabel(sel)) {
+                result.add(sel);
+            }
+        }
+        return result;
+    }
+
+    private ConcreteValue evaluateArray(ProgramState programState) throws NullPointerDereferenceException {
+
+        ConcreteValue concreteOrigin = originValue.evaluateOn(programState);
+        if (!concreteOrigin.isUndefined() && programState.getConstant(Constants.NULL).equals(concreteOrigin)) {
+            throw new NullPointerDereferenceException(originValue);
+        }
+        return concreteOrigin;
+    }
+
+    @Override
+    public boolean needsMaterialization(ProgramState programState) {
+
+        return true;
+    }
+
+    /**
+     * "origin.[index]"
+     */
+    public String toString() {
+
+        return originValue + ".[" + index + "]";
+    }
+
+    /**
+     * @return The tracked elements and the summary of the array, which have to be materialized if they are
+     * hidden in a nonterminal edge. The tracked elements are determined on each call, because further elements
+     * might be tracked once the whole program has been translated.
+     */
+    @Override
+    public ViolationPoints getPotentialViolationPoints() {
+
+        ViolationPoints violationPoints = new ViolationPoints();
+        String variable = originValue.toString();
+        for (SelectorLabel sel : getTrackedElementLabels()) {
+            violationPoints.add(variable, sel.getLabel());
+        }
+        violationPoints.add(variable, summary.getSummaryLabel().getLabel());
+        return violationPoints;
+    }
+}
@@ -0,0 +1,59 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values;
+
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.semantics.util.Constants;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.types.Type;
+
+/**
+ * represents expressions of form lengthof a.
+ * Since array sizes are not tracked, the length is always undefined.
+ * However, determining the length of null is detected as null pointer dereference.
+ */
+public class ArrayLength implements Value {
+
+    private final Type type;
+    private final Value originValue;
+
+    public ArrayLength(Type type, Value originValue) {
+
+        this.type = type;
+        this.originValue = originValue;
+    }
+
+    @Override
+    public ConcreteValue evaluateOn(ProgramState programState) throws NullPointerDereferenceException {
+
+        ConcreteValue concreteOrigin = originValue.evaluateOn(programState);
+        if (!concreteOrigin.isUndefined() && programState.getConstant(Constants.NULL).equals(concreteOrigin)) {
+            throw new NullPointerDereferenceException(originValue);
+        }
+        return programState.getUndefined();
+    }
+
+    @Override
+    public Type getType() {
+
+        return type;
+    }
+
+    @Override
+    public boolean needsMaterialization(ProgramState programState) {
+
+        return false;
+    }
+
+    /**
+     * @return "lengthof origin"
+     */
+    public String toString() {
+
+        return "lengthof " + originValue;
+    }
+
+    @Override
+    public ViolationPoints getPotentialViolationPoints() {
+
+        return ViolationPoints.getEmptyViolationPoints();
+    }
+}
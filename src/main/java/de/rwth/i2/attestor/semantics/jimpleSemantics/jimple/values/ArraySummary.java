@@ -0,0 +1,223 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values;
+
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.semantics.util.Constants;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summarizes the elements of an array that are not tracked by a selector label of their own.
+ * <br>
+ * The array points via the selector [*] to a chain of summary cells. Each cell stores a value that may be
+ * held by some untracked element in its selector [value] and points to the next cell via [next].
+ * A chain ending in null is complete. If a cell has no successor, further untracked elements are unknown.
+ * A cell without a value stores an unknown value.
+ * <br>
+ * Every value is stored at most once and all unknown values, e.g. primitive values, share a single cell
+ * without a value. Moreover, at most one object of each type is stored; further objects are summarized as
+ * unknown values. Repeatedly writing to unknown indices, e.g. in a loop, thus only adds finitely many cells.
+ * <br>
+ * Cells storing the same value can be abstracted by the nonterminal ArraySeg of the predefined grammar
+ * ArraySegment whose tentacles are the first cell, the cell or null following the segment, and the value.
+ * Cells without a value can be abstracted by the nonterminal ArrayUnknownSeg of the same grammar whose
+ * tentacles are the first cell and the cell or null following the segment.
+ */
+public class ArraySummary {
+
+    /**
+     * the selector label from an array to its first summary cell
+     */
+    public static final String SUMMARY_LABEL = "[*]";
+
+    /**
+     * the selector label from a summary cell to its value
+     */
+    public static final String VALUE_LABEL = "[value]";
+
+    /**
+     * the selector label from a summary cell to the next one
+     */
+    public static final String NEXT_LABEL = "[next]";
+
+    /**
+     * the type of summary cells
+     */
+    public static final String CELL_TYPE = "ArrayCell";
+
+    /**
+     * the nonterminal abstracting summary cells that store the same value
+     */
+    public static final String SEGMENT_NONTERMINAL = "ArraySeg";
+
+    /**
+     * the nonterminal abstracting summary cells without a value
+     */
+    public static final String UNKNOWN_SEGMENT_NONTERMINAL = "ArrayUnknownSeg";
+
+    private final Type cellType;
+    private final SelectorLabel summaryLabel;
+    private final SelectorLabel valueLabel;
+    private final SelectorLabel nextLabel;
+
+    public ArraySummary(Type cellType, SelectorLabel summaryLabel, SelectorLabel valueLabel,
+                        SelectorLabel nextLabel) {
+
+        this.cellType = cellType;
+        this.summaryLabel = summaryLabel;
+        this.valueLabel = valueLabel;
+        this.nextLabel = nextLabel;
+    }
+
+    /**
+     * @param selectorLabel A selector label.
+     * @return True if and only if the selector label points from an array to its summary.
+     */
+    public static boolean isSummaryLabel(SelectorLabel selectorLabel) {
+
+        return selectorLabel.hasLabel(SUMMARY_LABEL);
+    }
+
+    public SelectorLabel getSummaryLabel() {
+
+        return summaryLabel;
+    }
+
+    /**
+     * Adds all values that may be stored by an untracked element of the given array to the given list.
+     * If some of these values are unknown, undefined is added as well.
+     *
+     * @param programState The state containing the array.
+     * @param array        The array.
+     * @param values       The list to which missing values are added.
+     */
+    public void collectValues(ProgramState programState, ConcreteValue array, List<ConcreteValue> values) {
+
+        HeapConfiguration heap = programState.getHeap();
+        ConcreteValue nullValue = programState.getConstant(Constants.NULL);
+        TIntSet visited = new TIntHashSet();
+
+        ConcreteValue cell = programState.getSelectorTarget(array, summaryLabel);
+        while (!cell.isUndefined() && !nullValue.equals(cell)) {
+
+            int node = ((GeneralConcreteValue) cell).getNode();
+            if (!visited.add(node)) {
+                return;
+            }
+
+            int segment = segmentStartingAt(heap, node, SEGMENT_NONTERMINAL, 3);
+            int unknownSegment = segmentStartingAt(heap, node, UNKNOWN_SEGMENT_NONTERMINAL, 2);
+            if (segment != HeapConfiguration.INVALID_ELEMENT) {
+                TIntArrayList tentacles = heap.attachedNodesOf(segment);
+                addValue(values, new GeneralConcreteValue(heap.nodeTypeOf(tentacles.get(2)), tentacles.get(2)));
+                cell = new GeneralConcreteValue(heap.nodeTypeOf(tentacles.get(1)), tentacles.get(1));
+            } else if (unknownSegment != HeapConfiguration.INVALID_ELEMENT) {
+                TIntArrayList tentacles = heap.attachedNodesOf(unknownSegment);
+                addValue(values, programState.getUndefined());
+                cell = new GeneralConcreteValue(heap.nodeTypeOf(tentacles.get(1)), tentacles.get(1));
+            } else {
+                addValue(values, programState.getSelectorTarget(cell, valueLabel));
+                cell = programState.getSelectorTarget(cell, nextLabel);
+            }
+        }
+
+        if (cell.isUndefined()) {
+            addValue(values, cell);
+        }
+    }
+
+    /**
+     * Adds a cell storing the given value in front of the summary of the given array unless the summary
+     * already covers the value. An object whose type is already stored by another object is added as an
+     * unknown value instead.
+     *
+     * @param programState The state containing the array.
+     * @param array        The array.
+     * @param value        The value that may now be stored by some untracked element.
+     */
+    public void add(ProgramState programState, ConcreteValue array, ConcreteValue value) {
+
+        List<ConcreteValue> values = new ArrayList<>();
+        collectValues(programState, array, values);
+        if (contains(values, value)) {
+            return;
+        }
+        if (containsOtherObjectOfSameType(programState.getHeap(), values, value)) {
+            value = programState.getUndefined();
+            if (contains(values, value)) {
+                return;
+            }
+        }
+
+        ConcreteValue first = programState.getSelectorTarget(array, summaryLabel);
+        ConcreteValue cell = programState.insertNewElement(cellType);
+        programState.setSelector(cell, valueLabel, value);
+        programState.setSelector(cell, nextLabel, first);
+        programState.setSelector(array, summaryLabel, cell);
+    }
+
+    /**
+     * Adds a value to the given list unless it is already contained.
+     */
+    static void addValue(List<ConcreteValue> values, ConcreteValue value) {
+
+        if (!contains(values, value)) {
+            values.add(value);
+        }
+    }
+
+    private static boolean contains(List<ConcreteValue> values, ConcreteValue value) {
+
+        for (ConcreteValue v : values) {
+            if (v.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsOtherObjectOfSameType(HeapConfiguration heap, List<ConcreteValue> values,
+                                                         ConcreteValue value) {
+
+        if (value.isUndefined() || isConstant(heap, value)) {
+            return false;
+        }
+        for (ConcreteValue v : values) {
+            if (!v.isUndefined() && !isConstant(heap, v) && v.type().equals(value.type())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConstant(HeapConfiguration heap, ConcreteValue value) {
+
+        TIntArrayList variables = heap.attachedVariablesOf(((GeneralConcreteValue) value).getNode());
+        for (int i = 0; i < variables.size(); i++) {
+            if (Constants.isConstant(heap.nameOf(variables.get(i)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int segmentStartingAt(HeapConfiguration heap, int node, String nonterminal, int rank) {
+
+        TIntArrayList ntEdges = heap.attachedNonterminalEdgesOf(node);
+        for (int i = 0; i < ntEdges.size(); i++) {
+            int ntEdge = ntEdges.get(i);
+            if (heap.labelOf(ntEdge).getLabel().equals(nonterminal)
+                    && heap.rankOf(ntEdge) == rank
+                    && heap.attachedNodesOf(ntEdge).get(0) == node) {
+                return ntEdge;
+            }
+        }
+        return HeapConfiguration.INVALID_ELEMENT;
+    }
+}
@@ -51,6 +51,16 @@ public class Field implements SettableValue {
         return this.type;
     }
 
+    public Value getOriginValue() {
+
+        return originValue;
+    }
+
+    public SelectorLabel getSelectorLabel() {
+
+        return selectorLabel;
+    }
+
     /**
      * evaluates the expression defining the origin and gets the element referenced by
      * the field starting at this origin element. <br>
@@ -0,0 +1,68 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values;
+
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.types.Type;
+
+import java.util.Map;
+
+/**
+ * represents expressions of form new List[size].
+ * The size of the array is ignored. Instead, all elements that are tracked for arrays of the given type
+ * are initialized with their default value and the {@link ArraySummary} of untracked elements is empty.
+ */
+public class NewArrayExpr implements Value {
+
+    private final Type type;
+    private final Value size;
+
+    public NewArrayExpr(Type type, Value size) {
+
+        this.type = type;
+        this.size = size;
+    }
+
+    /**
+     * inserts a new array of the expected type into the programState.
+     *
+     * @return the newly inserted array
+     */
+    @Override
+    public ConcreteValue evaluateOn(ProgramState programState) {
+
+        ConcreteValue array = programState.insertNewElement(type);
+        for (Map.Entry<SelectorLabel, String> element : type.getSelectorLabels().entrySet()) {
+            if (ArrayElement.isElementLabel(element.getKey()) || ArraySummary.isSummaryLabel(element.getKey())) {
+                programState.setSelector(array, element.getKey(), programState.getConstant(element.getValue()));
+            }
+        }
+        return array;
+    }
+
+    @Override
+    public Type getType() {
+
+        return type;
+    }
+
+    @Override
+    public boolean needsMaterialization(ProgramState programState) {
+
+        return false;
+    }
+
+    /**
+     * @return "new type[size]"
+     */
+    public String toString() {
+
+        return "new " + type + "[" + size + "]";
+    }
+
+    @Override
+    public ViolationPoints getPotentialViolationPoints() {
+
+        return ViolationPoints.getEmptyViolationPoints();
+    }
+}
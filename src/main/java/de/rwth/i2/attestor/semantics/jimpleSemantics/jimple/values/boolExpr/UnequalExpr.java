@@ -45,28 +45,18 @@ public class UnequalExpr implements Value {
      * evaluates to undefined.
      *
      * @return the heap element representing true/false or undefined.
+     * @throws NullPointerDereferenceException if evaluating one of the expressions dereferences null.
      */
     @Override
-    public ConcreteValue evaluateOn(ProgramState programState) {
+    public ConcreteValue evaluateOn(ProgramState programState)
+            throws NullPointerDereferenceException {
 
-        ConcreteValue leftRes;
-        try {
-            leftRes = leftExpr.evaluateOn(programState);
-        } catch (NullPointerDereferenceException e) {
-            logger.error(e.getErrorMessage(this));
-            return programState.getUndefined();
-        }
+        ConcreteValue leftRes = leftExpr.evaluateOn(programState);
         if (leftRes.isUndefined()) {
             logger.debug("leftExpr evaluated to undefined. Returning undefined.");
             return programState.getUndefined();
         }
-        ConcreteValue rightRes;
-        try {
-            rightRes = rightExpr.evaluateOn(programState);
-        } catch (NullPointerDereferenceException e) {
-            logger.error("Null pointer dereference detected in " + rightExpr);
-            return programState.getUndefined();
-        }
+        ConcreteValue rightRes = rightExpr.evaluateOn(programState);
         if (rightRes.isUndefined()) {
             //logger.debug( "rightExpr evaluated to undefined. Returning undefined." );
             return programState.getUndefined();
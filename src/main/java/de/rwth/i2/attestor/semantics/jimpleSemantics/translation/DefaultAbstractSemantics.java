@@ -10,10 +10,10 @@ import de.rwth.i2.attestor.types.Type;
 import de.rwth.i2.attestor.types.Types;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import soot.Unit;
 import soot.UnitBox;
 
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 
 /**
@@ -50,7 +50,7 @@ public class DefaultAbstractSemantics extends SceneObject implements JimpleToAbs
     /**
      * Translates all input statements to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.Skip}
      * or {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.BranchingSkip}
-     * if the input statement has multiple successors. In any case we consider no more than two successors.
+     * if the input statement has multiple successors. All successors of the input statement are considered.
      */
     @Override
     public Statement translateStatement(soot.jimple.Stmt input, int pc) {
@@ -58,20 +58,17 @@ public class DefaultAbstractSemantics extends SceneObject implements JimpleToAbs
         Statement res;
 
         if (!input.fallsThrough()) {
-            List<UnitBox> targets = input.getUnitBoxes();
+            Set<Integer> targets = new LinkedHashSet<>();
+            for (UnitBox box : input.getUnitBoxes()) {
+                targets.add(topLevel.getPCforUnit(box.getUnit()));
+            }
             if (targets.size() >= 2) {
-                Unit leftTarget = targets.get(0).getUnit();
-                Unit rightTarget = targets.get(1).getUnit();
-                res = new BranchingSkip(this, topLevel.getPCforUnit(leftTarget), topLevel.getPCforUnit(rightTarget));
+                res = new BranchingSkip(this, targets);
             } else if (targets.size() == 1) {
-                Unit target = targets.get(0).getUnit();
-                res = new Skip(this, topLevel.getPCforUnit(target));
+                res = new Skip(this, targets.iterator().next());
             } else {
                 res = new Skip(this, -1);
             }
-            if (targets.size() > 2) {
-                logger.warn("Only the first two targets are considered");
-            }
 
             return res;
         }
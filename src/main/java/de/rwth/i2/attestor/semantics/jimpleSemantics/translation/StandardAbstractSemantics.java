@@ -10,10 +10,13 @@ import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.invoke.St
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.*;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.boolExpr.EqualExpr;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.boolExpr.UnequalExpr;
+import de.rwth.i2.attestor.semantics.util.Constants;
 import de.rwth.i2.attestor.types.Type;
 import de.rwth.i2.attestor.types.TypeNames;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import soot.FastHierarchy;
+import soot.Trap;
 import soot.Unit;
 import soot.jimple.InstanceFieldRef;
 
@@ -55,6 +58,7 @@ public class StandardAbstractSemantics extends SceneObject implements JimpleToAb
     public void setTopLevel(TopLevelTranslation topLevel) {
 
         this.topLevel = topLevel;
+        nextLevel.setTopLevel(topLevel);
     }
 
 
@@ -67,6 +71,8 @@ public class StandardAbstractSemantics extends SceneObject implements JimpleToAb
      * soot.jimple.ReturnStmt translates to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.ReturnValueStmt ReturnValueStmt}<br>
      * soot.jimple.ReturnVoidStmt translates to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.ReturnVoidStmt ReturnVoidStmt}<br>
      * soot.jimple.InvokeStmt translates to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.InvokeStmt InvokeStmt}<br>
+     * soot.jimple.LookupSwitchStmt and soot.jimple.TableSwitchStmt translate to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.SwitchStmt SwitchStmt}<br>
+     * soot.jimple.ThrowStmt translates to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.ThrowStmt ThrowStmt}<br>
      * Everything else is delegated to {@link #nextLevel}
      */
     @Override
@@ -95,6 +101,17 @@ public class StandardAbstractSemantics extends SceneObject implements JimpleToAb
             return translateInvokeStmt(input, pc);
 
         }
+        if (input instanceof soot.jimple.LookupSwitchStmt) {
+            soot.jimple.LookupSwitchStmt stmt = (soot.jimple.LookupSwitchStmt) input;
+            return translateSwitchStmt(stmt.getKey(), stmt.getTargets(), stmt.getDefaultTarget());
+        }
+        if (input instanceof soot.jimple.TableSwitchStmt) {
+            soot.jimple.TableSwitchStmt stmt = (soot.jimple.TableSwitchStmt) input;
+            return translateSwitchStmt(stmt.getKey(), stmt.getTargets(), stmt.getDefaultTarget());
+        }
+        if (input instanceof soot.jimple.ThrowStmt) {
+            return translateThrowStmt(input);
+        }
 
         logger.trace("StandardSemantics not applicable. Using next level..");
         return nextLevel.translateStatement(input, pc);
@@ -107,6 +124,10 @@ public class StandardAbstractSemantics extends SceneObject implements JimpleToAb
      * soot.jimple.NewExpr translates to  {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NewExpr NewExpr}<br>
      * soot.jimple.IntConstant translates to  {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.IntConstant IntConstant} <br>
      * for values in {0,1}
+     * soot.jimple.ArrayRef translates to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Field Field}
+     * if the index is constant and to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.ArrayElement ArrayElement} otherwise<br>
+     * soot.jimple.NewArrayExpr translates to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NewArrayExpr NewArrayExpr}<br>
+     * soot.jimple.LengthExpr translates to {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.ArrayLength ArrayLength}<br>
      * soot.jimple.EqExpr translates to  {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.boolExpr.EqualExpr EqualExpr}<br>
      * soot.jimple.NeExpr translates to  {@link de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.boolExpr.UnequalExpr UnequalExpr}<br>
      * everything else is delegated to {@link #nextLevel}
@@ -129,6 +150,15 @@ public class StandardAbstractSemantics extends SceneObject implements JimpleToAb
         if (input instanceof soot.jimple.IntConstant) {
             return translateIntConstant(input);
         }
+        if (input instanceof soot.jimple.ArrayRef) {
+            return translateArrayRef(input);
+        }
+        if (input instanceof soot.jimple.NewArrayExpr) {
+            return translateNewArrayExpr(input);
+        }
+        if (input instanceof soot.jimple.LengthExpr) {
+            return translateLengthExpr(input);
+        }
 
         if (input instanceof soot.jimple.EqExpr) {
             return translateEqualExpr(input);
@@ -260,6 +290,63 @@ public class StandardAbstractSemantics extends SceneObject implements JimpleToAb
         return new IdentityStmt(this, pc + 1, lhs, rhs);
     }
 
+    /**
+     * Translates a Jimple lookup or table switch. Since integer values are not tracked,
+     * every target as well as the default target is a possible successor.
+     *
+     * @param key           The value switched on.
+     * @param targets       The targets of all cases.
+     * @param defaultTarget The target of the default case.
+     * @return The translated switch statement.
+     */
+    private SwitchStmt translateSwitchStmt(soot.Value key, List<Unit> targets, Unit defaultTarget) {
+
+        List<Integer> successorPCs = new ArrayList<>(targets.size() + 1);
+        for (Unit target : targets) {
+            successorPCs.add(topLevel.getPCforUnit(target));
+        }
+        successorPCs.add(topLevel.getPCforUnit(defaultTarget));
+        return new SwitchStmt(this, key.toString(), successorPCs);
+    }
+
+    /**
+     * Translates a Jimple throw statement. The successors are determined by the exception table of the
+     * current method: A handler is a successor if it might catch an exception of the statically known type
+     * of the thrown value. If a handler definitely catches the exception, later handlers are ignored.
+     * Otherwise, the exception might leave the current method.
+     *
+     * @param input The Jimple statement.
+     * @return The translated throw statement.
+     */
+    private ThrowStmt translateThrowStmt(soot.jimple.Stmt input) {
+
+        soot.jimple.ThrowStmt stmt = (soot.jimple.ThrowStmt) input;
+        soot.Type thrownType = stmt.getOp().getType();
+        FastHierarchy hierarchy = soot.Scene.v().getOrMakeFastHierarchy();
+
+        List<Integer> handlerPCs = new ArrayList<>();
+        boolean mayEscape = true;
+        for (Trap trap : topLevel.getTrapsCovering(input)) {
+            soot.Type caughtType = trap.getException().getType();
+            if (hierarchy.canStoreType(thrownType, caughtType)) {
+                handlerPCs.add(topLevel.getPCforUnit(trap.getHandlerUnit()));
+                mayEscape = false;
+                break;
+            }
+            if (hierarchy.canStoreType(caughtType, thrownType)) {
+                handlerPCs.add(topLevel.getPCforUnit(trap.getHandlerUnit()));
+            }
+        }
+
+        if (mayEscape) {
+            logger.debug("Exception thrown by '" + input + "' might leave its method. " +
+                    "Exceptional returns are treated as normal returns.");
+        }
+
+        Value thrownValue = topLevel.translateValue(stmt.getOp());
+        return new ThrowStmt(this, thrownValue, handlerPCs, mayEscape);
+    }
+
     /**
      * Translates a Jimple goto statement.
      *
@@ -357,6 +444,85 @@ public class StandardAbstractSemantics extends SceneObject implements JimpleToAb
         return new Field(type, base, fieldLabel);
     }
 
+    /**
+     * Translates a Jimple array access.
+     * Elements accessed with a constant index are modeled as selectors of the array, e.g. a[1] is
+     * translated to a field with selector label [1]. All other accesses yield an {@link ArrayElement}
+     * whose untracked elements are stored in the {@link ArraySummary} of the array.
+     *
+     * @param input A Jimple array access.
+     * @return The translated array access.
+     */
+    private SettableValue translateArrayRef(soot.Value input) {
+
+        soot.jimple.ArrayRef arrayRef = (soot.jimple.ArrayRef) input;
+
+        Type arrayType = topLevel.translateType(arrayRef.getBase().getType());
+        Value base = topLevel.translateValue(arrayRef.getBase());
+        Type type = topLevel.translateType(arrayRef.getType());
+
+        if (!(arrayRef.getIndex() instanceof soot.jimple.IntConstant)) {
+            return new ArrayElement(type, base, topLevel.translateValue(arrayRef.getIndex()),
+                    translateArraySummary(arrayType));
+        }
+
+        int index = ((soot.jimple.IntConstant) arrayRef.getIndex()).value;
+        String name = ArrayElement.getElementLabel(index);
+        SelectorLabel elementLabel = scene().getSelectorLabel(name);
+
+        String elementType = arrayRef.getType().toString();
+
+        arrayType.addOptionalSelectorLabel(elementLabel, TypeNames.getDefaultValue(elementType));
+
+        scene().labels().addUsedSelectorLabel(name);
+
+        return new Field(type, base, elementLabel);
+    }
+
+    private ArraySummary translateArraySummary(Type arrayType) {
+
+        SelectorLabel summaryLabel = scene().getSelectorLabel(ArraySummary.SUMMARY_LABEL);
+        SelectorLabel valueLabel = scene().getSelectorLabel(ArraySummary.VALUE_LABEL);
+        SelectorLabel nextLabel = scene().getSelectorLabel(ArraySummary.NEXT_LABEL);
+
+        Type cellType = scene().getType(ArraySummary.CELL_TYPE);
+        arrayType.addOptionalSelectorLabel(summaryLabel, Constants.NULL);
+        cellType.addOptionalSelectorLabel(valueLabel, Constants.NULL);
+        cellType.addOptionalSelectorLabel(nextLabel, Constants.NULL);
+
+        scene().labels().addUsedSelectorLabel(ArraySummary.SUMMARY_LABEL);
+        scene().labels().addUsedSelectorLabel(ArraySummary.VALUE_LABEL);
+        scene().labels().addUsedSelectorLabel(ArraySummary.NEXT_LABEL);
+
+        return new ArraySummary(cellType, summaryLabel, valueLabel, nextLabel);
+    }
+
+    /**
+     * Translates a Jimple array creation.
+     *
+     * @param input A Jimple expression creating a new array.
+     * @return The translated expression.
+     */
+    private NewArrayExpr translateNewArrayExpr(soot.Value input) {
+
+        soot.jimple.NewArrayExpr expr = (soot.jimple.NewArrayExpr) input;
+        Type type = topLevel.translateType(expr.getType());
+        return new NewArrayExpr(type, topLevel.translateValue(expr.getSize()));
+    }
+
+    /**
+     * Translates a Jimple expression determining the length of an array.
+     *
+     * @param input A Jimple length expression.
+     * @return The translated expression.
+     */
+    private ArrayLength translateLengthExpr(soot.Value input) {
+
+        soot.jimple.LengthExpr expr = (soot.jimple.LengthExpr) input;
+        Type type = topLevel.translateType(expr.getType());
+        return new ArrayLength(type, topLevel.translateValue(expr.getOp()));
+    }
+
     /**
      * Translates a Jimple local variable.
      *
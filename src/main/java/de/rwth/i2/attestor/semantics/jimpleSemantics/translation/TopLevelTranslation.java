@@ -14,6 +14,7 @@ import org.apache.logging.log4j.Logger;
 import soot.Scene;
 import soot.SootClass;
 import soot.SootMethod;
+import soot.Trap;
 import soot.Unit;
 import soot.jimple.Stmt;
 import soot.util.Chain;
@@ -58,6 +59,10 @@ public class TopLevelTranslation extends SceneObject implements JimpleToAbstract
      * currently translated to program counters.
      */
     private Map<Unit, Integer> currentUnitToPC;
+    /**
+     * The exception handlers (traps) of the method which is currently translated.
+     */
+    private Chain<Trap> currentTraps;
     /**
      * necessary to fill the call graph during translation
      */
@@ -129,6 +134,7 @@ public class TopLevelTranslation extends SceneObject implements JimpleToAbstract
         currentUnitToPC = new LinkedHashMap<>();
 
         Chain<Unit> units = method.getActiveBody().getUnits();
+        currentTraps = method.getActiveBody().getTraps();
         Unit curr = units.getFirst();
 
         for (int i = 0; i < units.size(); i++) {
@@ -183,6 +189,31 @@ public class TopLevelTranslation extends SceneObject implements JimpleToAbstract
         return this.currentUnitToPC.get(unit);
     }
 
+    /**
+     * Gets the exception handlers (traps) of the method which is currently translated whose
+     * range contains the requested unit. The traps are ordered as in the method's exception table,
+     * i.e. the first trap that is able to catch an exception handles it.
+     *
+     * @param unit A unit in the jimple control flow.
+     * @return All traps covering the given unit.
+     */
+    List<Trap> getTrapsCovering(Unit unit) {
+
+        List<Trap> result = new ArrayList<>();
+        if (currentTraps == null) {
+            return result;
+        }
+
+        int pc = getPCforUnit(unit);
+        for (Trap trap : currentTraps) {
+            // the end unit of a trap is the first unit that is not covered anymore
+            if (getPCforUnit(trap.getBeginUnit()) <= pc && pc < getPCforUnit(trap.getEndUnit())) {
+                result.add(trap);
+            }
+        }
+        return result;
+    }
+
     /**
      * Gets the abstract method for the given signature. If the method is not
      * from the main class, it creates a default method with an empty body for
@@ -38,4 +38,14 @@ public interface SemanticsCommand {
      */
     boolean needsCanonicalization();
 
+    /**
+     * @return true, if the statement never requires materialization, has exactly one successor and at most
+     * changes the values of local variables. Such statements may be fused with their successors
+     * if large-block encoding is enabled.
+     */
+    default boolean isStraightLine() {
+
+        return false;
+    }
+
 }
@@ -3,4 +3,20 @@ package de.rwth.i2.attestor.stateSpaceGeneration;
 public interface StateRefinementStrategy {
 
     ProgramState refine(SemanticsCommand semanticsCommand, ProgramState state);
+
+    /**
+     * Refines a state that has been obtained by executing a statement on a previous state.
+     * Strategies may use the executed statement and the previous state to avoid examining the whole state.
+     *
+     * @param semanticsCommand The statement that is executed next on the given state.
+     * @param state            The state that should be refined.
+     * @param executedCommand  The statement whose execution resulted in the given state.
+     * @param previousState    The state on which executedCommand has been executed.
+     * @return The refined state.
+     */
+    default ProgramState refine(SemanticsCommand semanticsCommand, ProgramState state,
+                                SemanticsCommand executedCommand, ProgramState previousState) {
+
+        return refine(semanticsCommand, state);
+    }
 }
@@ -18,6 +18,13 @@ public interface StateSpace {
 
     TIntSet getFinalStateIds();
 
+    /**
+     * @return All states in which a null pointer has been dereferenced.
+     */
+    Set<ProgramState> getErrorStates();
+
+    TIntSet getErrorStateIds();
+
     int size();
 
     Set<ProgramState> getControlFlowSuccessorsOf(ProgramState state);
@@ -42,6 +49,8 @@ public interface StateSpace {
 
     void setAborted(ProgramState state);
 
+    void setError(ProgramState state);
+
     boolean containsAbortedStates();
 
     void updateFinalStates(Set<ProgramState> newFinalStates, Map<Integer, Integer> idMapping);
@@ -1,7 +1,12 @@
 package de.rwth.i2.attestor.stateSpaceGeneration;
 
 
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
+import de.rwth.i2.attestor.semantics.ErrorStatement;
+
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * A StateSpaceGenerator takes an analysis and generates a
@@ -84,6 +89,12 @@ public class StateSpaceGenerator {
 
     boolean alwaysCanonicalize = false;
 
+    /**
+     * If enabled, successor states located at straight-line statements are executed right away instead of
+     * being added to the state space whenever this is not observable by canonicalization or atomic propositions.
+     */
+    boolean largeBlockEncoding = false;
+
     protected StateSpaceGenerator() {
     }
 
@@ -110,6 +121,7 @@ public class StateSpaceGenerator {
                 .setStateCounter(stateSpaceGenerator.getTotalStatesCounter())
                 .setFinalStateStrategy(stateSpaceGenerator.getFinalStateStrategy())
                 .setAlwaysCanonicalize(stateSpaceGenerator.isAlwaysCanonicalize())
+                .setLargeBlockEncoding(stateSpaceGenerator.isLargeBlockEncoding())
                 .setPostProcessingStrategy(stateSpaceGenerator.getPostProcessingStrategy());
     }
 
@@ -117,6 +129,10 @@ public class StateSpaceGenerator {
         return alwaysCanonicalize;
     }
 
+    public boolean isLargeBlockEncoding() {
+        return largeBlockEncoding;
+    }
+
     /**
      * @return The strategy determining when state space generation is aborted.
      */
@@ -220,6 +236,9 @@ public class StateSpaceGenerator {
                 if(finalStateStrategy.isFinalState(state, successorStates, stateSemanticsCommand)) {
                     stateSpace.setFinal(state);
                     stateSpace.addArtificialInfPathsTransition(state); // Add self-loop to each final state
+                } else if(isErrorState(stateSemanticsCommand)) {
+                    stateSpace.setError(state);
+                    stateSpace.addArtificialInfPathsTransition(state); // error states are not left again
                 } else {
                     for(ProgramState nextState : successorStates) {
                         handleSuccessorState(state, nextState);
@@ -259,6 +278,11 @@ public class StateSpaceGenerator {
     }
 
 
+    private boolean isErrorState(SemanticsCommand semanticsCommand) {
+
+        return semanticsCommand instanceof ErrorStatement;
+    }
+
     private SemanticsCommand semanticsOf(ProgramState state) {
 
         return program.getStatement(state.getProgramCounter());
@@ -300,7 +324,32 @@ public class StateSpaceGenerator {
     private void handleSuccessorState(ProgramState state, ProgramState nextState) {
 
         SemanticsCommand semanticsCommand = semanticsOf(nextState);
-        nextState = stateRefinementStrategy.refine(semanticsCommand, nextState);
+        nextState = stateRefinementStrategy.refine(semanticsCommand, nextState, semanticsOf(state), state);
+
+        if(largeBlockEncoding) {
+            Set<Integer> fusedLocations = null;
+            while(isFusable(state, semanticsCommand, nextState)) {
+                if(fusedLocations == null) {
+                    fusedLocations = new HashSet<>();
+                }
+                if(!fusedLocations.add(nextState.getProgramCounter())) {
+                    break;
+                }
+                ProgramState fusedState = nextState;
+                SemanticsCommand fusedCommand = semanticsCommand;
+                Collection<ProgramState> successors = fusedCommand.computeSuccessors(fusedState);
+                if(successors.size() != 1) {
+                    throw new IllegalStateException("Straight-line statement with "
+                            + successors.size() + " successors: " + fusedCommand);
+                }
+                nextState = successors.iterator().next();
+                semanticsCommand = semanticsOf(nextState);
+                nextState = stateRefinementStrategy.refine(semanticsCommand, nextState, fusedCommand, fusedState);
+            }
+            if(fusedLocations != null) {
+                MetricsRegistry.current().counter("stateSpace.fusedStates").add(fusedLocations.size());
+            }
+        }
 
         if(needsCanonicalization(semanticsCommand, nextState)) {
             ProgramState abstractedState = canonicalizationStrategy.canonicalize(nextState);
@@ -320,6 +369,33 @@ public class StateSpaceGenerator {
         }
     }
 
+    /**
+     * Determines whether a successor state can be executed right away instead of being added to the state space.
+     * CounterexampleGenerator#isPossiblyFused has to be kept consistent with this method.
+     * This is the case if the state is located at a straight-line statement that is not subject to
+     * canonicalization and if the state satisfies the same atomic propositions as its predecessor in the
+     * state space. The resulting state space is thus stuttering equivalent to the one without large-block encoding.
+     *
+     * @param predecessorState The state in the state space whose successor is considered.
+     * @param semanticsCommand The statement the successor state is located at.
+     * @param state            The successor state.
+     * @return True if and only if the successor state does not have to be added to the state space.
+     */
+    private boolean isFusable(ProgramState predecessorState, SemanticsCommand semanticsCommand, ProgramState state) {
+
+        if(!semanticsCommand.isStraightLine()
+                || predecessorState.isContinueState()
+                || needsCanonicalization(semanticsCommand, state)) {
+            return false;
+        }
+
+        if(state.isFromTopLevelStateSpace()) {
+            stateLabelingStrategy.computeAtomicPropositions(state);
+            return state.getAPs().equals(predecessorState.getAPs());
+        }
+        return true;
+    }
+
     private boolean needsCanonicalization(SemanticsCommand semanticsCommand, ProgramState state) {
         return alwaysCanonicalize || semanticsCommand.needsCanonicalization()
                 || program.countPredecessors(state.getProgramCounter()) > 1;
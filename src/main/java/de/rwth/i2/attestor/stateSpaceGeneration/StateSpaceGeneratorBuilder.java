@@ -275,4 +275,15 @@ public class StateSpaceGeneratorBuilder {
         return this;
     }
 
+    /**
+     * @param largeBlockEncoding True if maximal sequences of straight-line statements should be executed
+     *                           without adding intermediate states to the state space.
+     * @return The builder.
+     */
+    public StateSpaceGeneratorBuilder setLargeBlockEncoding(boolean largeBlockEncoding) {
+
+        generator.largeBlockEncoding = largeBlockEncoding;
+        return this;
+    }
+
 }
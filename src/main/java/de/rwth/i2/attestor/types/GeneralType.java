@@ -4,7 +4,9 @@ import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.semantics.util.Constants;
 
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A simple implementation of types.
@@ -15,6 +17,7 @@ import java.util.Map;
 public final class GeneralType implements Type {
 
     private final Map<SelectorLabel, String> selectorLabelNames = new LinkedHashMap<>();
+    private final Set<SelectorLabel> optionalSelectorLabels = new LinkedHashSet<>();
     /**
      * The name of the type.
      */
@@ -85,6 +88,13 @@ public final class GeneralType implements Type {
         selectorLabelNames.put(selectorLabel, defaultValue);
     }
 
+    @Override
+    public void addOptionalSelectorLabel(SelectorLabel selectorLabel, String defaultValue) {
+
+        addSelectorLabel(selectorLabel, defaultValue);
+        optionalSelectorLabels.add(selectorLabel);
+    }
+
     @Override
     public Map<SelectorLabel, String> getSelectorLabels() {
 
@@ -94,6 +104,9 @@ public final class GeneralType implements Type {
     @Override
     public boolean isOptional(SelectorLabel selectorLabel) {
 
+        if (optionalSelectorLabels.contains(selectorLabel)) {
+            return true;
+        }
         String defaultValue = selectorLabelNames.get(selectorLabel);
         return defaultValue != null && defaultValue.equals(Constants.ZERO);
     }
@@ -126,7 +139,7 @@ public final class GeneralType implements Type {
             knownTypes.put(TypeNames.INT_PLUS_1, Types.INT_PLUS_1);
         }
 
-        public Type get(String name) {
+        public synchronized Type get(String name) {
 
             Type result = knownTypes.computeIfAbsent(name, GeneralType::new);
             return result;
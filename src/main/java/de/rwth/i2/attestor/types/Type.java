@@ -31,6 +31,14 @@ public interface Type extends NodeLabel {
      */
     void addSelectorLabel(SelectorLabel selectorLabel, String defaultValue);
 
+    /**
+     * Adds a selector label that may be missing at nodes of this type, e.g. because its target is unknown.
+     *
+     * @param selectorLabel the selector label to be added to this type
+     * @param defaultValue  the name of the constant a new node's selector points to, if it is initialized
+     */
+    void addOptionalSelectorLabel(SelectorLabel selectorLabel, String defaultValue);
+
     Map<SelectorLabel, String> getSelectorLabels();
 
     boolean isOptional(SelectorLabel selectorLabel);
@@ -0,0 +1,165 @@
+package de.rwth.i2.attestor.grammar.analysis;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.main.scene.DefaultScene;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class GrammarAnalyzerTest {
+
+    private Scene scene;
+    private Type type;
+    private SelectorLabel next;
+    private SelectorLabel prev;
+    private Nonterminal list;
+
+    @Before
+    public void setUp() {
+
+        scene = new DefaultScene();
+        type = scene.getType("node");
+        next = scene.getSelectorLabel("next");
+        prev = scene.getSelectorLabel("prev");
+        list = scene.createNonterminal("L", 2, new boolean[]{false, true});
+    }
+
+    @Test
+    public void testListGrammar() {
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, edge(next))
+                .addRule(list, edgeThen(next, list))
+                .build();
+
+        GrammarAnalyzer analyzer = new GrammarAnalyzer(grammar);
+
+        assertTrue(analyzer.isProductive(list));
+        assertTrue(analyzer.getUnproductiveNonterminals().isEmpty());
+        assertEquals(Collections.singleton("next"), analyzer.getTentacleType(list, 0));
+        assertTrue(analyzer.getTentacleType(list, 1).isEmpty());
+        assertTrue(analyzer.isTyped());
+        assertTrue(analyzer.isLocallyConcretizable());
+    }
+
+    @Test
+    public void testUnproductiveNonterminal() {
+
+        Nonterminal cycle = scene.createNonterminal("Cycle", 2, new boolean[]{false, true});
+        Grammar grammar = Grammar.builder()
+                .addRule(list, edge(next))
+                .addRule(cycle, edgeThen(next, cycle))
+                .build();
+
+        GrammarAnalyzer analyzer = new GrammarAnalyzer(grammar);
+
+        assertTrue(analyzer.isProductive(list));
+        assertFalse(analyzer.isProductive(cycle));
+        assertEquals(Collections.singleton(cycle), analyzer.getUnproductiveNonterminals());
+    }
+
+    @Test
+    public void testNotTyped() {
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, edge(next))
+                .addRule(list, edge(prev))
+                .build();
+
+        GrammarAnalyzer analyzer = new GrammarAnalyzer(grammar);
+
+        assertFalse(analyzer.isTyped());
+        assertEquals(2, analyzer.getTypednessViolations().size());
+    }
+
+    @Test
+    public void testNotLocallyConcretizable() {
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, edge(next))
+                .addRule(list, twoNonterminals(list))
+                .build();
+
+        GrammarAnalyzer analyzer = new GrammarAnalyzer(grammar);
+
+        assertTrue(analyzer.isTyped());
+        assertFalse(analyzer.isLocallyConcretizable());
+        assertEquals(1, analyzer.getLocalConcretizabilityViolations().size());
+    }
+
+    @Test
+    public void testConcatenationIsLocallyConcretizable() {
+
+        // the concatenation rule does not directly attach next, but is covered by the second rule
+        Grammar grammar = Grammar.builder()
+                .addRule(list, edge(next))
+                .addRule(list, edgeThen(next, list))
+                .addRule(list, twoNonterminals(list))
+                .build();
+
+        GrammarAnalyzer analyzer = new GrammarAnalyzer(grammar);
+
+        assertTrue(analyzer.isTyped());
+        assertTrue(analyzer.isLocallyConcretizable());
+    }
+
+    /**
+     * @return The rule graph 1 -label-> 2.
+     */
+    private HeapConfiguration edge(SelectorLabel label) {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        result.builder()
+                .addNodes(type, 2, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(0), label, nodes.get(1))
+                .build();
+        return result;
+    }
+
+    /**
+     * @return The rule graph 1 -label-> u, nonterminal(u, 2).
+     */
+    private HeapConfiguration edgeThen(SelectorLabel label, Nonterminal nonterminal) {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        HeapConfigurationBuilder builder = result.builder()
+                .addNodes(type, 3, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(0), label, nodes.get(2));
+        builder.addNonterminalEdge(nonterminal, new TIntArrayList(new int[]{nodes.get(2), nodes.get(1)}))
+                .build();
+        return result;
+    }
+
+    /**
+     * @return The rule graph nonterminal(1, u), nonterminal(u, 2).
+     */
+    private HeapConfiguration twoNonterminals(Nonterminal nonterminal) {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        HeapConfigurationBuilder builder = result.builder()
+                .addNodes(type, 3, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1));
+        builder.addNonterminalEdge(nonterminal, new TIntArrayList(new int[]{nodes.get(0), nodes.get(2)}))
+                .addNonterminalEdge(nonterminal, new TIntArrayList(new int[]{nodes.get(2), nodes.get(1)}))
+                .build();
+        return result;
+    }
+}
@@ -0,0 +1,214 @@
+package de.rwth.i2.attestor.grammar.analysis;
+
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.io.FileReader;
+import de.rwth.i2.attestor.io.MockupHeapConfigurationRenaming;
+import de.rwth.i2.attestor.io.jsonImport.JsonToGrammar;
+import de.rwth.i2.attestor.main.scene.DefaultScene;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.json.JSONArray;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GrammarMinimizerTest {
+
+    private Scene scene;
+    private Type type;
+    private SelectorLabel next;
+    private Nonterminal list;
+
+    @Before
+    public void setUp() {
+
+        scene = new DefaultScene();
+        type = scene.getType("node");
+        next = scene.getSelectorLabel("next");
+        list = scene.createNonterminal("L", 2, new boolean[]{false, true});
+    }
+
+    @Test
+    public void testMinimalGrammarIsUnchanged() {
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, chain(1, false))
+                .addRule(list, chain(1, true))
+                .build();
+
+        GrammarMinimizer minimizer = new GrammarMinimizer(grammar);
+
+        assertTrue(minimizer.getRemovedRules().isEmpty());
+        assertEquals(2, minimizer.getMinimizedGrammar().getRightHandSidesFor(list).size());
+    }
+
+    @Test
+    public void testRemoveDerivableRules() {
+
+        HeapConfiguration twoEdges = chain(2, false);
+        HeapConfiguration twoEdgesThenList = chain(2, true);
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, twoEdges)
+                .addRule(list, chain(1, false))
+                .addRule(list, twoEdgesThenList)
+                .addRule(list, chain(1, true))
+                .build();
+
+        GrammarMinimizer minimizer = new GrammarMinimizer(grammar);
+
+        List<GrammarMinimizer.RemovedRule> removedRules = minimizer.getRemovedRules();
+        assertEquals(2, removedRules.size());
+        assertEquals(twoEdges, removedRules.get(0).getRightHandSide());
+        assertEquals(GrammarMinimizer.Reason.DERIVABLE, removedRules.get(0).getReason());
+        assertEquals(twoEdgesThenList, removedRules.get(1).getRightHandSide());
+        assertEquals(GrammarMinimizer.Reason.DERIVABLE, removedRules.get(1).getReason());
+
+        Grammar minimized = minimizer.getMinimizedGrammar();
+        assertEquals(2, minimized.getRightHandSidesFor(list).size());
+        assertTrue(minimized.getRightHandSidesFor(list).contains(chain(1, false)));
+        assertTrue(minimized.getRightHandSidesFor(list).contains(chain(1, true)));
+    }
+
+    @Test
+    public void testRemoveUnproductiveRules() {
+
+        Nonterminal cycle = scene.createNonterminal("Cycle", 2, new boolean[]{false, true});
+        HeapConfiguration listThenCycle = chain(1, false);
+        listThenCycle.builder()
+                .addNonterminalEdge(cycle, new TIntArrayList(new int[]{
+                        listThenCycle.externalNodeAt(1), listThenCycle.externalNodeAt(1)
+                }))
+                .build();
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, chain(1, false))
+                .addRule(list, listThenCycle)
+                .addRule(cycle, cycleRule(cycle))
+                .build();
+
+        GrammarMinimizer minimizer = new GrammarMinimizer(grammar);
+
+        assertEquals(2, minimizer.getRemovedRules().size());
+        for (GrammarMinimizer.RemovedRule rule : minimizer.getRemovedRules()) {
+            assertEquals(GrammarMinimizer.Reason.UNPRODUCTIVE, rule.getReason());
+        }
+        Grammar minimized = minimizer.getMinimizedGrammar();
+        assertEquals(1, minimized.getRightHandSidesFor(list).size());
+        assertTrue(minimized.getRightHandSidesFor(cycle).isEmpty());
+    }
+
+    @Test
+    public void testKeepDerivableRuleResolvingViolationPoints() {
+
+        // L -> K(1,2) | 1 -next-> 2 and K -> 1 -next-> 2:
+        // the second rule of L is derivable, but the only rule of L that directly attaches next to tentacle 0
+        Nonterminal other = scene.createNonterminal("K", 2, new boolean[]{false, true});
+        HeapConfiguration handle = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        handle.builder()
+                .addNodes(type, 2, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addNonterminalEdge(other, nodes)
+                .build();
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, handle)
+                .addRule(list, chain(1, false))
+                .addRule(other, chain(1, false))
+                .build();
+
+        GrammarMinimizer minimizer = new GrammarMinimizer(grammar);
+
+        assertTrue(minimizer.getRemovedRules().isEmpty());
+        assertEquals(2, minimizer.getMinimizedGrammar().getRightHandSidesFor(list).size());
+    }
+
+    @Test
+    public void testKeepRecursiveRuleOfPredefinedListGrammar() throws FileNotFoundException {
+
+        // RefSLList -> 1 -next-> 2 | 1 -next-> u, RefSLList(u, 2) | RefSLList(1, u), RefSLList(u, 2):
+        // the second rule is derivable using the third one, but it is the only rule that
+        // materializes lists with more than one element at tentacle 0
+        JSONArray array = new JSONArray(FileReader.read("src/main/assets/predefinedGrammars/SLList.json"));
+        JsonToGrammar importer = new JsonToGrammar(new SceneObject(scene) {}, new MockupHeapConfigurationRenaming());
+        Grammar grammar = Grammar.builder().addRules(importer.parseForwardGrammar(array)).build();
+        Nonterminal slList = scene.getNonterminal("RefSLList");
+        SelectorLabel listNext = scene.getSelectorLabel("next");
+
+        GrammarMinimizer minimizer = new GrammarMinimizer(grammar);
+
+        assertTrue(minimizer.getRemovedRules().isEmpty());
+        boolean hasRecursiveRule = false;
+        for (HeapConfiguration rhs : minimizer.getMinimizedGrammar().getRightHandSidesFor(slList)) {
+            int head = rhs.externalNodeAt(0);
+            hasRecursiveRule |= rhs.selectorTargetOf(head, listNext) != rhs.externalNodeAt(1)
+                    && rhs.countNonterminalEdges() == 1;
+        }
+        assertTrue(hasRecursiveRule);
+    }
+
+    /**
+     * @param length       The number of next selectors starting at external node 1.
+     * @param endsWithList True if the last selector points to an internal node that is connected to
+     *                     external node 2 by a nonterminal edge labeled with L. Otherwise, the last
+     *                     selector points to external node 2.
+     * @return The resulting rule graph.
+     */
+    private HeapConfiguration chain(int length, boolean endsWithList) {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        int size = endsWithList ? length + 2 : length + 1;
+        HeapConfigurationBuilder builder = result.builder()
+                .addNodes(type, size, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(size - 1));
+
+        // nodes.get(size-1) is the second external node, all others form the chain
+        int[] chain = new int[length + 1];
+        chain[0] = nodes.get(0);
+        for (int i = 1; i < length; i++) {
+            chain[i] = nodes.get(i);
+        }
+        chain[length] = endsWithList ? nodes.get(length) : nodes.get(size - 1);
+
+        for (int i = 0; i < length; i++) {
+            builder.addSelector(chain[i], next, chain[i + 1]);
+        }
+        if (endsWithList) {
+            builder.addNonterminalEdge(list, new TIntArrayList(new int[]{chain[length], nodes.get(size - 1)}));
+        }
+        builder.build();
+        return result;
+    }
+
+    /**
+     * @return The rule graph 1 -next-> u, nonterminal(u, 2).
+     */
+    private HeapConfiguration cycleRule(Nonterminal nonterminal) {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        result.builder()
+                .addNodes(type, 3, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(0), next, nodes.get(2))
+                .addNonterminalEdge(nonterminal, new TIntArrayList(new int[]{nodes.get(2), nodes.get(1)}))
+                .build();
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package de.rwth.i2.attestor.grammar.inference;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GrammarLearnerTest {
+
+    private SceneObject sceneObject;
+    private Type type;
+    private Type nullType;
+    private SelectorLabel next;
+    private SelectorLabel prev;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        type = sceneObject.scene().getType("Node");
+        nullType = sceneObject.scene().getType("NULL");
+        next = sceneObject.scene().getSelectorLabel("next");
+        prev = sceneObject.scene().getSelectorLabel("prev");
+    }
+
+    @Test
+    public void testLearnSinglyLinkedList() {
+
+        HeapConfiguration shortList = list(3, false);
+        HeapConfiguration longList = list(6, false);
+
+        GrammarLearner learner = new GrammarLearner(sceneObject, Arrays.asList(shortList, longList));
+
+        List<String> structures = learner.getLearnedStructures();
+        assertEquals(1, structures.size());
+        assertTrue(structures.get(0).startsWith("singly-linked list"));
+        assertEquals(1, learner.getLearnedGrammar().getAllLeftHandSides().size());
+
+        List<HeapConfiguration> abstractedExamples = learner.getAbstractedExamples();
+        int shortSize = GrammarLearner.sizeOf(abstractedExamples.get(0));
+        int longSize = GrammarLearner.sizeOf(abstractedExamples.get(1));
+        assertEquals(shortSize, longSize);
+        assertTrue(longSize < GrammarLearner.sizeOf(longList));
+        assertEquals(longSize, learner.getMaximalAbstractedSize());
+    }
+
+    @Test
+    public void testLearnDoublyLinkedList() {
+
+        GrammarLearner learner = new GrammarLearner(sceneObject, Arrays.asList(list(3, true), list(5, true)));
+
+        List<String> structures = learner.getLearnedStructures();
+        assertFalse(structures.isEmpty());
+        assertTrue(structures.get(0).startsWith("doubly-linked list"));
+
+        List<HeapConfiguration> abstractedExamples = learner.getAbstractedExamples();
+        assertEquals(GrammarLearner.sizeOf(abstractedExamples.get(0)),
+                GrammarLearner.sizeOf(abstractedExamples.get(1)));
+    }
+
+    @Test
+    public void testNoRecursiveSelectors() {
+
+        HeapConfiguration hc = sceneObject.scene().createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        hc.builder()
+                .addNodes(type, 1, nodes)
+                .addNodes(nullType, 1, nodes)
+                .addVariableEdge("x", nodes.get(0))
+                .addSelector(nodes.get(0), next, nodes.get(1))
+                .build();
+
+        GrammarLearner learner = new GrammarLearner(sceneObject, Collections.singletonList(hc));
+
+        assertEquals(0, learner.getNumberOfCandidates());
+        assertTrue(learner.getLearnedStructures().isEmpty());
+        assertTrue(learner.getLearnedGrammar().getAllLeftHandSides().isEmpty());
+        assertEquals(hc, learner.getAbstractedExamples().get(0));
+    }
+
+    /**
+     * @param length       The number of list nodes.
+     * @param doublyLinked True if every node also points to its predecessor.
+     * @return A null-terminated list whose head is referenced by variable x.
+     */
+    private HeapConfiguration list(int length, boolean doublyLinked) {
+
+        HeapConfiguration result = sceneObject.scene().createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        HeapConfigurationBuilder builder = result.builder()
+                .addNodes(type, length, nodes)
+                .addNodes(nullType, 1, nodes)
+                .addVariableEdge("x", nodes.get(0));
+
+        int nullNode = nodes.get(length);
+        for (int i = 0; i < length; i++) {
+            builder.addSelector(nodes.get(i), next, nodes.get(i + 1));
+            if (doublyLinked) {
+                builder.addSelector(nodes.get(i), prev, i == 0 ? nullNode : nodes.get(i - 1));
+            }
+        }
+        builder.build();
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package de.rwth.i2.attestor.grammar.materialization;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.materialization.communication.DefaultGrammarResponseApplier;
+import de.rwth.i2.attestor.grammar.materialization.defaultGrammar.DefaultMaterializationRuleManager;
+import de.rwth.i2.attestor.grammar.materialization.strategies.GeneralMaterializationStrategy;
+import de.rwth.i2.attestor.grammar.materialization.strategies.OneStepMaterializationStrategy;
+import de.rwth.i2.attestor.grammar.materialization.strategies.OneStepMaterializationStrategyBuilder;
+import de.rwth.i2.attestor.grammar.materialization.util.GraphMaterializer;
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPointResolver;
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Checks that isomorphic materialization results are only returned once.
+ * The grammar consists of two rules that are not isomorphic, because their external nodes are
+ * swapped. They nevertheless yield isomorphic heaps if both tentacles of the materialized nonterminal edge
+ * are attached to the same node.
+ */
+public class MaterializationDeduplicationTest {
+
+    private Scene scene;
+    private ExampleHcImplFactory hcFactory;
+    private Type type;
+    private Nonterminal nonterminal;
+    private Grammar grammar;
+
+    @Before
+    public void setUp() {
+
+        SceneObject sceneObject = new MockupSceneObject();
+        scene = sceneObject.scene();
+        hcFactory = new ExampleHcImplFactory(sceneObject);
+        type = scene.getType("node");
+        nonterminal = scene.createNonterminal("Dedup", 2, new boolean[]{false, false});
+
+        grammar = Grammar.builder()
+                .addRule(nonterminal, hcFactory.getRuleIsomorphicAfterGluingExternals(false))
+                .addRule(nonterminal, hcFactory.getRuleIsomorphicAfterGluingExternals(true))
+                .build();
+    }
+
+    @Test
+    public void testRulesAreNotIsomorphic() {
+
+        assertNotEquals(hcFactory.getRuleIsomorphicAfterGluingExternals(false), hcFactory.getRuleIsomorphicAfterGluingExternals(true));
+    }
+
+    @Test
+    public void testGeneralMaterializationStrategy() {
+
+        GeneralMaterializationStrategy strategy = new GeneralMaterializationStrategy(
+                new DefaultMaterializationRuleManager(new ViolationPointResolver(grammar)),
+                new DefaultGrammarResponseApplier(new GraphMaterializer())
+        );
+
+        HeapConfiguration input = input();
+        List<HeapConfiguration> withoutDeduplication = applyAllRules(input);
+        assertEquals(2, withoutDeduplication.size());
+        assertEquals(withoutDeduplication.get(0), withoutDeduplication.get(1));
+
+        Collection<HeapConfiguration> result = strategy.materialize(input, new ViolationPoints("x", "next"));
+        assertEquals(1, result.size());
+        assertEquals(withoutDeduplication.get(0), result.iterator().next());
+    }
+
+    @Test
+    public void testOneStepMaterializationStrategy() {
+
+        OneStepMaterializationStrategy strategy = new OneStepMaterializationStrategyBuilder()
+                .setGrammar(grammar)
+                .setIndexedMode(false)
+                .build();
+
+        HeapConfiguration input = input();
+        List<HeapConfiguration> withoutDeduplication = applyAllRules(input);
+
+        Collection<HeapConfiguration> result = strategy.materialize(input);
+        assertEquals(1, result.size());
+        assertEquals(withoutDeduplication.get(0), result.iterator().next());
+    }
+
+    private List<HeapConfiguration> applyAllRules(HeapConfiguration input) {
+
+        GraphMaterializer materializer = new GraphMaterializer();
+        int ntEdge = input.nonterminalEdges().get(0);
+        List<HeapConfiguration> result = new ArrayList<>();
+        for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+            result.add(materializer.getMaterializedCloneWith(input, ntEdge, rhs));
+        }
+        return result;
+    }
+
+    /**
+     * @return A heap in which x points to a node that is attached to both tentacles of a nonterminal edge.
+     */
+    private HeapConfiguration input() {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        result.builder()
+                .addNodes(type, 1, nodes)
+                .addVariableEdge("x", nodes.get(0))
+                .addNonterminalEdge(nonterminal, new TIntArrayList(new int[]{nodes.get(0), nodes.get(0)}))
+                .build();
+        return result;
+    }
+}
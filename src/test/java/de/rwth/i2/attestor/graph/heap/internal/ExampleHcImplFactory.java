@@ -47,6 +47,30 @@ public final class ExampleHcImplFactory extends SceneObject {
                 .build();
     }
 
+    /**
+     * The rules for both values of swapped are not isomorphic, because their external nodes are swapped.
+     * They nevertheless yield isomorphic heaps if both external nodes are glued together.
+     *
+     * @param swapped False for the rule 1 -next-> new node, 2 -prev-> 1;
+     *                true for the rule 1 -next-> new node, 1 -prev-> 2.
+     */
+    public HeapConfiguration getRuleIsomorphicAfterGluingExternals(boolean swapped) {
+
+        HeapConfiguration result = new InternalHeapConfiguration();
+        SelectorLabel next = scene().getSelectorLabel("next");
+        SelectorLabel prev = scene().getSelectorLabel("prev");
+        Type type = scene().getType("node");
+        TIntArrayList nodes = new TIntArrayList();
+
+        return result.builder()
+                .addNodes(type, 3, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(0), next, nodes.get(2))
+                .addSelector(nodes.get(swapped ? 0 : 1), prev, nodes.get(swapped ? 1 : 0))
+                .build();
+    }
+
     public HeapConfiguration getBadTwoElementDLL() {
 
         HeapConfiguration result = new InternalHeapConfiguration();
@@ -969,6 +969,64 @@ public class HeapConfigurationBuilderTest {
 
     }
 
+    /**
+     * Tests that a replacement can be applied repeatedly and that modifying it afterwards is respected.
+     */
+    @Test
+    public void testReplaceNonterminalEdgeWithModifiedReplacement() {
+
+        HeapConfiguration source = new InternalHeapConfiguration();
+        TIntArrayList srcNodes = new TIntArrayList();
+        source.builder()
+                .addNodes(new MockupType(), 2, srcNodes)
+                .addNonterminalEdge(new MockupNonterminal("nt", 2), new TIntArrayList(new int[]{srcNodes.get(0), srcNodes.get(1)}))
+                .build();
+        int ntEdge = source.nonterminalEdges().get(0);
+
+        HeapConfiguration rule = new InternalHeapConfiguration();
+        TIntArrayList ruleNodes = new TIntArrayList();
+        rule.builder()
+                .addNodes(new MockupType(), 3, ruleNodes)
+                .addSelector(ruleNodes.get(0), new MockupSelector("next"), ruleNodes.get(2))
+                .addNonterminalEdge(new MockupNonterminal("nt", 2), new TIntArrayList(new int[]{ruleNodes.get(2), ruleNodes.get(1)}))
+                .setExternal(ruleNodes.get(0))
+                .setExternal(ruleNodes.get(1))
+                .build();
+
+        HeapConfiguration first = source.clone().builder().replaceNonterminalEdge(ntEdge, rule).build();
+        HeapConfiguration second = source.clone().builder().replaceNonterminalEdge(ntEdge, rule).build();
+        assertEquals(first, second);
+        assertEquals(3, second.countNodes());
+        assertEquals(1, second.countNonterminalEdges());
+
+        rule.builder()
+                .addSelector(ruleNodes.get(1), new MockupSelector("prev"), ruleNodes.get(0))
+                .build();
+
+        HeapConfiguration third = source.clone().builder().replaceNonterminalEdge(ntEdge, rule).build();
+        assertNotEquals(first, third);
+        assertEquals(srcNodes.get(0), third.selectorTargetOf(srcNodes.get(1), new MockupSelector("prev")));
+    }
+
+    /**
+     * Tests that public IDs of removed elements are reused by elements that are added later.
+     */
+    @Test
+    public void testReuseOfPublicIds() {
+
+        HeapConfiguration hc = new InternalHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        hc.builder().addNodes(new MockupType(), 3, nodes).build();
+
+        hc.builder().removeIsolatedNode(nodes.get(1)).build();
+
+        TIntArrayList newNodes = new TIntArrayList();
+        hc.builder().addNodes(new MockupType(), 2, newNodes).build();
+
+        assertEquals("The public ID of the removed node should be reused.", nodes.get(1), newNodes.get(0));
+        assertEquals(3, newNodes.get(1));
+    }
+
     /**
      * Tests the intended usage of builders to replace matchings.
      */
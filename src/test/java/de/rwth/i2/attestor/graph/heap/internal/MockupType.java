@@ -19,6 +19,11 @@ class MockupType implements Type {
 
     }
 
+    @Override
+    public void addOptionalSelectorLabel(SelectorLabel selectorLabel, String defaultValue) {
+
+    }
+
     @Override
     public Map<SelectorLabel, String> getSelectorLabels() {
 
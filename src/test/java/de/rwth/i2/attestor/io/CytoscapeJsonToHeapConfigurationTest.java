@@ -0,0 +1,46 @@
+package de.rwth.i2.attestor.io;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.io.jsonExport.cytoscapeFormat.JsonHeapConfigurationExporter;
+import de.rwth.i2.attestor.io.jsonImport.CytoscapeJsonToHeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class CytoscapeJsonToHeapConfigurationTest {
+
+    @Test
+    public void testRoundTrip() {
+
+        SceneObject sceneObject = new MockupSceneObject();
+        Type type = sceneObject.scene().getType("List");
+        SelectorLabel next = sceneObject.scene().getSelectorLabel("next");
+        Nonterminal list = sceneObject.scene().createNonterminal("L", 2, new boolean[]{false, true});
+
+        // the tentacles point "backwards" to check that their order is preserved
+        HeapConfiguration hc = sceneObject.scene().createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        hc.builder()
+                .addNodes(type, 3, nodes)
+                .addVariableEdge("x", nodes.get(0))
+                .addSelector(nodes.get(0), next, nodes.get(1))
+                .addNonterminalEdge(list, new TIntArrayList(new int[]{nodes.get(2), nodes.get(1)}))
+                .build();
+
+        StringWriter writer = new StringWriter();
+        new JsonHeapConfigurationExporter(writer).export(hc);
+
+        HeapConfiguration imported = new CytoscapeJsonToHeapConfiguration(sceneObject)
+                .parse(new JSONObject(writer.toString()));
+        assertEquals(hc, imported);
+    }
+}
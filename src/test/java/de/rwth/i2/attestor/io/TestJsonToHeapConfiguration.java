@@ -1,5 +1,7 @@
 package de.rwth.i2.attestor.io;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import de.rwth.i2.attestor.MockupSceneObject;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.io.jsonImport.JsonToHeapConfiguration;
@@ -8,6 +10,7 @@ import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
@@ -173,6 +176,40 @@ public class TestJsonToHeapConfiguration {
         assertEquals(expectedHCs.getExpected_IndexWithAbs(), parsed);
     }
 
+    @Test
+    public void testStreamingIgnoresFieldOrder() throws IOException {
+
+        String graphEncoding = "{\n"
+                + "	\"hyperedges\":[\n"
+                + "			{\n"
+                + "			\"tentacles\":[0,1],\n"
+                + "			\"index\":[\"s\",\"Z\"],\n"
+                + "			\"label\":\"TestJson\"\n"
+                + "		}],\n"
+                + "	\"comment\":{\"unused\":[1,2,3]},\n"
+                + "	\"selectors\":[],\n"
+                + "	\"variables\":[],\n"
+                + "	\"externals\":[],\n"
+                + "	\"nodes\":[\n"
+                + "		{\n"
+                + "			\"number\":2,\n"
+                + "			\"type\":\"type\"\n"
+                + "		}\n"
+                + "	]\n"
+                + "}\n";
+
+        JsonToHeapConfiguration importer = new JsonToHeapConfiguration(sceneObject,
+                new MockupHeapConfigurationRenaming());
+        HeapConfiguration parsed;
+        try (JsonParser parser = new JsonFactory().createParser(graphEncoding)) {
+            parser.nextToken();
+            parsed = importer.parse(parser, sink);
+        }
+
+        assertEquals(expectedHCs.getExpected_TwoElementIndex(), parsed);
+        assertEquals(importer.parse(new JSONObject(graphEncoding), sink), parsed);
+    }
+
     @Test
     public void testFail_AbstractIndex() {
 
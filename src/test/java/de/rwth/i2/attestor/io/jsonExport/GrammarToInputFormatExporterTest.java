@@ -0,0 +1,75 @@
+package de.rwth.i2.attestor.io.jsonExport;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.io.MockupHeapConfigurationRenaming;
+import de.rwth.i2.attestor.io.jsonExport.inputFormat.GrammarToInputFormatExporter;
+import de.rwth.i2.attestor.io.jsonImport.JsonToGrammar;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GrammarToInputFormatExporterTest {
+
+    @Test
+    public void testRoundTrip() {
+
+        SceneObject sceneObject = new MockupSceneObject();
+        Type type = sceneObject.scene().getType("node");
+        SelectorLabel next = sceneObject.scene().getSelectorLabel("next");
+        Nonterminal list = sceneObject.scene().createNonterminal("L", 2, new boolean[]{false, true});
+
+        // the second external node is added first to check that externals are exported in the right order
+        HeapConfiguration base = sceneObject.scene().createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        base.builder()
+                .addNodes(type, 2, nodes)
+                .setExternal(nodes.get(1))
+                .setExternal(nodes.get(0))
+                .addSelector(nodes.get(1), next, nodes.get(0))
+                .build();
+
+        HeapConfiguration step = sceneObject.scene().createHeapConfiguration();
+        nodes = new TIntArrayList();
+        step.builder()
+                .addNodes(type, 3, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(0), next, nodes.get(2))
+                .addNonterminalEdge(list, new TIntArrayList(new int[]{nodes.get(2), nodes.get(1)}))
+                .build();
+
+        Grammar grammar = Grammar.builder()
+                .addRule(list, base)
+                .addRule(list, step)
+                .build();
+
+        StringWriter writer = new StringWriter();
+        new GrammarToInputFormatExporter(writer).export(grammar);
+
+        JsonToGrammar importer = new JsonToGrammar(sceneObject, new MockupHeapConfigurationRenaming());
+        Map<Nonterminal, Collection<HeapConfiguration>> rules = importer.parseForwardGrammar(
+                new JSONArray(writer.toString())
+        );
+
+        Nonterminal imported = sceneObject.scene().getNonterminal("L");
+        assertEquals(2, imported.getRank());
+        assertFalse(imported.isReductionTentacle(0));
+        assertTrue(imported.isReductionTentacle(1));
+        assertEquals(grammar.getRightHandSidesFor(list), new LinkedHashSet<>(rules.get(imported)));
+    }
+}
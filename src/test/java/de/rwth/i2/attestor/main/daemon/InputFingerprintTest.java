@@ -0,0 +1,110 @@
+package de.rwth.i2.attestor.main.daemon;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class InputFingerprintTest {
+
+    private Path rootPath;
+
+    @Before
+    public void setUp() throws IOException {
+
+        rootPath = Files.createTempDirectory("fingerprint");
+        Files.createDirectories(rootPath.resolve("classes"));
+        write("classes/List.class", "bytecode");
+        write("list.json", "[]");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testMethodAndOutputDoNotMatter() {
+
+        String expected = InputFingerprint.of(args("-m", "reverse", "-e", "out1"));
+        assertEquals(expected, InputFingerprint.of(args("-m", "traverse", "-e", "out2", "-q")));
+    }
+
+    @Test
+    public void testOptionsMatter() {
+
+        String expected = InputFingerprint.of(args("-m", "reverse"));
+        assertNotEquals(expected, InputFingerprint.of(args("-m", "reverse", "--indexed")));
+    }
+
+    @Test
+    public void testModifiedClassFileMatters() throws IOException {
+
+        String expected = InputFingerprint.of(args("-m", "reverse"));
+        write("classes/List.class", "modified bytecode");
+        assertNotEquals(expected, InputFingerprint.of(args("-m", "reverse")));
+    }
+
+    @Test
+    public void testModifiedGrammarMatters() throws IOException {
+
+        String expected = InputFingerprint.of(args("-m", "reverse"));
+        write("list.json", "[{}]");
+        assertNotEquals(expected, InputFingerprint.of(args("-m", "reverse")));
+    }
+
+    @Test
+    public void testModifiedFileOfSettingsFileMatters() throws IOException {
+
+        write("other.json", "[]");
+        write("settings.txt", "-cp classes\n-c List\n-g other.json");
+        String[] args = {"-rp", rootPath.toString(), "-l", "settings.txt", "-m", "reverse"};
+
+        String expected = InputFingerprint.of(args);
+        write("other.json", "[{}]");
+        assertNotEquals(expected, InputFingerprint.of(args));
+    }
+
+    @Test
+    public void testRootPathDoesNotMatter() throws IOException {
+
+        String expected = InputFingerprint.of(args("-m", "reverse"));
+
+        Path originalRootPath = rootPath;
+        rootPath = Files.createTempDirectory("relocated");
+        try {
+            Files.createDirectories(rootPath.resolve("classes"));
+            write("classes/List.class", "bytecode");
+            write("list.json", "[]");
+            assertEquals(expected, InputFingerprint.of(args("-m", "reverse")));
+        } finally {
+            tearDown();
+            rootPath = originalRootPath;
+        }
+    }
+
+    private String[] args(String... additionalArgs) {
+
+        String[] common = {"-rp", rootPath.toString(), "-cp", "classes", "-c", "List", "-g", "list.json"};
+        String[] result = new String[common.length + additionalArgs.length];
+        System.arraycopy(common, 0, result, 0, common.length);
+        System.arraycopy(additionalArgs, 0, result, common.length, additionalArgs.length);
+        return result;
+    }
+
+    private void write(String file, String content) throws IOException {
+
+        Files.write(rootPath.resolve(file), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
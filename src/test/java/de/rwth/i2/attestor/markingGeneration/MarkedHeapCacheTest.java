@@ -0,0 +1,188 @@
+package de.rwth.i2.attestor.markingGeneration;
+
+import de.rwth.i2.attestor.grammar.AbstractionOptions;
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.main.scene.DefaultScene;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.markingGeneration.visited.VisitedMarkingCommand;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MarkedHeapCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Scene scene;
+    private Type type;
+    private SelectorLabel next;
+    private Nonterminal list;
+    private Grammar grammar;
+    private String directory;
+
+    @Before
+    public void setUp() throws IOException {
+
+        scene = new DefaultScene();
+        type = scene.getType("List");
+        next = scene.getSelectorLabel("next");
+        list = scene.createNonterminal("L", 2, new boolean[]{false, true});
+
+        HeapConfiguration rule = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        rule.builder()
+                .addNodes(type, 2, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(0), next, nodes.get(1))
+                .build();
+        grammar = Grammar.builder().addRule(list, rule).build();
+
+        directory = folder.newFolder().getPath();
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+
+        HeapConfiguration input = abstractList(false);
+        List<HeapConfiguration> marked = Arrays.asList(marked(input, 0), marked(input, 1));
+
+        MarkedHeapCache cache = createCache(grammar);
+        assertNull(cache.load("visited", input));
+
+        cache.store("visited", input, marked);
+
+        // a new cache simulates a subsequent analysis
+        Collection<HeapConfiguration> loaded = createCache(grammar).load("visited", input);
+        assertNotNull(loaded);
+        assertEquals(new HashSet<>(marked), new HashSet<>(loaded));
+        assertNull(createCache(grammar).load("identicNeighbours", input));
+    }
+
+    @Test
+    public void testDifferentInput() {
+
+        HeapConfiguration input = abstractList(false);
+        MarkedHeapCache cache = createCache(grammar);
+        cache.store("visited", input, Collections.singletonList(marked(input, 0)));
+
+        assertNull(cache.load("visited", abstractList(true)));
+    }
+
+    @Test
+    public void testDifferentGrammar() {
+
+        HeapConfiguration input = abstractList(false);
+        createCache(grammar).store("visited", input, Collections.singletonList(marked(input, 0)));
+
+        Grammar otherGrammar = Grammar.builder()
+                .addRules(grammar)
+                .addRule(list, abstractListRule())
+                .build();
+        assertNull(createCache(otherGrammar).load("visited", input));
+    }
+
+    @Test
+    public void testDifferentOptions() {
+
+        HeapConfiguration input = abstractList(false);
+        createCache(grammar).store("visited", input, Collections.singletonList(marked(input, 0)));
+
+        assertNotNull(createCache(grammar, 1000, 100, true).load("visited", input));
+        assertNull(createCache(grammar, 10, 100, true).load("visited", input));
+        assertNull(createCache(grammar, 1000, 10, true).load("visited", input));
+        assertNull(createCache(grammar, 1000, 100, false).load("visited", input));
+    }
+
+    @Test
+    public void testStableHashIsInvariantUnderIsomorphism() {
+
+        HeapConfiguration first = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        first.builder()
+                .addNodes(type, 2, nodes)
+                .addVariableEdge("x", nodes.get(0))
+                .addSelector(nodes.get(0), next, nodes.get(1))
+                .build();
+
+        HeapConfiguration second = scene.createHeapConfiguration();
+        nodes = new TIntArrayList();
+        second.builder()
+                .addNodes(type, 2, nodes)
+                .addVariableEdge("x", nodes.get(1))
+                .addSelector(nodes.get(1), next, nodes.get(0))
+                .build();
+
+        assertEquals(first, second);
+        assertEquals(MarkedHeapCache.stableHash(first), MarkedHeapCache.stableHash(second));
+        assertNotEquals(MarkedHeapCache.stableHash(first), MarkedHeapCache.stableHash(abstractList(false)));
+    }
+
+    private MarkedHeapCache createCache(Grammar grammar) {
+
+        return createCache(grammar, 1000, 100, true);
+    }
+
+    private MarkedHeapCache createCache(Grammar grammar, int stateSpaceBound, int stateBound,
+                                        boolean ruleCollapsingEnabled) {
+
+        return new MarkedHeapCache(directory, grammar, Collections.singleton("next"), new AbstractionOptions(),
+                stateSpaceBound, stateBound, ruleCollapsingEnabled);
+    }
+
+    /**
+     * @return The heap configuration x -> u, L(u, v), v -next-> w and, if withVariable is true, y -> w.
+     */
+    private HeapConfiguration abstractList(boolean withVariable) {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        result.builder()
+                .addNodes(type, 3, nodes)
+                .addVariableEdge("x", nodes.get(0))
+                .addNonterminalEdge(list, new TIntArrayList(new int[]{nodes.get(0), nodes.get(1)}))
+                .addSelector(nodes.get(1), next, nodes.get(2))
+                .build();
+        if (withVariable) {
+            result.builder().addVariableEdge("y", nodes.get(2)).build();
+        }
+        return result;
+    }
+
+    private HeapConfiguration marked(HeapConfiguration input, int node) {
+
+        return input.clone()
+                .builder()
+                .addVariableEdge(VisitedMarkingCommand.MARKING_NAME, input.nodes().get(node))
+                .build();
+    }
+
+    /**
+     * @return The rule graph 1 -next-> u, L(u, 2).
+     */
+    private HeapConfiguration abstractListRule() {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        result.builder()
+                .addNodes(type, 3, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(0), next, nodes.get(2))
+                .addNonterminalEdge(list, new TIntArrayList(new int[]{nodes.get(2), nodes.get(1)}))
+                .build();
+        return result;
+    }
+}
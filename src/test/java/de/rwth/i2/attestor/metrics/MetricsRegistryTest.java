@@ -0,0 +1,78 @@
+package de.rwth.i2.attestor.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @After
+    public void tearDown() {
+
+        MetricsRegistry.uninstall();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+
+        MetricsRegistry registry = MetricsRegistry.current();
+        assertFalse(registry.isEnabled());
+
+        registry.counter("test").increment();
+        registry.histogram("test").record(100);
+
+        assertEquals(0, registry.counter("test").get());
+        assertEquals(0, registry.histogram("test").getCount());
+        assertTrue(registry.getCounters().isEmpty());
+    }
+
+    @Test
+    public void testInstalledDisabledRegistry() {
+
+        MetricsRegistry.install(MetricsRegistry.disabled());
+        MetricsRegistry.current().counter("calls").increment();
+
+        assertFalse(MetricsRegistry.current().isEnabled());
+        assertTrue(MetricsRegistry.current().getCounters().isEmpty());
+    }
+
+    @Test
+    public void testInstalledRegistry() {
+
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.install(registry);
+        assertSame(registry, MetricsRegistry.current());
+
+        MetricsRegistry.current().counter("calls").increment();
+        MetricsRegistry.current().counter("calls").add(2);
+
+        assertEquals(3, registry.counter("calls").get());
+        assertEquals(1, registry.getCounters().size());
+
+        MetricsRegistry.uninstall();
+        assertFalse(MetricsRegistry.current().isEnabled());
+    }
+
+    @Test
+    public void testHistogram() {
+
+        LatencyHistogram histogram = new MetricsRegistry().histogram("latency");
+        histogram.record(1);
+        histogram.record(3);
+        histogram.record(4);
+        histogram.record(1000);
+
+        assertEquals(4, histogram.getCount());
+        assertEquals(1008, histogram.getTotalNanos());
+        assertEquals(1000, histogram.getMaxNanos());
+        assertEquals(252.0, histogram.getMeanNanos(), 0.001);
+        assertEquals(4, histogram.getQuantileUpperBound(0.5));
+        assertEquals(1024, histogram.getQuantileUpperBound(1.0));
+
+        long[] buckets = histogram.getBuckets();
+        assertEquals(1, buckets[0]);
+        assertEquals(2, buckets[2]);
+        assertEquals(1, buckets[10]);
+    }
+}
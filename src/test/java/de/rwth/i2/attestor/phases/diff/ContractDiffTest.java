@@ -0,0 +1,83 @@
+package de.rwth.i2.attestor.phases.diff;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.main.scene.Scene;
+import de.rwth.i2.attestor.procedures.Contract;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ContractDiffTest {
+
+    private Scene scene;
+    private Type type;
+    private SelectorLabel next;
+
+    @Before
+    public void setUp() {
+
+        scene = new MockupSceneObject().scene();
+        type = scene.getType("List");
+        next = scene.getSelectorLabel("next");
+    }
+
+    @Test
+    public void testEqualContracts() {
+
+        Map<String, List<Contract>> oldContracts = contracts("m", contract(1, 1, 2), contract(2, 2));
+        Map<String, List<Contract>> newContracts = contracts("m", contract(2, 2), contract(1, 2, 1));
+
+        assertTrue(new ContractDiff(oldContracts, newContracts).isEmpty());
+    }
+
+    @Test
+    public void testChangedContracts() {
+
+        Map<String, List<Contract>> oldContracts = contracts("m", contract(1, 1, 2), contract(2, 2));
+        oldContracts.putAll(contracts("removed", contract(1, 1)));
+        Map<String, List<Contract>> newContracts = contracts("m", contract(1, 1, 3), contract(3, 3));
+
+        ContractDiff diff = new ContractDiff(oldContracts, newContracts);
+        assertEquals(new HashSet<>(Arrays.asList("m", "removed")), diff.getChangedMethods());
+        assertEquals(1, diff.getNumberOfAddedContracts());
+        assertEquals(2, diff.getNumberOfRemovedContracts());
+        assertEquals(1, diff.getNumberOfChangedContracts());
+    }
+
+    private Map<String, List<Contract>> contracts(String method, Contract... contracts) {
+
+        Map<String, List<Contract>> result = new LinkedHashMap<>();
+        result.put(method, Arrays.asList(contracts));
+        return result;
+    }
+
+    /**
+     * @return A contract whose pre- and postconditions are lists of the given lengths.
+     */
+    private Contract contract(int precondition, int... postconditions) {
+
+        List<HeapConfiguration> heaps = new ArrayList<>();
+        for (int length : postconditions) {
+            heaps.add(list(length));
+        }
+        return scene.createContract(list(precondition), heaps);
+    }
+
+    private HeapConfiguration list(int length) {
+
+        HeapConfiguration result = scene.createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        result.builder().addNodes(type, length, nodes).addVariableEdge("x", nodes.get(0)).build();
+        for (int i = 0; i + 1 < length; i++) {
+            result.builder().addSelector(nodes.get(i), next, nodes.get(i + 1)).build();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package de.rwth.i2.attestor.phases.diff;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.json.JSONObject;
+import org.json.JSONStringer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class StateSpaceDiffTest {
+
+    private SceneObject sceneObject;
+    private Type type;
+    private SelectorLabel next;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        type = sceneObject.scene().getType("List");
+        next = sceneObject.scene().getSelectorLabel("next");
+    }
+
+    @Test
+    public void testIdenticalStateSpacesUpToIds() {
+
+        StateSpaceDiff.Snapshot oldStateSpace = new StateSpaceDiff.Snapshot();
+        oldStateSpace.addState(state(0, 0, list(1, false)));
+        oldStateSpace.addState(state(1, 1, list(2, false)));
+        oldStateSpace.addTransition(new StateSpaceDiff.Transition(0, 1, "execution"));
+
+        // same states with swapped ids and isomorphic heaps with a different node order
+        StateSpaceDiff.Snapshot newStateSpace = new StateSpaceDiff.Snapshot();
+        newStateSpace.addState(state(5, 1, list(2, true)));
+        newStateSpace.addState(state(7, 0, list(1, true)));
+        newStateSpace.addTransition(new StateSpaceDiff.Transition(7, 5, "execution"));
+
+        StateSpaceDiff diff = new StateSpaceDiff(oldStateSpace, newStateSpace);
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    public void testAddedAndRemovedElements() {
+
+        StateSpaceDiff.Snapshot oldStateSpace = new StateSpaceDiff.Snapshot();
+        oldStateSpace.addState(state(0, 0, list(1, false)));
+        oldStateSpace.addState(state(1, 1, list(2, false)));
+        oldStateSpace.addTransition(new StateSpaceDiff.Transition(0, 1, "execution"));
+
+        StateSpaceDiff.Snapshot newStateSpace = new StateSpaceDiff.Snapshot();
+        newStateSpace.addState(new StateSpaceDiff.State(0, "0", "state", list(1, false),
+                Collections.singleton("{ x == null }")));
+        // same heap, but a different program location
+        newStateSpace.addState(state(1, 2, list(2, false)));
+        newStateSpace.addTransition(new StateSpaceDiff.Transition(0, 1, "execution"));
+
+        StateSpaceDiff diff = new StateSpaceDiff(oldStateSpace, newStateSpace);
+        assertFalse(diff.isEmpty());
+        assertEquals(1, diff.getAddedStates().size());
+        assertEquals(1, diff.getAddedStates().get(0).getId());
+        assertEquals(1, diff.getRemovedStates().size());
+        assertEquals(1, diff.getRemovedStates().get(0).getId());
+        assertEquals(1, diff.getAddedTransitions().size());
+        assertEquals(1, diff.getRemovedTransitions().size());
+        assertEquals(1, diff.getNumberOfChangedPropositions());
+
+        JSONStringer jsonStringer = new JSONStringer();
+        diff.export(jsonStringer);
+        JSONObject exported = new JSONObject(jsonStringer.toString());
+        assertEquals("stateSpace", exported.getString("kind"));
+        assertEquals(2, exported.getJSONObject("old").getInt("states"));
+        assertEquals("{ x == null }", exported.getJSONArray("changedPropositions")
+                .getJSONObject(0).getJSONArray("added").getString(0));
+    }
+
+    private StateSpaceDiff.State state(int id, int programCounter, HeapConfiguration heap) {
+
+        Set<String> propositions = Collections.emptySet();
+        return new StateSpaceDiff.State(id, String.valueOf(programCounter), "state", heap, propositions);
+    }
+
+    /**
+     * @param length   The number of list nodes.
+     * @param reversed True if the nodes should be created in reverse order.
+     * @return A list whose head is referenced by variable x.
+     */
+    private HeapConfiguration list(int length, boolean reversed) {
+
+        HeapConfiguration result = sceneObject.scene().createHeapConfiguration();
+        TIntArrayList nodes = new TIntArrayList();
+        result.builder().addNodes(type, length, nodes).build();
+        if (reversed) {
+            nodes.reverse();
+        }
+        result.builder().addVariableEdge("x", nodes.get(0)).build();
+        for (int i = 0; i + 1 < length; i++) {
+            result.builder().addSelector(nodes.get(i), next, nodes.get(i + 1)).build();
+        }
+        return result;
+    }
+}
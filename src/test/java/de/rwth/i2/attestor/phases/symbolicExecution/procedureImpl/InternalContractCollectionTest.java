@@ -1,6 +1,7 @@
 package de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl;
 
 import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.grammar.canonicalization.CanonicalizationStrategy;
 import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.graph.heap.internal.InternalHeapConfiguration;
@@ -70,6 +71,53 @@ public class InternalContractCollectionTest {
 
     }
 
+    @Test
+    public void testSubsumption() {
+
+        HeapConfiguration abstractPrecondition = simpleGraph();
+        HeapConfiguration concretePrecondition = simpleGraphWithTail();
+        CanonicalizationStrategy abstraction = hc -> hc.equals(concretePrecondition) ? simpleGraph() : hc;
+
+        InternalContractCollection preciseCollection = new InternalContractCollection(
+                new InternalPreconditionMatchingStrategy()
+        );
+        InternalContractCollection subsumingCollection = new InternalContractCollection(
+                new InternalPreconditionMatchingStrategy(),
+                abstraction
+        );
+
+        Collection<HeapConfiguration> postconditions = new ArrayList<>();
+        postconditions.add(simpleGraph());
+        preciseCollection.addContract(new InternalContract(abstractPrecondition, postconditions));
+        subsumingCollection.addContract(new InternalContract(abstractPrecondition, postconditions));
+
+        assertFalse(preciseCollection.matchContract(concretePrecondition).hasMatch());
+
+        ContractMatch match = subsumingCollection.matchContract(concretePrecondition);
+        assertTrue(match.hasMatch());
+        assertSame("the contract of the abstract precondition should be reused",
+                abstractPrecondition, match.getPrecondition());
+        assertArrayEquals(identityReordering(), match.getExternalReordering());
+        assertEquals(postconditions, match.getPostconditions());
+
+        HeapConfiguration unrelated = otherSimpleGraphWithSameHash();
+        assertFalse(subsumingCollection.matchContract(unrelated).hasMatch());
+    }
+
+    private HeapConfiguration simpleGraphWithTail() {
+
+        HeapConfiguration hc = new InternalHeapConfiguration();
+
+        TIntArrayList nodes = new TIntArrayList();
+        return hc.builder().addNodes(type, 3, nodes)
+                .setExternal(nodes.get(0))
+                .setExternal(nodes.get(1))
+                .addSelector(nodes.get(1), SEL, nodes.get(0))
+                .addSelector(nodes.get(0), SEL, nodes.get(2))
+                .addVariableEdge("x", nodes.get(0))
+                .build();
+    }
+
     private HeapConfiguration otherSimpleGraphWithSameHash() {
 
         HeapConfiguration hc = new InternalHeapConfiguration();
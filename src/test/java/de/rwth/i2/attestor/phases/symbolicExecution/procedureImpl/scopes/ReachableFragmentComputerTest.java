@@ -0,0 +1,219 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.procedureImpl.scopes;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.graph.heap.internal.InternalHeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.semantics.util.Constants;
+import de.rwth.i2.attestor.types.Type;
+import de.rwth.i2.attestor.types.Types;
+import de.rwth.i2.attestor.util.Pair;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReachableFragmentComputerTest {
+
+    private static final String METHOD_NAME = "testMethod";
+    private static final String[] VARIABLES = {"@this", "@parameter0:", "@parameter1:", "x", "y", Constants.NULL};
+
+    private final SceneObject sceneObject = new MockupSceneObject();
+    private final Type type = sceneObject.scene().getType("node");
+    private final SelectorLabel next = sceneObject.scene().getSelectorLabel("next");
+    private final SelectorLabel[] selectors = {
+            next,
+            sceneObject.scene().getSelectorLabel("prev")
+    };
+    private final Nonterminal nonterminal = sceneObject.scene().createNonterminal("R", 2, new boolean[]{false, false});
+
+    @Test
+    public void testVariablesInsideScopeAndPointingIntoScopeAreCutpoints() {
+
+        TIntArrayList n = new TIntArrayList();
+        HeapConfiguration input = new InternalHeapConfiguration().builder()
+                .addNodes(type, 4, n)
+                .addVariableEdge("@parameter0:", n.get(0))
+                .addSelector(n.get(0), next, n.get(1))
+                .addSelector(n.get(1), next, n.get(2))
+                .addVariableEdge("x", n.get(1))
+                .addVariableEdge("y", n.get(3))
+                .addSelector(n.get(3), next, n.get(0))
+                .build();
+
+        TIntArrayList r = new TIntArrayList();
+        HeapConfiguration expectedReachable = new InternalHeapConfiguration().builder()
+                .addNodes(type, 3, r)
+                .addVariableEdge("@parameter0:", r.get(0))
+                .addSelector(r.get(0), next, r.get(1))
+                .addSelector(r.get(1), next, r.get(2))
+                .setExternal(r.get(1))
+                .setExternal(r.get(0))
+                .build();
+
+        TIntArrayList m = new TIntArrayList();
+        HeapConfiguration expectedRemaining = new InternalHeapConfiguration().builder()
+                .addNodes(type, 3, m)
+                .addVariableEdge("x", m.get(1))
+                .addVariableEdge("y", m.get(2))
+                .addSelector(m.get(2), next, m.get(0))
+                .addNonterminalEdge(contractNonterminal(2), TIntArrayList.wrap(new int[]{m.get(1), m.get(0)}))
+                .build();
+
+        assertFragments(input, expectedReachable, expectedRemaining);
+    }
+
+    @Test
+    public void testNonterminalEdgesAndConstantsBelongToScope() {
+
+        TIntArrayList n = new TIntArrayList();
+        HeapConfiguration input = new InternalHeapConfiguration().builder()
+                .addNodes(type, 2, n)
+                .addNodes(Types.NULL, 1, n)
+                .addVariableEdge("@parameter0:", n.get(0))
+                .addNonterminalEdge(nonterminal, TIntArrayList.wrap(new int[]{n.get(0), n.get(1)}))
+                .addSelector(n.get(1), next, n.get(2))
+                .addVariableEdge(Constants.NULL, n.get(2))
+                .build();
+
+        TIntArrayList r = new TIntArrayList();
+        HeapConfiguration expectedReachable = new InternalHeapConfiguration().builder()
+                .addNodes(type, 2, r)
+                .addNodes(Types.NULL, 1, r)
+                .addVariableEdge("@parameter0:", r.get(0))
+                .addNonterminalEdge(nonterminal, TIntArrayList.wrap(new int[]{r.get(0), r.get(1)}))
+                .addSelector(r.get(1), next, r.get(2))
+                .addVariableEdge(Constants.NULL, r.get(2))
+                .setExternal(r.get(2))
+                .build();
+
+        TIntArrayList m = new TIntArrayList();
+        HeapConfiguration expectedRemaining = new InternalHeapConfiguration().builder()
+                .addNodes(Types.NULL, 1, m)
+                .addNonterminalEdge(contractNonterminal(1), m)
+                .build();
+
+        assertFragments(input, expectedReachable, expectedRemaining);
+    }
+
+    @Test
+    public void testExternalNodesPointingIntoScopeDetermineCutpoints() {
+
+        TIntArrayList n = new TIntArrayList();
+        HeapConfiguration input = new InternalHeapConfiguration().builder()
+                .addNodes(type, 3, n)
+                .addVariableEdge("@parameter0:", n.get(0))
+                .addSelector(n.get(0), next, n.get(1))
+                .addSelector(n.get(2), next, n.get(1))
+                .setExternal(n.get(2))
+                .build();
+
+        TIntArrayList r = new TIntArrayList();
+        HeapConfiguration expectedReachable = new InternalHeapConfiguration().builder()
+                .addNodes(type, 2, r)
+                .addVariableEdge("@parameter0:", r.get(0))
+                .addSelector(r.get(0), next, r.get(1))
+                .setExternal(r.get(1))
+                .build();
+
+        TIntArrayList m = new TIntArrayList();
+        HeapConfiguration expectedRemaining = new InternalHeapConfiguration().builder()
+                .addNodes(type, 2, m)
+                .addSelector(m.get(0), next, m.get(1))
+                .setExternal(m.get(0))
+                .addNonterminalEdge(contractNonterminal(1), TIntArrayList.wrap(new int[]{m.get(1)}))
+                .build();
+
+        assertFragments(input, expectedReachable, expectedRemaining);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGarbagePointingIntoScopeIsRejected() {
+
+        TIntArrayList n = new TIntArrayList();
+        HeapConfiguration input = new InternalHeapConfiguration().builder()
+                .addNodes(type, 3, n)
+                .addVariableEdge("@parameter0:", n.get(0))
+                .addSelector(n.get(0), next, n.get(1))
+                .addSelector(n.get(2), next, n.get(1))
+                .build();
+
+        new ReachableFragmentComputer(sceneObject, METHOD_NAME, input).prepareInput();
+    }
+
+    @Test
+    public void testInputIsNotModified() {
+
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            HeapConfiguration input = randomHeap(random);
+            HeapConfiguration copy = input.clone();
+            try {
+                new ReachableFragmentComputer(sceneObject, METHOD_NAME, input).prepareInput();
+            } catch (IllegalArgumentException e) {
+                // heaps with garbage pointing into the scope are rejected
+            }
+            assertEquals(copy, input);
+        }
+    }
+
+    private void assertFragments(HeapConfiguration input, HeapConfiguration expectedReachable,
+                                 HeapConfiguration expectedRemaining) {
+
+        Pair<HeapConfiguration, Pair<HeapConfiguration, Integer>> actual
+                = new ReachableFragmentComputer(sceneObject, METHOD_NAME, input).prepareInput();
+
+        assertEquals(expectedReachable, actual.first());
+        assertEquals(expectedRemaining, actual.second().first());
+
+        HeapConfiguration remaining = actual.second().first();
+        assertEquals(contractNonterminal(expectedReachable.countExternalNodes()),
+                remaining.labelOf(actual.second().second()));
+    }
+
+    private Nonterminal contractNonterminal(int rank) {
+
+        return sceneObject.scene().createNonterminal(METHOD_NAME + rank, rank, new boolean[rank]);
+    }
+
+    private HeapConfiguration randomHeap(Random random) {
+
+        int size = 1 + random.nextInt(8);
+        TIntArrayList nodes = new TIntArrayList(size);
+        HeapConfigurationBuilder builder = new InternalHeapConfiguration().builder()
+                .addNodes(type, size, nodes);
+
+        for (int i = 0; i < size; i++) {
+            for (SelectorLabel sel : selectors) {
+                if (random.nextInt(3) == 0) {
+                    builder.addSelector(nodes.get(i), sel, nodes.get(random.nextInt(size)));
+                }
+            }
+        }
+
+        int nonterminalEdges = random.nextInt(3);
+        for (int i = 0; i < nonterminalEdges; i++) {
+            TIntArrayList tentacles = new TIntArrayList(2);
+            tentacles.add(nodes.get(random.nextInt(size)));
+            tentacles.add(nodes.get(random.nextInt(size)));
+            builder.addNonterminalEdge(nonterminal, tentacles);
+        }
+
+        for (String variable : VARIABLES) {
+            if (random.nextBoolean()) {
+                builder.addVariableEdge(variable, nodes.get(random.nextInt(size)));
+            }
+        }
+
+        if (random.nextInt(4) == 0) {
+            builder.setExternal(nodes.get(random.nextInt(size)));
+        }
+
+        return builder.build();
+    }
+}
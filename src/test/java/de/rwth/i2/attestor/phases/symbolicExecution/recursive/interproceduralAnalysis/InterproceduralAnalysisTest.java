@@ -8,6 +8,12 @@ import de.rwth.i2.attestor.stateSpaceGeneration.StateSpace;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -67,7 +73,7 @@ public class InterproceduralAnalysisTest {
 		ProcedureCall call = mock(ProcedureCall.class);
 		
 		testSubject.stateSpaceToAnalyzedCall.put(ssWithoutFinalStates, call);
-		testSubject.remainingPartialStateSpaces.push(toContinue);
+		testSubject.enqueue(toContinue);
 		
 		//when
 		testSubject.run();
@@ -83,7 +89,7 @@ public class InterproceduralAnalysisTest {
 		ProcedureCall call = mock(ProcedureCall.class);
 		
 		testSubject.stateSpaceToAnalyzedCall.put(ssWithoutFinalStates, call);
-		testSubject.remainingPartialStateSpaces.push(toContinue);
+		testSubject.enqueue(toContinue);
 		
 		//when
 		testSubject.run();
@@ -92,4 +98,125 @@ public class InterproceduralAnalysisTest {
 		verify( testSubject ).notifyDependencies( any() );
 	}
 
+	@Test
+	public void testCallGraph_CallerIsDerivedFromDependentStateSpace() {
+		//given
+		ProcedureCall caller = mock(ProcedureCall.class);
+		ProcedureCall callee = mock(ProcedureCall.class);
+		PartialStateSpace dependency = new FakePartialStateSpace( ssWithoutFinalStates, ssWithoutFinalStates );
+
+		testSubject.registerStateSpace(caller, ssWithoutFinalStates);
+		testSubject.registerDependency(callee, dependency);
+
+		//then
+		assertEquals( 2, testSubject.getProcedureCalls().size() );
+		assertTrue( testSubject.getCallers(callee).contains(caller) );
+		assertTrue( testSubject.getCallers(caller).isEmpty() );
+		assertEquals( ssWithoutFinalStates, testSubject.getStateSpace(caller) );
+		assertNull( testSubject.getStateSpace(callee) );
+	}
+
+	@Test
+	public void testStatistics_ContinuationsAreCounted() {
+		//given
+		PartialStateSpace toContinue = new FakePartialStateSpace( ssWithoutFinalStates, ssWithoutFinalStates );
+		ProcedureCall call = mock(ProcedureCall.class);
+
+		testSubject.registerStateSpace(call, ssWithoutFinalStates);
+		testSubject.registerExecutionTime(call, 42);
+		testSubject.enqueue(toContinue);
+
+		//when
+		testSubject.run();
+
+		//then
+		ProcedureCallStatistics statistics = testSubject.getStatistics(call);
+		assertEquals( 1, statistics.getNumberOfExecutions() );
+		assertEquals( 1, statistics.getNumberOfContinuations() );
+		assertTrue( statistics.getElapsedNanos() >= 42 );
+	}
+
+	@Test
+	public void testRun_DependencyNotifiedTwice_ContinuedOnce() {
+		//given
+		ProcedureCall caller = mock(ProcedureCall.class);
+		ProcedureCall callee = mock(ProcedureCall.class);
+		PartialStateSpace dependency = new FakePartialStateSpace( ssWithoutFinalStates, ssWithoutFinalStates );
+
+		testSubject.registerStateSpace(caller, ssWithoutFinalStates);
+		testSubject.registerDependency(callee, dependency);
+		testSubject.notifyDependencies(callee);
+		testSubject.notifyDependencies(callee);
+
+		//when
+		testSubject.run();
+
+		//then
+		assertEquals( 1, testSubject.getStatistics(caller).getNumberOfContinuations() );
+		assertEquals( 1, testSubject.getTotalNumberOfContinuations() );
+	}
+
+	@Test
+	public void testRun_CalleesAreContinuedBeforeCallers() {
+		//given
+		List<ProcedureCall> continued = new ArrayList<>();
+		ProcedureCall caller = mock(ProcedureCall.class);
+		ProcedureCall callee = mock(ProcedureCall.class);
+		PartialStateSpace callerStateSpace = recordingPartialStateSpace( new InternalStateSpace(5), continued );
+		PartialStateSpace calleeStateSpace = recordingPartialStateSpace( new InternalStateSpace(5), continued );
+
+		testSubject.registerStateSpace(caller, callerStateSpace.unfinishedStateSpace());
+		testSubject.registerStateSpace(callee, calleeStateSpace.unfinishedStateSpace());
+		testSubject.registerDependency(callee, callerStateSpace);
+		testSubject.enqueue(callerStateSpace);
+		testSubject.enqueue(calleeStateSpace);
+
+		//when
+		testSubject.run();
+
+		//then
+		assertEquals( 2, continued.size() );
+		assertEquals( callee, continued.get(0) );
+		assertEquals( caller, continued.get(1) );
+	}
+
+	@Test
+	public void testRun_DependencyRegisteredBeforeCallerStateSpace_CalleesAreContinuedBeforeCallers() {
+		//given
+		List<ProcedureCall> continued = new ArrayList<>();
+		ProcedureCall caller = mock(ProcedureCall.class);
+		ProcedureCall callee = mock(ProcedureCall.class);
+		PartialStateSpace callerStateSpace = recordingPartialStateSpace( new InternalStateSpace(5), continued );
+		PartialStateSpace calleeStateSpace = recordingPartialStateSpace( new InternalStateSpace(5), continued );
+
+		// dependencies are registered while the stateSpace of the caller is generated
+		testSubject.registerDependency(callee, callerStateSpace);
+		testSubject.registerStateSpace(caller, callerStateSpace.unfinishedStateSpace());
+		testSubject.registerStateSpace(callee, calleeStateSpace.unfinishedStateSpace());
+		testSubject.enqueue(callerStateSpace);
+		testSubject.enqueue(calleeStateSpace);
+
+		//when
+		testSubject.run();
+
+		//then
+		assertEquals( 2, continued.size() );
+		assertEquals( callee, continued.get(0) );
+		assertEquals( caller, continued.get(1) );
+	}
+
+	private static PartialStateSpace recordingPartialStateSpace(StateSpace stateSpace, List<ProcedureCall> continued) {
+
+		return new PartialStateSpace() {
+			@Override
+			public void continueExecution(ProcedureCall call) {
+				continued.add(call);
+			}
+
+			@Override
+			public StateSpace unfinishedStateSpace() {
+				return stateSpace;
+			}
+		};
+	}
 }
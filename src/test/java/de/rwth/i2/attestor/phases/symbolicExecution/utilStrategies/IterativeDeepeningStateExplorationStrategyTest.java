@@ -0,0 +1,79 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IterativeDeepeningStateExplorationStrategyTest {
+
+    private ProgramState trivialState;
+
+    @Before
+    public void setUp() {
+
+        SceneObject sceneObject = new MockupSceneObject();
+        HeapConfiguration emptyHc = sceneObject.scene().createHeapConfiguration();
+        trivialState = sceneObject.scene().createProgramState(emptyHc);
+    }
+
+    @Test
+    public void testStatesBeyondBoundAreDeferred() {
+
+        IterativeDeepeningStateExplorationStrategy strategy = new IterativeDeepeningStateExplorationStrategy(1);
+
+        ProgramState root = stateAt(0);
+        strategy.addUnexploredState(root, false);
+        assertSame(root, strategy.getNextUnexploredState());
+
+        ProgramState left = stateAt(1);
+        ProgramState right = stateAt(2);
+        strategy.addUnexploredState(left, false);
+        strategy.addUnexploredState(right, false);
+
+        assertSame(right, strategy.getNextUnexploredState());
+        ProgramState deep = stateAt(3);
+        strategy.addUnexploredState(deep, false);
+
+        // deep is at depth 2 and thus only explored after all states at depth 1
+        assertSame(left, strategy.getNextUnexploredState());
+        assertEquals(1, strategy.getDepthBound());
+        assertTrue(strategy.hasUnexploredStates());
+        assertSame(deep, strategy.getNextUnexploredState());
+        assertEquals(2, strategy.getDepthBound());
+        assertFalse(strategy.hasUnexploredStates());
+    }
+
+    @Test
+    public void testMaterializedStatesKeepDepth() {
+
+        IterativeDeepeningStateExplorationStrategy strategy = new IterativeDeepeningStateExplorationStrategy(1);
+
+        strategy.addUnexploredState(stateAt(0), false);
+        strategy.getNextUnexploredState();
+        strategy.addUnexploredState(stateAt(1), false);
+        strategy.getNextUnexploredState();
+
+        ProgramState materialized = stateAt(1);
+        strategy.addUnexploredState(materialized, true);
+        assertSame(materialized, strategy.getNextUnexploredState());
+        assertEquals(1, strategy.getDepthBound());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveIncrement() {
+
+        new IterativeDeepeningStateExplorationStrategy(0);
+    }
+
+    private ProgramState stateAt(int pc) {
+
+        ProgramState state = trivialState.clone();
+        state.setProgramCounter(pc);
+        return state;
+    }
+}
@@ -0,0 +1,128 @@
+package de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.phases.symbolicExecution.stateSpaceGenerationImpl.ProgramImpl;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.ReturnVoidStmt;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.Skip;
+import de.rwth.i2.attestor.stateSpaceGeneration.Program;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PriorityStateExplorationStrategyTest {
+
+    private SceneObject sceneObject;
+    private Type type;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        type = sceneObject.scene().getType("node");
+    }
+
+    @Test
+    public void testHeapSize() {
+
+        PriorityStateExplorationStrategy strategy = PriorityStateExplorationStrategy.byHeapSize();
+
+        ProgramState large = stateWithNodes(3);
+        ProgramState small = stateWithNodes(1);
+        ProgramState medium = stateWithNodes(2);
+
+        strategy.addUnexploredState(large, false);
+        strategy.addUnexploredState(small, false);
+        strategy.addUnexploredState(medium, false);
+
+        assertSame(small, strategy.getNextUnexploredState());
+        assertSame(medium, strategy.getNextUnexploredState());
+        assertSame(large, strategy.getNextUnexploredState());
+        assertFalse(strategy.hasUnexploredStates());
+    }
+
+    @Test
+    public void testEqualPrioritiesAreExploredDepthFirst() {
+
+        PriorityStateExplorationStrategy strategy = PriorityStateExplorationStrategy.byHeapSize();
+
+        ProgramState first = stateWithNodes(1);
+        ProgramState second = stateWithNodes(1);
+        strategy.addUnexploredState(first, false);
+        strategy.addUnexploredState(second, false);
+
+        assertSame(second, strategy.getNextUnexploredState());
+        assertSame(first, strategy.getNextUnexploredState());
+    }
+
+    @Test
+    public void testDistanceToProgramLocation() {
+
+        Program program = ProgramImpl.builder()
+                .addStatement(new Skip(sceneObject, 1))
+                .addStatement(new Skip(sceneObject, 2))
+                .addStatement(new Skip(sceneObject, 3))
+                .build();
+
+        ProgramLocationDistance toExit = new ProgramLocationDistance(program, ProgramLocationDistance.EXIT_LOCATION);
+        ProgramLocationDistance toSecond = new ProgramLocationDistance(program, 1);
+
+        ProgramState state = stateWithNodes(0);
+        state.setProgramCounter(0);
+        assertEquals(3, toExit.applyAsInt(state));
+        assertEquals(1, toSecond.applyAsInt(state));
+
+        state.setProgramCounter(2);
+        assertEquals(1, toExit.applyAsInt(state));
+        assertEquals(Integer.MAX_VALUE, toSecond.applyAsInt(state));
+    }
+
+    @Test
+    public void testDistanceToReturnStatement() {
+
+        Program program = ProgramImpl.builder()
+                .addStatement(new Skip(sceneObject, 1))
+                .addStatement(new Skip(sceneObject, 2))
+                .addStatement(new ReturnVoidStmt(sceneObject))
+                .build();
+
+        ProgramLocationDistance toExit = new ProgramLocationDistance(program, ProgramLocationDistance.EXIT_LOCATION);
+
+        ProgramState state = stateWithNodes(0);
+        state.setProgramCounter(0);
+        assertEquals(2, toExit.applyAsInt(state));
+
+        state.setProgramCounter(2);
+        assertEquals(0, toExit.applyAsInt(state));
+    }
+
+    @Test
+    public void testParseExplorationOrder() {
+
+        assertEquals("dfs", ExplorationOrder.parse("dfs").toString());
+        assertEquals("iddfs:10", ExplorationOrder.parse("iddfs").toString());
+        assertEquals("distance", ExplorationOrder.parse("distance").toString());
+        assertEquals("distance:4", ExplorationOrder.parse("distance:4").toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownExplorationOrder() {
+
+        ExplorationOrder.parse("random");
+    }
+
+    private ProgramState stateWithNodes(int count) {
+
+        HeapConfiguration hc = sceneObject.scene()
+                .createHeapConfiguration()
+                .builder()
+                .addNodes(type, count, new TIntArrayList())
+                .build();
+        return sceneObject.scene().createProgramState(hc);
+    }
+}
@@ -0,0 +1,124 @@
+package de.rwth.i2.attestor.programState.indexedState.index;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class IndexTest {
+
+    private IndexSymbol s;
+    private IndexSymbol bottom;
+    private IndexSymbol x;
+
+    @Before
+    public void setUp() {
+
+        s = ConcreteIndexSymbol.getIndexSymbol("s", false);
+        bottom = ConcreteIndexSymbol.getIndexSymbol("Z", true);
+        x = AbstractIndexSymbol.get("X");
+    }
+
+    @Test
+    public void testProlongedIndicesAreShared() {
+
+        Index empty = new Index(Collections.emptyList());
+        Index first = empty.getWithProlongedIndex(s).getWithProlongedIndex(s).getWithProlongedIndex(x);
+        Index second = new Index(Arrays.asList(s, s)).getWithProlongedIndex(x);
+
+        assertSame(first, second);
+        assertSame(first.getWithShortenedIndex(), second.getWithShortenedIndex());
+        assertEquals(new Index(Arrays.asList(s, s, x)), first);
+    }
+
+    @Test
+    public void testEqualsAndHashCodeCoincideWithLists() {
+
+        List<IndexSymbol> symbols = Arrays.asList(s, s, bottom);
+        Index index = new Index(symbols);
+
+        assertEquals(symbols.hashCode(), index.hashCode());
+        assertEquals(symbols.toString(), index.toString());
+        assertEquals(new Index(new ArrayList<>(symbols)), index);
+        assertNotEquals(new Index(Arrays.asList(s, bottom)), index);
+        assertNotEquals(new Index(Arrays.asList(s, s, s)), index);
+        assertEquals(new Index(Collections.emptyList()), new Index(Collections.emptyList()));
+    }
+
+    @Test
+    public void testProlongWithPostfix() {
+
+        Index index = new Index(Arrays.asList(s, x));
+        Index result = index.getWithProlongedIndex(Arrays.asList(s, s, bottom));
+
+        assertEquals(new Index(Arrays.asList(s, s, s, bottom)), result);
+        assertEquals(4, result.size());
+        assertTrue(result.hasConcreteIndex());
+        assertTrue(result.endsWith(bottom));
+        assertEquals(bottom, result.getLastIndexSymbol());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(s, result.get(i));
+        }
+    }
+
+    @Test
+    public void testStartsWith() {
+
+        Index index = new Index(Arrays.asList(s, s, x));
+
+        assertTrue(index.startsWith(new Index(Arrays.asList(s, s))));
+        assertTrue(index.startsWith(index));
+        assertTrue(index.startsWith(new Index(Collections.emptyList())));
+        assertFalse(index.startsWith(new Index(Arrays.asList(s, x))));
+        assertFalse(index.startsWith(index.getWithProlongedIndex(s)));
+
+        assertTrue(index.startsWith(Arrays.asList(s, s)));
+        assertFalse(index.startsWith(Arrays.asList(s, s, x, x)));
+    }
+
+    @Test
+    public void testMatchIndex() {
+
+        Index index = new Index(Arrays.asList(s, bottom));
+
+        assertTrue(index.matchIndex(new Index(Arrays.asList(s, bottom))));
+        assertFalse(index.matchIndex(new Index(Arrays.asList(s, s, bottom))));
+    }
+
+    @Test
+    public void testBottomSymbolsAreDistinguished() {
+
+        IndexSymbol nonBottom = ConcreteIndexSymbol.getIndexSymbol("Z", false);
+
+        assertSame(bottom, ConcreteIndexSymbol.getIndexSymbol("Z", true));
+        assertNotSame(bottom, nonBottom);
+        assertTrue(bottom.isBottom());
+        assertFalse(nonBottom.isBottom());
+    }
+
+    @Test
+    public void testConcurrentInterning() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<IndexSymbol>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> ConcreteIndexSymbol.getIndexSymbol("concurrent", false)));
+            }
+            IndexSymbol expected = ConcreteIndexSymbol.getIndexSymbol("concurrent", false);
+            for (Future<IndexSymbol> future : futures) {
+                assertSame(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
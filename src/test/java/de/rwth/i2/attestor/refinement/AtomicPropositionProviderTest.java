@@ -0,0 +1,92 @@
+package de.rwth.i2.attestor.refinement;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import static org.junit.Assert.*;
+
+public class AtomicPropositionProviderTest {
+
+    private final SceneObject sceneObject = new MockupSceneObject();
+
+    private List<AtomicPropositionProvider> providers;
+    private AutomatonStateLabelingStrategyBuilder builder;
+    private AtomicPropositionContext context;
+
+    @Before
+    public void setUp() {
+
+        providers = new ArrayList<>();
+        for (AtomicPropositionProvider provider : ServiceLoader.load(AtomicPropositionProvider.class)) {
+            providers.add(provider);
+        }
+        builder = AutomatonStateLabelingStrategy.builder();
+        context = new AtomicPropositionContext(sceneObject, null, builder);
+    }
+
+    @Test
+    public void testEachKnownPropositionIsClaimedOnce() {
+
+        String[] aps = {
+                "btree", "bimap", "L(SLList)", "isReachable(x,y)", "isReachable(x, y, [next, prev])",
+                "x == y", "x.next != null"
+        };
+        for (String ap : aps) {
+            int claimed = 0;
+            for (AtomicPropositionProvider provider : providers) {
+                if (provider.claims(ap)) {
+                    ++claimed;
+                }
+            }
+            assertEquals("Number of providers claiming " + ap, 1, claimed);
+        }
+    }
+
+    @Test
+    public void testUnknownPropositionIsNotClaimed() {
+
+        for (AtomicPropositionProvider provider : providers) {
+            assertFalse(provider.claims("{ terminated }"));
+        }
+    }
+
+    @Test
+    public void testReachabilityRequiresRefinementOnce() {
+
+        contribute("isReachable(x,y)");
+        contribute("isReachable(y,z)");
+
+        assertEquals(1, builder.automata.size());
+        assertTrue(builder.statelessHeapAutomata.isEmpty());
+        assertTrue(sceneObject.scene().labels().isKeptVariableName("z"));
+    }
+
+    @Test
+    public void testVariableRelationsAreStateless() {
+
+        contribute("x == y");
+        contribute("x != y");
+        contribute("x == z");
+
+        assertTrue(builder.automata.isEmpty());
+        assertNull(builder.getProductAutomaton());
+        assertEquals(2, builder.statelessHeapAutomata.size());
+    }
+
+    private void contribute(String ap) {
+
+        for (AtomicPropositionProvider provider : providers) {
+            if (provider.claims(ap)) {
+                provider.contribute(ap, context);
+                return;
+            }
+        }
+        fail("No provider claims " + ap);
+    }
+}
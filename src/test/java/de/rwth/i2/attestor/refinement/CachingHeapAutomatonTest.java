@@ -0,0 +1,214 @@
+package de.rwth.i2.attestor.refinement;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.exampleFactories.ExampleFactorySLL;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
+import de.rwth.i2.attestor.programState.defaultState.RefinedDefaultNonterminal;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CachingHeapAutomatonTest {
+
+    private ExampleFactorySLL factory;
+    private CountingHeapAutomaton automaton;
+    private MetricsRegistry metrics;
+
+    @Before
+    public void setUp() {
+
+        factory = new ExampleFactorySLL(new MockupSceneObject());
+        automaton = new CountingHeapAutomaton();
+        metrics = new MetricsRegistry();
+        MetricsRegistry.install(metrics);
+    }
+
+    @After
+    public void tearDown() {
+
+        MetricsRegistry.uninstall();
+    }
+
+    @Test
+    public void testIsomorphicRefinedHeapsShareTransitions() {
+
+        CachingHeapAutomaton cache = new CachingHeapAutomaton(automaton);
+        List<HeapAutomatonState> assignment = Collections.singletonList(new TestState(1));
+
+        HeapConfiguration first = refinedInput(assignment.get(0));
+        HeapConfiguration second = refinedInput(assignment.get(0));
+        assertNotSame(first, second);
+
+        HeapAutomatonState expected = cache.transition(first, assignment);
+        assertEquals(expected, cache.transition(second, assignment));
+        assertEquals(1, automaton.calls);
+
+        // the state annotated at the nonterminal edge is part of the key
+        HeapAutomatonState otherState = new TestState(2);
+        cache.transition(refinedInput(otherState), Collections.singletonList(otherState));
+        assertEquals(2, automaton.calls);
+
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+        assertEquals(1, metrics.counter("heapAutomaton.cache.hits").get());
+        assertEquals(2, metrics.counter("heapAutomaton.cache.misses").get());
+    }
+
+    @Test
+    public void testCachedHeapIsNotAffectedByModifications() {
+
+        CachingHeapAutomaton cache = new CachingHeapAutomaton(automaton);
+        HeapAutomatonState state = new TestState(1);
+        List<HeapAutomatonState> assignment = Collections.singletonList(state);
+
+        HeapConfiguration heap = refinedInput(state);
+        cache.transition(heap, assignment);
+
+        heap.builder().addNodes(factory.getNodeType(), 1, new TIntArrayList()).build();
+        cache.transition(heap, assignment);
+        assertEquals(2, automaton.calls);
+
+        cache.transition(refinedInput(state), assignment);
+        assertEquals(2, automaton.calls);
+    }
+
+    @Test
+    public void testUnrefinedHeapsAreKeyedByIdentityAndAssignment() {
+
+        CachingHeapAutomaton cache = new CachingHeapAutomaton(automaton);
+        HeapConfiguration rhs = factory.getInput();
+        List<HeapAutomatonState> first = Collections.singletonList(new TestState(1));
+        List<HeapAutomatonState> second = Collections.singletonList(new TestState(2));
+
+        cache.transition(rhs, first);
+        cache.transition(rhs, second);
+        cache.transition(rhs, new ArrayList<>(first));
+        assertEquals(2, automaton.calls);
+
+        // isomorphic right-hand sides might order their nonterminal edges differently
+        cache.transition(factory.getInput(), first);
+        assertEquals(3, automaton.calls);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+
+        CachingHeapAutomaton cache = new CachingHeapAutomaton(automaton, 2);
+        HeapConfiguration rhs = factory.getInput();
+        List<HeapAutomatonState> first = Collections.singletonList(new TestState(1));
+        List<HeapAutomatonState> second = Collections.singletonList(new TestState(2));
+        List<HeapAutomatonState> third = Collections.singletonList(new TestState(3));
+
+        cache.transition(rhs, first);
+        cache.transition(rhs, second);
+        cache.transition(rhs, first);
+        cache.transition(rhs, third);
+        assertEquals(2, cache.size());
+        assertEquals(3, automaton.calls);
+        assertEquals(1, metrics.counter("heapAutomaton.cache.evictions").get());
+
+        cache.transition(rhs, first);
+        assertEquals(3, automaton.calls);
+        cache.transition(rhs, second);
+        assertEquals(4, automaton.calls);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePositive() {
+
+        new CachingHeapAutomaton(automaton, 0);
+    }
+
+    @Test
+    public void testBuilderSharesCache() {
+
+        AutomatonStateLabelingStrategyBuilder builder = AutomatonStateLabelingStrategy.builder();
+        assertNull(builder.getProductAutomaton());
+
+        builder.add(automaton);
+        CachingHeapAutomaton product = builder.getProductAutomaton();
+        assertSame(product, builder.getProductAutomaton());
+        assertSame(automaton, product.getHeapAutomaton());
+
+        builder.add(new CountingHeapAutomaton());
+        assertNotSame(product, builder.getProductAutomaton());
+    }
+
+    private HeapConfiguration refinedInput(HeapAutomatonState state) {
+
+        HeapConfiguration heap = factory.getInput();
+        int edge = heap.nonterminalEdges().get(0);
+        RefinedNonterminal label = new RefinedDefaultNonterminal(heap.labelOf(edge), state);
+        return heap.builder().replaceNonterminal(edge, label).build();
+    }
+
+    private static final class CountingHeapAutomaton implements HeapAutomaton {
+
+        int calls = 0;
+
+        @Override
+        public HeapAutomatonState transition(HeapConfiguration heapConfiguration,
+                                             List<HeapAutomatonState> statesOfNonterminals) {
+
+            ++calls;
+            int sum = heapConfiguration.countNodes();
+            for (HeapAutomatonState state : statesOfNonterminals) {
+                sum += ((TestState) state).value;
+            }
+            return new TestState(sum);
+        }
+
+        @Override
+        public boolean isInitialState(HeapAutomatonState heapAutomatonState) {
+
+            return false;
+        }
+
+        @Override
+        public List<HeapConfiguration> getPossibleHeapRewritings(HeapConfiguration heapConfiguration) {
+
+            return Collections.singletonList(heapConfiguration);
+        }
+    }
+
+    private static final class TestState extends HeapAutomatonState {
+
+        private final int value;
+
+        TestState(int value) {
+
+            this.value = value;
+        }
+
+        @Override
+        public Set<String> toAtomicPropositions() {
+
+            return Collections.emptySet();
+        }
+
+        @Override
+        public boolean isError() {
+
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object otherObject) {
+
+            return otherObject instanceof TestState && ((TestState) otherObject).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return value;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package de.rwth.i2.attestor.refinement.garbageCollection;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.metrics.MetricsRegistry;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.AssignStmt;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Field;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.SettableValue;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Value;
+import de.rwth.i2.attestor.semantics.util.Constants;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedHashSet;
+
+import static org.junit.Assert.*;
+
+public class GarbageCollectorTest {
+
+    private SceneObject sceneObject;
+    private Type type;
+    private SelectorLabel next;
+    private MetricsRegistry metrics;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        sceneObject.scene().options().setRemoveDeadVariables(false);
+        type = sceneObject.scene().getType("node");
+        next = sceneObject.scene().getSelectorLabel("next");
+        type.addSelectorLabel(next, Constants.NULL);
+        metrics = new MetricsRegistry();
+        MetricsRegistry.install(metrics);
+    }
+
+    @After
+    public void tearDown() {
+
+        MetricsRegistry.uninstall();
+    }
+
+    @Test
+    public void testDroppedVariableCreatesGarbage() {
+
+        ProgramState previousState = createState(1);
+        AssignStmt stmt = assign(local("x"), local("y"));
+
+        ProgramState incremental = executeAndCollect(stmt, previousState, true);
+        ProgramState full = executeAndCollect(stmt, previousState, false);
+
+        assertEquals(1, incremental.getHeap().countNodes());
+        assertEquals(full.getHeap(), incremental.getHeap());
+        assertEquals(0, metrics.counter("garbageCollection.skipped").get());
+    }
+
+    @Test
+    public void testDroppedVariableWithRemainingReference() {
+
+        ProgramState previousState = createState(1);
+        AssignStmt stmt = assign(local("y"), local("x"));
+
+        ProgramState successor = execute(stmt, previousState);
+        ProgramState incremental = new GarbageCollector(true).refine(stmt, successor, stmt, previousState);
+        ProgramState full = new GarbageCollector(false).refine(stmt, successor, stmt, previousState);
+
+        assertSame(successor, incremental);
+        assertEquals(full.getHeap(), incremental.getHeap());
+        assertEquals(1, metrics.counter("garbageCollection.skipped").get());
+        assertEquals(1, metrics.counter("garbageCollection.traversals").get());
+    }
+
+    @Test
+    public void testDroppedSelectorCreatesGarbage() {
+
+        ProgramState previousState = createState(1);
+        AssignStmt stmt = assign(new Field(type, local("x"), next), local("y"));
+
+        ProgramState incremental = executeAndCollect(stmt, previousState, true);
+        ProgramState full = executeAndCollect(stmt, previousState, false);
+
+        assertEquals(2, incremental.getHeap().countNodes());
+        assertEquals(full.getHeap(), incremental.getHeap());
+        assertTrue(incremental.getAPs().contains("{ garbage collected }"));
+    }
+
+    @Test
+    public void testInitialStatesAreAlwaysTraversed() {
+
+        ProgramState previousState = createState(0);
+        previousState.getHeap().builder().addNodes(type, 1, new TIntArrayList()).build();
+        AssignStmt stmt = assign(local("y"), local("x"));
+
+        ProgramState incremental = executeAndCollect(stmt, previousState, true);
+
+        assertEquals(3, incremental.getHeap().countNodes());
+        assertEquals(0, metrics.counter("garbageCollection.skipped").get());
+    }
+
+    /**
+     * Creates a state with variables x, y and z such that x points to a node whose next selector points to
+     * a node that is only reachable from x. Variables y and z point to the same node.
+     */
+    private ProgramState createState(int programCounter) {
+
+        TIntArrayList nodes = new TIntArrayList();
+        HeapConfiguration heap = sceneObject.scene()
+                .createHeapConfiguration()
+                .builder()
+                .addNodes(type, 3, nodes)
+                .addVariableEdge("x", nodes.get(0))
+                .addVariableEdge("y", nodes.get(1))
+                .addVariableEdge("z", nodes.get(1))
+                .addSelector(nodes.get(0), next, nodes.get(2))
+                .build();
+
+        ProgramState state = sceneObject.scene().createProgramState(heap);
+        state.setProgramCounter(programCounter);
+        return state;
+    }
+
+    private Local local(String name) {
+
+        return new Local(type, name);
+    }
+
+    private AssignStmt assign(SettableValue lhs, Value rhs) {
+
+        return new AssignStmt(sceneObject, lhs, rhs, 2, new LinkedHashSet<>());
+    }
+
+    private ProgramState execute(AssignStmt stmt, ProgramState previousState) {
+
+        return stmt.computeSuccessors(previousState).iterator().next();
+    }
+
+    private ProgramState executeAndCollect(AssignStmt stmt, ProgramState previousState, boolean incremental) {
+
+        ProgramState successor = execute(stmt, previousState);
+        return new GarbageCollector(incremental).refine(stmt, successor, stmt, previousState);
+    }
+}
@@ -0,0 +1,99 @@
+package de.rwth.i2.attestor.refinement.grammarRefinement;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.LazyGrammar;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.HeapConfigurationBuilder;
+import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
+import de.rwth.i2.attestor.graph.heap.internal.InternalHeapConfiguration;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.refinement.HeapAutomaton;
+import de.rwth.i2.attestor.refinement.reachability.ReachabilityHeapAutomaton;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LazyGrammarRefinementTest {
+
+    private SceneObject sceneObject;
+    private Nonterminal listLabel;
+    private HeapAutomaton automaton;
+    private Grammar refinedGrammar;
+    private LazyGrammarRefinement lazyRefinement;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        ExampleHcImplFactory hcFactory = new ExampleHcImplFactory(sceneObject);
+        listLabel = sceneObject.scene().createNonterminal("List", 2, new boolean[]{false, true});
+
+        Grammar grammar = Grammar.builder()
+                .addRule(listLabel, hcFactory.getListRule1())
+                .addRule(listLabel, hcFactory.getListRule2())
+                .addRule(listLabel, hcFactory.getListRule3())
+                .build();
+
+        automaton = new ReachabilityHeapAutomaton(sceneObject);
+        refinedGrammar = new GrammarRefinement(grammar, automaton).getRefinedGrammar();
+        lazyRefinement = new LazyGrammarRefinement(grammar, automaton);
+    }
+
+    @Test
+    public void testRefinedNonterminals() {
+
+        assertEquals(refinedGrammar.getAllLeftHandSides(), lazyRefinement.getRefinedNonterminals());
+    }
+
+    @Test
+    public void testRulesComputedOnDemand() {
+
+        LazyGrammar lazyGrammar = new LazyGrammar(lazyRefinement, false);
+        assertTrue(lazyGrammar.getAllLeftHandSides().isEmpty());
+
+        for (Nonterminal lhs : refinedGrammar.getAllLeftHandSides()) {
+            assertEquals(refinedGrammar.getRightHandSidesFor(lhs), lazyGrammar.getRightHandSidesFor(lhs));
+        }
+        assertEquals(refinedGrammar.getAllLeftHandSides(), lazyGrammar.getAllLeftHandSides());
+    }
+
+    @Test
+    public void testApplicableRulesGrowWithEncounteredNonterminals() {
+
+        LazyGrammar lazyGrammar = new LazyGrammar(lazyRefinement, false);
+
+        Grammar terminalRules = lazyGrammar.getRulesApplicableTo(new InternalHeapConfiguration());
+        for (Nonterminal lhs : terminalRules.getAllLeftHandSides()) {
+            for (HeapConfiguration rhs : terminalRules.getRightHandSidesFor(lhs)) {
+                assertEquals(0, rhs.countNonterminalEdges());
+            }
+        }
+
+        Grammar applicableRules = lazyGrammar.getRulesApplicableTo(heapWithAllRefinedNonterminals());
+        assertEquals(refinedGrammar.getAllLeftHandSides(), applicableRules.getAllLeftHandSides());
+        for (Nonterminal lhs : refinedGrammar.getAllLeftHandSides()) {
+            assertEquals(refinedGrammar.getRightHandSidesFor(lhs), applicableRules.getRightHandSidesFor(lhs));
+        }
+    }
+
+    private HeapConfiguration heapWithAllRefinedNonterminals() {
+
+        Set<Nonterminal> refinedNonterminals = new LinkedHashSet<>(refinedGrammar.getAllLeftHandSides());
+        TIntArrayList nodes = new TIntArrayList();
+        HeapConfigurationBuilder builder = new InternalHeapConfiguration().builder()
+                .addNodes(sceneObject.scene().getType("List"), 2 * refinedNonterminals.size(), nodes);
+        int i = 0;
+        for (Nonterminal nt : refinedNonterminals) {
+            builder.addNonterminalEdge(nt, new TIntArrayList(new int[]{nodes.get(i), nodes.get(i + 1)}));
+            i += 2;
+        }
+        return builder.build();
+    }
+}
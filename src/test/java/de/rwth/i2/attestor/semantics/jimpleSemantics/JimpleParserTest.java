@@ -0,0 +1,62 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.phases.symbolicExecution.stateSpaceGenerationImpl.ProgramImpl;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.ReturnVoidStmt;
+import de.rwth.i2.attestor.stateSpaceGeneration.Program;
+import de.rwth.i2.attestor.stateSpaceGeneration.SemanticsCommand;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertSame;
+
+public class JimpleParserTest {
+
+    private SceneObject sceneObject;
+    private JimpleParser parser;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        parser = new JimpleParser(sceneObject, null);
+    }
+
+    @Test
+    public void testGetTranslatedMethod() {
+
+        Program reverse = addMethod("<de.List: de.List reverse(de.List)>");
+        addMethod("<de.List: void reverseInPlace()>");
+        addMethod("<de.Other: de.List reverse(de.List)>");
+
+        assertSame(reverse, parser.getTranslatedMethod("de.List", "reverse"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetMissingMethod() {
+
+        addMethod("<de.List: void reverseInPlace()>");
+        parser.getTranslatedMethod("de.List", "reverse");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetAmbiguousMethod() {
+
+        addMethod("<de.List: void traverse()>");
+        addMethod("<de.List: void traverse(int)>");
+        parser.getTranslatedMethod("de.List", "traverse");
+    }
+
+    private Program addMethod(String signature) {
+
+        List<SemanticsCommand> statements = new ArrayList<>();
+        statements.add(new ReturnVoidStmt(sceneObject));
+        Program program = new ProgramImpl(statements);
+        sceneObject.scene().getOrCreateMethod(signature).setBody(program);
+        return program;
+    }
+}
@@ -37,4 +37,8 @@ public class ProcedureRegistryStub implements ProcedureRegistry {
 	public void registerStateSpace(ProcedureCall call, StateSpace generatedStateSpace) {
 	}
 
+	@Override
+	public void registerExecutionTime(ProcedureCall call, long elapsedNanos) {
+	}
+
 }
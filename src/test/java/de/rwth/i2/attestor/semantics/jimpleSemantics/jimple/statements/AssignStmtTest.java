@@ -6,8 +6,10 @@ import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
 import de.rwth.i2.attestor.main.scene.SceneObject;
 import de.rwth.i2.attestor.programState.defaultState.DefaultProgramState;
+import de.rwth.i2.attestor.semantics.ErrorStatement;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Field;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NullConstant;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.SettableValue;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Value;
 import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
@@ -90,4 +92,28 @@ public class AssignStmtTest {
             }
     }
 
+    @Test
+    public void testNullPointerDereference() {
+
+        HeapConfiguration testGraph = hcFactory.getListAndConstants();
+        ProgramState input = sceneObject.scene().createProgramState(testGraph);
+        input.prepareHeap();
+        HeapConfiguration inputHeap = input.getHeap().clone();
+
+        SelectorLabel next = sceneObject.scene().getSelectorLabel("next");
+        Type type = sceneObject.scene().getType("node");
+
+        SettableValue lhs = new Local(type, "XYZ");
+        Value rhs = new Field(type, new NullConstant(), next);
+
+        AssignStmt stmt = new AssignStmt(sceneObject, lhs, rhs, 2, new LinkedHashSet<>());
+        Collection<ProgramState> res = stmt.computeSuccessors(input);
+
+        assertEquals(1, res.size());
+        ProgramState resState = res.iterator().next();
+        assertEquals(ErrorStatement.ERROR_LOCATION, resState.getProgramCounter());
+        assertEquals("the error state should keep the heap before the dereference", inputHeap, resState.getHeap());
+        assertEquals("input state changed", inputHeap, input.getHeap());
+    }
+
 }
@@ -6,6 +6,7 @@ import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
 import de.rwth.i2.attestor.main.scene.SceneObject;
 import de.rwth.i2.attestor.programState.defaultState.DefaultProgramState;
+import de.rwth.i2.attestor.semantics.ErrorStatement;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Field;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NullConstant;
@@ -151,4 +152,23 @@ public class IfStmtTest {
             }
     }
 
+    @Test
+    public void testNullPointerDereference() {
+
+        ProgramState testState = sceneObject.scene().createProgramState(testGraph);
+        testState.prepareHeap();
+
+        SelectorLabel next = sceneObject.scene().getSelectorLabel("next");
+        Value leftExpr = new Field(listType, new NullConstant(), next);
+        Value condition = new EqualExpr(leftExpr, new NullConstant());
+
+        Statement stmt = new IfStmt(sceneObject, condition, truePC, falsePC, new LinkedHashSet<>());
+        Collection<ProgramState> res = stmt.computeSuccessors(testState.clone());
+
+        assertEquals("only the error state should be reached", 1, res.size());
+        ProgramState resState = res.iterator().next();
+        assertEquals(ErrorStatement.ERROR_LOCATION, resState.getProgramCounter());
+        assertEquals(testState.getHeap(), resState.getHeap());
+    }
+
 }
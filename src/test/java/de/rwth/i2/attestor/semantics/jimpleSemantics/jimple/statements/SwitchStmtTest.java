@@ -0,0 +1,51 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SwitchStmtTest {
+
+    private SceneObject sceneObject;
+    private ProgramState inputState;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        ExampleHcImplFactory hcFactory = new ExampleHcImplFactory(sceneObject);
+        inputState = sceneObject.scene().createProgramState(hcFactory.getListAndConstants());
+    }
+
+    @Test
+    public void testAllCasesAreSuccessors() {
+
+        SwitchStmt stmt = new SwitchStmt(sceneObject, "i", Arrays.asList(4, 7, 9, 12, 4, 15));
+
+        Set<Integer> expected = new LinkedHashSet<>(Arrays.asList(4, 7, 9, 12, 15));
+        assertEquals(expected, stmt.getSuccessorPCs());
+
+        Collection<ProgramState> res = stmt.computeSuccessors(inputState);
+        assertEquals(5, res.size());
+
+        Set<Integer> pcs = new HashSet<>();
+        for (ProgramState state : res) {
+            pcs.add(state.getProgramCounter());
+            assertSame("switches do not change the heap", inputState.getHeap(), state.getHeap());
+        }
+        assertEquals(expected, pcs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSuccessors() {
+
+        new SwitchStmt(sceneObject, "i", Collections.emptyList());
+    }
+}
@@ -0,0 +1,95 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
+import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.semantics.ErrorStatement;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Field;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NullConstant;
+import de.rwth.i2.attestor.stateSpaceGeneration.ProgramState;
+import de.rwth.i2.attestor.types.Type;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ThrowStmtTest {
+
+    private SceneObject sceneObject;
+    private Local thrown;
+    private ProgramState inputState;
+    private HeapConfiguration inputGraph;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        ExampleHcImplFactory hcFactory = new ExampleHcImplFactory(sceneObject);
+
+        Type type = sceneObject.scene().getType("node");
+        thrown = new Local(type, "y");
+        inputState = sceneObject.scene().createProgramState(hcFactory.getListAndConstants());
+        inputState.prepareHeap();
+        inputGraph = inputState.getHeap();
+    }
+
+    @Test
+    public void testCaughtException() {
+
+        ThrowStmt stmt = new ThrowStmt(sceneObject, thrown, Arrays.asList(3, 5), false);
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList(3, 5)), stmt.getSuccessorPCs());
+        assertFalse(stmt.needsCanonicalization());
+
+        Collection<ProgramState> res = stmt.computeSuccessors(inputState);
+        assertEquals(2, res.size());
+
+        int exceptionNode = inputGraph.variableTargetOf("y");
+        Set<Integer> pcs = new HashSet<>();
+        for (ProgramState state : res) {
+            pcs.add(state.getProgramCounter());
+            assertNotSame(inputGraph, state.getHeap());
+            assertEquals(exceptionNode, state.getHeap().variableTargetOf(ThrowStmt.CAUGHT_EXCEPTION));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(3, 5)), pcs);
+        assertEquals(HeapConfiguration.INVALID_ELEMENT, inputGraph.variableWith(ThrowStmt.CAUGHT_EXCEPTION));
+    }
+
+    @Test
+    public void testUncaughtException() {
+
+        ThrowStmt stmt = new ThrowStmt(sceneObject, thrown, Collections.emptyList(), true);
+
+        assertTrue(stmt.getSuccessorPCs().isEmpty());
+        assertTrue(stmt.needsCanonicalization());
+
+        Collection<ProgramState> res = stmt.computeSuccessors(inputState);
+        assertEquals(1, res.size());
+        ProgramState state = res.iterator().next();
+        assertEquals(-1, state.getProgramCounter());
+        assertEquals("local variables are removed", HeapConfiguration.INVALID_ELEMENT,
+                state.getHeap().variableWith("y"));
+    }
+
+    @Test
+    public void testNullPointerDereference() {
+
+        Type type = sceneObject.scene().getType("node");
+        Field thrownField = new Field(type, new NullConstant(), sceneObject.scene().getSelectorLabel("next"));
+        ThrowStmt stmt = new ThrowStmt(sceneObject, thrownField, Arrays.asList(3, 5), true);
+
+        Collection<ProgramState> res = stmt.computeSuccessors(inputState);
+        assertEquals(1, res.size());
+        assertEquals(ErrorStatement.ERROR_LOCATION, res.iterator().next().getProgramCounter());
+    }
+
+    @Test
+    public void testToString() {
+
+        assertEquals("throw y;", new ThrowStmt(sceneObject, thrown, Collections.emptyList(), true).toString());
+    }
+}
@@ -0,0 +1,292 @@
+package de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values;
+
+import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPoints;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
+import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
+import de.rwth.i2.attestor.main.scene.SceneObject;
+import de.rwth.i2.attestor.phases.symbolicExecution.stateSpaceGenerationImpl.InternalStateSpace;
+import de.rwth.i2.attestor.phases.symbolicExecution.stateSpaceGenerationImpl.ProgramImpl;
+import de.rwth.i2.attestor.phases.symbolicExecution.utilStrategies.*;
+import de.rwth.i2.attestor.refinement.garbageCollection.GarbageCollector;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.mockupImpls.MockupAbortStrategy;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.mockupImpls.MockupMaterializationStrategy;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.mockupImpls.MockupStateCanonicalizationStrategy;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.mockupImpls.MockupStateLabellingStrategy;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.AssignStmt;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.GotoStmt;
+import de.rwth.i2.attestor.semantics.util.Constants;
+import de.rwth.i2.attestor.stateSpaceGeneration.*;
+import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ArrayElementTest {
+
+    private SceneObject sceneObject;
+
+    private Type arrayType;
+    private Type elementType;
+    private SelectorLabel first;
+    private SelectorLabel second;
+    private Type cellType;
+    private ArraySummary summary;
+
+    private ProgramState programState;
+    private Local array;
+
+    @Before
+    public void setUp() {
+
+        sceneObject = new MockupSceneObject();
+        ExampleHcImplFactory hcImplFactory = new ExampleHcImplFactory(sceneObject);
+
+        arrayType = sceneObject.scene().getType("ArrayElementTestNode[]");
+        elementType = sceneObject.scene().getType("ArrayElementTestNode");
+        first = sceneObject.scene().getSelectorLabel(ArrayElement.getElementLabel(0));
+        second = sceneObject.scene().getSelectorLabel(ArrayElement.getElementLabel(1));
+        arrayType.addOptionalSelectorLabel(first, Constants.NULL);
+        arrayType.addOptionalSelectorLabel(second, Constants.NULL);
+
+        SelectorLabel summaryLabel = sceneObject.scene().getSelectorLabel(ArraySummary.SUMMARY_LABEL);
+        SelectorLabel valueLabel = sceneObject.scene().getSelectorLabel(ArraySummary.VALUE_LABEL);
+        SelectorLabel nextLabel = sceneObject.scene().getSelectorLabel(ArraySummary.NEXT_LABEL);
+        cellType = sceneObject.scene().getType(ArraySummary.CELL_TYPE);
+        arrayType.addOptionalSelectorLabel(summaryLabel, Constants.NULL);
+        cellType.addOptionalSelectorLabel(valueLabel, Constants.NULL);
+        cellType.addOptionalSelectorLabel(nextLabel, Constants.NULL);
+        summary = new ArraySummary(cellType, summaryLabel, valueLabel, nextLabel);
+
+        programState = sceneObject.scene().createProgramState(hcImplFactory.getEmptyGraphWithConstants());
+        array = new Local(arrayType, "array");
+    }
+
+    @Test
+    public void testNewArrayInitializesTrackedElements() throws NullPointerDereferenceException {
+
+        ConcreteValue created = new NewArrayExpr(arrayType, new IntConstant(2)).evaluateOn(programState);
+        array.setValue(programState, created);
+
+        ConcreteValue nullValue = programState.getConstant(Constants.NULL);
+        assertEquals(nullValue, new Field(elementType, array, first).evaluateOn(programState));
+        assertEquals(nullValue, new Field(elementType, array, second).evaluateOn(programState));
+    }
+
+    @Test
+    public void testReadWithUnknownIndexOfNewArray() throws NullPointerDereferenceException {
+
+        array.setValue(programState, new NewArrayExpr(arrayType, new IntConstant(2)).evaluateOn(programState));
+
+        ArrayElement element = createElement();
+        List<ConcreteValue> values = element.evaluateAlternativesOn(programState);
+
+        assertEquals(1, values.size());
+        assertEquals(programState.getConstant(Constants.NULL), values.get(0));
+        assertEquals(programState.getConstant(Constants.NULL), element.evaluateOn(programState));
+    }
+
+    @Test
+    public void testWriteWithUnknownIndex() throws NullPointerDereferenceException {
+
+        array.setValue(programState, new NewArrayExpr(arrayType, new IntConstant(2)).evaluateOn(programState));
+        ConcreteValue written = programState.insertNewElement(elementType);
+        programState.setVariable("written", written);
+
+        ArrayElement element = createElement();
+        List<ProgramState> results = element.setValueAlternatives(programState, written);
+
+        assertEquals(3, results.size());
+        ConcreteValue nullValue = programState.getConstant(Constants.NULL);
+
+        ProgramState firstWritten = results.get(0);
+        assertEquals(written, new Field(elementType, array, first).evaluateOn(firstWritten));
+        assertEquals(nullValue, new Field(elementType, array, second).evaluateOn(firstWritten));
+
+        ProgramState secondWritten = results.get(1);
+        assertEquals(nullValue, new Field(elementType, array, first).evaluateOn(secondWritten));
+        assertEquals(written, new Field(elementType, array, second).evaluateOn(secondWritten));
+
+        ProgramState summarized = results.get(2);
+        assertEquals(nullValue, new Field(elementType, array, first).evaluateOn(summarized));
+        assertEquals(nullValue, new Field(elementType, array, second).evaluateOn(summarized));
+        List<ConcreteValue> values = element.evaluateAlternativesOn(summarized);
+        assertEquals(2, values.size());
+        assertTrue(contains(values, written));
+        assertTrue(contains(values, nullValue));
+    }
+
+    @Test
+    public void testSingleStateWriteMovesTrackedElementsToSummary() throws NullPointerDereferenceException {
+
+        array.setValue(programState, new NewArrayExpr(arrayType, new IntConstant(2)).evaluateOn(programState));
+        ConcreteValue tracked = programState.insertNewElement(elementType);
+        new Field(elementType, array, first).setValue(programState, tracked);
+        ConcreteValue written = programState.insertNewElement(elementType);
+
+        ArrayElement element = createElement();
+        element.setValue(programState, written);
+
+        assertTrue(new Field(elementType, array, first).evaluateOn(programState).isUndefined());
+        assertTrue(new Field(elementType, array, second).evaluateOn(programState).isUndefined());
+
+        // written has the same type as tracked and is thus summarized as an unknown value
+        List<ConcreteValue> values = element.evaluateAlternativesOn(programState);
+        assertTrue(contains(values, tracked));
+        assertFalse(contains(values, written));
+        assertTrue(contains(values, programState.getConstant(Constants.NULL)));
+        assertTrue(contains(values, programState.getUndefined()));
+    }
+
+    @Test
+    public void testRepeatedWritesDoNotGrowSummary() throws NullPointerDereferenceException {
+
+        array.setValue(programState, new NewArrayExpr(arrayType, new IntConstant(2)).evaluateOn(programState));
+        ConcreteValue created = array.evaluateOn(programState);
+        ConcreteValue written = programState.insertNewElement(elementType);
+
+        summary.add(programState, created, written);
+        summary.add(programState, created, written);
+        assertEquals(1, countCells());
+
+        summary.add(programState, created, programState.getUndefined());
+        summary.add(programState, created, programState.getUndefined());
+        assertEquals(2, countCells());
+
+        // further objects of the same type are covered by the unknown value
+        summary.add(programState, created, programState.insertNewElement(elementType));
+        assertEquals(2, countCells());
+    }
+
+    @Test
+    public void testWritesInLoopReachFixpoint() {
+
+        Type loopArrayType = sceneObject.scene().getType("ArrayElementTestLoopNode[]");
+        loopArrayType.addOptionalSelectorLabel(summary.getSummaryLabel(), Constants.NULL);
+        Local loopArray = new Local(loopArrayType, "a");
+        Local tmp = new Local(elementType, "tmp");
+        ArrayElement element = new ArrayElement(elementType, loopArray,
+                new Local(sceneObject.scene().getType("int"), "i"), summary);
+
+        // a = new ArrayElementTestLoopNode[2]; while(true) { tmp = new ArrayElementTestNode(); a[i] = tmp; }
+        List<SemanticsCommand> programInstructions = new ArrayList<>();
+        programInstructions.add(new AssignStmt(sceneObject, loopArray,
+                new NewArrayExpr(loopArrayType, new IntConstant(2)), 1, Collections.singleton("a")));
+        programInstructions.add(new AssignStmt(sceneObject, tmp, new NewExpr(elementType), 2,
+                new LinkedHashSet<>(Arrays.asList("a", "tmp"))));
+        programInstructions.add(new AssignStmt(sceneObject, element, tmp, 3, Collections.singleton("a")));
+        programInstructions.add(new GotoStmt(sceneObject, 1));
+
+        StateSpace stateSpace = null;
+        try {
+            stateSpace = StateSpaceGenerator.builder()
+                    .setProgram(new ProgramImpl(programInstructions))
+                    .addInitialState(programState)
+                    .setStateLabelingStrategy(new MockupStateLabellingStrategy())
+                    .setAbortStrategy(new MockupAbortStrategy())
+                    .setCanonizationStrategy(new MockupStateCanonicalizationStrategy())
+                    .setStateRectificationStrategy(new NoRectificationStrategy())
+                    .setMaterializationStrategy(new MockupMaterializationStrategy())
+                    .setStateRefinementStrategy(new GarbageCollector())
+                    .setStateCounter(s -> {
+                    })
+                    .setStateExplorationStrategy(new DepthFirstStateExplorationStrategy())
+                    .setStateSpaceSupplier(() -> new InternalStateSpace(100))
+                    .setPostProcessingStrategy(new NoPostProcessingStrategy())
+                    .setFinalStateStrategy(new TerminalStatementFinalStateStrategy())
+                    .build()
+                    .generate();
+        } catch (StateSpaceGenerationAbortedException e) {
+            fail("Writes to unknown indices in a loop did not reach a fixpoint");
+        }
+
+        for (ProgramState state : stateSpace.getStates()) {
+            assertTrue(countCells(state) <= 2);
+        }
+    }
+
+    @Test
+    public void testReadValueOfSegment() throws NullPointerDereferenceException {
+
+        ConcreteValue created = new NewArrayExpr(arrayType, new IntConstant(2)).evaluateOn(programState);
+        array.setValue(programState, created);
+        ConcreteValue value = programState.insertNewElement(elementType);
+        ConcreteValue cell = programState.insertNewElement(cellType);
+        programState.setSelector(created, summary.getSummaryLabel(), cell);
+
+        Nonterminal segment = sceneObject.scene()
+                .createNonterminal(ArraySummary.SEGMENT_NONTERMINAL, 3, new boolean[]{false, false, false});
+        TIntArrayList tentacles = new TIntArrayList();
+        tentacles.add(((GeneralConcreteValue) cell).getNode());
+        tentacles.add(((GeneralConcreteValue) programState.getConstant(Constants.NULL)).getNode());
+        tentacles.add(((GeneralConcreteValue) value).getNode());
+        programState.getHeap().builder().addNonterminalEdge(segment, tentacles).build();
+
+        List<ConcreteValue> values = createElement().evaluateAlternativesOn(programState);
+
+        assertEquals(2, values.size());
+        assertTrue(contains(values, value));
+        assertTrue(contains(values, programState.getConstant(Constants.NULL)));
+    }
+
+    @Test
+    public void testViolationPointsContainTrackedElementsAndSummary() {
+
+        ViolationPoints violationPoints = createElement().getPotentialViolationPoints();
+
+        assertTrue(violationPoints.getSelectorsOf("array").contains(first.getLabel()));
+        assertTrue(violationPoints.getSelectorsOf("array").contains(second.getLabel()));
+        assertTrue(violationPoints.getSelectorsOf("array").contains(ArraySummary.SUMMARY_LABEL));
+    }
+
+    @Test(expected = NullPointerDereferenceException.class)
+    public void testAccessToNullArray() throws NullPointerDereferenceException {
+
+        array.setValue(programState, programState.getConstant(Constants.NULL));
+        createElement().evaluateOn(programState);
+    }
+
+    @Test(expected = NullPointerDereferenceException.class)
+    public void testLengthOfNullArray() throws NullPointerDereferenceException {
+
+        array.setValue(programState, programState.getConstant(Constants.NULL));
+        new ArrayLength(sceneObject.scene().getType("int"), array).evaluateOn(programState);
+    }
+
+    private ArrayElement createElement() {
+
+        return new ArrayElement(elementType, array, new Local(sceneObject.scene().getType("int"), "i"), summary);
+    }
+
+    private int countCells() {
+
+        return countCells(programState);
+    }
+
+    private int countCells(ProgramState state) {
+
+        int result = 0;
+        TIntArrayList nodes = state.getHeap().nodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (state.getHeap().nodeTypeOf(nodes.get(i)).equals(cellType)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static boolean contains(List<ConcreteValue> values, ConcreteValue value) {
+
+        for (ConcreteValue v : values) {
+            if (v.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
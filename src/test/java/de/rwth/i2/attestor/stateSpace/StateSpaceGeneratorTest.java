@@ -1,6 +1,15 @@
 package de.rwth.i2.attestor.stateSpace;
 
 import de.rwth.i2.attestor.MockupSceneObject;
+import de.rwth.i2.attestor.grammar.Grammar;
+import de.rwth.i2.attestor.grammar.materialization.communication.DefaultGrammarResponseApplier;
+import de.rwth.i2.attestor.grammar.materialization.defaultGrammar.DefaultMaterializationRuleManager;
+import de.rwth.i2.attestor.grammar.materialization.strategies.GeneralMaterializationStrategy;
+import de.rwth.i2.attestor.grammar.materialization.strategies.MaterializationStrategy;
+import de.rwth.i2.attestor.grammar.materialization.util.GraphMaterializer;
+import de.rwth.i2.attestor.grammar.materialization.util.ViolationPointResolver;
+import de.rwth.i2.attestor.graph.Nonterminal;
+import de.rwth.i2.attestor.graph.SelectorLabel;
 import de.rwth.i2.attestor.graph.heap.HeapConfiguration;
 import de.rwth.i2.attestor.graph.heap.internal.ExampleHcImplFactory;
 import de.rwth.i2.attestor.main.scene.SceneObject;
@@ -13,15 +22,20 @@ import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.mockupImpls.MockupMa
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.mockupImpls.MockupStateCanonicalizationStrategy;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.mockupImpls.MockupStateLabellingStrategy;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.statements.*;
+import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Field;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.IntConstant;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.Local;
 import de.rwth.i2.attestor.semantics.jimpleSemantics.jimple.values.NewExpr;
+import de.rwth.i2.attestor.semantics.util.Constants;
 import de.rwth.i2.attestor.stateSpaceGeneration.*;
 import de.rwth.i2.attestor.types.Type;
+import gnu.trove.list.array.TIntArrayList;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 
@@ -204,4 +218,154 @@ public class StateSpaceGeneratorTest {
             }
         }
     }
+
+    @Test
+    public void testLargeBlockEncoding() {
+
+        HeapConfiguration initialGraph = hcFactory.getEmptyGraphWithConstants();
+
+        List<SemanticsCommand> programInstructions = new ArrayList<>();
+        programInstructions.add(new Skip(sceneObject, 1));
+        programInstructions.add(new GotoStmt(sceneObject, 2));
+        programInstructions.add(new Skip(sceneObject, 3));
+        programInstructions.add(new ReturnVoidStmt(sceneObject));
+        ProgramImpl mainProgram = new ProgramImpl(programInstructions);
+
+        ProgramState initialState = new DefaultProgramState(initialGraph);
+        StateSpace res = null;
+        try {
+            res = stateSpaceGeneratorBuilder
+                    .setProgram(mainProgram)
+                    .addInitialState(initialState)
+                    .setLargeBlockEncoding(true)
+                    .build()
+                    .generate();
+        } catch (StateSpaceGenerationAbortedException e) {
+            fail("State space generation aborted");
+        }
+
+        assertEquals(3, res.getStates().size());
+        assertEquals(1, res.getFinalStates().size());
+        assertEquals(initialGraph, res.getFinalStates().iterator().next().getHeap());
+
+        for (ProgramState state : res.getStates()) {
+            int pc = state.getProgramCounter();
+            assertTrue("Unexpected state with PC " + pc, pc == 0 || pc == 3 || pc == -1);
+        }
+    }
+
+    @Test
+    public void testLargeBlockEncodingKeepsLabeledStates() {
+
+        HeapConfiguration initialGraph = hcFactory.getEmptyGraphWithConstants();
+
+        List<SemanticsCommand> programInstructions = new ArrayList<>();
+        programInstructions.add(new Skip(sceneObject, 1));
+        programInstructions.add(new GotoStmt(sceneObject, 2));
+        programInstructions.add(new Skip(sceneObject, 3));
+        programInstructions.add(new ReturnVoidStmt(sceneObject));
+        ProgramImpl mainProgram = new ProgramImpl(programInstructions);
+
+        ProgramState initialState = new DefaultProgramState(initialGraph);
+        StateSpace res = null;
+        try {
+            res = stateSpaceGeneratorBuilder
+                    .setProgram(mainProgram)
+                    .addInitialState(initialState)
+                    .setStateLabelingStrategy(state -> {
+                        if (state.getProgramCounter() == 2) {
+                            state.addAP("{ reached }");
+                        }
+                    })
+                    .setLargeBlockEncoding(true)
+                    .build()
+                    .generate();
+        } catch (StateSpaceGenerationAbortedException e) {
+            fail("State space generation aborted");
+        }
+
+        assertEquals(4, res.getStates().size());
+        for (ProgramState state : res.getStates()) {
+            int pc = state.getProgramCounter();
+            assertTrue("Unexpected state with PC " + pc, pc == 0 || pc == 2 || pc == 3 || pc == -1);
+        }
+    }
+
+    @Test
+    public void testIsomorphicMaterializationResultsDoNotEnlargeStateSpace() {
+
+        Type type = sceneObject.scene().getType("node");
+        SelectorLabel next = sceneObject.scene().getSelectorLabel("next");
+        SelectorLabel prev = sceneObject.scene().getSelectorLabel("prev");
+        type.addSelectorLabel(next, Constants.NULL);
+        type.addSelectorLabel(prev, Constants.NULL);
+        Nonterminal nonterminal = sceneObject.scene().createNonterminal("Dedup", 2, new boolean[]{false, false});
+
+        // both rules yield isomorphic heaps if both tentacles are attached to the same node
+        Grammar grammar = Grammar.builder()
+                .addRule(nonterminal, hcFactory.getRuleIsomorphicAfterGluingExternals(false))
+                .addRule(nonterminal, hcFactory.getRuleIsomorphicAfterGluingExternals(true))
+                .build();
+
+        MaterializationStrategy deduplicating = new GeneralMaterializationStrategy(
+                new DefaultMaterializationRuleManager(new ViolationPointResolver(grammar)),
+                new DefaultGrammarResponseApplier(new GraphMaterializer())
+        );
+
+        MaterializationStrategy applyingAllRules = (heap, violationPoints) -> {
+            if (heap.countNonterminalEdges() == 0) {
+                return Collections.emptyList();
+            }
+            int ntEdge = heap.nonterminalEdges().get(0);
+            List<HeapConfiguration> result = new ArrayList<>();
+            for (HeapConfiguration rhs : grammar.getRightHandSidesFor(nonterminal)) {
+                result.add(new GraphMaterializer().getMaterializedCloneWith(heap, ntEdge, rhs));
+            }
+            return result;
+        };
+
+        HeapConfiguration initialGraph = hcFactory.getEmptyGraphWithConstants();
+        TIntArrayList nodes = new TIntArrayList();
+        initialGraph.builder()
+                .addNodes(type, 1, nodes)
+                .addVariableEdge("x", nodes.get(0))
+                .addNonterminalEdge(nonterminal, new TIntArrayList(new int[]{nodes.get(0), nodes.get(0)}))
+                .build();
+
+        StateSpace withoutDeduplication = generateFieldAccess(type, next, initialGraph, applyingAllRules);
+        StateSpace withDeduplication = generateFieldAccess(type, next, initialGraph, deduplicating);
+
+        ProgramState initialWithout = withoutDeduplication.getInitialStates().iterator().next();
+        ProgramState initialWith = withDeduplication.getInitialStates().iterator().next();
+        assertEquals(2, withoutDeduplication.getMaterializationSuccessorsOf(initialWithout).size());
+        assertEquals(1, withDeduplication.getMaterializationSuccessorsOf(initialWith).size());
+
+        assertTrue(withDeduplication.getStates().size() < withoutDeduplication.getStates().size());
+        assertEquals(withoutDeduplication.getFinalStates().size(), withDeduplication.getFinalStates().size());
+    }
+
+    /**
+     * Generates the state space of y = x.next; return; with the given materialization strategy.
+     */
+    private StateSpace generateFieldAccess(Type type, SelectorLabel next, HeapConfiguration initialGraph,
+                                           MaterializationStrategy materializationStrategy) {
+
+        List<SemanticsCommand> programInstructions = new ArrayList<>();
+        programInstructions.add(new AssignStmt(sceneObject, new Local(type, "y"),
+                new Field(type, new Local(type, "x"), next), 1, new LinkedHashSet<>()));
+        programInstructions.add(new ReturnVoidStmt(sceneObject));
+        ProgramImpl mainProgram = new ProgramImpl(programInstructions);
+
+        try {
+            return stateSpaceGeneratorBuilder
+                    .setProgram(mainProgram)
+                    .addInitialState(new DefaultProgramState(initialGraph.clone()))
+                    .setMaterializationStrategy(materializationStrategy)
+                    .build()
+                    .generate();
+        } catch (StateSpaceGenerationAbortedException e) {
+            fail("State space generation aborted");
+            return null;
+        }
+    }
 }